@@ -0,0 +1,289 @@
+package benchmarks;
+
+import backend.Logic;
+import backend.RepoIO;
+import backend.UIManager;
+import backend.UpdateController;
+import backend.interfaces.IModel;
+import backend.resource.Model;
+import backend.resource.MultiModel;
+import backend.resource.TurboIssue;
+import backend.resource.TurboLabel;
+import backend.resource.TurboMilestone;
+import backend.resource.TurboUser;
+import filter.MultiFilterEvaluator;
+import filter.Parser;
+import filter.expression.FilterExpression;
+import filter.expression.Qualifier;
+import org.apache.logging.log4j.Logger;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import prefs.Preferences;
+import tests.TestUtils;
+import ui.GuiElement;
+import ui.TestController;
+import ui.UI;
+import ui.components.StatusUIStub;
+import util.HTLog;
+import util.events.EventDispatcherStub;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures how long it takes to process a typical set of panel filters over a large repository.
+ * <p>
+ * Run with the benchmarks task rather than as part of the tests.
+ */
+public class FilterBenchmarkTests {
+
+    private static final Logger logger = HTLog.get(FilterBenchmarkTests.class);
+
+    private static final String REPO = "benchmark/benchmark";
+    private static final int ISSUE_COUNT = 10000;
+    private static final int LABEL_COUNT = 300;
+    private static final int RUNS = 5;
+
+    private static final List<String> FILTERS = Arrays.asList(
+            "is:open",
+            "label:group1",
+            "label:group2.label12 || label:group3.label13",
+            "milestone:V0.3 assignee:user5",
+            "-label:group4 sort:!updated",
+            "issue count:100");
+
+    // A board whose panels have qualifiers in common, as boards usually do
+    private static final List<String> BOARD_FILTERS = Arrays.asList(
+            "is:open label:group1",
+            "is:open label:group2",
+            "is:open label:group1 milestone:V0.3",
+            "is:open label:group2 milestone:V0.3",
+            "is:open assignee:user5",
+            "is:open -label:group1 -label:group2",
+            "is:closed milestone:V0.3",
+            "is:open label:group1 || is:open label:group2");
+
+    @BeforeClass
+    public static void setup() {
+        UI.events = new EventDispatcherStub();
+        UI.status = new StatusUIStub();
+    }
+
+    /**
+     * Compares processing filters over a model with indexed lookups against the same model looking
+     * issues, labels, milestones and users up by scanning copies of its lists, as it did previously.
+     */
+    @Test
+    public void benchmarkProcessFilters() {
+        Model model = TestUtils.createLargeModel(REPO, ISSUE_COUNT, LABEL_COUNT, 20, 50);
+        List<FilterExpression> filterExprs = FILTERS.stream().map(Parser::parse).collect(Collectors.toList());
+
+        UpdateController indexed = createUpdateController(model);
+        UpdateController linear = createUpdateController(new LinearScanModel(model));
+        assertSameResults(linear.processFilters(filterExprs), indexed.processFilters(filterExprs));
+
+        long linearNanos = timeProcessFilters(linear, filterExprs);
+        long indexedNanos = timeProcessFilters(indexed, filterExprs);
+
+        logger.info(String.format("Processing %d filters over %d issues, %d labels: linear scan %.2f ms, "
+                                          + "indexed %.2f ms",
+                                  FILTERS.size(), ISSUE_COUNT, LABEL_COUNT,
+                                  linearNanos / 1e6 / RUNS, indexedNanos / 1e6 / RUNS));
+    }
+
+    /**
+     * Compares testing every issue against each filter with the interpreter against compiling
+     * each filter once and testing every issue against the compiled predicate.
+     */
+    @Test
+    public void benchmarkCompiledFilters() {
+        Model model = TestUtils.createLargeModel(REPO, ISSUE_COUNT, LABEL_COUNT, 20, 50);
+        IModel models = TestUtils.singletonModel(model);
+        List<FilterExpression> filterExprs = FILTERS.stream().map(Parser::parse).collect(Collectors.toList());
+
+        long interpretedNanos = 0;
+        long compiledNanos = 0;
+        for (int i = 0; i < RUNS; i++) {
+            for (FilterExpression filterExpr : filterExprs) {
+                long start = System.nanoTime();
+                long interpreted = model.getIssues().stream()
+                        .filter(issue -> Qualifier.process(models, filterExpr, issue))
+                        .count();
+                interpretedNanos += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                long compiled = model.getIssues().stream()
+                        .filter(Qualifier.compile(models, filterExpr))
+                        .count();
+                compiledNanos += System.nanoTime() - start;
+
+                assertEquals(interpreted, compiled);
+            }
+        }
+
+        logger.info(String.format("Testing %d issues against %d filters: interpreted %.2f ms, compiled %.2f ms",
+                                  ISSUE_COUNT, FILTERS.size(),
+                                  interpretedNanos / 1e6 / RUNS, compiledNanos / 1e6 / RUNS));
+    }
+
+    /**
+     * Compares testing every issue against each panel's compiled filter against evaluating all
+     * panels' filters together, testing each distinct qualifier once and combining the results.
+     */
+    @Test
+    public void benchmarkSharedEvaluation() {
+        Model model = TestUtils.createLargeModel(REPO, ISSUE_COUNT, LABEL_COUNT, 20, 50);
+        IModel models = TestUtils.singletonModel(model);
+        List<FilterExpression> filterExprs = BOARD_FILTERS.stream()
+                .map(Parser::parse)
+                .collect(Collectors.toList());
+
+        long compiledNanos = 0;
+        long sharedNanos = 0;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            List<List<TurboIssue>> compiled = filterExprs.stream()
+                    .map(filterExpr -> model.getIssues().stream()
+                            .filter(Qualifier.compile(models, filterExpr))
+                            .collect(Collectors.toList()))
+                    .collect(Collectors.toList());
+            compiledNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            MultiFilterEvaluator evaluator = new MultiFilterEvaluator(models, model.getIssues());
+            List<List<TurboIssue>> shared = filterExprs.stream()
+                    .map(evaluator::filter)
+                    .collect(Collectors.toList());
+            sharedNanos += System.nanoTime() - start;
+
+            assertEquals(compiled, shared);
+        }
+
+        logger.info(String.format("Evaluating %d panels over %d issues: separately %.2f ms, shared %.2f ms",
+                                  BOARD_FILTERS.size(), ISSUE_COUNT,
+                                  compiledNanos / 1e6 / RUNS, sharedNanos / 1e6 / RUNS));
+    }
+
+    /**
+     * Compares processing all filters in full after a single label change against processing them
+     * incrementally, re-testing only the changed issue.
+     */
+    @Test
+    public void benchmarkIncrementalRefresh() {
+        MultiModel models = createMultiModel(TestUtils.createLargeModel(REPO, ISSUE_COUNT, LABEL_COUNT, 20, 50));
+        UpdateController updateController = createUpdateController(models);
+        List<FilterExpression> filterExprs = FILTERS.stream().map(Parser::parse).collect(Collectors.toList());
+        updateController.processFilterChanges(filterExprs);
+
+        long fullNanos = 0;
+        long incrementalNanos = 0;
+        for (int i = 0; i < RUNS; i++) {
+            models.replaceIssueLabels(REPO, i + 1, Arrays.asList("group" + i + ".label" + i));
+            long start = System.nanoTime();
+            Map<FilterExpression, List<GuiElement>> incremental = updateController.processFilterChanges(filterExprs);
+            incrementalNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Map<FilterExpression, List<GuiElement>> full = updateController.processFilters(filterExprs);
+            fullNanos += System.nanoTime() - start;
+
+            assertSameResults(full, incremental);
+        }
+
+        logger.info(String.format("Refreshing %d filters over %d issues after a label change: "
+                                          + "full %.2f ms, incremental %.2f ms",
+                                  FILTERS.size(), ISSUE_COUNT, fullNanos / 1e6 / RUNS, incrementalNanos / 1e6 / RUNS));
+    }
+
+    private static long timeProcessFilters(UpdateController updateController, List<FilterExpression> filterExprs) {
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            updateController.processFilters(filterExprs);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void assertSameResults(Map<FilterExpression, List<GuiElement>> expected,
+                                          Map<FilterExpression, List<GuiElement>> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((filterExpr, elements) -> {
+            assertEquals(elements.size(), actual.get(filterExpr).size());
+            for (int i = 0; i < elements.size(); i++) {
+                GuiElement expectedElement = elements.get(i);
+                GuiElement actualElement = actual.get(filterExpr).get(i);
+                assertEquals(expectedElement.getIssue(), actualElement.getIssue());
+                assertEquals(expectedElement.getLabels(), actualElement.getLabels());
+                assertEquals(expectedElement.getMilestone(), actualElement.getMilestone());
+                assertEquals(expectedElement.getAssignee(), actualElement.getAssignee());
+                assertEquals(expectedElement.getAuthor(), actualElement.getAuthor());
+            }
+        });
+    }
+
+    private static UpdateController createUpdateController(Model model) {
+        return createUpdateController(createMultiModel(model));
+    }
+
+    private static UpdateController createUpdateController(MultiModel models) {
+        Preferences prefs = TestController.createTestPreferences();
+        Logic logic = new Logic(mock(UIManager.class), prefs, Optional.of(mock(RepoIO.class)), Optional.of(models));
+        return logic.updateController;
+    }
+
+    private static MultiModel createMultiModel(Model model) {
+        MultiModel models = new MultiModel(TestController.createTestPreferences());
+        models.queuePendingRepository(model.getRepoId());
+        models.addPending(model);
+        models.setDefaultRepo(model.getRepoId());
+        return models;
+    }
+
+    /**
+     * A model that looks resources up by scanning copies of its lists.
+     */
+    private static class LinearScanModel extends Model {
+
+        LinearScanModel(Model model) {
+            super(model);
+        }
+
+        @Override
+        public Optional<TurboIssue> getIssueById(int issueId) {
+            return getIssues().stream().filter(issue -> issue.getId() == issueId).findFirst();
+        }
+
+        @Override
+        public Optional<TurboLabel> getLabelByActualName(String labelName) {
+            return getLabels().stream().filter(label -> label.getFullName().equals(labelName)).findFirst();
+        }
+
+        @Override
+        public Optional<TurboUser> getUserByLogin(String login) {
+            return getUsers().stream().filter(user -> user.getLoginName().equals(login)).findFirst();
+        }
+
+        @Override
+        public Optional<TurboMilestone> getMilestoneByTitle(String title) {
+            return getMilestones().stream().filter(milestone -> milestone.getTitle().equals(title)).findFirst();
+        }
+
+        @Override
+        public Optional<TurboMilestone> getMilestoneById(int id) {
+            return getMilestones().stream().filter(milestone -> milestone.getId() == id).findFirst();
+        }
+
+        @Override
+        public List<TurboLabel> getLabelsOfIssue(TurboIssue issue) {
+            return issue.getLabels().stream()
+                    .map(this::getLabelByActualName)
+                    .filter(Optional::isPresent).map(Optional::get)
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package benchmarks;
+
+import backend.resource.TurboIssue;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.egit.github.core.PullRequest;
+import org.junit.Test;
+import tests.TestUtils;
+import util.HTLog;
+import util.Utility;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares reconciling a large repository with a large update, and combining its issues with
+ * pull requests, against doing so by scanning the issues for each changed issue or pull request,
+ * as was done previously.
+ * <p>
+ * Run with the benchmarks task rather than as part of the tests.
+ */
+public class ReconcileBenchmarkTests {
+
+    private static final Logger logger = HTLog.get(ReconcileBenchmarkTests.class);
+
+    private static final String REPO = "benchmark/benchmark";
+    private static final int ISSUE_COUNT = 20000;
+    private static final int CHANGED_ISSUE_COUNT = 5000;
+    private static final int PULL_REQUEST_COUNT = 5000;
+
+    @Test
+    public void benchmarkReconcile() {
+        List<TurboIssue> existing = TestUtils.createLargeModel(REPO, ISSUE_COUNT, 30, 5, 10).getIssues();
+
+        // Every fourth issue is updated, and the rest of the update is new issues
+        LocalDateTime updatedAt = LocalDateTime.of(2016, 1, 1, 0, 0);
+        List<TurboIssue> changed = new ArrayList<>();
+        for (int i = 0; i < CHANGED_ISSUE_COUNT; i++) {
+            int id = i < CHANGED_ISSUE_COUNT / 2 ? ISSUE_COUNT - i * 4 : ISSUE_COUNT + i;
+            changed.add(new TurboIssue(REPO, id, "Updated issue " + id, "user1", updatedAt, false));
+        }
+
+        List<PullRequest> pullRequests = new ArrayList<>();
+        for (int i = 1; i <= PULL_REQUEST_COUNT; i++) {
+            PullRequest pullRequest = new PullRequest();
+            pullRequest.setNumber(i * 3);
+            pullRequest.setUpdatedAt(Utility.localDateTimeToDate(updatedAt.plusMinutes(i)));
+            pullRequests.add(pullRequest);
+        }
+
+        long start = System.nanoTime();
+        List<TurboIssue> linear = linearCombineWithPullRequests(linearReconcile(existing, changed), pullRequests);
+        long linearNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<TurboIssue> indexed = TurboIssue.combineWithPullRequests(TurboIssue.reconcile(existing, changed),
+                                                                      pullRequests);
+        long indexedNanos = System.nanoTime() - start;
+
+        assertEquals(linear, indexed);
+        logger.info(String.format("Reconciling %d issues with %d changed issues and %d pull requests: "
+                                          + "linear scan %.2f ms, indexed %.2f ms",
+                                  ISSUE_COUNT, CHANGED_ISSUE_COUNT, PULL_REQUEST_COUNT,
+                                  linearNanos / 1e6, indexedNanos / 1e6));
+    }
+
+    /**
+     * Reconciles one changed issue at a time, so that the existing issues are copied and scanned for each.
+     */
+    private static List<TurboIssue> linearReconcile(List<TurboIssue> existing, List<TurboIssue> changed) {
+        List<TurboIssue> result = existing;
+        for (TurboIssue issue : changed) {
+            result = TurboIssue.reconcile(result, Collections.singletonList(issue));
+        }
+        return result;
+    }
+
+    /**
+     * Combines one pull request at a time, so that the issues are copied and scanned for each.
+     */
+    private static List<TurboIssue> linearCombineWithPullRequests(List<TurboIssue> issues,
+                                                                  List<PullRequest> pullRequests) {
+        List<TurboIssue> result = issues;
+        for (PullRequest pullRequest : pullRequests) {
+            result = TurboIssue.combineWithPullRequests(result, Collections.singletonList(pullRequest));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,157 @@
+package benchmarks;
+
+import backend.interfaces.RepoStore;
+import backend.json.JSONStore;
+import backend.resource.Model;
+import backend.resource.TurboIssue;
+import backend.resource.serialization.SerializableModel;
+import com.google.gson.Gson;
+import guitests.UITest;
+import org.apache.logging.log4j.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import tests.TestUtils;
+import ui.UI;
+import util.HTLog;
+import util.events.EventDispatcherStub;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the cost of saving a large repository after a small change with the change log,
+ * against rewriting the whole store file as was done previously, and the cost of loading a
+ * large repository from a JSON store file against loading it from a binary snapshot.
+ * <p>
+ * Run with the benchmarks task rather than as part of the tests.
+ */
+public class StoreBenchmarkTests {
+
+    private static final Logger logger = HTLog.get(StoreBenchmarkTests.class);
+
+    private static final String REPO = "benchmark/benchmark";
+    private static final int ISSUE_COUNT = 5000;
+    private static final int REFRESHES = 20;
+    private static final int COLD_LOAD_ISSUE_COUNT = 20000;
+
+    @BeforeClass
+    public static void setup() {
+        UI.events = new EventDispatcherStub();
+    }
+
+    @Before
+    public void enableTestDirectory() {
+        RepoStore.changeDirectory(RepoStore.TEST_DIRECTORY);
+    }
+
+    @Test
+    public void benchmarkSaveAfterLabelChange() throws ExecutionException, InterruptedException {
+        Model model = TestUtils.createLargeModel(REPO, ISSUE_COUNT, 300, 20, 50);
+        File repoFile = new File(RepoStore.getRepoPath(REPO).get());
+        File logFile = new File(RepoStore.getRepoLogPath(REPO).get());
+
+        // Whole-file rewrite: serialise the entire model to a string on every refresh
+        long fullBytes = 0;
+        long fullStart = System.nanoTime();
+        for (int i = 0; i < REFRESHES; i++) {
+            changeOneLabel(model, i);
+            SerializableModel sModel = new SerializableModel(model);
+            RepoStore.write(REPO, new Gson().toJson(sModel), sModel.issues.size());
+            fullBytes += repoFile.length();
+        }
+        long fullNanos = System.nanoTime() - fullStart;
+        RepoStore.delete(REPO);
+
+        // Change log: the first save writes the store file, the rest only append what changed
+        JSONStore jsonStore = new JSONStore();
+        jsonStore.saveRepository(REPO, new SerializableModel(model)).get();
+        long logBytes = 0;
+        long logStart = System.nanoTime();
+        for (int i = 0; i < REFRESHES; i++) {
+            long logSizeBefore = logFile.length();
+            changeOneLabel(model, REFRESHES + i);
+            jsonStore.saveRepository(REPO, new SerializableModel(model)).get();
+            logBytes += logFile.length() - logSizeBefore;
+        }
+        long logNanos = System.nanoTime() - logStart;
+
+        logger.info(String.format("Whole-file store: %.2f ms, %d bytes per refresh",
+                                  fullNanos / 1e6 / REFRESHES, fullBytes / REFRESHES));
+        logger.info(String.format("Change log store: %.2f ms, %d bytes per refresh",
+                                  logNanos / 1e6 / REFRESHES, logBytes / REFRESHES));
+
+        assertTrue(logBytes > 0);
+        assertTrue(logBytes * 100 < fullBytes);
+    }
+
+    @Test
+    public void benchmarkColdLoad() throws ExecutionException, InterruptedException {
+        Model model = TestUtils.createLargeModel(REPO, COLD_LOAD_ISSUE_COUNT, 300, 20, 50);
+        new JSONStore().saveRepository(REPO, new SerializableModel(model)).get();
+        long jsonBytes = new File(RepoStore.getRepoPath(REPO).get()).length();
+        long jsonNanos = System.nanoTime();
+        long jsonPeakHeap = measurePeakHeap(() -> new JSONStore().loadRepository(REPO).get());
+        jsonNanos = System.nanoTime() - jsonNanos;
+        RepoStore.delete(REPO);
+
+        new JSONStore(true).saveRepository(REPO, new SerializableModel(model)).get();
+        long binaryBytes = new File(RepoStore.getRepoSnapshotPath(REPO).get()).length();
+        long binaryNanos = System.nanoTime();
+        long binaryPeakHeap = measurePeakHeap(() -> new JSONStore(true).loadRepository(REPO).get());
+        binaryNanos = System.nanoTime() - binaryNanos;
+
+        long listNanos = System.nanoTime();
+        assertEquals(1, new JSONStore(true).getStoredRepos().size());
+        listNanos = System.nanoTime() - listNanos;
+
+        logger.info(String.format("JSON load of %d issues: %.2f ms, %d bytes on disk, peak heap %d KB",
+                                  COLD_LOAD_ISSUE_COUNT, jsonNanos / 1e6, jsonBytes, jsonPeakHeap / 1024));
+        logger.info(String.format("Binary load of %d issues: %.2f ms, %d bytes on disk, peak heap %d KB",
+                                  COLD_LOAD_ISSUE_COUNT, binaryNanos / 1e6, binaryBytes, binaryPeakHeap / 1024));
+        logger.info(String.format("Listing stored binary snapshots: %.2f ms", listNanos / 1e6));
+
+        assertTrue(binaryBytes < jsonBytes);
+    }
+
+    /**
+     * Returns the highest heap usage seen while the given load runs, starting from a collected heap.
+     */
+    private static long measurePeakHeap(Callable<Model> load) throws ExecutionException, InterruptedException {
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .collect(Collectors.toList());
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        try {
+            load.call();
+        } catch (ExecutionException | InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ExecutionException(e);
+        }
+        return heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    }
+
+    private static void changeOneLabel(Model model, int refresh) {
+        TurboIssue issue = model.getIssues().get(refresh);
+        issue.setLabels(new ArrayList<>(Arrays.asList(model.getLabels().get(refresh).getFullName())));
+    }
+
+    @After
+    public void cleanup() {
+        UITest.clearTestFolder();
+    }
+}
@@ -74,13 +74,29 @@ public final class IssueMetadata {
      */
     public IssueMetadata reconcile(LocalDateTime nonSelfUpdatedAt,
                                    List<TurboIssueEvent> existingEvents, String existingETag) {
+        return reconcile(nonSelfUpdatedAt, existingEvents, existingETag, comments, commentsETag);
+    }
+
+    /**
+     * Reconciles a newly-updated metadata instance against older data. Events and comments are
+     * taken from the older data if their ETags are unchanged, as they are not downloaded again then.
+     */
+    public IssueMetadata reconcile(LocalDateTime nonSelfUpdatedAt,
+                                   List<TurboIssueEvent> existingEvents, String existingEventsETag,
+                                   List<Comment> existingComments, String existingCommentsETag) {
         List<TurboIssueEvent> newEvents;
-        if (existingETag.equals(eventsETag)) {
+        if (existingEventsETag.equals(eventsETag)) {
             newEvents = new ArrayList<>(existingEvents);
         } else {
             newEvents = new ArrayList<>(events);
         }
-        return new IssueMetadata(newEvents, comments, isLatest, eventsETag, commentsETag, nonSelfUpdatedAt, user);
+        List<Comment> newComments;
+        if (existingCommentsETag.equals(commentsETag)) {
+            newComments = new ArrayList<>(existingComments);
+        } else {
+            newComments = new ArrayList<>(comments);
+        }
+        return new IssueMetadata(newEvents, newComments, isLatest, eventsETag, commentsETag, nonSelfUpdatedAt, user);
     }
 
     /**
@@ -25,6 +25,8 @@ import util.events.testevents.ClearLogicModelEventHandler;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static util.Futures.withResult;
@@ -46,7 +48,7 @@ public class Logic {
         this.uiManager = uiManager;
         this.prefs = prefs;
         this.models = models.orElse(new MultiModel(prefs));
-        this.repoIO = repoIO.orElseGet(TestController::createApplicationRepoIO);
+        this.repoIO = repoIO.orElseGet(() -> TestController.createApplicationRepoIO(prefs));
 
         repoOpControl = new RepoOpControl(this.repoIO, this.models);
         this.repoIO.setRepoOpControl(repoOpControl);
@@ -81,20 +83,44 @@ public class Logic {
     }
 
     public void refresh() {
-        String message = "Refreshing " + models.toModels().stream()
+        refresh(getOpenRepositories());
+    }
+
+    /**
+     * Refreshes the given open repositories, then the UI and the remaining rate limits.
+     *
+     * @param repoIds the ids of the repositories to refresh, in lower case
+     * @return the ids of the repositories that changed, in lower case
+     */
+    public CompletableFuture<Set<String>> refresh(Set<String> repoIds) {
+        // Repositories still being opened may only have partial models, which are not to be refreshed
+        List<Model> toRefresh = models.toModels().stream()
+                .filter(model -> repoIds.contains(model.getRepoId().toLowerCase()))
+                .filter(model -> !models.isRepositoryPending(model.getRepoId()))
+                .collect(Collectors.toList());
+        String message = "Refreshing " + toRefresh.stream()
                 .map(Model::getRepoId)
                 .collect(Collectors.joining(", "));
 
         logger.info(message);
         UI.status.displayMessage(message);
 
-        Futures.sequence(models.toModels().stream()
-                                 .map((model) -> repoIO.updateModel(model, true))
-                                 .collect(Collectors.toList()))
-                .thenRun(this::refreshUI)
-                .thenCompose(n -> getRateLimitResetTime())
-                .thenApply(this::updateRemainingRate)
-                .exceptionally(Futures::log);
+        return Futures.sequence(toRefresh.stream()
+                                        .map(model -> repoIO.updateModel(model, true)
+                                                .thenApply(updated -> updated.equals(model)
+                                                        ? Optional.<String>empty()
+                                                        : Optional.of(model.getRepoId().toLowerCase())))
+                                        .collect(Collectors.toList()))
+                .thenApply(changed -> {
+                    refreshUI();
+                    return changed.stream()
+                            .filter(Optional::isPresent).map(Optional::get)
+                            .collect(Collectors.toSet());
+                })
+                .thenCompose(changed -> getRateLimitResetTime()
+                        .thenApply(this::updateRemainingRate)
+                        .thenApply(rateLimits -> changed))
+                .exceptionally(withResult(new HashSet<>()));
     }
 
     /**
@@ -144,7 +170,7 @@ public class Logic {
                 // Thus we refresh panels even when the repo is already open.
                 refreshUI();
             } else {
-                Platform.runLater(() -> UI.events.triggerEvent(new AppliedFilterEvent(panel.get())));
+                notifyFilterApplied(panel.get());
             }
             return Futures.unit(false);
         }
@@ -158,7 +184,7 @@ public class Logic {
             UI.status.displayMessage("Opening " + repoId);
             notifyRepoOpening(isPrimaryRepository);
 
-            return repoOpControl.openRepository(repoId)
+            return repoOpControl.openRepository(repoId, this::showPartialModel)
                     .thenApply(models::addPending)
                     .thenRun(this::refreshUI)
                     .thenRun(() -> notifyRepoOpened(panel))
@@ -169,6 +195,16 @@ public class Logic {
         });
     }
 
+    /**
+     * Shows a partial model of a repository that is still being downloaded, until it is replaced by the
+     * full model.
+     */
+    private void showPartialModel(Model partialModel) {
+        if (models.addProvisional(partialModel)) {
+            refreshUI();
+        }
+    }
+
     /**
      * Triggers opening repo event based on isPrimaryRepository
      *
@@ -194,7 +230,14 @@ public class Logic {
         }
 
         Platform.runLater(() -> UI.events.triggerEvent(new FilterRepoOpenedEvent()));
-        Platform.runLater(() -> UI.events.triggerEvent(new AppliedFilterEvent(panel.get())));
+        notifyFilterApplied(panel.get());
+    }
+
+    /**
+     * Triggers AppliedFilterEvent for the panel in the next frame, once for any number of calls before then.
+     */
+    private void notifyFilterApplied(FilterPanel panel) {
+        uiManager.triggerCoalesced(new ImmutablePair<>(AppliedFilterEvent.class, panel), new AppliedFilterEvent(panel));
     }
 
     public Set<String> getOpenRepositories() {
@@ -244,7 +287,15 @@ public class Logic {
         return models.get(repoId);
     }
 
+    /**
+     * Returns the rate limits as of the latest response from the repository source, and only requests
+     * them if they are not known or have been reset since.
+     */
     public CompletableFuture<ImmutablePair<Integer, Long>> getRateLimitResetTime() {
+        Optional<ImmutablePair<Integer, Long>> snapshot = repoIO.getRateLimitSnapshot();
+        if (snapshot.isPresent()) {
+            return Futures.unit(snapshot.get());
+        }
         return repoIO.getRateLimitResetTime();
     }
 
@@ -264,9 +315,9 @@ public class Logic {
                 repoOpControl.replaceIssueLabelsLocally(issue, newLabels);
         localLabelsReplaceFuture.thenRun(this::refreshUI);
 
-        return updateIssueLabelsOnServer(issue, newLabels)
-                .thenCombine(localLabelsReplaceFuture, (isUpdateSuccessful, locallyModifiedIssue) ->
-                        handleIssueLabelsUpdateResult(isUpdateSuccessful, locallyModifiedIssue, originalLabels));
+        return updateIssueLabelsOnServer(issue, originalLabels, newLabels,
+                                         revertAfter(localLabelsReplaceFuture, this::revertLocalLabelsReplace))
+                .thenCombine(localLabelsReplaceFuture, this::handleIssueLabelsUpdateResult);
     }
 
     /**
@@ -278,12 +329,16 @@ public class Logic {
      * @return true if milestone replacements locally and on GitHub were successful
      */
     public CompletableFuture<Boolean> replaceIssueMilestone(TurboIssue issue, Optional<Integer> newMilestone) {
+        Optional<Integer> originalMilestone = issue.getMilestone();
+
         logger.info("Changing milestone for " + issue + " in models");
         CompletableFuture<Optional<TurboIssue>> localMilestoneReplaceFuture =
                 repoOpControl.replaceIssueMilestoneLocally(issue, newMilestone);
         localMilestoneReplaceFuture.thenRun(this::refreshUI);
 
-        return updateIssueMilestonesOnServer(issue, newMilestone)
+        return updateIssueMilestonesOnServer(issue, originalMilestone, newMilestone,
+                                             revertAfter(localMilestoneReplaceFuture,
+                                                         this::revertLocalMilestoneReplace))
                 .thenCombine(localMilestoneReplaceFuture, this::handleIssueMilestoneUpdateOnServerResult);
     }
 
@@ -296,12 +351,16 @@ public class Logic {
      * @return
      */
     public CompletableFuture<Boolean> replaceIssueAssignee(TurboIssue issue, Optional<String> newAssigneeLoginName){
+        Optional<String> originalAssigneeLoginName = issue.getAssignee();
+
         logger.info("Changing assignee for " + issue + " on UI");
         CompletableFuture<Optional<TurboIssue>> localAssigneeReplaceFuture =
                 repoOpControl.replaceIssueAssigneeLocally(issue, newAssigneeLoginName);
         localAssigneeReplaceFuture.thenRun(this::refreshUI);
 
-        return updateIssueAssigneesOnServer(issue, newAssigneeLoginName)
+        return updateIssueAssigneesOnServer(issue, originalAssigneeLoginName, newAssigneeLoginName,
+                                            revertAfter(localAssigneeReplaceFuture,
+                                                        this::revertLocalAssigneeReplace))
                 .thenCombine(localAssigneeReplaceFuture, this::handleIssueAssigneeUpdateResult);
     }
 
@@ -320,34 +379,40 @@ public class Logic {
         );
     }
 
-    private CompletableFuture<Boolean> updateIssueLabelsOnServer(TurboIssue issue, List<String> newLabels) {
+    private CompletableFuture<Boolean> updateIssueLabelsOnServer(TurboIssue issue, List<String> originalLabels,
+                                                                 List<String> newLabels,
+                                                                 Consumer<List<String>> revertLocally) {
         logger.info("Changing labels for " + issue + " on GitHub");
-        return repoOpControl.replaceIssueLabelsOnServer(issue, newLabels);
+        return repoOpControl.replaceIssueLabelsOnServer(issue, originalLabels, newLabels, revertLocally);
     }
 
-    private CompletableFuture<Boolean> updateIssueMilestonesOnServer(TurboIssue issue, Optional<Integer> milestone) {
+    private CompletableFuture<Boolean> updateIssueMilestonesOnServer(TurboIssue issue,
+                                                                     Optional<Integer> originalMilestone,
+                                                                     Optional<Integer> milestone,
+                                                                     Consumer<Optional<Integer>> revertLocally) {
         logger.info("Changing milestone for " + issue + " on GitHub");
-        return repoOpControl.replaceIssueMilestoneOnServer(issue, milestone);
+        return repoOpControl.replaceIssueMilestoneOnServer(issue, originalMilestone, milestone, revertLocally);
     }
 
     private CompletableFuture<Boolean> updateIssueAssigneesOnServer(TurboIssue issue,
-                                                                    Optional<String> newAssigneeLoginName) {
+                                                                    Optional<String> originalAssigneeLoginName,
+                                                                    Optional<String> newAssigneeLoginName,
+                                                                    Consumer<Optional<String>> revertLocally) {
         logger.info("Changing assignee for " + issue + " on GitHub");
-        return repoOpControl.replaceIssueAssigneeOnServer(issue, newAssigneeLoginName);
+        return repoOpControl.replaceIssueAssigneeOnServer(issue, originalAssigneeLoginName, newAssigneeLoginName,
+                                                          revertLocally);
     }
 
     /**
-     * Handles the result of updating an issue's labels on server. Current implementation includes
-     * reverting back to the original labels locally if the server update failed.
+     * Handles the result of updating an issue's labels on server. The labels are reverted locally if the
+     * server update failed by the server operation itself, once for all the edits merged into it.
      *
      * @param isUpdateSuccessful
      * @param locallyModifiedIssue
-     * @param originalLabels
      * @return true if the server update is successful
      */
     private boolean handleIssueLabelsUpdateResult(boolean isUpdateSuccessful,
-                                                  Optional<TurboIssue> locallyModifiedIssue,
-                                                  List<String> originalLabels) {
+                                                  Optional<TurboIssue> locallyModifiedIssue) {
         if (!locallyModifiedIssue.isPresent()) {
             logger.error("Unable to replace issue labels locally");
             return false;
@@ -356,13 +421,12 @@ public class Logic {
             return true;
         }
         logger.error("Unable to update model on server");
-        revertLocalLabelsReplace(locallyModifiedIssue.get(), originalLabels);
         return false;
     }
 
     /**
      * Handles the result of updating an issue's milestone on server.
-     * Locally reverts back to the original milestone if the server update fails.
+     * The milestone is reverted locally by the server operation if the server update fails.
      *
      * @param isUpdateSuccessful
      * @param originalIssue
@@ -377,13 +441,12 @@ public class Logic {
         if (isUpdateSuccessful) return true;
 
         logger.error("Unable to update model on server");
-        revertLocalMilestoneReplace(originalIssue.get());
         return false;
     }
 
     /**
-     * Handles the result of updating an issue's assignee on server. Current implementation includes
-     * reverting back to the original assignee locally if the server update failed.
+     * Handles the result of updating an issue's assignee on server. The assignee is reverted locally by
+     * the server operation if the server update failed.
      * @param isUpdateSuccessful
      * @param originalIssue
      * @return true if the server update is successful
@@ -399,7 +462,6 @@ public class Logic {
         }
 
         logger.error("Unable to update model on server");
-        revertLocalAssigneeReplace(originalIssue.get());
         return false;
     }
 
@@ -427,11 +489,12 @@ public class Logic {
      * Replaces assignee of the issue in the {@link Logic#models} corresponding to {@code modifiedIssue} with
      * {@code originalAssigneeLoginName} if the current assignee on the issue is assigned at
      * the same time as {@code modifiedIssue}
-     * @param originalIssue
+     * @param modifiedIssue
+     * @param originalAssigneeLoginName
      */
-    private void revertLocalAssigneeReplace(TurboIssue originalIssue) {
-        TurboIssue currentIssue = getIssue(originalIssue.getRepoId(), originalIssue.getId()).orElse(originalIssue);
-        LocalDateTime originalAssigneeModifiedAt = originalIssue.getAssigneeLastModifiedAt();
+    private void revertLocalAssigneeReplace(TurboIssue modifiedIssue, Optional<String> originalAssigneeLoginName) {
+        TurboIssue currentIssue = getIssue(modifiedIssue.getRepoId(), modifiedIssue.getId()).orElse(modifiedIssue);
+        LocalDateTime originalAssigneeModifiedAt = modifiedIssue.getAssigneeLastModifiedAt();
         LocalDateTime currentAssigneeAssignedAt = currentIssue.getAssigneeLastModifiedAt();
         boolean isCurrentAssigneeModifiedFromOriginalAssignee = originalAssigneeModifiedAt.isEqual(
                 currentAssigneeAssignedAt);
@@ -441,19 +504,20 @@ public class Logic {
         }
 
         logger.info("Reverting assignee for issue " + currentIssue);
-        models.replaceIssueAssignee(currentIssue.getRepoId(), currentIssue.getId(), originalIssue.getAssignee());
+        models.replaceIssueAssignee(currentIssue.getRepoId(), currentIssue.getId(), originalAssigneeLoginName);
         refreshUI();
     }
 
     /**
-     * Replaces the milestone of the issue in the {@link Logic#models} corresponding to {@code originalIssue}
-     * with originalIssue's milestone if both issues have the same last modified LocalDateTime
+     * Replaces the milestone of the issue in the {@link Logic#models} corresponding to {@code modifiedIssue}
+     * with {@code originalMilestone} if both issues have the same last modified LocalDateTime
      *
-     * @param originalIssue
+     * @param modifiedIssue
+     * @param originalMilestone
      */
-    private void revertLocalMilestoneReplace(TurboIssue originalIssue) {
-        TurboIssue currentIssue = getIssue(originalIssue.getRepoId(), originalIssue.getId()).orElse(originalIssue);
-        LocalDateTime originalMilestoneModifiedAt = originalIssue.getMilestoneLastModifiedAt();
+    private void revertLocalMilestoneReplace(TurboIssue modifiedIssue, Optional<Integer> originalMilestone) {
+        TurboIssue currentIssue = getIssue(modifiedIssue.getRepoId(), modifiedIssue.getId()).orElse(modifiedIssue);
+        LocalDateTime originalMilestoneModifiedAt = modifiedIssue.getMilestoneLastModifiedAt();
         LocalDateTime currentMilestoneAssignedAt = currentIssue.getMilestoneLastModifiedAt();
         boolean isCurrentMilestoneModifiedFromOriginalMilestone = originalMilestoneModifiedAt
                 .isEqual(currentMilestoneAssignedAt);
@@ -461,21 +525,20 @@ public class Logic {
         if (!isCurrentMilestoneModifiedFromOriginalMilestone) return;
 
         logger.info("Reverting milestone for issue " + currentIssue);
-        models.replaceIssueMilestone(currentIssue.getRepoId(), currentIssue.getId(), originalIssue.getMilestone());
+        models.replaceIssueMilestone(currentIssue.getRepoId(), currentIssue.getId(), originalMilestone);
         refreshUI();
     }
 
     /**
-     * Reverting back to the original state locally if the server update failed.
+     * Handles the result of editing an issue's state on server. The state is reverted locally by the
+     * server operation if the server update failed.
      *
      * @param isUpdateSuccessful
      * @param locallyModifiedIssue
-     * @param isOpenOriginally
      * @return
      */
     private boolean handleIssueStateUpdateResult(boolean isUpdateSuccessful,
-                                                 Optional<TurboIssue> locallyModifiedIssue,
-                                                 boolean isOpenOriginally) {
+                                                 Optional<TurboIssue> locallyModifiedIssue) {
         if (!locallyModifiedIssue.isPresent()) {
             logger.error("Unable to edit issue state locally");
             return false;
@@ -486,7 +549,6 @@ public class Logic {
         }
 
         logger.error("Unable to update model on server");
-        revertLocalStateEdit(locallyModifiedIssue.get(), isOpenOriginally);
         return false;
     }
 
@@ -531,11 +593,22 @@ public class Logic {
                 repoOpControl.editIssueStateLocally(issue, isOpen);
         localStateEditFuture.thenRun(this::refreshUI);
 
-        return repoOpControl.editIssueStateOnServer(issue, isOpen)
-                .thenCombine(localStateEditFuture, (isUpdateSuccessful, locallyModifiedIssue) -> {
-                    return handleIssueStateUpdateResult(
-                            isUpdateSuccessful, locallyModifiedIssue, isOpenOriginally);
-                });
+        return repoOpControl.editIssueStateOnServer(issue, isOpenOriginally, isOpen,
+                                                    revertAfter(localStateEditFuture, this::revertLocalStateEdit))
+                .thenCombine(localStateEditFuture, this::handleIssueStateUpdateResult);
+    }
+
+    /**
+     * Returns a means of reverting a field of an issue to a value once it has been edited locally, with
+     * the given revert, which is given the locally modified issue and the value.
+     *
+     * @param localEditFuture the local edit, giving the locally modified issue if it succeeded
+     * @param revert          reverts the field of the locally modified issue to the given value
+     */
+    private static <V> Consumer<V> revertAfter(CompletableFuture<Optional<TurboIssue>> localEditFuture,
+                                               BiConsumer<TurboIssue, V> revert) {
+        return originalValue -> localEditFuture.thenAccept(locallyModifiedIssue -> locallyModifiedIssue.ifPresent(
+                modifiedIssue -> revert.accept(modifiedIssue, originalValue)));
     }
 
     /**
@@ -554,12 +627,13 @@ public class Logic {
     public void refreshPanel(FilterPanel panel) {
         List<FilterPanel> panels = new ArrayList<>();
         panels.add(panel);
-        updateController.processAndRefresh(panels);
+        CompletableFuture<Void> firstResults = updateController.processAndRefresh(panels);
 
         // AppliedFilterEvent will be triggered asynchronously when repo(s) have finished opening, so just terminate
         if (hasRepoSpecifiedInFilter(panel)) return;
 
-        Platform.runLater(() -> UI.events.triggerEvent(new AppliedFilterEvent(panel)));
+        // Filtering is done in the background, so the filter is only applied once its results are shown
+        firstResults.thenRun(() -> notifyFilterApplied(panel));
     }
 
     private boolean hasRepoSpecifiedInFilter(FilterPanel panel) {
@@ -568,27 +642,30 @@ public class Logic {
 
     /**
      * Retrieves metadata for given issues from the repository source, and then processes them for non-self
-     * update timings.
+     * update timings. Metadata is inserted into the model in batches as it is received.
      *
      * @param repoId The repository containing issues to retrieve metadata for.
      * @param issues Issues sharing the same repository requiring a metadata update.
+     * @param onBatchInserted Run after each batch of metadata is inserted into the model.
      * @return True if metadata retrieval was a success, false otherwise.
      */
-    public CompletableFuture<Boolean> getIssueMetadata(String repoId, List<TurboIssue> issues) {
+    public CompletableFuture<Boolean> getIssueMetadata(String repoId, List<TurboIssue> issues,
+                                                       Runnable onBatchInserted) {
         String message = "Getting metadata for " + repoId + "...";
         logger.info("Getting metadata for issues " + issues);
         UI.status.displayMessage(message);
 
-        return repoIO.getIssueMetadata(repoId, issues).thenApply(this::processUpdates)
-                .thenApply(metadata -> insertMetadata(metadata, repoId, prefs.getLastLoginUsername()))
-                .exceptionally(withResult(false));
+        return repoIO.getIssueMetadata(repoId, issues, batch -> {
+            insertMetadata(processUpdates(batch), repoId, prefs.getLastLoginUsername());
+            onBatchInserted.run();
+        }).thenApply(metadata -> {
+            UI.status.displayMessage("Received metadata from " + repoId + "!");
+            return true;
+        }).exceptionally(withResult(false));
     }
 
-    private boolean insertMetadata(Map<Integer, IssueMetadata> metadata, String repoId, String currentUser) {
-        String updatedMessage = "Received metadata from " + repoId + "!";
-        UI.status.displayMessage(updatedMessage);
+    private void insertMetadata(Map<Integer, IssueMetadata> metadata, String repoId, String currentUser) {
         models.insertMetadata(repoId, metadata, currentUser);
-        return true;
     }
 
     // Adds update times to the metadata map
@@ -612,6 +689,14 @@ public class Logic {
         uiManager.update(elementsToShow, models.getUsers());
     }
 
+    /**
+     * As {@link #updateUI(Map)}, running the given callback on the JavaFX application thread once the GUI
+     * has been updated.
+     */
+    public void updateUI(Map<FilterExpression, List<GuiElement>> elementsToShow, Runnable onShown) {
+        uiManager.update(elementsToShow, models.getUsers(), onShown);
+    }
+
     private List<FilterPanel> getAllPanels() {
         return uiManager.getAllPanels();
     }
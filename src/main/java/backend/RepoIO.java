@@ -23,7 +23,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static util.Futures.withResult;
 
@@ -84,25 +85,31 @@ public class RepoIO {
     }
 
     public CompletableFuture<Model> openRepository(String repoId) {
+        return openRepository(repoId, partialModel -> {});
+    }
+
+    /**
+     * Opens a repository from the store, or else downloads it. While it is downloading, partial models
+     * of it are handed to the partial model consumer; these are never saved to the store.
+     */
+    public CompletableFuture<Model> openRepository(String repoId, Consumer<Model> partialModelConsumer) {
         // The ignoreCase logic is necessary when we are opening a repo from the login dialog window
         // i.e. when the isAlreadyOpen check in Logic fails.
         Optional<String> matchingRepoName = storedRepos.stream().filter(repoName ->
                                                                                 repoName.equalsIgnoreCase(repoId))
                 .findFirst();
         if (matchingRepoName.isPresent()) {
-            // TODO avoid CI deadlock in the .exceptionally call. Explanation:
-            /* loadRepoFromStoreAsync will execute in jsonStore's single thread pool, and if
-             it has an exception then downloadRepoFromSourceBlocking will also run there. Eventually,
-             this results in jsonStore.saveRepository in updateModel being placed as another Task on the
-             same thread pool. However, since the current task is still carrying out and waiting for the second
-             task to complete, the program gets deadlocked on the CI.
-             One example of how this can happen is when storedRepos contains the repo name but the json was
-             deleted while the program is still running. */
+            // If the store cannot be read, the repository is downloaded again. The download is composed
+            // rather than waited on, as waiting would hold up a store thread that the download's own
+            // save may need.
             String repoToLoad = matchingRepoName.get();
             return loadRepoFromStoreAsync(repoToLoad)
-                    .exceptionally(e -> downloadRepoFromSourceBlocking(repoToLoad));
+                    .handle((model, e) -> e == null
+                            ? CompletableFuture.completedFuture(model)
+                            : downloadRepoFromSourceAsync(repoToLoad, partialModelConsumer, MAX_REDOWNLOAD_TRIES))
+                    .thenCompose(Function.identity());
         } else {
-            return downloadRepoFromSourceAsync(repoId);
+            return downloadRepoFromSourceAsync(repoId, partialModelConsumer, MAX_REDOWNLOAD_TRIES);
         }
     }
 
@@ -116,13 +123,14 @@ public class RepoIO {
                 .thenCompose((model) -> this.updateModel(model, false));
     }
 
-    private CompletableFuture<Model> downloadRepoFromSourceAsync(String repoID) {
-        return downloadRepoFromSourceAsync(repoID, MAX_REDOWNLOAD_TRIES);
+    private CompletableFuture<Model> downloadRepoFromSourceAsync(String repoId, int remainingTries) {
+        return downloadRepoFromSourceAsync(repoId, partialModel -> {}, remainingTries);
     }
 
-    private CompletableFuture<Model> downloadRepoFromSourceAsync(String repoId, int remainingTries) {
+    private CompletableFuture<Model> downloadRepoFromSourceAsync(String repoId, Consumer<Model> partialModelConsumer,
+                                                                 int remainingTries) {
         UI.status.displayMessage("Downloading " + repoId);
-        return repoSource.downloadRepository(repoId)
+        return repoSource.downloadRepository(repoId, partialModelConsumer)
                 .thenCompose(newModel -> updateModel(newModel, false, remainingTries))
                 .thenApply(model -> {
                     storedRepos.add(repoId);
@@ -131,17 +139,6 @@ public class RepoIO {
                 .exceptionally(withResult(new Model(repoId)));
     }
 
-    private Model downloadRepoFromSourceBlocking(String repoId) {
-        try {
-            return downloadRepoFromSourceAsync(repoId).get();
-        } catch (ExecutionException | InterruptedException e) {
-            logger.info("Error while downloading " + repoId);
-            logger.error(e.getLocalizedMessage());
-
-            return new Model(repoId);
-        }
-    }
-
     /**
      * Downloads updates for issues, pull requests, labels, milestones and users from server for a model.
      * Note that the result contains only new or modified data for the model and doesn't include existing data.
@@ -167,45 +164,55 @@ public class RepoIO {
     }
 
     public CompletableFuture<Model> updateModel(Model model, boolean syncOperation, int remainingTries) {
+        // The save and any redownload are composed rather than waited on, as the local update may complete
+        // on a repository operation thread, which waiting would hold up for every repository.
         return downloadModelUpdates(model)
                 .thenCompose((updates) -> getRepoOpControl().updateLocalModel(updates, syncOperation))
-                .thenApply(newModel -> {
-                    boolean corruptedJson = false;
-                    if (!model.equals(newModel)) {
-                        try {
-                            corruptedJson =
-                                    jsonStore.saveRepository(newModel.getRepoId(), new SerializableModel(newModel))
-                                            .get();
-                        } catch (InterruptedException | ExecutionException ex) {
-                            corruptedJson = true;
-                        }
-                    } else {
-                        logger.info(HTLog.format(model.getRepoId(),
-                                                 "Nothing changed; not writing to store"));
-                    }
+                .thenCompose(newModel -> saveUpdatedModel(model, newModel).thenCompose(corruptedJson -> {
                     if (corruptedJson && remainingTries > 0) {
-                        return downloadRepoFromSourceAsync(model.getRepoId(), remainingTries - 1).join();
+                        return downloadRepoFromSourceAsync(model.getRepoId(), remainingTries - 1);
+                    }
+                    if (corruptedJson) {
+                        UI.events.triggerEvent(new ShowErrorDialogEvent("Could not sync " + model.getRepoId(),
+                                        "We were not able to sync with GitHub "
+                                        + "to retrieve and store data for the repository "
+                                        + model.getRepoId()
+                                        + ". Please let us know if you "
+                                        + "encounter this issue consistently."));
                     } else {
-                        if (corruptedJson && remainingTries == 0) {
-                            UI.events.triggerEvent(new ShowErrorDialogEvent("Could not sync " + model.getRepoId(),
-                                            "We were not able to sync with GitHub "
-                                            + "to retrieve and store data for the repository "
-                                            + model.getRepoId()
-                                            + ". Please let us know if you "
-                                            + "encounter this issue consistently."));
-                        } else {
-                            UI.status.displayMessage(model.getRepoId() + " is up to date!");
-                        }
-                        UI.events.triggerEvent(new UpdateProgressEvent(model.getRepoId()));
-                        return newModel;
+                        UI.status.displayMessage(model.getRepoId() + " is up to date!");
                     }
-                }).exceptionally(withResult(new Model(model.getRepoId())));
+                    UI.events.triggerEventAsync(new UpdateProgressEvent(model.getRepoId()));
+                    return CompletableFuture.completedFuture(newModel);
+                })).exceptionally(withResult(new Model(model.getRepoId())));
+    }
+
+    /**
+     * Saves the updated model to the store if it differs from the model it was updated from.
+     *
+     * @return true if the model could not be saved, as when the store is corrupted
+     */
+    private CompletableFuture<Boolean> saveUpdatedModel(Model model, Model newModel) {
+        if (model.equals(newModel)) {
+            logger.info(HTLog.format(model.getRepoId(), "Nothing changed; not writing to store"));
+            return CompletableFuture.completedFuture(false);
+        }
+        return jsonStore.saveRepository(newModel.getRepoId(), new SerializableModel(newModel))
+                .exceptionally(withResult(true));
     }
 
     public CompletableFuture<Map<Integer, IssueMetadata>> getIssueMetadata(String repoId, List<TurboIssue> issues) {
         return repoSource.downloadMetadata(repoId, issues);
     }
 
+    /**
+     * Downloads the metadata of the given issues, handing it to the batch consumer in batches as it is received.
+     */
+    public CompletableFuture<Map<Integer, IssueMetadata>> getIssueMetadata(
+            String repoId, List<TurboIssue> issues, Consumer<Map<Integer, IssueMetadata>> batchConsumer) {
+        return repoSource.downloadMetadata(repoId, issues, batchConsumer);
+    }
+
     public CompletableFuture<Boolean> replaceIssueLabels(TurboIssue issue, List<String> labels) {
         return repoSource.replaceIssueLabels(issue, labels);
     }
@@ -226,4 +233,8 @@ public class RepoIO {
         return repoSource.getRateLimitResetTime();
     }
 
+    public Optional<ImmutablePair<Integer, Long>> getRateLimitSnapshot() {
+        return repoSource.getRateLimitSnapshot();
+    }
+
 }
@@ -2,28 +2,79 @@ package backend;
 
 import backend.resource.TurboUser;
 import filter.expression.FilterExpression;
-import javafx.application.Platform;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import ui.GuiElement;
 import ui.UI;
+import ui.UIUpdateDispatcher;
 import ui.issuepanel.FilterPanel;
+import util.events.Event;
 import util.events.ModelUpdatedEvent;
 import util.events.UpdateRateLimitsEvent;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class UIManager {
 
     private final UI ui;
+    private final UIUpdateDispatcher updateDispatcher;
+
+    // Elements not shown yet, of which only the latest for each filter expression are shown.
+    // The users are replaced by each update, as every update gives all of them.
+    // All access to these fields must be synchronized on pendingElements.
+    private final Map<FilterExpression, List<GuiElement>> pendingElements = new HashMap<>();
+    private List<TurboUser> pendingUsers = new ArrayList<>();
+    private final List<Runnable> pendingOnShown = new ArrayList<>();
 
     public UIManager(UI ui) {
         this.ui = ui;
+        this.updateDispatcher = ui.getUpdateDispatcher();
     }
 
     public void update(Map<FilterExpression, List<GuiElement>> elementsToShow,
                        List<TurboUser> users) {
-        Platform.runLater(() -> ui.triggerEvent(new ModelUpdatedEvent(elementsToShow, users)));
+        update(elementsToShow, users, () -> {});
+    }
+
+    /**
+     * Updates the panels with the given elements in the next frame, then runs the given callback.
+     * Updates made before then are shown together, with only the latest elements for each filter expression.
+     * Only the users given by the latest update are shown, so every call must pass all the users of the
+     * models, not just those of the elements updated.
+     */
+    public void update(Map<FilterExpression, List<GuiElement>> elementsToShow,
+                       List<TurboUser> users, Runnable onShown) {
+        synchronized (pendingElements) {
+            pendingElements.putAll(elementsToShow);
+            pendingUsers = users;
+            pendingOnShown.add(onShown);
+        }
+        updateDispatcher.submit(ModelUpdatedEvent.class, this::showPendingElements);
+    }
+
+    /**
+     * Triggers the given event in the next frame, unless another is triggered with the same key before then,
+     * in which case only the latter is.
+     */
+    public void triggerCoalesced(Object key, Event event) {
+        updateDispatcher.submit(key, () -> ui.triggerEvent(event));
+    }
+
+    private void showPendingElements() {
+        Map<FilterExpression, List<GuiElement>> elementsToShow;
+        List<TurboUser> users;
+        List<Runnable> onShown;
+        synchronized (pendingElements) {
+            elementsToShow = new HashMap<>(pendingElements);
+            users = pendingUsers;
+            onShown = new ArrayList<>(pendingOnShown);
+            pendingElements.clear();
+            pendingOnShown.clear();
+        }
+        ui.triggerEvent(new ModelUpdatedEvent(elementsToShow, users));
+        onShown.forEach(Runnable::run);
     }
 
     public void updateRateLimits(ImmutablePair<Integer, Long> rateLimits) {
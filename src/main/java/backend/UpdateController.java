@@ -3,7 +3,9 @@ package backend;
 import backend.resource.Model;
 import backend.resource.MultiModel;
 import backend.resource.TurboIssue;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import filter.FilterException;
+import filter.MultiFilterEvaluator;
 import filter.expression.FilterExpression;
 import filter.expression.Qualifier;
 import javafx.application.Platform;
@@ -12,6 +14,7 @@ import filter.expression.QualifierType;
 import ui.GuiElement;
 import ui.UI;
 import ui.issuepanel.FilterPanel;
+import util.BoardLoadTimer;
 import util.Futures;
 import util.HTLog;
 import util.events.FilterExceptionEvent;
@@ -19,6 +22,10 @@ import util.events.FilterWarningEvent;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -32,6 +39,18 @@ public class UpdateController {
 
     private final Logic logic;
 
+    // The result of each filter expression when it was last processed, kept so that it can be
+    // brought up to date by re-testing only the issues changed since
+    private final Map<FilterExpression, FilterResult> filterResults = new HashMap<>();
+
+    // Filtering is done here rather than on the JavaFX application thread, one refresh at a time
+    private final ExecutorService filterExecutor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("filter-%d").setDaemon(true).build());
+
+    // The generation of the latest refresh requested for each panel; a refresh of a panel is stale once
+    // another has been requested after it. All access must be synchronized on the map.
+    private final Map<FilterPanel, Long> panelGenerations = new WeakHashMap<>();
+
     public UpdateController(Logic logic) {
         this.logic = logic;
     }
@@ -42,32 +61,47 @@ public class UpdateController {
      * After which, dispatches metadata update if needed and then processes them to return
      * a map of filtered and sorted issues corresponding to each filter expression, based on the most recent data
      * from the repository source.
+     * <p>
+     * Filtering is done on a background thread. Panels that have been refreshed again since are left out of
+     * the remaining steps of this refresh, and their results are discarded if they are superseded while
+     * being computed, so that only the results of a panel's latest refresh are shown.
      *
      * @param filterPanels Filter panels to process
+     * @return a future that completes once the first results, those not depending on the opening of
+     * repositories or on metadata, have been handed over to be shown
      */
-    public void processAndRefresh(List<FilterPanel> filterPanels) {
-        List<FilterExpression> filterExprs = getFilterExpressions(filterPanels);
+    public CompletableFuture<Void> processAndRefresh(List<FilterPanel> filterPanels) {
+        Refresh refresh = new Refresh(filterPanels);
 
         // Filter and sort the issues first even if the metadata is not yet available so that criteria not
         // based on metadata can have immediate effect.
-        logic.updateUI(processFilters(filterExprs));
+        CompletableFuture<Void> firstResults = processLatestAndShow(refresh);
 
         // Open specified repos
         openRepositoriesInFilters(filterPanels)
                 .thenRun(() -> {
+                    BoardLoadTimer.reposLoaded();
+
+                    List<FilterExpression> filterExprs = refresh.getLatestFilterExpressions();
+                    if (filterExprs.isEmpty()) {
+                        return;
+                    }
+
                     // First filter, for issues requiring a metadata update.
                     Map<String, List<TurboIssue>> toUpdate = tallyMetadataUpdate(filterExprs);
 
                     if (toUpdate.isEmpty()) {
                         // If no issues requiring metadata update, just run the filter and sort.
-                        logic.updateUI(processFilters(filterExprs));
+                        processLatestAndShow(refresh);
                         return;
                     }
 
-                    // If there are issues requiring metadata update, we dispatch the metadata requests...
+                    // If there are issues requiring metadata update, we dispatch the metadata requests,
+                    // filtering again as each batch of metadata arrives...
                     ArrayList<CompletableFuture<Boolean>> metadataRetrievalTasks = new ArrayList<>();
                     toUpdate.forEach((repoId, issues) ->
-                            metadataRetrievalTasks.add(logic.getIssueMetadata(repoId, issues)));
+                            metadataRetrievalTasks.add(logic.getIssueMetadata(repoId, issues,
+                                    () -> processLatestAndShow(refresh))));
                     // ...and then wait for all of them to complete.
                     Futures.sequence(metadataRetrievalTasks)
                             .thenAccept(results -> logger.info("Metadata retrieval successful for "
@@ -75,14 +109,43 @@ public class UpdateController {
                                     + "/" + results.size() + " repos"))
                             .thenCompose(n -> logic.getRateLimitResetTime())
                             .thenApply(logic::updateRemainingRate)
-                            .thenRun(() -> logic.updateUI(processFilters(filterExprs))); // Then filter the second time.
+                            // Then filter the second time.
+                            .thenRun(() -> processLatestAndShow(refresh));
                 });
+
+        return firstResults;
     }
 
-    private List<FilterExpression> getFilterExpressions(List<FilterPanel> panels) {
-        return panels.stream()
-                .map(panel -> panel.getCurrentFilterExpression())
-                .collect(Collectors.toList());
+    /**
+     * Processes, on the filter thread, the filter expressions of the panels in the given refresh that have
+     * not been refreshed again since, and hands over those results that are still the latest to be shown.
+     *
+     * @return a future that completes once the results have been handed over, or discarded
+     */
+    private CompletableFuture<Void> processLatestAndShow(Refresh refresh) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                List<FilterExpression> filterExprs = refresh.getLatestFilterExpressions();
+                if (filterExprs.isEmpty()) {
+                    return;
+                }
+                long startTime = System.nanoTime();
+                Map<FilterExpression, List<GuiElement>> processed = processFilterChanges(filterExprs);
+                long filterTime = System.nanoTime() - startTime;
+
+                // Discard the results of panels refreshed again while they were being computed
+                processed.keySet().retainAll(refresh.getLatestFilterExpressions());
+                if (processed.isEmpty()) {
+                    return;
+                }
+                logic.updateUI(processed, () -> logger.info(String.format(
+                        "%d filter(s) shown %d ms after refresh was requested (filtered in %d ms)",
+                        processed.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - refresh.requestTime),
+                        TimeUnit.NANOSECONDS.toMillis(filterTime))));
+            } catch (RuntimeException e) {
+                HTLog.error(logger, e);
+            }
+        }, filterExecutor);
     }
 
     /**
@@ -111,18 +174,20 @@ public class UpdateController {
 
         return filterExprs.stream()
                 .filter(Qualifier::hasUpdatedQualifier)
-                .flatMap(filterExpr -> allModelIssues.stream()
-                        .filter(issue -> {
-                            try {
-                                return Qualifier.process(models, filterExpr,
-                                                         issue);
-                            } catch (FilterException e) {
-                                Platform.runLater(() -> UI.events.triggerEvent(
-                                        new FilterExceptionEvent(filterExpr, e
-                                                .getMessage())));
-                                return false;
-                            }
-                        }))
+                .flatMap(filterExpr -> {
+                    Predicate<TurboIssue> predicate = Qualifier.compile(models, filterExpr);
+                    return allModelIssues.stream()
+                            .filter(issue -> {
+                                try {
+                                    return predicate.test(issue);
+                                } catch (FilterException e) {
+                                    Platform.runLater(() -> UI.events.triggerEvent(
+                                            new FilterExceptionEvent(filterExpr, e
+                                                    .getMessage())));
+                                    return false;
+                                }
+                            });
+                })
                 .distinct()
                 .collect(Collectors.groupingBy(TurboIssue::getRepoId));
     }
@@ -134,26 +199,24 @@ public class UpdateController {
      * @param filterExprs Filter expressions
      * @return Filter expressions and their corresponding issues after filtering, sorting and counting.
      */
-    private Map<FilterExpression, List<GuiElement>> processFilters(List<FilterExpression> filterExprs) {
+    public synchronized Map<FilterExpression, List<GuiElement>> processFilters(List<FilterExpression> filterExprs) {
         MultiModel models = logic.getModels();
         List<TurboIssue> allModelIssues = models.getIssues();
 
         Map<FilterExpression, List<GuiElement>> processed = new HashMap<>();
+        MultiFilterEvaluator evaluator = new MultiFilterEvaluator(models, allModelIssues);
 
         filterExprs.stream().distinct().forEach(filterExpr -> {
             boolean hasUpdatedQualifier = Qualifier.hasUpdatedQualifier(filterExpr);
 
             try {
                 FilterExpression filterExprNoAlias = Qualifier.replaceMilestoneAliases(models, filterExpr);
+                Comparator<TurboIssue> comparator = determineComparator(filterExprNoAlias, hasUpdatedQualifier);
+                int count = Qualifier.determineCount(allModelIssues, filterExprNoAlias);
 
-                List<TurboIssue> processedIssues = allModelIssues.stream()
-                        .filter(issue -> Qualifier.process(models,
-                                                           filterExprNoAlias, issue))
-                        .sorted(determineComparator(filterExprNoAlias,
-                                                    hasUpdatedQualifier))
-                        .limit(Qualifier.determineCount(allModelIssues,
-                                                        filterExprNoAlias))
-                        .collect(Collectors.toList());
+                List<TurboIssue> sortedIssues = evaluator.filter(filterExprNoAlias);
+                sortedIssues.sort(comparator);
+                List<TurboIssue> processedIssues = sortedIssues.subList(0, Math.min(count, sortedIssues.size()));
 
                 List<GuiElement> processedElements = produceGuiElements(models, processedIssues);
 
@@ -167,8 +230,18 @@ public class UpdateController {
                     Platform.runLater(() -> UI.events.triggerEvent(new FilterWarningEvent(filterExpr, warnings)));
                 }
 
-                processed.put(filterExpr, processedElements);
+                // Results that depend on the current time or on read state, which can change without
+                // the model recording it, can't be brought up to date with changes to issues
+                if (hasUpdatedQualifier || Qualifier.hasReadStateQualifier(filterExpr)) {
+                    filterResults.remove(filterExpr);
+                } else {
+                    filterResults.put(filterExpr, new FilterResult(filterExprNoAlias, comparator, count,
+                                                                   sortedIssues, processedElements));
+                }
+
+                processed.put(filterExpr, new ArrayList<>(processedElements));
             } catch (FilterException e) {
+                filterResults.remove(filterExpr);
                 Platform.runLater(() -> UI.events.triggerEvent(new FilterExceptionEvent(filterExpr, e.getMessage())));
             }
         });
@@ -176,6 +249,48 @@ public class UpdateController {
         return processed;
     }
 
+    /**
+     * Processes filter expressions as {@link #processFilters} does, except that filter expressions which were
+     * processed before only have the issues changed since then re-tested and re-positioned in their results.
+     * Expressions are processed in full if they have not been processed before, or if the models have
+     * changed in ways other than in individual issues.
+     *
+     * @param filterExprs Filter expressions
+     * @return Filter expressions and their corresponding issues after filtering, sorting and counting.
+     */
+    public synchronized Map<FilterExpression, List<GuiElement>> processFilterChanges(
+            List<FilterExpression> filterExprs) {
+        MultiModel models = logic.getModels();
+        Optional<Map<String, Set<Integer>>> issueChanges = models.takeIssueChanges();
+
+        if (!issueChanges.isPresent()) {
+            filterResults.clear();
+            return processFilters(filterExprs);
+        } else if (!issueChanges.get().isEmpty()) {
+            // The changes have been taken, so results not brought up to date now never will be
+            filterResults.keySet().retainAll(filterExprs);
+        }
+
+        Map<FilterExpression, List<GuiElement>> processed = new HashMap<>();
+        List<FilterExpression> toProcess = new ArrayList<>();
+
+        filterExprs.stream().distinct().forEach(filterExpr -> {
+            Optional<List<GuiElement>> updatedElements = Optional.ofNullable(filterResults.get(filterExpr))
+                    .flatMap(result -> result.update(models, filterExpr, issueChanges.get()));
+            if (updatedElements.isPresent()) {
+                processed.put(filterExpr, updatedElements.get());
+            } else {
+                filterResults.remove(filterExpr);
+                toProcess.add(filterExpr);
+            }
+        });
+
+        if (!toProcess.isEmpty()) {
+            processed.putAll(processFilters(toProcess));
+        }
+        return processed;
+    }
+
     /**
      * Produces a suitable comparator based on the given filter expression.
      *
@@ -210,17 +325,182 @@ public class UpdateController {
      * @param processedIssues The list of issues to construct GUIElements for.
      * @return A list of GUIElements corresponding to the given list of issues.
      */
-    private List<GuiElement> produceGuiElements(MultiModel models, List<TurboIssue> processedIssues) {
-        return processedIssues.stream().map(issue -> {
-            Optional<Model> modelOfIssue = models.getModelById(issue.getRepoId());
-            assert modelOfIssue.isPresent();
-
-            return new GuiElement(issue,
-                                  models.getLabelsOfIssue(issue),
-                                  models.getMilestoneOfIssue(issue),
-                                  models.getAssigneeOfIssue(issue),
-                                  models.getAuthorOfIssue(issue)
-            );
-        }).collect(Collectors.toList());
+    private static List<GuiElement> produceGuiElements(MultiModel models, List<TurboIssue> processedIssues) {
+        return processedIssues.stream()
+                .map(issue -> produceGuiElement(models, issue))
+                .collect(Collectors.toList());
+    }
+
+    private static GuiElement produceGuiElement(MultiModel models, TurboIssue issue) {
+        Optional<Model> modelOfIssue = models.getModelById(issue.getRepoId());
+        assert modelOfIssue.isPresent();
+
+        return new GuiElement(issue,
+                              models.getLabelsOfIssue(issue),
+                              models.getMilestoneOfIssue(issue),
+                              models.getAssigneeOfIssue(issue),
+                              models.getAuthorOfIssue(issue)
+        );
+    }
+
+    /**
+     * A request to refresh panels, with the filter expressions they had when it was made.
+     */
+    private class Refresh {
+        private final Map<FilterPanel, FilterExpression> filterExprs = new LinkedHashMap<>();
+        private final Map<FilterPanel, Long> generations = new HashMap<>();
+        private final long requestTime = System.nanoTime();
+
+        Refresh(List<FilterPanel> filterPanels) {
+            synchronized (panelGenerations) {
+                filterPanels.forEach(panel -> {
+                    long generation = panelGenerations.getOrDefault(panel, 0L) + 1;
+                    panelGenerations.put(panel, generation);
+                    generations.put(panel, generation);
+                    filterExprs.put(panel, panel.getCurrentFilterExpression());
+                });
+            }
+        }
+
+        /**
+         * Returns the filter expressions of the panels which have not been refreshed again since.
+         */
+        List<FilterExpression> getLatestFilterExpressions() {
+            synchronized (panelGenerations) {
+                return filterExprs.entrySet().stream()
+                        .filter(entry -> generations.get(entry.getKey()).equals(panelGenerations.get(entry.getKey())))
+                        .map(Map.Entry::getValue)
+                        .distinct()
+                        .collect(Collectors.toList());
+            }
+        }
+    }
+
+    /**
+     * The issues satisfying a filter expression, in sorted order, as of when it was last processed.
+     * Can be brought up to date with changes to individual issues by re-testing and re-positioning
+     * just those issues, provided that nothing else in the models has changed.
+     */
+    private static class FilterResult {
+        private final FilterExpression filterExprNoAlias;
+        private final Comparator<TurboIssue> comparator;
+        private final int count;
+
+        // All issues satisfying the filter expression, before the count is applied, along with the
+        // element of each issue; elements are only produced once the issue is within the count
+        private final List<TurboIssue> sortedIssues;
+        private final List<GuiElement> sortedElements;
+
+        // Only compiled once the result is first brought up to date
+        private Predicate<TurboIssue> predicate;
+
+        // Position of each issue in the models, used to order issues which the comparator considers equal
+        // in the same way as the stable sort in processFilters; built only when needed
+        private Map<TurboIssue, Integer> modelOrder;
+
+        FilterResult(FilterExpression filterExprNoAlias, Comparator<TurboIssue> comparator, int count,
+                     List<TurboIssue> sortedIssues, List<GuiElement> elements) {
+            this.filterExprNoAlias = filterExprNoAlias;
+            this.comparator = comparator;
+            this.count = count;
+            this.sortedIssues = new ArrayList<>(sortedIssues);
+            this.sortedElements = new ArrayList<>(elements);
+            this.sortedElements.addAll(Collections.nCopies(sortedIssues.size() - elements.size(), null));
+        }
+
+        /**
+         * Brings this result up to date with changes to the given issues.
+         *
+         * @param filterExpr   the filter expression this is the result of
+         * @param issueChanges ids of the changed issues, by repository
+         * @return the elements to show, or empty if the filter expression has to be processed in full
+         */
+        Optional<List<GuiElement>> update(MultiModel models, FilterExpression filterExpr,
+                                          Map<String, Set<Integer>> issueChanges) {
+            try {
+                // Milestone aliases depend on the current date
+                if (!Qualifier.replaceMilestoneAliases(models, filterExpr).equals(filterExprNoAlias)) {
+                    return Optional.empty();
+                }
+                if (!issueChanges.isEmpty()) {
+                    if (predicate == null) {
+                        predicate = Qualifier.compile(models, filterExprNoAlias);
+                    }
+                    removeChangedIssues(issueChanges);
+                    issueChanges.forEach((repoId, issueIds) -> {
+                        Optional<Model> model = models.getModelById(repoId);
+                        issueIds.forEach(issueId -> model
+                                .flatMap(m -> m.getIssueById(issueId))
+                                .filter(predicate)
+                                .ifPresent(issue -> insert(models, issue)));
+                    });
+                    modelOrder = null;
+                }
+            } catch (FilterException e) {
+                return Optional.empty();
+            }
+
+            int shown = Math.min(count, sortedIssues.size());
+            for (int i = 0; i < shown; i++) {
+                if (sortedElements.get(i) == null) {
+                    sortedElements.set(i, produceGuiElement(models, sortedIssues.get(i)));
+                }
+            }
+            return Optional.of(new ArrayList<>(sortedElements.subList(0, shown)));
+        }
+
+        private void removeChangedIssues(Map<String, Set<Integer>> issueChanges) {
+            int kept = 0;
+            for (int i = 0; i < sortedIssues.size(); i++) {
+                TurboIssue issue = sortedIssues.get(i);
+                Set<Integer> changedIds = issueChanges.get(issue.getRepoId());
+                if (changedIds == null || !changedIds.contains(issue.getId())) {
+                    sortedIssues.set(kept, issue);
+                    sortedElements.set(kept, sortedElements.get(i));
+                    kept++;
+                }
+            }
+            sortedIssues.subList(kept, sortedIssues.size()).clear();
+            sortedElements.subList(kept, sortedElements.size()).clear();
+        }
+
+        private void insert(MultiModel models, TurboIssue issue) {
+            int low = findFirst(issue, true);
+            int high = findFirst(issue, false);
+            if (low < high) {
+                if (modelOrder == null) {
+                    modelOrder = new IdentityHashMap<>();
+                    List<TurboIssue> allModelIssues = models.getIssues();
+                    for (int i = 0; i < allModelIssues.size(); i++) {
+                        modelOrder.put(allModelIssues.get(i), i);
+                    }
+                }
+                int position = modelOrder.getOrDefault(issue, Integer.MAX_VALUE);
+                while (low < high && modelOrder.getOrDefault(sortedIssues.get(low), Integer.MAX_VALUE) < position) {
+                    low++;
+                }
+            }
+            sortedIssues.add(low, issue);
+            sortedElements.add(low, produceGuiElement(models, issue));
+        }
+
+        /**
+         * Returns the index of the first issue not ordered before the given issue if inclusive,
+         * or of the first issue ordered after it otherwise.
+         */
+        private int findFirst(TurboIssue issue, boolean inclusive) {
+            int low = 0;
+            int high = sortedIssues.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int comparison = comparator.compare(sortedIssues.get(mid), issue);
+                if (comparison < 0 || !inclusive && comparison == 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
     }
 }
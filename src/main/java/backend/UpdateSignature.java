@@ -3,7 +3,7 @@ package backend;
 import java.util.Date;
 
 /**
- * Aggregation of resource ETags and last-check time.
+ * Aggregation of resource ETags, last-check time and the pull request cursor.
  * Characterises the state of a Model after the last update that occurred.
  */
 public class UpdateSignature {
@@ -16,6 +16,9 @@ public class UpdateSignature {
     public final String collaboratorsETag;
     public final Date lastCheckTime;
 
+    // The latest update time of the pull requests known; null if it has yet to be found
+    public final Date pullRequestsCursor;
+
     private UpdateSignature() {
         issuesETag = null;
         labelsETag = null;
@@ -24,16 +27,23 @@ public class UpdateSignature {
 
         // This initialisation is a reasonable default
         lastCheckTime = new Date();
+        pullRequestsCursor = null;
     }
 
     public UpdateSignature(String issuesETag, String labelsETag, String milestonesETag, String collaboratorsETag,
                            Date lastCheckTime) {
+        this(issuesETag, labelsETag, milestonesETag, collaboratorsETag, lastCheckTime, null);
+    }
+
+    public UpdateSignature(String issuesETag, String labelsETag, String milestonesETag, String collaboratorsETag,
+                           Date lastCheckTime, Date pullRequestsCursor) {
 
         this.issuesETag = issuesETag;
         this.labelsETag = labelsETag;
         this.milestonesETag = milestonesETag;
         this.collaboratorsETag = collaboratorsETag;
         this.lastCheckTime = new Date(lastCheckTime.getTime());
+        this.pullRequestsCursor = pullRequestsCursor == null ? null : new Date(pullRequestsCursor.getTime());
     }
 
     public boolean isEmpty() {
@@ -41,7 +51,7 @@ public class UpdateSignature {
     }
 
     /**
-     * lastCheckTime does not contribute to equality of signatures.
+     * lastCheckTime and pullRequestsCursor do not contribute to equality of signatures.
      */
     @Override
     public boolean equals(Object o) {
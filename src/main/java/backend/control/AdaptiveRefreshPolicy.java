@@ -0,0 +1,88 @@
+package backend.control;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refreshes repositories that have changed recently more often than those that have been quiet,
+ * and repositories on the board more often than those that are not, within the rate limit.
+ * <p>
+ * A repository that has changed within the active period is refreshed at the minimum interval.
+ * Otherwise its interval starts at the base interval and doubles for every backoff period it has
+ * been quiet for, up to the maximum interval, and is longer still if no panel refers to it.
+ * <p>
+ * If refreshing every repository that often would use up the requests remaining before the next
+ * reset, less those reserved for the user's own actions, all intervals are lengthened in proportion
+ * so that the remaining requests last until the reset.
+ */
+public class AdaptiveRefreshPolicy implements RefreshPolicy {
+
+    public static final long MIN_INTERVAL = TimeUnit.SECONDS.toMillis(20);
+    public static final long BASE_INTERVAL = TimeUnit.SECONDS.toMillis(60);
+    public static final long MAX_INTERVAL = TimeUnit.MINUTES.toMillis(15);
+
+    static final long ACTIVE_PERIOD = TimeUnit.MINUTES.toMillis(5);
+    static final long BACKOFF_PERIOD = TimeUnit.MINUTES.toMillis(10);
+    static final int HIDDEN_FACTOR = 4;
+
+    // Issues, pull requests, labels, milestones and users; unchanged pages cost nothing
+    public static final int REQUESTS_PER_REFRESH = 5;
+
+    // Left for the user's own actions, and for downloading metadata
+    public static final int RESERVED_REQUESTS = 200;
+
+    @Override
+    public Map<String, Long> getRefreshIntervals(List<RepoActivity> repos,
+                                                 Optional<ImmutablePair<Integer, Long>> rateLimits, long now) {
+        Map<String, Long> intervals = new HashMap<>();
+        repos.forEach(repo -> intervals.put(repo.getRepoId(), getActivityInterval(repo, now)));
+        if (rateLimits.isPresent()) {
+            fitToRateLimit(intervals, rateLimits.get(), now);
+        }
+        return intervals;
+    }
+
+    private static long getActivityInterval(RepoActivity repo, long now) {
+        long quietTime = Math.max(0, now - repo.getLastChangedAt());
+        long interval;
+        if (quietTime < ACTIVE_PERIOD) {
+            interval = MIN_INTERVAL;
+        } else {
+            // Capped so that the shift cannot overflow
+            long doublings = Math.min(quietTime / BACKOFF_PERIOD, 16);
+            interval = BASE_INTERVAL << doublings;
+        }
+        if (!repo.isVisible()) {
+            interval *= HIDDEN_FACTOR;
+        }
+        return Math.min(interval, MAX_INTERVAL);
+    }
+
+    /**
+     * Lengthens the given intervals in proportion if refreshing at them would take more requests than
+     * can be spared before the next reset.
+     */
+    private static void fitToRateLimit(Map<String, Long> intervals, ImmutablePair<Integer, Long> rateLimits,
+                                       long now) {
+        long timeToReset = Math.max(rateLimits.right - now, MIN_INTERVAL);
+        int budget = rateLimits.left - RESERVED_REQUESTS;
+        if (budget <= 0) {
+            // Nothing to spare; wait for the reset
+            intervals.replaceAll((repoId, interval) -> Math.max(interval, timeToReset));
+            return;
+        }
+
+        double requestsUntilReset = intervals.values().stream()
+                .mapToDouble(interval -> REQUESTS_PER_REFRESH * (double) timeToReset / interval)
+                .sum();
+        if (requestsUntilReset > budget) {
+            double factor = requestsUntilReset / budget;
+            intervals.replaceAll((repoId, interval) -> (long) Math.ceil(interval * factor));
+        }
+    }
+}
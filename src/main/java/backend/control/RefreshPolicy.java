@@ -0,0 +1,25 @@
+package backend.control;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Decides how often each open repository is refreshed.
+ */
+public interface RefreshPolicy {
+
+    /**
+     * Returns the time in milliseconds to wait after each of the given repositories is refreshed
+     * before refreshing it again.
+     *
+     * @param repos      the open repositories
+     * @param rateLimits the number of requests remaining and the next reset time, if known
+     * @param now        the current time in epoch milliseconds
+     * @return the refresh interval of each repository, by repository id
+     */
+    Map<String, Long> getRefreshIntervals(List<RepoActivity> repos, Optional<ImmutablePair<Integer, Long>> rateLimits,
+                                          long now);
+}
@@ -0,0 +1,251 @@
+package backend.control;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.logging.log4j.Logger;
+import util.HTLog;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Refreshes each open repository when it is due according to a refresh policy, instead of all of
+ * them at a fixed period.
+ * <p>
+ * Every tick, repositories which have been opened are added to the schedule, and those that are due
+ * are refreshed together. Only one refresh is in progress at a time; repositories that fall due
+ * meanwhile are refreshed after it. Once a refresh completes, the repositories that changed are
+ * recorded, and the intervals of all repositories are recomputed from the policy.
+ * <p>
+ * This class is thread-safe. Time is taken from the given clock, so that the schedule may be
+ * tested by calling {@link #tick() tick} directly with a fake clock.
+ */
+public class RefreshScheduler {
+
+    private static final Logger logger = HTLog.get(RefreshScheduler.class);
+
+    private static final int TICK_PERIOD = 1;
+
+    private final RefreshPolicy policy;
+    private final Clock clock;
+
+    // Returns the ids of the open repositories
+    private final Supplier<Set<String>> openRepos;
+
+    // Refreshes the given repositories, completing with the ids of those that changed
+    private final Function<Set<String>, CompletableFuture<Set<String>>> refresher;
+
+    // Called every tick with the number of seconds until each repository is refreshed
+    private final Consumer<Map<String, Integer>> onTick;
+
+    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(1);
+
+    // Mutable state -- all access to these fields must be synchronized!
+    private final Map<String, ScheduledRepo> repos = new HashMap<>();
+    private Optional<Set<String>> visibleRepos = Optional.empty();
+    private Optional<ImmutablePair<Integer, Long>> rateLimits = Optional.empty();
+    private boolean isRefreshing = false;
+    private boolean started = false;
+
+    /**
+     * @param policy     decides how often each repository is refreshed
+     * @param clock      the source of the current time
+     * @param openRepos  returns the ids of the open repositories
+     * @param refresher  refreshes the given repositories, completing with the ids of those that changed
+     * @param onTick     called every tick with the number of seconds until each repository is refreshed
+     */
+    public RefreshScheduler(RefreshPolicy policy, Clock clock, Supplier<Set<String>> openRepos,
+                            Function<Set<String>, CompletableFuture<Set<String>>> refresher,
+                            Consumer<Map<String, Integer>> onTick) {
+        this.policy = policy;
+        this.clock = clock;
+        this.openRepos = openRepos;
+        this.refresher = refresher;
+        this.onTick = onTick;
+    }
+
+    /**
+     * Starts ticking. Must be called in pairs with {@link #stop() stop}.
+     */
+    public void start() {
+        synchronized (this) {
+            assert !started : "Attempt to start RefreshScheduler that has already been started";
+            started = true;
+        }
+        executor.scheduleWithFixedDelay(this::tick, 0, TICK_PERIOD, TimeUnit.SECONDS);
+        logger.info("Started RefreshScheduler");
+    }
+
+    /**
+     * Stops ticking and cleans up the threading machinery. Must be called in pairs with {@link #start() start}.
+     */
+    public void stop() {
+        synchronized (this) {
+            assert started : "Attempt to stop RefreshScheduler that is not running";
+            started = false;
+        }
+        executor.shutdown();
+        logger.info("Stopped RefreshScheduler");
+    }
+
+    /**
+     * Refreshes all open repositories on the next tick.
+     */
+    public synchronized void refreshAll() {
+        repos.values().forEach(repo -> repo.nextRefreshAt = Long.MIN_VALUE);
+    }
+
+    /**
+     * Sets the repositories referred to by panels on the board. Until this is called, all
+     * repositories are taken to be.
+     */
+    public synchronized void setVisibleRepos(Set<String> repoIds) {
+        visibleRepos = Optional.of(new HashSet<>(repoIds));
+        reschedule(clock.millis());
+    }
+
+    /**
+     * Sets the number of requests remaining and the next reset time.
+     */
+    public synchronized void updateRateLimits(ImmutablePair<Integer, Long> rateLimits) {
+        this.rateLimits = Optional.of(rateLimits);
+        reschedule(clock.millis());
+    }
+
+    /**
+     * Refreshes the repositories that are due, if no refresh is in progress.
+     * Called every tick once started.
+     */
+    public void tick() {
+        Set<String> due;
+        Map<String, Integer> schedule;
+        synchronized (this) {
+            long now = clock.millis();
+            updateOpenRepos(now);
+            due = repos.values().stream()
+                    .filter(repo -> repo.nextRefreshAt <= now)
+                    .map(repo -> repo.repoId)
+                    .collect(Collectors.toSet());
+            if (isRefreshing || due.isEmpty()) {
+                due = Collections.emptySet();
+            } else {
+                isRefreshing = true;
+            }
+            schedule = getSchedule(now);
+        }
+
+        onTick.accept(schedule);
+        if (due.isEmpty()) {
+            return;
+        }
+
+        logger.info("Refreshing " + due);
+        Set<String> refreshed = due;
+        try {
+            refresher.apply(refreshed).whenComplete((changed, e) -> {
+                if (e != null) {
+                    logger.error("Failed to refresh " + refreshed, e);
+                }
+                onRefreshed(refreshed, changed == null ? Collections.emptySet() : changed);
+            });
+        } catch (RuntimeException e) {
+            logger.error("Failed to refresh " + refreshed, e);
+            onRefreshed(refreshed, Collections.emptySet());
+        }
+    }
+
+    /**
+     * Returns the number of seconds until each open repository is refreshed, by repository id.
+     */
+    public synchronized Map<String, Integer> getSchedule() {
+        return getSchedule(clock.millis());
+    }
+
+    private Map<String, Integer> getSchedule(long now) {
+        Map<String, Integer> schedule = new TreeMap<>();
+        repos.values().forEach(repo -> schedule.put(
+                repo.repoId, (int) Math.max(0, TimeUnit.MILLISECONDS.toSeconds(repo.nextRefreshAt - now))));
+        return schedule;
+    }
+
+    private synchronized void onRefreshed(Set<String> refreshed, Set<String> changed) {
+        long now = clock.millis();
+        refreshed.stream()
+                .filter(repos::containsKey)
+                .forEach(repoId -> {
+                    ScheduledRepo repo = repos.get(repoId);
+                    repo.lastRefreshedAt = now;
+                    if (changed.contains(repoId)) {
+                        repo.lastChangedAt = now;
+                    }
+                    // To be rescheduled, unless all repositories were asked to be refreshed meanwhile
+                    if (repo.nextRefreshAt != Long.MIN_VALUE) {
+                        repo.nextRefreshAt = Long.MAX_VALUE;
+                    }
+                });
+        isRefreshing = false;
+        reschedule(now);
+    }
+
+    /**
+     * Adds repositories that have been opened since the last tick, which have just been downloaded,
+     * and removes those that have been closed.
+     */
+    private void updateOpenRepos(long now) {
+        Set<String> open = openRepos.get();
+        boolean isChanged = repos.keySet().retainAll(open);
+        for (String repoId : open) {
+            if (!repos.containsKey(repoId)) {
+                repos.put(repoId, new ScheduledRepo(repoId, now));
+                isChanged = true;
+            }
+        }
+        if (isChanged) {
+            reschedule(now);
+        }
+    }
+
+    private void reschedule(long now) {
+        List<RepoActivity> activities = new ArrayList<>();
+        repos.values().forEach(repo -> activities.add(new RepoActivity(
+                repo.repoId, repo.lastChangedAt,
+                !visibleRepos.isPresent() || visibleRepos.get().contains(repo.repoId))));
+
+        Map<String, Long> intervals = policy.getRefreshIntervals(activities, rateLimits, now);
+        repos.values().forEach(repo -> {
+            // Repositories that are already due stay due; those just opened or refreshed are not yet scheduled
+            if (repo.nextRefreshAt > now && intervals.containsKey(repo.repoId)) {
+                repo.nextRefreshAt = Math.max(now, repo.lastRefreshedAt + intervals.get(repo.repoId));
+            }
+        });
+    }
+
+    private static class ScheduledRepo {
+        private final String repoId;
+        private long lastRefreshedAt;
+        private long lastChangedAt;
+        private long nextRefreshAt;
+
+        ScheduledRepo(String repoId, long openedAt) {
+            this.repoId = repoId;
+            this.lastRefreshedAt = openedAt;
+            this.lastChangedAt = openedAt;
+            this.nextRefreshAt = Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package backend.control;
+
+/**
+ * What a refresh policy knows about an open repository when scheduling its next refresh.
+ */
+public class RepoActivity {
+
+    private final String repoId;
+
+    // Epoch milliseconds
+    private final long lastChangedAt;
+
+    private final boolean isVisible;
+
+    public RepoActivity(String repoId, long lastChangedAt, boolean isVisible) {
+        this.repoId = repoId;
+        this.lastChangedAt = lastChangedAt;
+        this.isVisible = isVisible;
+    }
+
+    public String getRepoId() {
+        return repoId;
+    }
+
+    /**
+     * Returns the time at which the repository was last found to have changed, or was opened if
+     * it has not changed since.
+     */
+    public long getLastChangedAt() {
+        return lastChangedAt;
+    }
+
+    /**
+     * Returns true if the repository is referenced by a panel on the board.
+     */
+    public boolean isVisible() {
+        return isVisible;
+    }
+}
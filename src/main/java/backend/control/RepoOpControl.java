@@ -6,14 +6,19 @@ import backend.github.GitHubModelUpdatesData;
 import backend.resource.Model;
 import backend.resource.MultiModel;
 import backend.resource.TurboIssue;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * A means of repo-level synchronisation for select RepoIO operations. Only one instance of this class
@@ -27,8 +32,15 @@ public final class RepoOpControl {
     private final RepoIO repoIO;
     private final MultiModel models;
 
-    private final ExecutorService pool = Executors.newCachedThreadPool();
-    private final Map<String, BlockingQueue<RepoOp>> queues = new HashMap<>();
+    private static final int POOL_SIZE = 4;
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 60;
+
+    // Shared by all instances, so that replaced instances leave no threads behind
+    private static final ThreadPoolExecutor pool = createPool();
+
+    // Queues of repositories with operations queued or in progress, and their metrics; idle queues are removed
+    private final ConcurrentMap<String, RepoOpQueue> queues = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, RepoOpStats> stats = new ConcurrentHashMap<>();
 
     public RepoOpControl(RepoIO repoIO, MultiModel models) {
         this.repoIO = repoIO;
@@ -36,9 +48,16 @@ public final class RepoOpControl {
     }
 
     public CompletableFuture<Model> openRepository(String repoId) {
-        init(repoId);
+        return openRepository(repoId, partialModel -> {});
+    }
+
+    /**
+     * Opens a repository, handing partial models of it to the partial model consumer if it has to be
+     * downloaded, as with {@link RepoIO#openRepository(String, Consumer)}.
+     */
+    public CompletableFuture<Model> openRepository(String repoId, Consumer<Model> partialModelConsumer) {
         CompletableFuture<Model> result = new CompletableFuture<>();
-        enqueue(new OpenRepoOp(repoId, repoIO, result));
+        enqueue(new OpenRepoOp(repoId, repoIO, partialModelConsumer, result));
         return result;
     }
 
@@ -52,11 +71,10 @@ public final class RepoOpControl {
      */
     public CompletableFuture<Model> updateLocalModel(GitHubModelUpdatesData updates,
                                                      boolean syncOperation) {
-        init(updates.getRepoId());
         CompletableFuture<Model> result = new CompletableFuture<>();
         UpdateLocalModelOp op = new UpdateLocalModelOp(models, updates, result);
         if (syncOperation) {
-            enqueue(new UpdateLocalModelOp(models, updates, result));
+            enqueue(op);
         } else {
             op.perform();
         }
@@ -64,50 +82,77 @@ public final class RepoOpControl {
     }
 
     public CompletableFuture<Boolean> removeRepository(String repoId) {
-        init(repoId);
         CompletableFuture<Boolean> result = new CompletableFuture<>();
         enqueue(new RemoveRepoOp(repoId, repoIO, result));
         return result;
     }
 
     public CompletableFuture<Boolean> editIssueStateOnServer(TurboIssue issue, boolean isOpen) {
-        init(issue.getRepoId());
+        return editIssueStateOnServer(issue, issue.isOpen(), isOpen, isOpenOriginally -> {});
+    }
+
+    /**
+     * Edits the state of an issue on the server, given the state it had before it was edited locally,
+     * which {@code issue} no longer has if the local edit has been made, and a means of reverting the local
+     * edit to a state if the server edit fails
+     */
+    public CompletableFuture<Boolean> editIssueStateOnServer(TurboIssue issue, boolean isOpenOriginally,
+                                                             boolean isOpen, Consumer<Boolean> revertLocally) {
         CompletableFuture<Boolean> result = new CompletableFuture<>();
-        enqueue(new EditIssueStateOnServerOp(repoIO, result, issue, isOpen));
+        enqueue(new EditIssueStateOnServerOp(repoIO, result, issue, isOpenOriginally, isOpen, revertLocally));
         return result;
     }
 
     public CompletableFuture<Optional<TurboIssue>> editIssueStateLocally(TurboIssue issue, boolean isOpen) {
-        init(issue.getRepoId());
         CompletableFuture<Optional<TurboIssue>> result = new CompletableFuture<>();
         enqueue(new EditIssueStateLocallyOp(models, result, issue, isOpen));
         return result;
     }
 
     public CompletableFuture<Boolean> replaceIssueLabelsOnServer(TurboIssue issue, List<String> labels) {
-        init(issue.getRepoId());
+        return replaceIssueLabelsOnServer(issue, issue.getLabels(), labels, originalLabels -> {});
+    }
+
+    /**
+     * Replaces the labels of an issue on the server, given the labels it had before they were replaced
+     * locally, which {@code issue} no longer has if the local edit has been made, and a means of reverting
+     * the local edit to some labels if the server edit fails
+     */
+    public CompletableFuture<Boolean> replaceIssueLabelsOnServer(TurboIssue issue, List<String> originalLabels,
+                                                                 List<String> labels,
+                                                                 Consumer<List<String>> revertLocally) {
         CompletableFuture<Boolean> result = new CompletableFuture<>();
-        enqueue(new ReplaceIssueLabelsOnServerOp(repoIO, result, issue, labels));
+        enqueue(new ReplaceIssueLabelsOnServerOp(repoIO, result, issue, originalLabels, labels, revertLocally));
         return result;
     }
 
     public CompletableFuture<Optional<TurboIssue>> replaceIssueLabelsLocally(TurboIssue issue, List<String> labels) {
-        init(issue.getRepoId());
         CompletableFuture<Optional<TurboIssue>> result = new CompletableFuture<>();
         enqueue(new ReplaceIssueLabelsLocallyOp(models, issue, labels, result));
         return result;
     }
 
     public CompletableFuture<Boolean> replaceIssueMilestoneOnServer(TurboIssue issue, Optional<Integer> milestone) {
-        init(issue.getRepoId());
+        return replaceIssueMilestoneOnServer(issue, issue.getMilestone(), milestone, originalMilestone -> {});
+    }
+
+    /**
+     * Replaces the milestone of an issue on the server, given the milestone it had before it was replaced
+     * locally, which {@code issue} no longer has if the local edit has been made, and a means of reverting
+     * the local edit to a milestone if the server edit fails
+     */
+    public CompletableFuture<Boolean> replaceIssueMilestoneOnServer(TurboIssue issue,
+                                                                    Optional<Integer> originalMilestone,
+                                                                    Optional<Integer> milestone,
+                                                                    Consumer<Optional<Integer>> revertLocally) {
         CompletableFuture<Boolean> result = new CompletableFuture<>();
-        enqueue(new ReplaceIssueMilestoneOnServerOp(repoIO, result, issue, milestone));
+        enqueue(new ReplaceIssueMilestoneOnServerOp(repoIO, result, issue, originalMilestone, milestone,
+                                                    revertLocally));
         return result;
     }
 
     public CompletableFuture<Optional<TurboIssue>> replaceIssueMilestoneLocally(TurboIssue issue,
                                                                                 Optional<Integer> milestone) {
-        init(issue.getRepoId());
         CompletableFuture<Optional<TurboIssue>> result = new CompletableFuture<>();
         enqueue(new ReplaceIssueMilestoneLocallyOp(models, result, issue, milestone));
         return result;
@@ -115,64 +160,83 @@ public final class RepoOpControl {
 
     public CompletableFuture<Boolean> replaceIssueAssigneeOnServer(TurboIssue issue,
                                                                    Optional<String> assigneeLoginName) {
-        init(issue.getRepoId());
+        return replaceIssueAssigneeOnServer(issue, issue.getAssignee(), assigneeLoginName,
+                                            originalAssigneeLoginName -> {});
+    }
+
+    /**
+     * Replaces the assignee of an issue on the server, given the assignee it had before it was replaced
+     * locally, which {@code issue} no longer has if the local edit has been made, and a means of reverting
+     * the local edit to an assignee if the server edit fails
+     */
+    public CompletableFuture<Boolean> replaceIssueAssigneeOnServer(TurboIssue issue,
+                                                                   Optional<String> originalAssigneeLoginName,
+                                                                   Optional<String> assigneeLoginName,
+                                                                   Consumer<Optional<String>> revertLocally) {
         CompletableFuture<Boolean> result = new CompletableFuture<>();
-        enqueue(new ReplaceIssueAssigneeOnServerOp(repoIO, result, issue, assigneeLoginName));
+        enqueue(new ReplaceIssueAssigneeOnServerOp(repoIO, result, issue, originalAssigneeLoginName,
+                                                   assigneeLoginName, revertLocally));
         return result;
     }
 
     public CompletableFuture<Optional<TurboIssue>> replaceIssueAssigneeLocally(TurboIssue issue,
                                                                                Optional<String> assigneeLoginName) {
-        init(issue.getRepoId());
         CompletableFuture<Optional<TurboIssue>> result = new CompletableFuture<>();
         enqueue(new ReplaceIssueAssigneeLocallyOp(models, issue, assigneeLoginName, result));
         return result;
     }
 
     /**
-     * Ensures that repo-specific state is initialised. Should be called
-     * at the start of each operation method.
+     * Returns the metrics of the operations on the given repository since its queue was last idle,
+     * if it has operations queued or in progress.
      */
-    private void init(String repoId) {
-        boolean isNewRepo = !queues.containsKey(repoId);
-        if (isNewRepo) {
-            // We want an unbounded deque so enqueueing will never block
-            // and can flexibly add and remove operations.
-            queues.put(repoId, new LinkedBlockingDeque<>());
-            pool.execute(() -> dequeue(repoId));
-        }
+    public Optional<RepoOpStats> getStats(String repoId) {
+        return Optional.ofNullable(stats.get(repoId));
     }
 
     /**
-     * Enqueues an operation to be handled later. Operations on the same repo
-     * (and in the same queue) are guaranteed to be handled by the same thread.
+     * Returns the number of repositories with operations queued or in progress.
      */
-    private void enqueue(RepoOp op) {
-        BlockingQueue<RepoOp> q = queues.get(op.repoId());
-
-        // TODO scan queue for patterns
-
-        try {
-            q.put(op);
-        } catch (InterruptedException e) {
-            logger.error(e.getLocalizedMessage(), e);
-        }
+    public int getActiveQueueCount() {
+        return queues.size();
     }
 
     /**
-     * Dequeues an operation to handle it. This method may block in two scenarios:
-     * if the queue is empty (in which case take blocks) or when waiting for a task
-     * (in which case get blocks).
+     * Enqueues an operation to be handled later. Operations on the same repo
+     * (and in the same queue) are guaranteed to be handled one at a time, in order.
+     * <p>
+     * The repository's queue is created if it has none, and is removed again once it is idle, along with
+     * its metrics. Both are done atomically for the repository, so that an operation is never added to a
+     * removed queue.
      */
-    private void dequeue(String repoId) {
-        BlockingQueue<RepoOp> q = queues.get(repoId);
-
-        while (true) {
-            try {
-                q.take().perform().get();
-            } catch (ExecutionException | InterruptedException e) {
-                logger.error(e.getLocalizedMessage(), e);
+    private void enqueue(RepoOp<?> op) {
+        queues.compute(op.repoId(), (id, queue) -> {
+            RepoOpQueue result = queue;
+            if (result == null) {
+                RepoOpStats repoStats = new RepoOpStats();
+                stats.put(id, repoStats);
+                result = new RepoOpQueue(id, pool, repoStats, () -> removeIfIdle(id));
             }
-        }
+            result.add(op);
+            return result;
+        });
+    }
+
+    private void removeIfIdle(String repoId) {
+        queues.computeIfPresent(repoId, (id, queue) -> {
+            if (!queue.isIdle()) {
+                return queue;
+            }
+            stats.remove(id);
+            return null;
+        });
+    }
+
+    private static ThreadPoolExecutor createPool() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                POOL_SIZE, POOL_SIZE, IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("repo-op-%d").setDaemon(true).build());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
     }
 }
@@ -0,0 +1,131 @@
+package backend.control;
+
+import backend.control.operations.IssueOnServerOp;
+import backend.control.operations.RepoOp;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.LinkedList;
+import java.util.ListIterator;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The operations queued for a repository, which are performed one at a time on a shared pool.
+ * <p>
+ * No thread is held while the queue is empty or while an operation is in progress: each operation
+ * is started on the pool when the one before it completes, and the queue goes idle once it runs out
+ * of operations, at which point the given callback is run so that it may be reclaimed.
+ */
+class RepoOpQueue {
+
+    private static final Logger logger = LogManager.getLogger(RepoOpQueue.class.getName());
+
+    private final String repoId;
+    private final Executor pool;
+    private final RepoOpStats stats;
+    private final Runnable onIdle;
+
+    // Mutable state -- all access to these fields must be synchronized!
+    private final LinkedList<QueuedOp> pending = new LinkedList<>();
+    private boolean isRunning = false;
+
+    RepoOpQueue(String repoId, Executor pool, RepoOpStats stats, Runnable onIdle) {
+        this.repoId = repoId;
+        this.pool = pool;
+        this.stats = stats;
+        this.onIdle = onIdle;
+    }
+
+    /**
+     * Queues an operation, starting on it if the queue was idle. If the operation supersedes one that
+     * is still queued, the two are merged in place of the earlier one, and the merged operation
+     * completes the results of both.
+     */
+    synchronized void add(RepoOp<?> op) {
+        if (!merge(op)) {
+            pending.addLast(new QueuedOp(op, System.nanoTime()));
+            stats.recordQueued();
+        }
+        if (!isRunning) {
+            isRunning = true;
+            pool.execute(this::performNext);
+        }
+    }
+
+    /**
+     * Returns true if there are no operations queued or in progress.
+     */
+    synchronized boolean isIdle() {
+        return !isRunning && pending.isEmpty();
+    }
+
+    /**
+     * Merges the operation with a queued one it supersedes, if there is one, returning true if it did.
+     * <p>
+     * Operations on an issue on the server may be merged with any queued operation on the same field of
+     * the same issue, as they do not depend on the operations in between. Other operations may only be
+     * merged with the last queued operation.
+     */
+    private boolean merge(RepoOp<?> op) {
+        ListIterator<QueuedOp> it = pending.listIterator(pending.size());
+        while (it.hasPrevious()) {
+            QueuedOp queued = it.previous();
+            Optional<? extends RepoOp<?>> merged = queued.op.mergeWith(op);
+            if (merged.isPresent()) {
+                logger.info(String.format("Merged %s into a queued %s for %s", op.getClass().getSimpleName(),
+                                          queued.op.getClass().getSimpleName(), repoId));
+                it.set(new QueuedOp(merged.get(), queued.queuedAt));
+                return true;
+            }
+            if (!(op instanceof IssueOnServerOp)) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private void performNext() {
+        QueuedOp next;
+        synchronized (this) {
+            next = pending.pollFirst();
+            if (next == null) {
+                isRunning = false;
+            } else {
+                stats.recordStarted();
+            }
+        }
+        if (next == null) {
+            logger.debug(repoId + " operations: " + stats.summarise());
+            onIdle.run();
+            return;
+        }
+
+        CompletableFuture<?> done;
+        try {
+            done = next.op.perform();
+        } catch (RuntimeException e) {
+            logger.error(e.getLocalizedMessage(), e);
+            done = CompletableFuture.completedFuture(null);
+        }
+        done.whenComplete((result, e) -> {
+            if (e != null) {
+                logger.error(e.getLocalizedMessage(), e);
+            }
+            stats.recordCompleted(System.nanoTime() - next.queuedAt);
+            // Continued on the pool, as the operation may have been completed on another thread
+            pool.execute(this::performNext);
+        });
+    }
+
+    private static class QueuedOp {
+        private final RepoOp<?> op;
+        private final long queuedAt;
+
+        QueuedOp(RepoOp<?> op, long queuedAt) {
+            this.op = op;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
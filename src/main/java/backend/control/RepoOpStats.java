@@ -0,0 +1,62 @@
+package backend.control;
+
+import util.AtomicMaxInteger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of the operations queued for a repository: how many are queued, and how long they take
+ * from being queued to completing.
+ */
+public class RepoOpStats {
+
+    private final AtomicMaxInteger queueDepth = new AtomicMaxInteger(0);
+    private final AtomicLong completedOps = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    void recordQueued() {
+        queueDepth.increment();
+    }
+
+    void recordStarted() {
+        queueDepth.decrement();
+    }
+
+    void recordCompleted(long latencyNanos) {
+        completedOps.incrementAndGet();
+        totalLatencyNanos.addAndGet(latencyNanos);
+        maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    /**
+     * Returns the number of operations queued and not yet started.
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public int getMaxQueueDepth() {
+        return queueDepth.getMax();
+    }
+
+    public long getCompletedOps() {
+        return completedOps.get();
+    }
+
+    public double getAverageLatencyMillis() {
+        long completed = completedOps.get();
+        return completed == 0 ? 0 : totalLatencyNanos.get() / 1e6 / completed;
+    }
+
+    public long getMaxLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get());
+    }
+
+    public String summarise() {
+        return String.format("%d ops, %d queued (max %d), latency avg %.2f ms, max %d ms",
+                             getCompletedOps(), getQueueDepth(), getMaxQueueDepth(),
+                             getAverageLatencyMillis(), getMaxLatencyMillis());
+    }
+}
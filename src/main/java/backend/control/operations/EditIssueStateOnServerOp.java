@@ -5,40 +5,41 @@ import backend.resource.TurboIssue;
 import org.apache.logging.log4j.Logger;
 import util.HTLog;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
-
-import static util.Futures.chain;
+import java.util.function.Consumer;
 
 /**
  * This class represents a repository operation that edit the open/closed state of an issue
  */
-public class EditIssueStateOnServerOp implements RepoOp<Boolean> {
-
-    private final RepoIO repoIO;
-    private final TurboIssue issue;
-    private final boolean isOpen;
-    private final CompletableFuture<Boolean> result;
+public class EditIssueStateOnServerOp extends IssueOnServerOp<Boolean> {
 
     private static final Logger logger = HTLog.get(EditIssueStateOnServerOp.class);
 
     public EditIssueStateOnServerOp(RepoIO repoIO, CompletableFuture<Boolean> result,
-                                    TurboIssue issue, boolean isOpen) {
-        this.repoIO = repoIO;
-        this.issue = issue;
-        this.isOpen = isOpen;
-        this.result = result;
+                                    TurboIssue issue, boolean isOpenOriginally, boolean isOpen,
+                                    Consumer<Boolean> revertLocally) {
+        this(repoIO, Collections.singletonList(result), issue, isOpenOriginally, isOpen, revertLocally);
     }
 
-    @Override
-    public String repoId() {
-        return issue.getRepoId();
+    private EditIssueStateOnServerOp(RepoIO repoIO, List<CompletableFuture<Boolean>> results,
+                                     TurboIssue issue, boolean isOpenOriginally, boolean isOpen,
+                                     Consumer<Boolean> revertLocally) {
+        super(EditIssueStateOnServerOp.class, repoIO, results, issue, isOpenOriginally, isOpen, revertLocally);
     }
 
     @Override
-    public CompletableFuture<Boolean> perform() {
-        String state = isOpen ? "\"Open\"" : "\"Closed\"";
+    protected CompletableFuture<Boolean> performOnServer() {
+        String state = value ? "\"Open\"" : "\"Closed\"";
         logger.info("Editing state of " + issue + " to " + state + " on GitHub");
-        return repoIO.editIssueState(issue, isOpen)
-                .thenApply(chain(result));
+        return repoIO.editIssueState(issue, value);
+    }
+
+    @Override
+    protected IssueOnServerOp<Boolean> create(List<CompletableFuture<Boolean>> results,
+                                              TurboIssue issue, Boolean isOpenOriginally, Boolean isOpen,
+                                              Consumer<Boolean> revertLocally) {
+        return new EditIssueStateOnServerOp(repoIO, results, issue, isOpenOriginally, isOpen, revertLocally);
     }
 }
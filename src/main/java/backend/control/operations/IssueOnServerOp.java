@@ -0,0 +1,122 @@
+package backend.control.operations;
+
+import backend.RepoIO;
+import backend.resource.TurboIssue;
+import org.apache.logging.log4j.Logger;
+import util.HTLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * A repository operation that sets a field of an issue on the server.
+ * <p>
+ * While it is queued, a later operation setting the same field of the same issue supersedes it: the two
+ * are merged into one which sets the later value, and completes the results of both. If the merged value
+ * is the one the issue had before the first of them, as when an edit is undone, the server is not
+ * contacted at all. If setting the merged value fails, the local edits are reverted once, to the value
+ * the issue had before the first of them.
+ *
+ * @param <V> the type of the field's value
+ */
+public abstract class IssueOnServerOp<V> implements RepoOp<Boolean> {
+
+    private static final Logger logger = HTLog.get(IssueOnServerOp.class);
+
+    // The class of the operation, which only merges with operations of the same class
+    private final Class<? extends IssueOnServerOp<V>> opClass;
+
+    protected final RepoIO repoIO;
+
+    protected final TurboIssue issue;
+
+    // The value the issue had before the first of the merged operations. Local edits change the issue
+    // in place before it is set on the server, so it cannot be read from the issue itself.
+    protected final V originalValue;
+
+    protected final V value;
+
+    private final List<CompletableFuture<Boolean>> results;
+
+    // Reverts the local edit to the given value, if it has not been edited locally since. That of the
+    // latest of the merged operations is kept, as only its local edit can still be in place.
+    private final Consumer<V> revertLocally;
+
+    protected IssueOnServerOp(Class<? extends IssueOnServerOp<V>> opClass, RepoIO repoIO,
+                              List<CompletableFuture<Boolean>> results, TurboIssue issue,
+                              V originalValue, V value, Consumer<V> revertLocally) {
+        this.opClass = opClass;
+        this.repoIO = repoIO;
+        this.results = results;
+        this.issue = issue;
+        this.originalValue = originalValue;
+        this.value = value;
+        this.revertLocally = revertLocally;
+    }
+
+    /**
+     * Sets the field to the value on the server.
+     */
+    protected abstract CompletableFuture<Boolean> performOnServer();
+
+    /**
+     * Returns true if the two values set the field to the same thing.
+     */
+    protected boolean isSameValue(V value, V otherValue) {
+        return value.equals(otherValue);
+    }
+
+    /**
+     * Creates an operation of the same type with the given results, issue, values and local revert.
+     */
+    protected abstract IssueOnServerOp<V> create(List<CompletableFuture<Boolean>> results, TurboIssue issue,
+                                                 V originalValue, V value, Consumer<V> revertLocally);
+
+    @Override
+    public String repoId() {
+        return issue.getRepoId();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> perform() {
+        if (results.size() > 1 && isSameValue(value, originalValue)) {
+            logger.info(String.format("Skipping %s for %s, as the edits merged into it undo each other",
+                                      getClass().getSimpleName(), issue));
+            results.forEach(result -> result.complete(true));
+            return CompletableFuture.completedFuture(true);
+        }
+        return performOnServer().thenApply(success -> {
+            if (!success) {
+                revert();
+            }
+            results.forEach(result -> result.complete(success));
+            return success;
+        });
+    }
+
+    @Override
+    public Optional<RepoOp<Boolean>> mergeWith(RepoOp<?> later) {
+        if (later.getClass() != opClass) {
+            return Optional.empty();
+        }
+        IssueOnServerOp<V> laterOp = opClass.cast(later);
+        if (!laterOp.repoId().equals(repoId()) || laterOp.issue.getId() != issue.getId()) {
+            return Optional.empty();
+        }
+
+        List<CompletableFuture<Boolean>> mergedResults = new ArrayList<>(results);
+        mergedResults.addAll(laterOp.results);
+        return Optional.of(create(mergedResults, issue, originalValue, laterOp.value, laterOp.revertLocally));
+    }
+
+    private void revert() {
+        try {
+            revertLocally.accept(originalValue);
+        } catch (RuntimeException e) {
+            logger.error(e.getLocalizedMessage(), e);
+        }
+    }
+}
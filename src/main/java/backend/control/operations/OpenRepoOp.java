@@ -3,6 +3,7 @@ package backend.control.operations;
 import static util.Futures.chain;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import backend.RepoIO;
 import backend.resource.Model;
@@ -11,11 +12,14 @@ public class OpenRepoOp implements RepoOp<Model> {
 
     private final String repoId;
     private final RepoIO repoIO;
+    private final Consumer<Model> partialModelConsumer;
     private final CompletableFuture<Model> result;
 
-    public OpenRepoOp(String repoId, RepoIO repoIO, CompletableFuture<Model> result) {
+    public OpenRepoOp(String repoId, RepoIO repoIO, Consumer<Model> partialModelConsumer,
+                      CompletableFuture<Model> result) {
         this.repoId = repoId;
         this.repoIO = repoIO;
+        this.partialModelConsumer = partialModelConsumer;
         this.result = result;
     }
 
@@ -26,7 +30,7 @@ public class OpenRepoOp implements RepoOp<Model> {
 
     @Override
     public CompletableFuture<Model> perform() {
-        return repoIO.openRepository(repoId)
+        return repoIO.openRepository(repoId, partialModelConsumer)
                 .thenApply(chain(result));
     }
 }
@@ -3,39 +3,45 @@ package backend.control.operations;
 import backend.RepoIO;
 import backend.resource.TurboIssue;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-
-import static util.Futures.chain;
+import java.util.function.Consumer;
 
 /**
  * This class represents a repository operation that replaces an assignee assigned to an issue
  */
-public class ReplaceIssueAssigneeOnServerOp implements RepoOp<Boolean> {
-
-    private final RepoIO repoIO;
-    private final TurboIssue issue;
-    private final Optional<String> assigneeLoginName;
-    private final CompletableFuture<Boolean> result;
+public class ReplaceIssueAssigneeOnServerOp extends IssueOnServerOp<Optional<String>> {
 
     public ReplaceIssueAssigneeOnServerOp(RepoIO repoIO, CompletableFuture<Boolean> result,
-                                        TurboIssue issue, Optional<String> assigneeLoginName) {
-        this.repoIO = repoIO;
-        this.result = result;
+                                          TurboIssue issue, Optional<String> originalAssigneeLoginName,
+                                          Optional<String> assigneeLoginName,
+                                          Consumer<Optional<String>> revertLocally) {
+        this(repoIO, Collections.singletonList(result), issue, originalAssigneeLoginName, assigneeLoginName,
+             revertLocally);
+    }
 
-        this.issue = issue;
-        this.assigneeLoginName = assigneeLoginName;
+    private ReplaceIssueAssigneeOnServerOp(RepoIO repoIO, List<CompletableFuture<Boolean>> results,
+                                           TurboIssue issue, Optional<String> originalAssigneeLoginName,
+                                           Optional<String> assigneeLoginName,
+                                           Consumer<Optional<String>> revertLocally) {
+        super(ReplaceIssueAssigneeOnServerOp.class, repoIO, results, issue, originalAssigneeLoginName,
+              assigneeLoginName, revertLocally);
     }
 
     @Override
-    public String repoId() {
-        return issue.getRepoId();
+    protected CompletableFuture<Boolean> performOnServer() {
+        return repoIO.replaceIssueAssignee(issue, value);
     }
 
     @Override
-    public CompletableFuture<Boolean> perform() {
-        return repoIO.replaceIssueAssignee(issue, assigneeLoginName)
-                .thenApply(chain(result));
+    protected IssueOnServerOp<Optional<String>> create(List<CompletableFuture<Boolean>> results,
+                                                       TurboIssue issue, Optional<String> originalAssigneeLoginName,
+                                                       Optional<String> assigneeLoginName,
+                                                       Consumer<Optional<String>> revertLocally) {
+        return new ReplaceIssueAssigneeOnServerOp(repoIO, results, issue, originalAssigneeLoginName, assigneeLoginName,
+                                                  revertLocally);
     }
 
 }
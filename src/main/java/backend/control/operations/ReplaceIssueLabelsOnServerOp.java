@@ -3,38 +3,43 @@ package backend.control.operations;
 import backend.RepoIO;
 import backend.resource.TurboIssue;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-
-import static util.Futures.chain;
+import java.util.function.Consumer;
 
 /**
  * This class represents a repository operation that replaces a list of labels assigned to an issue
  */
-public class ReplaceIssueLabelsOnServerOp implements RepoOp<Boolean> {
-
-    private final RepoIO repoIO;
-    private final TurboIssue issue;
-    private final List<String> labels;
-    private final CompletableFuture<Boolean> result;
+public class ReplaceIssueLabelsOnServerOp extends IssueOnServerOp<List<String>> {
 
     public ReplaceIssueLabelsOnServerOp(RepoIO repoIO, CompletableFuture<Boolean> result,
-                                        TurboIssue issue, List<String> labels) {
-        this.repoIO = repoIO;
-        this.result = result;
+                                        TurboIssue issue, List<String> originalLabels, List<String> labels,
+                                        Consumer<List<String>> revertLocally) {
+        this(repoIO, Collections.singletonList(result), issue, originalLabels, labels, revertLocally);
+    }
 
-        this.issue = issue;
-        this.labels = labels;
+    private ReplaceIssueLabelsOnServerOp(RepoIO repoIO, List<CompletableFuture<Boolean>> results,
+                                         TurboIssue issue, List<String> originalLabels, List<String> labels,
+                                         Consumer<List<String>> revertLocally) {
+        super(ReplaceIssueLabelsOnServerOp.class, repoIO, results, issue, originalLabels, labels, revertLocally);
+    }
+
+    @Override
+    protected CompletableFuture<Boolean> performOnServer() {
+        return repoIO.replaceIssueLabels(issue, value);
     }
 
     @Override
-    public String repoId() {
-        return issue.getRepoId();
+    protected boolean isSameValue(List<String> labels, List<String> otherLabels) {
+        return new HashSet<>(labels).equals(new HashSet<>(otherLabels));
     }
 
     @Override
-    public CompletableFuture<Boolean> perform() {
-        return repoIO.replaceIssueLabels(issue, labels)
-                .thenApply(chain(result));
+    protected IssueOnServerOp<List<String>> create(List<CompletableFuture<Boolean>> results, TurboIssue issue,
+                                                   List<String> originalLabels, List<String> labels,
+                                                   Consumer<List<String>> revertLocally) {
+        return new ReplaceIssueLabelsOnServerOp(repoIO, results, issue, originalLabels, labels, revertLocally);
     }
 }
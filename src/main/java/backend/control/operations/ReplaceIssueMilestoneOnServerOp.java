@@ -2,37 +2,39 @@ package backend.control.operations;
 
 import backend.RepoIO;
 import backend.resource.TurboIssue;
-import org.eclipse.egit.github.core.Issue;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
-import static util.Futures.chain;
-
-public class ReplaceIssueMilestoneOnServerOp implements RepoOp<Boolean> {
-    private final RepoIO repoIO;
-    private final TurboIssue issue;
-    private final Optional<Integer> milestone;
-    private final CompletableFuture<Boolean> result;
+public class ReplaceIssueMilestoneOnServerOp extends IssueOnServerOp<Optional<Integer>> {
 
     public ReplaceIssueMilestoneOnServerOp(RepoIO repoIO, CompletableFuture<Boolean> result,
-                                           TurboIssue issue, Optional<Integer> milestone) {
-        this.repoIO = repoIO;
-        this.result = result;
+                                           TurboIssue issue, Optional<Integer> originalMilestone,
+                                           Optional<Integer> milestone, Consumer<Optional<Integer>> revertLocally) {
+        this(repoIO, Collections.singletonList(result), issue, originalMilestone, milestone, revertLocally);
+    }
 
-        this.issue = issue;
-        this.milestone = milestone;
+    private ReplaceIssueMilestoneOnServerOp(RepoIO repoIO, List<CompletableFuture<Boolean>> results,
+                                            TurboIssue issue, Optional<Integer> originalMilestone,
+                                            Optional<Integer> milestone, Consumer<Optional<Integer>> revertLocally) {
+        super(ReplaceIssueMilestoneOnServerOp.class, repoIO, results, issue, originalMilestone, milestone,
+              revertLocally);
     }
 
     @Override
-    public String repoId() {
-        return issue.getRepoId();
+    protected CompletableFuture<Boolean> performOnServer() {
+        return repoIO.replaceIssueMilestone(issue, value);
     }
 
     @Override
-    public CompletableFuture<Boolean> perform() {
-        return repoIO.replaceIssueMilestone(issue, milestone)
-                .thenApply(chain(result));
+    protected IssueOnServerOp<Optional<Integer>> create(List<CompletableFuture<Boolean>> results,
+                                                        TurboIssue issue, Optional<Integer> originalMilestone,
+                                                        Optional<Integer> milestone,
+                                                        Consumer<Optional<Integer>> revertLocally) {
+        return new ReplaceIssueMilestoneOnServerOp(repoIO, results, issue, originalMilestone, milestone,
+                                                   revertLocally);
     }
 }
@@ -1,5 +1,6 @@
 package backend.control.operations;
 
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -17,4 +18,13 @@ public interface RepoOp<T> {
      * The operation's implementation.
      */
     CompletableFuture<T> perform();
+
+    /**
+     * Returns a single operation with the effect of performing this operation and then the given one,
+     * which was queued after it, and which completes the results of both. Returns empty if the two
+     * cannot be merged, as is the default.
+     */
+    default Optional<RepoOp<T>> mergeWith(RepoOp<?> later) {
+        return Optional.empty();
+    }
 }
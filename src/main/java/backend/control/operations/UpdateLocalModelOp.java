@@ -7,9 +7,13 @@ import org.apache.logging.log4j.Logger;
 import org.eclipse.egit.github.core.PullRequest;
 import util.HTLog;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * This class is a mutually exclusive operation that update a locally stored repository
@@ -18,16 +22,21 @@ import java.util.concurrent.CompletableFuture;
 public class UpdateLocalModelOp implements RepoOp<Model> {
     private final MultiModel models;
     private Model oldModel;
-    private final CompletableFuture<Model> result;
+    private final List<CompletableFuture<Model>> results;
     private final GitHubModelUpdatesData updates;
 
     private static final Logger logger = HTLog.get(UpdateLocalModelOp.class);
 
     public UpdateLocalModelOp(MultiModel models, GitHubModelUpdatesData updates,
                               CompletableFuture<Model> result) {
+        this(models, updates, Collections.singletonList(result));
+    }
+
+    private UpdateLocalModelOp(MultiModel models, GitHubModelUpdatesData updates,
+                               List<CompletableFuture<Model>> results) {
         this.models = models;
         this.updates = updates;
-        this.result = result;
+        this.results = results;
     }
 
     @Override
@@ -43,16 +52,35 @@ public class UpdateLocalModelOp implements RepoOp<Model> {
         UpdateSignature newSignature =
                 new UpdateSignature(updates.getIssues().eTag, updates.getLabels().eTag,
                                     updates.getMilestones().eTag, updates.getUsers().eTag,
-                                    updates.getIssues().lastCheckTime);
+                                    updates.getIssues().lastCheckTime,
+                                    updates.getPullRequestsCursor().orElse(null));
         Model updatedModel = new Model(updates.getRepoId(), getUpdateIssues(), getUpdatedLabels(),
                                        getUpdatedMilestones(), getUpdatedUsers(), newSignature);
 
         logger.info(HTLog.format(updatedModel.getRepoId(), "Updated model with " + updatedModel.summarise()));
         if (oldModelOptional.isPresent()) {
-            models.replace(updatedModel);
+            if (hasOnlyIssueUpdates()) {
+                models.replace(updatedModel, getUpdatedIssueIds());
+            } else {
+                models.replace(updatedModel);
+            }
+        }
+        results.forEach(result -> result.complete(updatedModel));
+        return CompletableFuture.completedFuture(updatedModel);
+    }
+
+    /**
+     * Merges with a later update of the same repository, so that the model is replaced once with both.
+     */
+    @Override
+    public Optional<RepoOp<Model>> mergeWith(RepoOp<?> later) {
+        if (!(later instanceof UpdateLocalModelOp) || !later.repoId().equals(repoId())) {
+            return Optional.empty();
         }
-        result.complete(updatedModel);
-        return result;
+        UpdateLocalModelOp laterOp = (UpdateLocalModelOp) later;
+        List<CompletableFuture<Model>> mergedResults = new ArrayList<>(results);
+        mergedResults.addAll(laterOp.results);
+        return Optional.of(new UpdateLocalModelOp(models, updates.merge(laterOp.updates), mergedResults));
     }
 
     private List<TurboIssue> getUpdateIssues() {
@@ -64,6 +92,24 @@ public class UpdateLocalModelOp implements RepoOp<Model> {
         return TurboIssue.combineWithPullRequests(updated, updatesPullRequests);
     }
 
+    /**
+     * Returns true if the update changes nothing but issues, so that the updated model only differs
+     * from the old one in the issues given by getUpdatedIssueIds.
+     */
+    private boolean hasOnlyIssueUpdates() {
+        return updates.getLabels().items.isEmpty()
+                && updates.getMilestones().items.isEmpty()
+                && updates.getUsers().items.isEmpty();
+    }
+
+    private Set<Integer> getUpdatedIssueIds() {
+        Set<Integer> issueIds = updates.getIssues().items.stream()
+                .map(TurboIssue::getId)
+                .collect(Collectors.toSet());
+        updates.getPullRequests().forEach(pullRequest -> issueIds.add(pullRequest.getNumber()));
+        return issueIds;
+    }
+
     private List<TurboLabel> getUpdatedLabels() {
         return updates.getLabels().items.isEmpty() ? oldModel.getLabels() : updates.getLabels().items;
     }
@@ -10,50 +10,226 @@ import org.apache.logging.log4j.Logger;
 import org.eclipse.egit.github.core.Comment;
 import util.HTLog;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Downloads the events and comments of a list of issues.
+ * <p>
+ * The events and comments of each issue are requested separately, so that they can be fetched at the
+ * same time, and are run by the task runner with at most {@code concurrency} requests in flight at once.
+ * No thread waits on them in the meantime.
+ * Both are requested conditionally on their ETags, so events or comments which have not changed are
+ * returned empty, and are to be reused from the issue's existing metadata when it is reconciled.
+ * As issues complete, their metadata is handed to the batch consumer in batches of {@code batchSize},
+ * so that it can be used before the rest are downloaded. Every issue's metadata is handed to the
+ * consumer exactly once before the response completes with the metadata of all issues. If the consumer
+ * throws, no further requests are made and the response completes exceptionally.
+ * <p>
+ * Issues that would take more requests than remain in the API rate limit are not fetched, and so
+ * are left out of the response.
+ */
 public class DownloadMetadataTask extends GitHubRepoTask<Map<Integer, IssueMetadata>> {
 
     private static final Logger logger = HTLog.get(DownloadMetadataTask.class);
 
+    public static final int DEFAULT_CONCURRENCY = 8;
+    public static final int DEFAULT_BATCH_SIZE = 20;
+
     private final String repoId;
     private final List<TurboIssue> issuesToUpdate;
+    private final Consumer<Map<Integer, IssueMetadata>> batchConsumer;
+    private final int concurrency;
+    private final int batchSize;
+
+    // Requests not yet started, and the number started but not completed. Guarded by pendingRequests.
+    private final Queue<Runnable> pendingRequests = new ArrayDeque<>();
+    private int requestsInFlight = 0;
+
+    // Metadata downloaded so far, and that not yet handed to the batch consumer. Guarded by result.
+    private final Map<Integer, IssueMetadata> result = new HashMap<>();
+    private final Map<Integer, IssueMetadata> batch = new HashMap<>();
+    private int issuesRemaining;
 
     public DownloadMetadataTask(TaskRunner taskRunner, Repo repo, String repoId,
                                 List<TurboIssue> issuesToUpdate) {
+        this(taskRunner, repo, repoId, issuesToUpdate, batch -> {}, DEFAULT_CONCURRENCY, DEFAULT_BATCH_SIZE);
+    }
+
+    public DownloadMetadataTask(TaskRunner taskRunner, Repo repo, String repoId,
+                                List<TurboIssue> issuesToUpdate,
+                                Consumer<Map<Integer, IssueMetadata>> batchConsumer,
+                                int concurrency, int batchSize) {
         super(taskRunner, repo);
+        assert concurrency > 0 && batchSize > 0;
         this.repoId = repoId;
         this.issuesToUpdate = issuesToUpdate;
+        this.batchConsumer = batchConsumer;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
     }
 
     @Override
     public void run() {
-        Map<Integer, IssueMetadata> result = new HashMap<>();
+        List<TurboIssue> issues = getIssuesWithinRateLimit();
+        issuesRemaining = issues.size();
 
-        issuesToUpdate.forEach(issue -> {
-            String currEventsETag = issue.getMetadata().getEventsETag();
-            String currCommentsETag = issue.getMetadata().getCommentsETag();
-            int id = issue.getId();
+        if (issues.isEmpty()) {
+            complete();
+            return;
+        }
 
-            ImmutablePair<List<TurboIssueEvent>, String> changes = repo.getUpdatedEvents(repoId, id, currEventsETag);
-
-            List<TurboIssueEvent> events = changes.getLeft();
-            String updatedEventsETag = changes.getRight();
+        issues.forEach(issue -> downloadMetadata(issue).whenComplete((metadata, e) -> {
+            if (e != null) {
+                logger.error(HTLog.format(repoId, "Failed to download metadata for #" + issue.getId()), e);
+            }
+            addMetadata(issue.getId(), Optional.ofNullable(metadata));
+        }));
+    }
 
-            List<Comment> comments = repo.getAllComments(repoId, issue);
+    /**
+     * Adds the metadata of an issue, which is empty if fetching it failed, to the result, handing the
+     * current batch to the batch consumer when it is full or the issue is the last one.
+     */
+    private void addMetadata(int id, Optional<IssueMetadata> metadata) {
+        synchronized (result) {
+            if (response.isDone()) {
+                // The batch consumer failed
+                return;
+            }
+            metadata.ifPresent(m -> batch.put(id, m));
+            issuesRemaining--;
 
-            IssueMetadata metadata = IssueMetadata.intermediate(events, comments, updatedEventsETag, currCommentsETag);
-            result.put(id, metadata);
-        });
+            boolean isLast = issuesRemaining == 0;
+            if (batch.size() >= batchSize || isLast && !batch.isEmpty()) {
+                result.putAll(batch);
+                try {
+                    batchConsumer.accept(new HashMap<>(batch));
+                } catch (RuntimeException e) {
+                    logger.error(HTLog.format(repoId, "Failed to process downloaded metadata"), e);
+                    cancelPendingRequests();
+                    response.completeExceptionally(e);
+                    return;
+                }
+                batch.clear();
+            }
+            if (isLast) {
+                complete();
+            }
+        }
+    }
 
+    private void complete() {
         logger.info(HTLog.format(repoId, "Downloaded " + result.entrySet().stream()
                 .map(entry -> "(" + entry.getValue().summarise() + ") " +
                         "for #" + entry.getKey())
                 .collect(Collectors.joining(", "))));
 
-        response.complete(result);
+        response.complete(new HashMap<>(result));
+    }
+
+    private CompletableFuture<IssueMetadata> downloadMetadata(TurboIssue issue) {
+        String currEventsETag = issue.getMetadata().getEventsETag();
+        String currCommentsETag = issue.getMetadata().getCommentsETag();
+        int id = issue.getId();
+
+        CompletableFuture<ImmutablePair<List<TurboIssueEvent>, String>> events =
+                request(() -> repo.getUpdatedEvents(repoId, id, currEventsETag));
+        CompletableFuture<ImmutablePair<List<Comment>, String>> comments =
+                request(() -> repo.getUpdatedComments(repoId, issue, currCommentsETag));
+
+        return events.thenCombine(comments, (eventChanges, commentChanges) ->
+                IssueMetadata.intermediate(eventChanges.getLeft(), commentChanges.getLeft(),
+                                           eventChanges.getRight(), commentChanges.getRight()));
+    }
+
+    /**
+     * Queues a request to be run by the task runner once fewer than {@code concurrency} are in flight.
+     */
+    private <T> CompletableFuture<T> request(Supplier<T> request) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        synchronized (pendingRequests) {
+            pendingRequests.add(() -> {
+                try {
+                    future.complete(request.get());
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        }
+        executeNextRequests();
+        return future;
+    }
+
+    /**
+     * Starts as many of the pending requests as the concurrency allows, each starting the next when it completes.
+     */
+    private void executeNextRequests() {
+        List<Runnable> toExecute = new ArrayList<>();
+        synchronized (pendingRequests) {
+            while (requestsInFlight < concurrency && !pendingRequests.isEmpty()) {
+                toExecute.add(pendingRequests.poll());
+                requestsInFlight++;
+            }
+        }
+        toExecute.forEach(request -> taskRunner.execute(() -> {
+            try {
+                request.run();
+            } finally {
+                synchronized (pendingRequests) {
+                    requestsInFlight--;
+                }
+                executeNextRequests();
+            }
+        }));
+    }
+
+    private void cancelPendingRequests() {
+        synchronized (pendingRequests) {
+            pendingRequests.clear();
+        }
+    }
+
+    /**
+     * Returns the longest prefix of the issues to update that can be fetched with the requests
+     * remaining in the rate limit, as last reported by the API, or all of them if it is not yet known.
+     */
+    private List<TurboIssue> getIssuesWithinRateLimit() {
+        Optional<ImmutablePair<Integer, Long>> rateLimit = repo.getRateLimitSnapshot();
+        if (!rateLimit.isPresent()) {
+            logger.warn(HTLog.format(repoId, "Rate limit not known before downloading metadata"));
+            return issuesToUpdate;
+        }
+        int remainingRequests = rateLimit.get().getLeft();
+
+        List<TurboIssue> issues = new ArrayList<>();
+        for (TurboIssue issue : issuesToUpdate) {
+            remainingRequests -= getRequestCount(issue);
+            if (remainingRequests < 0) {
+                logger.warn(HTLog.format(repoId, String.format(
+                        "Not enough requests remaining to download metadata for %d of %d issues",
+                        issuesToUpdate.size() - issues.size(), issuesToUpdate.size())));
+                break;
+            }
+            issues.add(issue);
+        }
+        return issues;
+    }
+
+    /**
+     * Returns the number of requests needed to download the metadata of the given issue: one for
+     * its events, one for its comments and, for pull requests, one for its review comments.
+     */
+    private static int getRequestCount(TurboIssue issue) {
+        return issue.isPullRequest() ? 3 : 2;
     }
 }
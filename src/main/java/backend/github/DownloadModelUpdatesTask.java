@@ -1,27 +1,43 @@
 package backend.github;
 
 import backend.interfaces.Repo;
+import backend.interfaces.RepoTask;
 import backend.interfaces.TaskRunner;
 import backend.resource.*;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.egit.github.core.PullRequest;
 import util.HTLog;
 
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class represents an async task that downloads updates for a repository represented as a Model
+ * <p>
+ * The issues, labels, milestones, users and pull requests are downloaded by separate tasks, at most
+ * {@code concurrency} of which are run at once, and the response is completed when all of them are.
+ * No thread waits on them in the meantime.
  */
 public class DownloadModelUpdatesTask extends GitHubRepoTask<GitHubModelUpdatesData> {
 
     private static final Logger logger = HTLog.get(DownloadModelUpdatesTask.class);
 
+    public static final int DEFAULT_CONCURRENCY = 5;
+
     private final Model model;
+    private final int concurrency;
 
     public DownloadModelUpdatesTask(TaskRunner taskRunner, Repo repo, Model model) {
+        this(taskRunner, repo, model, DEFAULT_CONCURRENCY);
+    }
+
+    public DownloadModelUpdatesTask(TaskRunner taskRunner, Repo repo, Model model, int concurrency) {
         super(taskRunner, repo);
+        assert concurrency > 0;
         this.model = new Model(model);
+        this.concurrency = concurrency;
     }
 
     @Override
@@ -32,26 +48,52 @@ public class DownloadModelUpdatesTask extends GitHubRepoTask<GitHubModelUpdatesD
         DownloadUsersUpdatesTask usersTask = new DownloadUsersUpdatesTask(taskRunner, repo, model);
         DownloadPullRequestsUpdatesTask pullRequestsTask = new DownloadPullRequestsUpdatesTask(taskRunner, repo, model);
 
-        taskRunner.execute(issuesTask);
-        taskRunner.execute(labelsTask);
-        taskRunner.execute(milestonesTask);
-        taskRunner.execute(usersTask);
-        taskRunner.execute(pullRequestsTask);
-
-        try {
-            Result<TurboIssue> issuesResult = issuesTask.response.get();
-            Result<TurboLabel> labelsResult = labelsTask.response.get();
-            Result<TurboMilestone> milestonesResult = milestonesTask.response.get();
-            Result<TurboUser> usersResult = usersTask.response.get();
-            List<PullRequest> pullRequestsResult = pullRequestsTask.response.get();
-
-            GitHubModelUpdatesData updates = new GitHubModelUpdatesData(model,
-                                                                        issuesResult, pullRequestsResult,
-                                                                        labelsResult, milestonesResult, usersResult);
-            logger.info(HTLog.format(model.getRepoId(), "Updates download completed"));
-            response.complete(updates);
-        } catch (InterruptedException | ExecutionException e) {
-            HTLog.error(logger, e);
+        List<RepoTask<?>> tasks = Arrays.asList(issuesTask, labelsTask, milestonesTask, usersTask, pullRequestsTask);
+        CompletableFuture.allOf(tasks.stream().map(task -> task.response).toArray(CompletableFuture[]::new))
+                .whenComplete((done, e) -> {
+                    if (e != null) {
+                        logger.error(e.getLocalizedMessage(), e);
+                        response.completeExceptionally(e);
+                        return;
+                    }
+                    Result<TurboIssue> issuesResult = issuesTask.response.join();
+                    Result<TurboLabel> labelsResult = labelsTask.response.join();
+                    Result<TurboMilestone> milestonesResult = milestonesTask.response.join();
+                    Result<TurboUser> usersResult = usersTask.response.join();
+                    Result<PullRequest> pullRequestsResult = pullRequestsTask.response.join();
+
+                    GitHubModelUpdatesData updates = new GitHubModelUpdatesData(model,
+                                                                                issuesResult, pullRequestsResult,
+                                                                                labelsResult, milestonesResult,
+                                                                                usersResult);
+                    logger.info(HTLog.format(model.getRepoId(), "Updates download completed"));
+                    response.complete(updates);
+                });
+
+        Iterator<RepoTask<?>> pending = tasks.iterator();
+        for (int i = 0; i < Math.min(concurrency, tasks.size()); i++) {
+            executeNext(pending);
+        }
+    }
+
+    /**
+     * Runs the next of the pending tasks, going on to the one after it when it completes.
+     */
+    private void executeNext(Iterator<RepoTask<?>> pending) {
+        RepoTask<?> next;
+        synchronized (pending) {
+            if (!pending.hasNext()) {
+                return;
+            }
+            next = pending.next();
         }
+        next.response.whenComplete((result, e) -> executeNext(pending));
+        taskRunner.execute(() -> {
+            try {
+                next.run();
+            } catch (RuntimeException e) {
+                next.response.completeExceptionally(e);
+            }
+        });
     }
 }
@@ -3,16 +3,26 @@ package backend.github;
 import backend.interfaces.Repo;
 import backend.interfaces.TaskRunner;
 import backend.resource.Model;
+import backend.resource.TurboIssue;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.egit.github.core.PullRequest;
 import util.HTLog;
+import util.Utility;
 
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * This class represents an async task that downloads updates for pull requests in a repository
+ * <p>
+ * Pull requests updated after the cursor in the model's update signature are downloaded, and the result
+ * carries the cursor moved past them as its lastCheckTime. A model without a cursor has not had its pull
+ * requests synced yet, but its issues already tell which are pull requests and when they were last updated,
+ * so the cursor is taken from those without requesting anything.
  */
-public class DownloadPullRequestsUpdatesTask extends GitHubRepoTask<List<PullRequest>> {
+public class DownloadPullRequestsUpdatesTask extends GitHubRepoTask<GitHubRepoTask.Result<PullRequest>> {
 
     private static final Logger logger = HTLog.get(DownloadPullRequestsUpdatesTask.class);
 
@@ -25,10 +35,39 @@ public class DownloadPullRequestsUpdatesTask extends GitHubRepoTask<List<PullReq
 
     @Override
     public void run() {
-        List<PullRequest> updatedPullRequests = repo.getUpdatedPullRequests(
-                model.getRepoId(), model.getUpdateSignature().lastCheckTime);
+        Date cursor = model.getUpdateSignature().pullRequestsCursor;
+        if (cursor == null) {
+            Date initialCursor = getInitialCursor(model);
+            logger.info(HTLog.format(model.getRepoId(), "Pull request cursor initialised to %s from issues",
+                                     initialCursor));
+            response.complete(new Result<>(new ArrayList<>(), null, initialCursor));
+            return;
+        }
+
+        List<PullRequest> updatedPullRequests = repo.getUpdatedPullRequests(model.getRepoId(), cursor);
+        Date newCursor = getLatestUpdate(updatedPullRequests).filter(latest -> latest.after(cursor)).orElse(cursor);
         logger.info(HTLog.format(model.getRepoId(), "%s pr(s)) changed%s", updatedPullRequests.size(),
                                  updatedPullRequests.isEmpty() ? "" : ": " + updatedPullRequests));
-        response.complete(updatedPullRequests);
+        response.complete(new Result<>(updatedPullRequests, null, newCursor));
+    }
+
+    /**
+     * Returns the time the latest of the model's pull requests was updated, or its last check time
+     * if it has no pull requests.
+     */
+    private static Date getInitialCursor(Model model) {
+        return model.getIssues().stream()
+                .filter(TurboIssue::isPullRequest)
+                .map(TurboIssue::getUpdatedAt)
+                .max(Comparable::compareTo)
+                .map(Utility::localDateTimeToDate)
+                .orElse(model.getUpdateSignature().lastCheckTime);
+    }
+
+    private static Optional<Date> getLatestUpdate(List<PullRequest> pullRequests) {
+        return pullRequests.stream()
+                .map(PullRequest::getUpdatedAt)
+                .filter(updatedAt -> updatedAt != null)
+                .max(Date::compareTo);
     }
 }
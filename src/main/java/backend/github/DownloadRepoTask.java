@@ -7,27 +7,87 @@ import backend.resource.*;
 import org.apache.logging.log4j.Logger;
 import util.HTLog;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+/**
+ * Downloads a repository in full. Its issues, labels, milestones and users are downloaded at the same
+ * time on the task runner, and the response is completed when all of them are.
+ * <p>
+ * While the issues are being downloaded, partial models with the issues received so far are handed to
+ * the partial model consumer, each time the number of issues received has doubled, so that they can be
+ * shown before the download completes. They are handed over in order of size, all before the response
+ * is completed.
+ */
 public class DownloadRepoTask extends GitHubRepoTask<Model> {
 
     private static final Logger logger = HTLog.get(DownloadRepoTask.class);
 
     private final String repoId;
+    private final Consumer<Model> partialModelConsumer;
+
+    // Issues received so far, and how many of them were in the last partial model
+    private final List<TurboIssue> receivedIssues = new ArrayList<>();
+    private int publishedIssueCount = 0;
 
     public DownloadRepoTask(TaskRunner taskRunner, Repo repo, String repoId) {
+        this(taskRunner, repo, repoId, partialModel -> {});
+    }
+
+    public DownloadRepoTask(TaskRunner taskRunner, Repo repo, String repoId, Consumer<Model> partialModelConsumer) {
         super(taskRunner, repo);
         this.repoId = repoId;
+        this.partialModelConsumer = partialModelConsumer;
     }
 
     @Override
     public void run() {
-        List<TurboIssue> issues = repo.getIssues(repoId);
-        List<TurboLabel> labels = repo.getLabels(repoId);
-        List<TurboMilestone> milestones = repo.getMilestones(repoId);
-        List<TurboUser> users = repo.getCollaborators(repoId);
-        Model result = new Model(repoId, issues, labels, milestones, users, UpdateSignature.EMPTY);
-        logger.info(HTLog.format(repoId, "Downloaded " + result.summarise()));
-        response.complete(result);
+        CompletableFuture<List<TurboLabel>> labels =
+                CompletableFuture.supplyAsync(() -> repo.getLabels(repoId), taskRunner::execute);
+        CompletableFuture<List<TurboMilestone>> milestones =
+                CompletableFuture.supplyAsync(() -> repo.getMilestones(repoId), taskRunner::execute);
+        CompletableFuture<List<TurboUser>> users =
+                CompletableFuture.supplyAsync(() -> repo.getCollaborators(repoId), taskRunner::execute);
+        // The issues are composed rather than waited on, so that no thread is held while their pages arrive
+        CompletableFuture<List<TurboIssue>> issues = CompletableFuture.supplyAsync(
+                () -> repo.getIssues(repoId, page -> receiveIssues(page, labels, milestones, users)),
+                taskRunner::execute).thenCompose(Function.identity());
+
+        CompletableFuture.allOf(issues, labels, milestones, users).whenComplete((done, e) -> {
+            if (e != null) {
+                logger.error(e.getLocalizedMessage(), e);
+                response.completeExceptionally(e);
+                return;
+            }
+            Model result = new Model(repoId, issues.join(), labels.join(), milestones.join(), users.join(),
+                                     UpdateSignature.EMPTY);
+            logger.info(HTLog.format(repoId, "Downloaded " + result.summarise()));
+            response.complete(result);
+        });
+    }
+
+    /**
+     * Adds a page of issues to those received, handing a partial model to the consumer if their
+     * number has doubled. The partial model has whichever of the labels, milestones and users have
+     * been downloaded by then.
+     */
+    private void receiveIssues(List<TurboIssue> page, CompletableFuture<List<TurboLabel>> labels,
+                               CompletableFuture<List<TurboMilestone>> milestones,
+                               CompletableFuture<List<TurboUser>> users) {
+        synchronized (receivedIssues) {
+            receivedIssues.addAll(page);
+            if (receivedIssues.isEmpty() || receivedIssues.size() < 2 * publishedIssueCount) {
+                return;
+            }
+            publishedIssueCount = receivedIssues.size();
+            Model partialModel = new Model(repoId, new ArrayList<>(receivedIssues),
+                                           labels.getNow(new ArrayList<>()), milestones.getNow(new ArrayList<>()),
+                                           users.getNow(new ArrayList<>()), UpdateSignature.EMPTY);
+            logger.info(HTLog.format(repoId, "Partially downloaded " + partialModel.summarise()));
+            partialModelConsumer.accept(partialModel);
+        }
     }
 }
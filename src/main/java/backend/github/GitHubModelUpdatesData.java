@@ -3,7 +3,12 @@ package backend.github;
 import backend.resource.*;
 import org.eclipse.egit.github.core.PullRequest;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * This classes stores the updates data downloaded from GitHub for a repository represented locally as a Model
@@ -11,7 +16,7 @@ import java.util.List;
 public final class GitHubModelUpdatesData {
     private final Model model;
     private final GitHubRepoTask.Result<TurboIssue> issues;
-    private final List<PullRequest> pullRequests;
+    private final GitHubRepoTask.Result<PullRequest> pullRequests;
     private final GitHubRepoTask.Result<TurboLabel> labels;
     private final GitHubRepoTask.Result<TurboMilestone> milestones;
     private final GitHubRepoTask.Result<TurboUser> users;
@@ -21,6 +26,18 @@ public final class GitHubModelUpdatesData {
                                   GitHubRepoTask.Result<TurboLabel> labels,
                                   GitHubRepoTask.Result<TurboMilestone> milestones,
                                   GitHubRepoTask.Result<TurboUser> users) {
+        this(model, issues, new GitHubRepoTask.Result<>(pullRequests, null), labels, milestones, users);
+    }
+
+    /**
+     * @param pullRequests the changed pull requests, with the pull request cursor as their lastCheckTime
+     */
+    public GitHubModelUpdatesData(Model model,
+                                  GitHubRepoTask.Result<TurboIssue> issues,
+                                  GitHubRepoTask.Result<PullRequest> pullRequests,
+                                  GitHubRepoTask.Result<TurboLabel> labels,
+                                  GitHubRepoTask.Result<TurboMilestone> milestones,
+                                  GitHubRepoTask.Result<TurboUser> users) {
         this.model = model;
         this.issues = issues;
         this.pullRequests = pullRequests;
@@ -29,6 +46,40 @@ public final class GitHubModelUpdatesData {
         this.users = users;
     }
 
+    /**
+     * Returns updates with the effect of applying these updates and then the given ones, which were
+     * downloaded later for the same repository.
+     * <p>
+     * Changed issues and pull requests of both are kept, those of the later updates replacing any with the
+     * same number, and the later pull request cursor is kept. Labels, milestones and users are downloaded in
+     * full if they have changed at all, so the later ones replace these if they have changed.
+     */
+    public GitHubModelUpdatesData merge(GitHubModelUpdatesData later) {
+        assert getRepoId().equals(later.getRepoId());
+
+        List<TurboIssue> mergedIssues = TurboIssue.reconcile(issues.items, later.issues.items);
+        GitHubRepoTask.Result<TurboIssue> mergedIssuesResult = later.issues.lastCheckTime == null
+                ? new GitHubRepoTask.Result<>(mergedIssues, later.issues.eTag)
+                : new GitHubRepoTask.Result<>(mergedIssues, later.issues.eTag, later.issues.lastCheckTime);
+
+        Map<Integer, PullRequest> mergedPullRequests = new LinkedHashMap<>();
+        pullRequests.items.forEach(pullRequest -> mergedPullRequests.put(pullRequest.getNumber(), pullRequest));
+        later.pullRequests.items.forEach(pullRequest -> mergedPullRequests.put(pullRequest.getNumber(), pullRequest));
+        Date mergedCursor = later.getPullRequestsCursor().orElse(getPullRequestsCursor().orElse(null));
+        GitHubRepoTask.Result<PullRequest> mergedPullRequestsResult = mergedCursor == null
+                ? new GitHubRepoTask.Result<>(new ArrayList<>(mergedPullRequests.values()), null)
+                : new GitHubRepoTask.Result<>(new ArrayList<>(mergedPullRequests.values()), null, mergedCursor);
+
+        return new GitHubModelUpdatesData(model, mergedIssuesResult, mergedPullRequestsResult,
+                                          latest(labels, later.labels), latest(milestones, later.milestones),
+                                          latest(users, later.users));
+    }
+
+    private static <T> GitHubRepoTask.Result<T> latest(GitHubRepoTask.Result<T> earlier,
+                                                       GitHubRepoTask.Result<T> later) {
+        return later.items.isEmpty() && !earlier.items.isEmpty() ? earlier : later;
+    }
+
     public String getRepoId() {
         return model.getRepoId();
     }
@@ -42,7 +93,14 @@ public final class GitHubModelUpdatesData {
     }
 
     public List<PullRequest> getPullRequests() {
-        return pullRequests;
+        return pullRequests.items;
+    }
+
+    /**
+     * Returns the latest update time of the pull requests known after these updates, if it was found.
+     */
+    public Optional<Date> getPullRequestsCursor() {
+        return Optional.ofNullable(pullRequests.lastCheckTime);
     }
 
     public GitHubRepoTask.Result<TurboLabel> getLabels() {
@@ -2,6 +2,7 @@ package backend.github;
 
 import backend.UserCredentials;
 import backend.interfaces.Repo;
+import backend.interfaces.RepoStore;
 import backend.resource.TurboIssue;
 import backend.resource.TurboLabel;
 import backend.resource.TurboMilestone;
@@ -25,7 +26,11 @@ import util.events.UpdateProgressEvent;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static org.eclipse.egit.github.core.client.IGitHubConstants.SEGMENT_REPOS;
@@ -34,7 +39,11 @@ public class GitHubRepo implements Repo {
 
     private static final Logger logger = HTLog.get(GitHubRepo.class);
 
-    private final GitHubClientEx client = new GitHubClientEx();
+    // Separates the ETags of an issue's comments from those of its review comments
+    private static final String REVIEW_COMMENTS_ETAG_DELIMITER = "|";
+
+    private final GitHubClientEx client = new GitHubClientEx(
+            new HttpResponseCache(RepoStore.getResponseCacheDirectory(), HttpResponseCache.DEFAULT_MAX_BYTES));
     private final IssueServiceEx issueService = new IssueServiceEx(client);
     private final PullRequestServiceEx pullRequestService = new PullRequestServiceEx(client);
     private final CollaboratorServiceEx collaboratorService = new CollaboratorServiceEx(client);
@@ -149,51 +158,35 @@ public class GitHubRepo implements Repo {
 
     @Override
     public List<TurboIssue> getIssues(String repoId) {
+        return getIssues(repoId, page -> {}).join();
+    }
+
+    @Override
+    public CompletableFuture<List<TurboIssue>> getIssues(String repoId, Consumer<List<TurboIssue>> pageConsumer) {
         Map<String, String> filters = new HashMap<>();
         filters.put(IssueService.FIELD_FILTER, "all");
         filters.put(IssueService.FILTER_STATE, "all");
-        return getAll(issueService.pageIssues(RepositoryId.createFromId(repoId), filters), repoId).stream()
-                .map(i -> new TurboIssue(repoId, i))
-                .collect(Collectors.toList());
-    }
-
-    private List<Issue> getAll(PageIterator<Issue> iterator, String repoId) {
-        List<Issue> elements = new ArrayList<>();
-
-        // Assume there is at least one page
-        int knownLastPage = 1;
-
-        try {
-            while (iterator.hasNext()) {
-                Collection<Issue> additions = iterator.next();
-                elements.addAll(additions);
-
-                // Compute progress
-
-                // iterator.getLastPage() only has a value after iterator.next() is called,
-                // so it's used directly in this loop. It returns the 1-based index of the last
-                // page, except when we are actually on the last page, in which case it returns -1.
-                // This portion deals with all these quirks.
-
-                knownLastPage = Math.max(knownLastPage, iterator.getLastPage());
-                int totalIssueCount = knownLastPage * PagedRequest.PAGE_SIZE;
-                // Total is approximate: always >= the actual amount
-                assert totalIssueCount >= elements.size();
-
-                float progress = (float) elements.size() / (float) totalIssueCount;
-                UI.events.triggerEvent(new UpdateProgressEvent(repoId, progress));
-                logger.info(HTLog.format(repoId, "Loaded %d issues (%.0f%% done)",
-                                         elements.size(), progress * 100));
-            }
-            UI.events.triggerEvent(new UpdateProgressEvent(repoId));
-        } catch (NoSuchPageException pageException) {
-            try {
-                throw pageException.getCause();
-            } catch (IOException e) {
-                HTLog.error(logger, e);
-            }
-        }
-        return elements;
+        AtomicInteger receivedCount = new AtomicInteger();
+        return issueService.getAllIssues(
+                RepositoryId.createFromId(repoId), filters, IssueServiceEx.DEFAULT_PAGE_CONCURRENCY,
+                (page, estimatedTotal) -> {
+                    pageConsumer.accept(page.stream()
+                                                .map(i -> new TurboIssue(repoId, i))
+                                                .collect(Collectors.toList()));
+                    int received = receivedCount.addAndGet(page.size());
+                    float progress = (float) received / (float) estimatedTotal;
+                    UI.events.triggerEventAsync(new UpdateProgressEvent(repoId, progress));
+                    logger.info(HTLog.format(repoId, "Loaded %d issues (%.0f%% done)",
+                                             received, progress * 100));
+                }).thenApply(issues -> {
+                    UI.events.triggerEventAsync(new UpdateProgressEvent(repoId));
+                    return issues.stream()
+                            .map(i -> new TurboIssue(repoId, i))
+                            .collect(Collectors.toList());
+                }).exceptionally(e -> {
+                    logger.error(e.getLocalizedMessage(), e);
+                    return new ArrayList<>();
+                });
     }
 
     @Override
@@ -251,6 +244,65 @@ public class GitHubRepo implements Repo {
         return result;
     }
 
+    /**
+     * Gets all types of comments for an issue if any of them have changed, requesting each page of them
+     * only if it has changed. Pages that have not changed are taken from the comments in the issue's
+     * metadata, which the given ETag must be from.
+     * <p>
+     * The ETag is made up of the ETags of each page of comments, followed by those of each page of
+     * review comments if the issue is a pull request.
+     *
+     * @param repoId
+     * @param issue
+     * @param eTag
+     * @return list of comments for an issue and their ETag, or an empty list with the given ETag if
+     * no comments have changed
+     */
+    @Override
+    public ImmutablePair<List<Comment>, String> getUpdatedComments(String repoId, TurboIssue issue, String eTag) {
+        RepositoryId repository = RepositoryId.createFromId(repoId);
+        String[] eTags = eTag.split(Pattern.quote(REVIEW_COMMENTS_ETAG_DELIMITER), -1);
+        String commentsETag = eTags[0];
+        String reviewCommentsETag = eTags.length > 1 ? eTags[1] : "";
+
+        List<Comment> cachedComments = new ArrayList<>();
+        List<ReviewComment> cachedReviewComments = new ArrayList<>();
+        issue.getMetadata().getComments().forEach(comment -> {
+            if (comment instanceof ReviewComment) {
+                cachedReviewComments.add((ReviewComment) comment);
+            } else {
+                cachedComments.add(comment);
+            }
+        });
+
+        try {
+            Optional<ImmutablePair<List<Comment>, String>> comments = client.getAllIfModified(
+                    issueService.createCommentsRequest(repository, issue.getId()), commentsETag, cachedComments);
+            Optional<ImmutablePair<List<ReviewComment>, String>> reviewComments = Optional.empty();
+            if (issue.isPullRequest()) {
+                reviewComments = client.getAllIfModified(
+                        pullRequestService.createReviewCommentsRequest(repository, issue.getId()),
+                        reviewCommentsETag, cachedReviewComments);
+            }
+
+            if (!comments.isPresent() && !reviewComments.isPresent()) {
+                return new ImmutablePair<>(new ArrayList<>(), eTag);
+            }
+
+            List<Comment> result = new ArrayList<>(comments.map(ImmutablePair::getLeft).orElse(cachedComments));
+            String updatedETag = comments.map(ImmutablePair::getRight).orElse(commentsETag);
+            if (issue.isPullRequest()) {
+                result.addAll(reviewComments.map(ImmutablePair::getLeft).orElse(cachedReviewComments));
+                updatedETag += REVIEW_COMMENTS_ETAG_DELIMITER
+                        + reviewComments.map(ImmutablePair::getRight).orElse(reviewCommentsETag);
+            }
+            return new ImmutablePair<>(result, updatedETag);
+        } catch (IOException e) {
+            HTLog.error(logger, e);
+            return new ImmutablePair<>(new ArrayList<>(), eTag);
+        }
+    }
+
     @Override
     public List<Label> setLabels(String repoId, int issueId, List<String> labels) throws IOException {
         return labelService.setLabels(
@@ -342,5 +394,10 @@ public class GitHubRepo implements Repo {
     public ImmutablePair<Integer, Long> getRateLimitResetTime() throws IOException {
         return client.getRateLimitResetTime();
     }
+
+    @Override
+    public Optional<ImmutablePair<Integer, Long>> getRateLimitSnapshot() {
+        return client.getRateLimitSnapshot();
+    }
 }
 
@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class GitHubSource extends RepoSource {
 
@@ -43,18 +44,20 @@ public class GitHubSource extends RepoSource {
     }
 
     @Override
-    public CompletableFuture<Model> downloadRepository(String repoId) {
-        return addTask(new DownloadRepoTask(this, gitHub, repoId)).response;
+    public CompletableFuture<Model> downloadRepository(String repoId, Consumer<Model> partialModelConsumer) {
+        return addTask(new DownloadRepoTask(this, gitHub, repoId, partialModelConsumer)).response;
     }
 
     @Override
     public CompletableFuture<GitHubModelUpdatesData> downloadModelUpdates(Model model) {
-        return addTask(new DownloadModelUpdatesTask(this, gitHub, model)).response;
+        return addTask(new DownloadModelUpdatesTask(this, gitHub, model, getUpdatesConcurrency())).response;
     }
 
     @Override
-    public CompletableFuture<Map<Integer, IssueMetadata>> downloadMetadata(String repoId, List<TurboIssue> issues) {
-        return addTask(new DownloadMetadataTask(this, gitHub, repoId, issues)).response;
+    public CompletableFuture<Map<Integer, IssueMetadata>> downloadMetadata(
+            String repoId, List<TurboIssue> issues, Consumer<Map<Integer, IssueMetadata>> batchConsumer) {
+        return addTask(new DownloadMetadataTask(this, gitHub, repoId, issues, batchConsumer,
+                                                getMetadataConcurrency(), getMetadataBatchSize())).response;
     }
 
     @Override
@@ -89,4 +92,9 @@ public class GitHubSource extends RepoSource {
         return addTask(new CheckRateLimitTask(this, gitHub)).response;
     }
 
+    @Override
+    public Optional<ImmutablePair<Integer, Long>> getRateLimitSnapshot() {
+        return gitHub.getRateLimitSnapshot();
+    }
+
 }
@@ -19,6 +19,8 @@ import java.io.IOException;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface Repo {
 
@@ -26,6 +28,13 @@ public interface Repo {
 
     List<TurboIssue> getIssues(String repoId);
 
+    /**
+     * Retrieves all issues of a repository, handing them to the page consumer in pages as they are
+     * received, so that they can be used before the rest arrive. Every issue is handed to the consumer
+     * before the result is completed.
+     */
+    CompletableFuture<List<TurboIssue>> getIssues(String repoId, Consumer<List<TurboIssue>> pageConsumer);
+
     List<TurboLabel> getLabels(String repoId);
 
     List<TurboMilestone> getMilestones(String repoId);
@@ -51,6 +60,14 @@ public interface Repo {
 
     List<Comment> getAllComments(String repoId, TurboIssue issue);
 
+    /**
+     * Retrieves all types of comments of an issue if any of them have changed since they had the given ETag.
+     *
+     * @return the comments together with their new ETag, or an empty list with the given ETag if
+     * they have not changed
+     */
+    ImmutablePair<List<Comment>, String> getUpdatedComments(String repoId, TurboIssue issue, String eTag);
+
     boolean isRepositoryValid(String repoId);
 
     List<Label> setLabels(String repoId, int issueId, List<String> labels) throws IOException;
@@ -65,4 +82,10 @@ public interface Repo {
 
     ImmutablePair<Integer, Long> getRateLimitResetTime() throws IOException;
 
+    /**
+     * Returns the rate limits as of the latest response, without making a request,
+     * or empty if they are not known.
+     */
+    Optional<ImmutablePair<Integer, Long>> getRateLimitSnapshot();
+
 }
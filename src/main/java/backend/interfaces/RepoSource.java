@@ -2,10 +2,13 @@ package backend.interfaces;
 
 import backend.IssueMetadata;
 import backend.UserCredentials;
+import backend.github.DownloadMetadataTask;
+import backend.github.DownloadModelUpdatesTask;
 import backend.github.GitHubModelUpdatesData;
 import backend.resource.Model;
 import backend.resource.TurboIssue;
 import backend.resource.TurboMilestone;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.eclipse.egit.github.core.Issue;
 
@@ -13,12 +16,27 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A source of repositories, which runs its tasks on a pool of at most {@code parallelism} threads shared by
+ * all repositories, so that the number of threads stays the same however many repositories are open.
+ * Tasks beyond that wait in turn for a thread, so tasks run on the pool should not wait on one another.
+ */
 public abstract class RepoSource implements TaskRunner {
 
-    private final ExecutorService pool = Executors.newCachedThreadPool();
+    public static final int DEFAULT_PARALLELISM = 16;
+
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 60;
+
+    private final ThreadPoolExecutor pool = createPool(DEFAULT_PARALLELISM);
+
+    private int updatesConcurrency = DownloadModelUpdatesTask.DEFAULT_CONCURRENCY;
+    private int metadataConcurrency = DownloadMetadataTask.DEFAULT_CONCURRENCY;
+    private int metadataBatchSize = DownloadMetadataTask.DEFAULT_BATCH_SIZE;
 
     @Override
     public <R> RepoTask<R> addTask(RepoTask<R> task) {
@@ -31,16 +49,85 @@ public abstract class RepoSource implements TaskRunner {
         pool.execute(r);
     }
 
+    private static ThreadPoolExecutor createPool(int parallelism) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                parallelism, parallelism, IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("repo-source-%d").setDaemon(true).build());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Sets how many tasks may run at once across all repositories, and how many of the requests for a
+     * repository's updates may be made at once.
+     */
+    public void setParallelism(int parallelism, int updatesConcurrency) {
+        assert parallelism > 0 && updatesConcurrency > 0;
+        if (parallelism > pool.getMaximumPoolSize()) {
+            pool.setMaximumPoolSize(parallelism);
+            pool.setCorePoolSize(parallelism);
+        } else {
+            pool.setCorePoolSize(parallelism);
+            pool.setMaximumPoolSize(parallelism);
+        }
+        this.updatesConcurrency = updatesConcurrency;
+    }
+
+    protected int getUpdatesConcurrency() {
+        return updatesConcurrency;
+    }
+
+    /**
+     * Returns the largest number of threads that the pool has had at once.
+     */
+    public int getPeakThreadCount() {
+        return pool.getLargestPoolSize();
+    }
+
     public abstract String getName();
 
     public abstract CompletableFuture<Boolean> login(UserCredentials credentials);
 
-    public abstract CompletableFuture<Model> downloadRepository(String repoId);
+    public CompletableFuture<Model> downloadRepository(String repoId) {
+        return downloadRepository(repoId, partialModel -> {});
+    }
+
+    /**
+     * Downloads a repository in full, handing partial models of it to the partial model consumer while
+     * it is downloading. Partial models are handed over in order of size, all before the response completes.
+     */
+    public abstract CompletableFuture<Model> downloadRepository(String repoId, Consumer<Model> partialModelConsumer);
 
     public abstract CompletableFuture<GitHubModelUpdatesData> downloadModelUpdates(Model model);
 
-    public abstract CompletableFuture<Map<Integer, IssueMetadata>> downloadMetadata(String repoId,
-                                                                                    List<TurboIssue> issues);
+    public CompletableFuture<Map<Integer, IssueMetadata>> downloadMetadata(String repoId, List<TurboIssue> issues) {
+        return downloadMetadata(repoId, issues, batch -> {});
+    }
+
+    /**
+     * Downloads the metadata of the given issues, handing it to the batch consumer in batches as it
+     * is received. Every issue's metadata is handed to the consumer before the response completes.
+     */
+    public abstract CompletableFuture<Map<Integer, IssueMetadata>> downloadMetadata(
+            String repoId, List<TurboIssue> issues, Consumer<Map<Integer, IssueMetadata>> batchConsumer);
+
+    /**
+     * Sets how many requests for issue metadata may be made at once, and how many issues' metadata
+     * is handed to the batch consumer of {@link #downloadMetadata} at a time.
+     */
+    public void setMetadataDownloadLimits(int concurrency, int batchSize) {
+        assert concurrency > 0 && batchSize > 0;
+        metadataConcurrency = concurrency;
+        metadataBatchSize = batchSize;
+    }
+
+    protected int getMetadataConcurrency() {
+        return metadataConcurrency;
+    }
+
+    protected int getMetadataBatchSize() {
+        return metadataBatchSize;
+    }
 
     public abstract CompletableFuture<Boolean> isRepositoryValid(String repoId);
 
@@ -54,4 +141,6 @@ public abstract class RepoSource implements TaskRunner {
 
     public abstract CompletableFuture<ImmutablePair<Integer, Long>> getRateLimitResetTime();
 
+    public abstract Optional<ImmutablePair<Integer, Long>> getRateLimitSnapshot();
+
 }
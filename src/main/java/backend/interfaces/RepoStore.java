@@ -5,6 +5,8 @@ import backend.resource.serialization.SerializableModel;
 import util.Utility;
 
 import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
@@ -13,21 +15,61 @@ import java.util.concurrent.Executors;
 public abstract class RepoStore {
     protected static String directory = "store";
     public static final String TEST_DIRECTORY = "store/test";
-    private final ExecutorService pool = Executors.newSingleThreadExecutor();
+    private static final String RESPONSE_CACHE_DIRECTORY = "responses";
+
+    /**
+     * Tasks for different repositories run in parallel on this pool, so that a board with several
+     * repositories is loaded concurrently. Tasks for the same repository still run one at a time.
+     */
+    private static final int POOL_SIZE = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private final ExecutorService pool = Executors.newFixedThreadPool(POOL_SIZE);
+
+    /**
+     * The last task queued for each repository (keyed by lowercase id), which the next task
+     * for that repository has to wait for. Entries are removed once their task is done.
+     */
+    private final Map<String, CompletableFuture<Void>> lastTasks = new HashMap<>();
 
     public static String escapeRepoName(String repoName) {
         return repoName.replace("/", "-") + ".json";
     }
 
+    /**
+     * Name of the file holding changes made to a repository since its store file was last written in full.
+     */
+    public static String escapeRepoLogName(String repoName) {
+        return repoName.replace("/", "-") + ".log";
+    }
+
+    /**
+     * Name of the file holding a repository in binary form, used in place of its JSON store file
+     * when binary snapshots are enabled.
+     */
+    public static String escapeRepoSnapshotName(String repoName) {
+        return repoName.replace("/", "-") + ".bin";
+    }
+
     protected void addTask(StoreTask task) {
-        pool.execute(task);
+        String key = task.repoId.toLowerCase();
+        synchronized (lastTasks) {
+            CompletableFuture<Void> previous = lastTasks.get(key);
+            CompletableFuture<Void> next = previous == null
+                    ? CompletableFuture.runAsync(task, pool)
+                    : previous.handle((result, e) -> null).thenRunAsync(task, pool);
+            lastTasks.put(key, next);
+            next.whenComplete((result, e) -> {
+                synchronized (lastTasks) {
+                    lastTasks.remove(key, next);
+                }
+            });
+        }
     }
 
     public abstract CompletableFuture<Model> loadRepository(String repoId);
 
     public abstract CompletableFuture<Boolean> saveRepository(String repoId, SerializableModel model);
 
-    private static Optional<String> getRepoPath(String repoId) {
+    public static Optional<String> getRepoPath(String repoId) {
         if (ensureDirectoryExists()) {
             String newRepoName = RepoStore.escapeRepoName(repoId);
             return Optional.of(new File(RepoStore.directory, newRepoName).getAbsolutePath());
@@ -35,6 +77,29 @@ public abstract class RepoStore {
         return Optional.empty();
     }
 
+    public static Optional<String> getRepoLogPath(String repoId) {
+        if (ensureDirectoryExists()) {
+            String newRepoName = RepoStore.escapeRepoLogName(repoId);
+            return Optional.of(new File(RepoStore.directory, newRepoName).getAbsolutePath());
+        }
+        return Optional.empty();
+    }
+
+    public static Optional<String> getRepoSnapshotPath(String repoId) {
+        if (ensureDirectoryExists()) {
+            String newRepoName = RepoStore.escapeRepoSnapshotName(repoId);
+            return Optional.of(new File(RepoStore.directory, newRepoName).getAbsolutePath());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Directory of the responses from GitHub cached across sessions, within the store directory.
+     */
+    public static File getResponseCacheDirectory() {
+        return new File(RepoStore.directory, RESPONSE_CACHE_DIRECTORY);
+    }
+
     public static boolean write(String repoId, String output, int issueCount) {
         return Utility.writeFile(getRepoPath(repoId).orElse(""), output, issueCount);
     }
@@ -43,8 +108,37 @@ public abstract class RepoStore {
         return Utility.readFile(getRepoPath(repoId).orElse(""));
     }
 
+    /**
+     * Removes every file stored for a repository.
+     *
+     * @return true on error in deleting any of them, false otherwise
+     */
     public static boolean delete(String repoId) {
-        return Utility.deleteFile(getRepoPath(repoId).orElse(""));
+        boolean logError = deleteLog(repoId);
+        boolean snapshotError = deleteSnapshot(repoId);
+        String repoPath = getRepoPath(repoId).orElse("");
+        boolean repoError = new File(repoPath).exists() && Utility.deleteFile(repoPath);
+        return logError || snapshotError || repoError;
+    }
+
+    /**
+     * Removes the change log of a repository, if there is one.
+     *
+     * @return true on error in deleting the log, false otherwise
+     */
+    public static boolean deleteLog(String repoId) {
+        String logPath = getRepoLogPath(repoId).orElse("");
+        return new File(logPath).exists() && Utility.deleteFile(logPath);
+    }
+
+    /**
+     * Removes the binary snapshot of a repository, if there is one.
+     *
+     * @return true on error in deleting the snapshot, false otherwise
+     */
+    public static boolean deleteSnapshot(String repoId) {
+        String snapshotPath = getRepoSnapshotPath(repoId).orElse("");
+        return new File(snapshotPath).exists() && Utility.deleteFile(snapshotPath);
     }
 
     /**
@@ -65,4 +159,8 @@ public abstract class RepoStore {
         RepoStore.directory = newDir;
     }
 
+    public static String getDirectory() {
+        return RepoStore.directory;
+    }
+
 }
@@ -0,0 +1,365 @@
+package backend.json;
+
+import backend.UpdateSignature;
+import backend.resource.serialization.SerializableIssue;
+import backend.resource.serialization.SerializableLabel;
+import backend.resource.serialization.SerializableMilestone;
+import backend.resource.serialization.SerializableModel;
+import backend.resource.serialization.SerializableUser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Compact binary form of a repository's store file. Layout, all integers big-endian:
+ * <pre>
+ * header     magic, version, repo id, issue/label/milestone/user counts
+ * signature  the update signature's ETags, last check time and pull request cursor (from version 2)
+ * strings    table of label names, label colours and user logins, referred to by index below
+ * labels     name index, colour index
+ * milestones id, title, due date, description, state, open and closed issue counts
+ * users      login index, real name, avatar URL
+ * issues     each record prefixed with its length in bytes
+ * </pre>
+ * Strings outside the table are written as a byte length (-1 for null) followed by UTF-8 bytes.
+ * <p>
+ * The header can be read on its own, which is all that is needed to list stored repositories.
+ * Snapshots are read into a single buffer in one go, rather than through a stream.
+ */
+final class BinarySnapshot {
+
+    private static final int MAGIC = 0x48544253; // "HTBS"
+    static final int VERSION = 2;
+    private static final int FIRST_VERSION_WITH_CURSOR = 2;
+
+    private static final int NONE = -1;
+    private static final byte PULL_REQUEST = 1;
+    private static final byte OPEN = 1 << 1;
+
+    /**
+     * The part of a snapshot that can be read without reading the rest of it.
+     */
+    static class Header {
+        final String repoId;
+        final int issueCount;
+        final int labelCount;
+        final int milestoneCount;
+        final int userCount;
+
+        Header(String repoId, int issueCount, int labelCount, int milestoneCount, int userCount) {
+            this.repoId = repoId;
+            this.issueCount = issueCount;
+            this.labelCount = labelCount;
+            this.milestoneCount = milestoneCount;
+            this.userCount = userCount;
+        }
+    }
+
+    private BinarySnapshot() {
+    }
+
+    public static void write(String path, SerializableModel model) throws IOException {
+        Map<String, Integer> strings = buildStringTable(model);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeString(out, model.repoId);
+            out.writeInt(model.issues.size());
+            out.writeInt(model.labels.size());
+            out.writeInt(model.milestones.size());
+            out.writeInt(model.users.size());
+
+            writeSignature(out, model.updateSignature);
+
+            out.writeInt(strings.size());
+            for (String string : strings.keySet()) {
+                writeString(out, string);
+            }
+
+            for (SerializableLabel label : model.labels) {
+                out.writeInt(indexOf(strings, label.getFullName()));
+                out.writeInt(indexOf(strings, label.getColour()));
+            }
+            for (SerializableMilestone milestone : model.milestones) {
+                out.writeInt(milestone.getId());
+                writeString(out, milestone.getTitle());
+                out.writeLong(milestone.getDueDate().map(LocalDate::toEpochDay).orElse(Long.MIN_VALUE));
+                writeString(out, milestone.getDescription());
+                out.writeBoolean(milestone.isOpen());
+                out.writeInt(milestone.getOpenIssues());
+                out.writeInt(milestone.getClosedIssues());
+            }
+            for (SerializableUser user : model.users) {
+                out.writeInt(indexOf(strings, user.getLoginName()));
+                writeString(out, user.getRealName());
+                writeString(out, user.getAvatarURL());
+            }
+
+            ByteArrayOutputStream record = new ByteArrayOutputStream();
+            DataOutputStream recordOut = new DataOutputStream(record);
+            for (SerializableIssue issue : model.issues) {
+                record.reset();
+                writeIssue(recordOut, issue, strings);
+                out.writeInt(record.size());
+                record.writeTo(out);
+            }
+        }
+    }
+
+    /**
+     * Reads only the header of a snapshot.
+     *
+     * @throws IOException if the file is not a snapshot of a supported version
+     */
+    public static Header readHeader(String path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path), 512))) {
+            checkVersion(in.readInt(), in.readInt());
+            byte[] repoId = new byte[in.readInt()];
+            in.readFully(repoId);
+            return new Header(new String(repoId, StandardCharsets.UTF_8),
+                              in.readInt(), in.readInt(), in.readInt(), in.readInt());
+        } catch (NegativeArraySizeException e) {
+            throw new IOException("Corrupted snapshot header " + path, e);
+        }
+    }
+
+    /**
+     * Reads a whole snapshot.
+     *
+     * @throws IOException if the file is not a snapshot of a supported version, or is corrupted
+     */
+    public static SerializableModel read(String path) throws IOException {
+        // Read onto the heap rather than mapped, as a mapped file cannot be replaced or deleted on Windows
+        // until the mapping is garbage collected
+        try {
+            return read(ByteBuffer.wrap(Files.readAllBytes(Paths.get(path))));
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException
+                | NegativeArraySizeException e) {
+            throw new IOException("Truncated or corrupted snapshot " + path, e);
+        }
+    }
+
+    private static SerializableModel read(ByteBuffer in) throws IOException {
+        int version = checkVersion(in.getInt(), in.getInt());
+        String repoId = readString(in);
+        int issueCount = in.getInt();
+        int labelCount = in.getInt();
+        int milestoneCount = in.getInt();
+        int userCount = in.getInt();
+
+        UpdateSignature updateSignature = readSignature(in, version);
+
+        String[] strings = new String[capacity(in.getInt(), in)];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(in);
+        }
+
+        List<SerializableLabel> labels = new ArrayList<>(capacity(labelCount, in));
+        for (int i = 0; i < labelCount; i++) {
+            labels.add(new SerializableLabel(lookup(strings, in.getInt()), lookup(strings, in.getInt())));
+        }
+        List<SerializableMilestone> milestones = new ArrayList<>(capacity(milestoneCount, in));
+        for (int i = 0; i < milestoneCount; i++) {
+            int id = in.getInt();
+            String title = readString(in);
+            long dueDate = in.getLong();
+            milestones.add(new SerializableMilestone(
+                    id, title,
+                    dueDate == Long.MIN_VALUE ? Optional.empty() : Optional.of(LocalDate.ofEpochDay(dueDate)),
+                    readString(in), in.get() != 0, in.getInt(), in.getInt()));
+        }
+        List<SerializableUser> users = new ArrayList<>(capacity(userCount, in));
+        for (int i = 0; i < userCount; i++) {
+            users.add(new SerializableUser(lookup(strings, in.getInt()), readString(in), readString(in)));
+        }
+        List<SerializableIssue> issues = new ArrayList<>(capacity(issueCount, in));
+        for (int i = 0; i < issueCount; i++) {
+            int length = in.getInt();
+            int end = in.position() + length;
+            issues.add(readIssue(in, strings));
+            if (in.position() != end) {
+                throw new IOException("Issue record " + i + " has the wrong length");
+            }
+        }
+        return new SerializableModel(repoId, updateSignature, issues, labels, milestones, users);
+    }
+
+    private static void writeIssue(DataOutputStream out, SerializableIssue issue, Map<String, Integer> strings)
+            throws IOException {
+        out.writeInt(issue.getId());
+        writeString(out, issue.getTitle());
+        out.writeInt(indexOf(strings, issue.getCreator()));
+        writeDateTime(out, issue.getCreatedAt());
+        out.writeByte((issue.isPullRequest() ? PULL_REQUEST : 0) | (issue.isOpen() ? OPEN : 0));
+        writeString(out, issue.getDescription());
+        writeDateTime(out, issue.getUpdatedAt());
+        out.writeInt(issue.getCommentCount());
+        out.writeInt(issue.getAssignee().map(assignee -> indexOf(strings, assignee)).orElse(NONE));
+        out.writeInt(issue.getLabels().size());
+        for (String label : issue.getLabels()) {
+            out.writeInt(indexOf(strings, label));
+        }
+        out.writeInt(issue.getMilestone().orElse(NONE));
+    }
+
+    private static SerializableIssue readIssue(ByteBuffer in, String[] strings) {
+        int id = in.getInt();
+        String title = readString(in);
+        String creator = lookup(strings, in.getInt());
+        LocalDateTime createdAt = readDateTime(in);
+        byte flags = in.get();
+        String description = readString(in);
+        LocalDateTime updatedAt = readDateTime(in);
+        int commentCount = in.getInt();
+        int assignee = in.getInt();
+        int labelCount = in.getInt();
+        List<String> labels = new ArrayList<>(capacity(labelCount, in));
+        for (int i = 0; i < labelCount; i++) {
+            labels.add(lookup(strings, in.getInt()));
+        }
+        int milestone = in.getInt();
+
+        return new SerializableIssue(id, title, creator, createdAt, (flags & PULL_REQUEST) != 0,
+                                     description, updatedAt, commentCount, (flags & OPEN) != 0,
+                                     assignee == NONE ? Optional.empty() : Optional.of(lookup(strings, assignee)),
+                                     labels,
+                                     milestone == NONE ? Optional.empty() : Optional.of(milestone));
+    }
+
+    /**
+     * Collects the strings that are repeated across records: label names and colours, and user logins.
+     */
+    private static Map<String, Integer> buildStringTable(SerializableModel model) {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        for (SerializableLabel label : model.labels) {
+            strings.putIfAbsent(label.getFullName(), strings.size());
+            strings.putIfAbsent(label.getColour(), strings.size());
+        }
+        for (SerializableUser user : model.users) {
+            strings.putIfAbsent(user.getLoginName(), strings.size());
+        }
+        for (SerializableIssue issue : model.issues) {
+            strings.putIfAbsent(issue.getCreator(), strings.size());
+            issue.getAssignee().ifPresent(assignee -> strings.putIfAbsent(assignee, strings.size()));
+            for (String label : issue.getLabels()) {
+                strings.putIfAbsent(label, strings.size());
+            }
+        }
+        return strings;
+    }
+
+    private static int indexOf(Map<String, Integer> strings, String string) {
+        Integer index = strings.get(string);
+        return index == null ? NONE : index;
+    }
+
+    private static String lookup(String[] strings, int index) {
+        return index == NONE ? null : strings[index];
+    }
+
+    private static void writeSignature(DataOutputStream out, UpdateSignature signature) throws IOException {
+        out.writeBoolean(signature != null);
+        if (signature != null) {
+            writeString(out, signature.issuesETag);
+            writeString(out, signature.labelsETag);
+            writeString(out, signature.milestonesETag);
+            writeString(out, signature.collaboratorsETag);
+            out.writeLong(signature.lastCheckTime.getTime());
+            out.writeLong(signature.pullRequestsCursor == null ? Long.MIN_VALUE
+                                  : signature.pullRequestsCursor.getTime());
+        }
+    }
+
+    /**
+     * Snapshots before the pull request cursor was stored are read with no cursor, so that the next
+     * update takes it from the stored pull requests.
+     */
+    private static UpdateSignature readSignature(ByteBuffer in, int version) {
+        if (in.get() == 0) {
+            return null;
+        }
+        String issuesETag = readString(in);
+        String labelsETag = readString(in);
+        String milestonesETag = readString(in);
+        String collaboratorsETag = readString(in);
+        Date lastCheckTime = new Date(in.getLong());
+        Date pullRequestsCursor = null;
+        if (version >= FIRST_VERSION_WITH_CURSOR) {
+            long cursor = in.getLong();
+            pullRequestsCursor = cursor == Long.MIN_VALUE ? null : new Date(cursor);
+        }
+        return new UpdateSignature(issuesETag, labelsETag, milestonesETag, collaboratorsETag,
+                                   lastCheckTime, pullRequestsCursor);
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime dateTime) throws IOException {
+        out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(dateTime.getNano());
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer in) {
+        return LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        if (string == null) {
+            out.writeInt(NONE);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length == NONE) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Bounds a count read from the snapshot, so that a corrupted count cannot exhaust the heap.
+     * Every entry takes at least a byte, so there cannot be more entries than bytes remaining.
+     */
+    private static int capacity(int count, ByteBuffer in) {
+        if (count < 0 || count > in.remaining()) {
+            throw new IllegalArgumentException("Invalid count " + count);
+        }
+        return count;
+    }
+
+    private static int checkVersion(int magic, int version) throws IOException {
+        if (magic != MAGIC) {
+            throw new IOException("Not a repository snapshot");
+        }
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported repository snapshot version " + version);
+        }
+        return version;
+    }
+}
@@ -0,0 +1,276 @@
+package backend.json;
+
+import backend.UpdateSignature;
+import backend.resource.serialization.SerializableIssue;
+import backend.resource.serialization.SerializableLabel;
+import backend.resource.serialization.SerializableMilestone;
+import backend.resource.serialization.SerializableModel;
+import backend.resource.serialization.SerializableUser;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of changes made to a repository since its store file was last written in full.
+ * <p>
+ * The log is a sequence of JSON records, one per line. The first identifies the store file the log was
+ * started on, and each of the others describes a single resource:
+ * <pre>
+ * {"kind":"base","value":"123:9f3a0c12"}   the length and CRC-32 of the store file
+ * {"kind":"issue","value":{...}}          the issue was added or changed
+ * {"kind":"issue","removed":"12"}         the issue with the given key no longer exists
+ * </pre>
+ * A store file is only rewritten in full together with deleting its log. If that is interrupted after
+ * the new store file is in place, the log left behind no longer matches it, and must not be replayed
+ * onto it: it records older values of resources the new file already has newer values of.
+ */
+final class ChangeLog {
+
+    private static final String KIND = "kind";
+    private static final String VALUE = "value";
+    private static final String REMOVED = "removed";
+
+    private static final String BASE = "base";
+    private static final String SIGNATURE = "signature";
+    private static final String ISSUE = "issue";
+    private static final String LABEL = "label";
+    private static final String MILESTONE = "milestone";
+    private static final String USER = "user";
+
+    private final Gson gson = new Gson();
+
+    /**
+     * Appends a record for every resource of the given model that differs from the snapshot,
+     * then updates the snapshot to match the model.
+     *
+     * @param logPath   the file to append to; created if it does not exist
+     * @param storePath the store file the log applies to, identified in a new log's first record
+     * @param snapshot  the state of the repository currently on disk
+     * @param model     the state of the repository to be saved
+     * @return the number of records appended
+     */
+    public int append(String logPath, String storePath, StoreSnapshot snapshot, SerializableModel model)
+            throws IOException {
+        int records = 0;
+        boolean isNewLog = new File(logPath).length() == 0;
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(logPath, true), StandardCharsets.UTF_8))) {
+
+            if (isNewLog) {
+                writeValue(out, BASE, fingerprint(storePath), String.class);
+            }
+
+            if (!isSameSignature(snapshot.updateSignature, model.updateSignature)) {
+                writeValue(out, SIGNATURE, model.updateSignature, UpdateSignature.class);
+                snapshot.updateSignature = model.updateSignature;
+                records++;
+            }
+            records += appendChanges(out, ISSUE, snapshot.issues, model.issues,
+                                     SerializableIssue::getId, SerializableIssue.class);
+            records += appendChanges(out, LABEL, snapshot.labels, model.labels,
+                                     SerializableLabel::getFullName, SerializableLabel.class);
+            records += appendChanges(out, MILESTONE, snapshot.milestones, model.milestones,
+                                     SerializableMilestone::getId, SerializableMilestone.class);
+            records += appendChanges(out, USER, snapshot.users, model.users,
+                                     SerializableUser::getLoginName, SerializableUser.class);
+        }
+        return records;
+    }
+
+    /**
+     * Returns true if the log was started on the given store file, as it was before the file was last
+     * rewritten in full. Logs without a base record are taken to belong to the store file.
+     *
+     * @throws JsonParseException if the log is corrupted
+     */
+    public boolean isBasedOn(String logPath, String storePath) throws IOException {
+        try (JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(
+                new FileInputStream(logPath), StandardCharsets.UTF_8)))) {
+            reader.setLenient(true);
+            if (reader.peek() == JsonToken.END_DOCUMENT) {
+                return true;
+            }
+            reader.beginObject();
+            if (!KIND.equals(reader.nextName())) {
+                throw new JsonParseException("Change log record does not start with its kind");
+            }
+            if (!BASE.equals(reader.nextString())) {
+                return true;
+            }
+            reader.nextName();
+            return reader.nextString().equals(fingerprint(storePath));
+        } catch (IllegalStateException e) {
+            throw new JsonParseException(e);
+        }
+    }
+
+    /**
+     * Identifies the contents of a store file by its length and CRC-32.
+     */
+    static String fingerprint(String storePath) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[64 * 1024];
+        long length = 0;
+        try (InputStream in = new FileInputStream(storePath)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                length += read;
+            }
+        }
+        return length + ":" + Long.toHexString(crc.getValue());
+    }
+
+    /**
+     * Applies every record in the log to the given snapshot, in order.
+     *
+     * @param logPath  the log to read
+     * @param snapshot the state of the repository's store file
+     * @return the number of records applied
+     * @throws JsonParseException if the log is corrupted
+     */
+    public int replay(String logPath, StoreSnapshot snapshot) throws IOException {
+        int records = 0;
+        try (JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(
+                new FileInputStream(logPath), StandardCharsets.UTF_8)))) {
+            reader.setLenient(true);
+            while (reader.peek() != JsonToken.END_DOCUMENT) {
+                readRecord(reader, snapshot);
+                records++;
+            }
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new JsonParseException(e);
+        }
+        return records;
+    }
+
+    private void readRecord(JsonReader reader, StoreSnapshot snapshot) throws IOException {
+        reader.beginObject();
+        if (!KIND.equals(reader.nextName())) {
+            throw new JsonParseException("Change log record does not start with its kind");
+        }
+        String kind = reader.nextString();
+        String field = reader.nextName();
+        boolean isRemoval = REMOVED.equals(field);
+        if (!isRemoval && !VALUE.equals(field)) {
+            throw new JsonParseException("Unknown change log field " + field);
+        }
+
+        switch (kind) {
+        case BASE:
+            reader.skipValue();
+            break;
+        case SIGNATURE:
+            snapshot.updateSignature = gson.fromJson(reader, UpdateSignature.class);
+            break;
+        case ISSUE:
+            applyRecord(reader, isRemoval, snapshot.issues, Integer::parseInt,
+                        SerializableIssue::getId, SerializableIssue.class);
+            break;
+        case LABEL:
+            applyRecord(reader, isRemoval, snapshot.labels, Function.identity(),
+                        SerializableLabel::getFullName, SerializableLabel.class);
+            break;
+        case MILESTONE:
+            applyRecord(reader, isRemoval, snapshot.milestones, Integer::parseInt,
+                        SerializableMilestone::getId, SerializableMilestone.class);
+            break;
+        case USER:
+            applyRecord(reader, isRemoval, snapshot.users, Function.identity(),
+                        SerializableUser::getLoginName, SerializableUser.class);
+            break;
+        default:
+            throw new JsonParseException("Unknown change log record " + kind);
+        }
+        reader.endObject();
+    }
+
+    private <K, V> void applyRecord(JsonReader reader, boolean isRemoval, Map<K, V> resources,
+                                    Function<String, K> parseKey, Function<V, K> key, Class<V> type)
+            throws IOException {
+        if (isRemoval) {
+            resources.remove(parseKey.apply(reader.nextString()));
+        } else {
+            V value = gson.fromJson(reader, type);
+            if (value == null) {
+                throw new JsonParseException("Empty " + type.getSimpleName() + " record");
+            }
+            resources.put(key.apply(value), value);
+        }
+    }
+
+    private <K, V> int appendChanges(Writer out, String kind, Map<K, V> previous, List<V> current,
+                                     Function<V, K> key, Class<V> type) throws IOException {
+        int records = 0;
+        Set<K> currentKeys = new HashSet<>();
+        for (V item : current) {
+            K itemKey = key.apply(item);
+            currentKeys.add(itemKey);
+            if (!item.equals(previous.get(itemKey))) {
+                writeValue(out, kind, item, type);
+                previous.put(itemKey, item);
+                records++;
+            }
+        }
+        Iterator<K> it = previous.keySet().iterator();
+        while (it.hasNext()) {
+            K previousKey = it.next();
+            if (!currentKeys.contains(previousKey)) {
+                writeRemoval(out, kind, String.valueOf(previousKey));
+                it.remove();
+                records++;
+            }
+        }
+        return records;
+    }
+
+    private <V> void writeValue(Writer out, String kind, V value, Class<V> type) throws IOException {
+        JsonWriter writer = new JsonWriter(out);
+        writer.beginObject();
+        writer.name(KIND).value(kind);
+        writer.name(VALUE);
+        gson.toJson(value, type, writer);
+        writer.endObject();
+        out.write('\n');
+    }
+
+    private void writeRemoval(Writer out, String kind, String key) throws IOException {
+        JsonWriter writer = new JsonWriter(out);
+        writer.beginObject();
+        writer.name(KIND).value(kind);
+        writer.name(REMOVED).value(key);
+        writer.endObject();
+        out.write('\n');
+    }
+
+    private static boolean isSameSignature(UpdateSignature previous, UpdateSignature current) {
+        if (previous == null || current == null) {
+            return previous == current;
+        }
+        // UpdateSignature equality ignores the last check time and cursor, but they still have to be persisted
+        return previous.equals(current) && Objects.equals(previous.lastCheckTime, current.lastCheckTime)
+                && Objects.equals(previous.pullRequestsCursor, current.pullRequestsCursor);
+    }
+}
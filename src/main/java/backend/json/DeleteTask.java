@@ -8,18 +8,22 @@ import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 class DeleteTask extends StoreTask {
     public final CompletableFuture<Boolean> response;
+    private final Map<String, StoreSnapshot> snapshots;
 
-    protected DeleteTask(String repoId, CompletableFuture<Boolean> response) {
+    protected DeleteTask(String repoId, Map<String, StoreSnapshot> snapshots, CompletableFuture<Boolean> response) {
         super(repoId);
+        this.snapshots = snapshots;
         this.response = response;
     }
 
     @Override
     public void run() {
+        snapshots.remove(JSONStore.snapshotKey(repoId));
         response.complete(RepoStore.delete(repoId));
     }
 }
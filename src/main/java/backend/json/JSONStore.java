@@ -3,23 +3,29 @@ package backend.json;
 import backend.interfaces.RepoStore;
 import backend.resource.Model;
 import backend.resource.serialization.SerializableModel;
-import com.google.gson.Gson;
 import com.google.gson.JsonParseException;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import org.apache.logging.log4j.Logger;
 import util.HTLog;
-import util.Utility;
 
+import java.io.BufferedReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
-import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.google.common.io.Files.getFileExtension;
 
@@ -27,53 +33,137 @@ public class JSONStore extends RepoStore {
 
     private static final Logger logger = HTLog.get(JSONStore.class);
 
+    /**
+     * What is currently on disk for each repository loaded or saved by this store,
+     * so that saves only have to write what changed.
+     */
+    private final Map<String, StoreSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Whether repositories are written in full as binary snapshots rather than as JSON.
+     * Either format is read regardless, and a repository stored in the other format is
+     * converted the first time it is loaded.
+     */
+    private final boolean useBinarySnapshots;
+
+    public JSONStore() {
+        this(false);
+    }
+
+    public JSONStore(boolean useBinarySnapshots) {
+        this.useBinarySnapshots = useBinarySnapshots;
+    }
+
     @Override
     public CompletableFuture<Model> loadRepository(String repoId) {
         CompletableFuture<Model> response = new CompletableFuture<>();
-        addTask(new ReadTask(repoId, response));
+        addTask(new ReadTask(repoId, snapshots, useBinarySnapshots, response));
         return response;
     }
 
     @Override
     public CompletableFuture<Boolean> saveRepository(String repoId, SerializableModel model) {
         CompletableFuture<Boolean> response = new CompletableFuture<>();
-        addTask(new WriteTask(repoId, model, response));
+        addTask(new WriteTask(repoId, model, snapshots, useBinarySnapshots, response));
         return response;
     }
 
+    /**
+     * Lists the repositories in the store directory. Store files recorded in the repository index
+     * are not opened; any others have just enough of them read to tell which repository they hold,
+     * and are then added to the index.
+     */
     public List<String> getStoredRepos() {
         ensureDirectoryExists();
-        try {
-            return Files.walk(Paths.get(RepoStore.directory), 1)
-                    .filter(Files::isRegularFile)
-                    .filter(p -> getFileExtension(String.valueOf(p.getFileName())).equalsIgnoreCase("json"))
-                    .map(JSONStore::getRepositoryIdFromJson)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .collect(Collectors.toList());
+        Map<String, RepoIndex.Entry> index = RepoIndex.read();
+        Map<String, RepoIndex.Entry> updatedIndex = new HashMap<>();
+        Set<String> repos = new LinkedHashSet<>();
+        boolean isIndexChanged = false;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(RepoStore.directory))) {
+            for (Path p : files) {
+                if (!Files.isRegularFile(p)) {
+                    continue;
+                }
+                String fileName = String.valueOf(p.getFileName());
+                RepoIndex.Entry entry = index.get(fileName);
+                if (entry == null || !entry.isValidFor(p.toFile())) {
+                    Optional<String> repoId = getRepositoryId(p);
+                    if (!repoId.isPresent()) {
+                        continue;
+                    }
+                    entry = new RepoIndex.Entry(repoId.get(), p.toFile());
+                    isIndexChanged = true;
+                }
+                updatedIndex.put(fileName, entry);
+                repos.add(entry.repoId);
+            }
         } catch (IOException e) {
             logger.error("Unable to open stored repository directory. ");
             return new ArrayList<>();
         }
+
+        // Entries for files that have since been removed are dropped as well
+        if (isIndexChanged || updatedIndex.size() != index.size()) {
+            RepoIndex.write(updatedIndex);
+        }
+        return new ArrayList<>(repos);
     }
 
     public CompletableFuture<Boolean> removeStoredRepo(String repoId) {
         CompletableFuture<Boolean> response = new CompletableFuture<>();
-        addTask(new DeleteTask(repoId, response));
+        addTask(new DeleteTask(repoId, snapshots, response));
         return response;
     }
 
-    private static Optional<String> getRepositoryIdFromJson(Path p) {
+    static String snapshotKey(String repoId) {
+        return repoId.toLowerCase();
+    }
+
+    private static Optional<String> getRepositoryId(Path p) {
+        String extension = getFileExtension(String.valueOf(p.getFileName()));
+        if (extension.equalsIgnoreCase("json")) {
+            return getRepositoryIdFromJson(p);
+        } else if (extension.equalsIgnoreCase("bin")) {
+            return getRepositoryIdFromSnapshot(p);
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<String> getRepositoryIdFromSnapshot(Path p) {
         try {
-            String repoId = new Model(
-                    (SerializableModel) new Gson().fromJson(Utility.readFile(String.valueOf(p.toAbsolutePath())).get(),
-                                                            new TypeToken<SerializableModel>() {}.getType()))
-                    .getRepoId();
-            if (String.valueOf(p.getFileName()).equalsIgnoreCase(escapeRepoName(repoId))) {
+            String repoId = BinarySnapshot.readHeader(String.valueOf(p.toAbsolutePath())).repoId;
+            if (String.valueOf(p.getFileName()).equalsIgnoreCase(escapeRepoSnapshotName(repoId))) {
+                logger.info("Adding " + p.getFileName() + " to stored repository list. ");
+                return Optional.of(repoId);
+            }
+        } catch (IOException e) {
+            logger.error("Unable to load repository from " + p.getFileName());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Reads the id of the repository in a JSON store file without parsing the rest of it.
+     * The id is the first field written, so normally only the start of the file is read.
+     */
+    private static Optional<String> getRepositoryIdFromJson(Path p) {
+        try (JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(
+                new FileInputStream(p.toFile()), StandardCharsets.UTF_8)))) {
+            String repoId = null;
+            reader.beginObject();
+            while (repoId == null && reader.hasNext()) {
+                if (reader.nextName().equals("repoId")) {
+                    repoId = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            if (repoId != null && String.valueOf(p.getFileName()).equalsIgnoreCase(escapeRepoName(repoId))) {
                 logger.info("Adding " + p.getFileName() + " to stored repository list. ");
                 return Optional.of(repoId);
             }
-        } catch (NullPointerException | JsonParseException e) {
+        } catch (IOException | IllegalStateException | JsonParseException e) {
             logger.error("Unable to load repository from " + p.getFileName());
         }
         return Optional.empty();
@@ -6,13 +6,19 @@ import backend.resource.Model;
 import backend.resource.serialization.SerializableModel;
 import com.google.gson.Gson;
 import com.google.gson.JsonParseException;
-import com.google.gson.reflect.TypeToken;
 import org.apache.logging.log4j.Logger;
 import util.HTLog;
 import util.exceptions.JSONLoadException;
 import util.exceptions.RepoStoreException;
 
-import java.util.Optional;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 class ReadTask extends StoreTask {
@@ -20,9 +26,14 @@ class ReadTask extends StoreTask {
     private static final Logger logger = HTLog.get(ReadTask.class);
 
     public final CompletableFuture<Model> response;
+    private final Map<String, StoreSnapshot> snapshots;
+    private final boolean useBinarySnapshots;
 
-    public ReadTask(String repoId, CompletableFuture<Model> response) {
+    public ReadTask(String repoId, Map<String, StoreSnapshot> snapshots, boolean useBinarySnapshots,
+                    CompletableFuture<Model> response) {
         super(repoId);
+        this.snapshots = snapshots;
+        this.useBinarySnapshots = useBinarySnapshots;
         this.response = response;
     }
 
@@ -38,7 +49,9 @@ class ReadTask extends StoreTask {
     }
 
     /**
-     * Loads repository data from RepoStore into a new Model.
+     * Loads repository data from RepoStore into a new Model. The repository's binary snapshot
+     * or JSON store file is read in, then its change log (if any) is replayed on top of it.
+     * A repository found in the format the store is not using is rewritten in that format.
      *
      * @param repoId the string id of the repository to be loaded
      * @return a new Model containing data for the requested repository.
@@ -46,24 +59,70 @@ class ReadTask extends StoreTask {
      *                           retrieved from the local store or is corrupted
      */
     private Model load(String repoId) throws RepoStoreException {
-        Optional<String> input = RepoStore.read(repoId);
+        File snapshotFile = new File(RepoStore.getRepoSnapshotPath(repoId).orElse(""));
+        File repoFile = new File(RepoStore.getRepoPath(repoId).orElse(""));
+        File logFile = new File(RepoStore.getRepoLogPath(repoId).orElse(""));
 
-        if (!input.isPresent()) {
+        boolean isBinary = snapshotFile.isFile();
+        if (!isBinary && !repoFile.isFile()) {
             logger.error("Unable to load " + repoId + " from JSON cache");
             throw new JSONLoadException();
-        } else {
-            logger.info(HTLog.format(repoId, "Data loaded from JSON cache"));
+        }
+
+        try {
+            SerializableModel sModel = isBinary
+                    ? BinarySnapshot.read(snapshotFile.getAbsolutePath())
+                    : readJson(repoFile);
+            logger.info(HTLog.format(repoId, isBinary
+                    ? "Data loaded from binary snapshot"
+                    : "Data loaded from JSON cache"));
 
-            try {
-                SerializableModel sModel = new Gson().fromJson(input.get(),
-                                                               new TypeToken<SerializableModel>() {}.getType());
+            StoreSnapshot snapshot = new StoreSnapshot(sModel);
+            if (logFile.isFile()) {
+                String storePath = (isBinary ? snapshotFile : repoFile).getAbsolutePath();
+                ChangeLog changeLog = new ChangeLog();
+                if (changeLog.isBasedOn(logFile.getAbsolutePath(), storePath)) {
+                    int records = changeLog.replay(logFile.getAbsolutePath(), snapshot);
+                    logger.info(HTLog.format(repoId, "Replayed %d change(s) from JSON store log", records));
+                    sModel = snapshot.toSerializableModel();
+                } else {
+                    // Left behind by a rewrite of the store file which already includes its changes
+                    logger.warn(HTLog.format(repoId, "Discarding change log of a previous store file"));
+                    RepoStore.deleteLog(repoId);
+                }
+            }
 
-                return new Model(sModel);
-            } catch (NullPointerException | JsonParseException e) {
-                logger.error(HTLog.format(repoId, "JSON data is corrupted"));
-                throw new JSONLoadException(e);
+            Model model = new Model(sModel);
+            if (isBinary == useBinarySnapshots || migrate(repoId, sModel)) {
+                snapshots.put(JSONStore.snapshotKey(repoId), snapshot);
             }
+            return model;
+        } catch (NullPointerException | JsonParseException | IOException e) {
+            logger.error(HTLog.format(repoId, "JSON data is corrupted"));
+            throw new JSONLoadException(e);
+        }
+    }
+
+    private static SerializableModel readJson(File repoFile) throws IOException {
+        try (Reader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(repoFile), StandardCharsets.UTF_8))) {
+            return new Gson().fromJson(reader, SerializableModel.class);
         }
     }
-}
 
+    /**
+     * Rewrites a repository in the format the store is using.
+     *
+     * @return true if the repository was rewritten
+     */
+    private boolean migrate(String repoId, SerializableModel sModel) {
+        try {
+            WriteTask.writeInFull(repoId, sModel, useBinarySnapshots);
+            logger.info(HTLog.format(repoId, "Converted to %s", useBinarySnapshots ? "binary snapshot" : "JSON"));
+            return true;
+        } catch (IOException e) {
+            HTLog.error(logger, e);
+            return false;
+        }
+    }
+}
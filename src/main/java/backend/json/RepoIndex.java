@@ -0,0 +1,114 @@
+package backend.json;
+
+import backend.interfaces.RepoStore;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.apache.logging.log4j.Logger;
+import util.HTLog;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index of the repositories in the store directory, kept in a file alongside them so that
+ * listing stored repositories does not require opening every store file.
+ * <p>
+ * Each store file is recorded with the repository it holds, along with its size and
+ * modification time when it was last read. An entry only stands in for the file while both
+ * still match; otherwise the file is read again. The index is therefore only ever a cache,
+ * and deleting it is harmless.
+ */
+final class RepoIndex {
+
+    private static final Logger logger = HTLog.get(RepoIndex.class);
+
+    static final String INDEX_FILE_NAME = "repos.index";
+    private static final int VERSION = 1;
+
+    private RepoIndex() {}
+
+    static class Entry {
+        final String repoId;
+        final long size;
+        final long lastModified;
+
+        Entry(String repoId, File file) {
+            this.repoId = repoId;
+            this.size = file.length();
+            this.lastModified = file.lastModified();
+        }
+
+        boolean isValidFor(File file) {
+            return repoId != null && size == file.length() && lastModified == file.lastModified();
+        }
+    }
+
+    private static class Contents {
+        final int version;
+        final Map<String, Entry> files;
+
+        Contents(Map<String, Entry> files) {
+            this.version = VERSION;
+            this.files = files;
+        }
+    }
+
+    /**
+     * Reads the index of the current store directory.
+     *
+     * @return the entries of the index keyed by file name, or an empty map if there is no usable index
+     */
+    static synchronized Map<String, Entry> read() {
+        File indexFile = getIndexFile();
+        if (!indexFile.isFile()) {
+            return new HashMap<>();
+        }
+        try (Reader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(indexFile), StandardCharsets.UTF_8))) {
+            Contents contents = new Gson().fromJson(reader, Contents.class);
+            if (contents != null && contents.version == VERSION && contents.files != null) {
+                return new HashMap<>(contents.files);
+            }
+        } catch (IOException | JsonParseException e) {
+            logger.warn("Unable to read repository index; it will be rebuilt. ", e);
+        }
+        return new HashMap<>();
+    }
+
+    /**
+     * Replaces the index of the current store directory.
+     */
+    static synchronized void write(Map<String, Entry> entries) {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(getIndexFile()), StandardCharsets.UTF_8))) {
+            new Gson().toJson(new Contents(entries), writer);
+        } catch (IOException e) {
+            logger.warn("Unable to write repository index. ", e);
+        }
+    }
+
+    /**
+     * Records that the given store file now holds the given repository.
+     */
+    static synchronized void put(String repoId, String path) {
+        File file = new File(path);
+        Map<String, Entry> entries = read();
+        entries.put(file.getName(), new Entry(repoId, file));
+        write(entries);
+    }
+
+    private static File getIndexFile() {
+        return new File(RepoStore.getDirectory(), INDEX_FILE_NAME);
+    }
+}
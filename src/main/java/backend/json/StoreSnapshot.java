@@ -0,0 +1,54 @@
+package backend.json;
+
+import backend.UpdateSignature;
+import backend.resource.serialization.SerializableIssue;
+import backend.resource.serialization.SerializableLabel;
+import backend.resource.serialization.SerializableMilestone;
+import backend.resource.serialization.SerializableModel;
+import backend.resource.serialization.SerializableUser;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The state of a repository as it currently exists on disk, i.e. its store file with
+ * its change log applied. Resources are keyed the same way as change log records, so
+ * a new model can be diffed against the snapshot without scanning it.
+ * <p>
+ * Not thread-safe; snapshots are only touched from the store's task thread.
+ */
+class StoreSnapshot {
+
+    final String repoId;
+    UpdateSignature updateSignature;
+
+    final Map<Integer, SerializableIssue> issues;
+    final Map<String, SerializableLabel> labels;
+    final Map<Integer, SerializableMilestone> milestones;
+    final Map<String, SerializableUser> users;
+
+    StoreSnapshot(SerializableModel model) {
+        this.repoId = model.repoId;
+        this.updateSignature = model.updateSignature;
+        this.issues = index(model.issues, SerializableIssue::getId);
+        this.labels = index(model.labels, SerializableLabel::getFullName);
+        this.milestones = index(model.milestones, SerializableMilestone::getId);
+        this.users = index(model.users, SerializableUser::getLoginName);
+    }
+
+    SerializableModel toSerializableModel() {
+        return new SerializableModel(repoId, updateSignature,
+                                     new ArrayList<>(issues.values()), new ArrayList<>(labels.values()),
+                                     new ArrayList<>(milestones.values()), new ArrayList<>(users.values()));
+    }
+
+    private static <K, V> Map<K, V> index(Iterable<V> items, Function<V, K> key) {
+        Map<K, V> result = new LinkedHashMap<>();
+        for (V item : items) {
+            result.put(key.apply(item), item);
+        }
+        return result;
+    }
+}
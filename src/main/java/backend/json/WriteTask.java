@@ -4,22 +4,52 @@ import backend.interfaces.RepoStore;
 import backend.interfaces.StoreTask;
 import backend.resource.serialization.SerializableModel;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
 import org.apache.logging.log4j.Logger;
 import util.HTLog;
+import util.Utility;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
+/**
+ * Saves a repository by appending what changed since the last save to its change log.
+ * The store file is only rewritten in full (compacting the log into it) when there is no
+ * snapshot of what is on disk to diff against, or when the log has grown too large.
+ */
 class WriteTask extends StoreTask {
 
     private static final Logger logger = HTLog.get(WriteTask.class);
 
+    /**
+     * The log is compacted into the store file once it is larger than this fraction of it.
+     */
+    private static final double COMPACTION_THRESHOLD = 0.5;
+
+    private static final String TEMP_EXTENSION = ".tmp";
+
     public final SerializableModel toSave;
     public final CompletableFuture<Boolean> response;
+    private final Map<String, StoreSnapshot> snapshots;
+    private final boolean useBinarySnapshots;
 
-    public WriteTask(String repoName, SerializableModel toSave, CompletableFuture<Boolean> response) {
+    public WriteTask(String repoName, SerializableModel toSave, Map<String, StoreSnapshot> snapshots,
+                     boolean useBinarySnapshots, CompletableFuture<Boolean> response) {
         super(repoName);
         this.toSave = toSave;
+        this.snapshots = snapshots;
+        this.useBinarySnapshots = useBinarySnapshots;
         this.response = response;
     }
 
@@ -29,10 +59,83 @@ class WriteTask extends StoreTask {
     }
 
     private boolean save(String repoId, SerializableModel model) {
-        String output = new Gson().toJson(model);
-        boolean corruptedJson = RepoStore.write(repoId, output, model.issues.size());
-        logger.info(HTLog.format(repoId, "Written to JSON store"));
+        String repoPath = getRepoPath(repoId, useBinarySnapshots);
+        String logPath = RepoStore.getRepoLogPath(repoId).orElse("");
+        StoreSnapshot snapshot = snapshots.remove(JSONStore.snapshotKey(repoId));
+
+        long repoSize = new File(repoPath).length();
+        long logSize = new File(logPath).length();
+        boolean shouldCompact = snapshot == null || repoSize == 0 || logSize > repoSize * COMPACTION_THRESHOLD;
+
+        try {
+            if (shouldCompact) {
+                writeInFull(repoId, model, useBinarySnapshots);
+                logger.info(HTLog.format(repoId, useBinarySnapshots
+                        ? "Written to binary snapshot"
+                        : "Written to JSON store"));
+                snapshot = new StoreSnapshot(model);
+            } else {
+                int records = new ChangeLog().append(logPath, repoPath, snapshot, model);
+                logger.info(HTLog.format(repoId, "Appended %d change(s) to JSON store log", records));
+            }
+        } catch (IOException e) {
+            HTLog.error(logger, e);
+            return true;
+        }
+
+        // Binary snapshots are compact by construction, so only JSON files are checked for runaway growth
+        long sizeAfterWrite = new File(repoPath).length() + new File(logPath).length();
+        boolean corruptedJson = !useBinarySnapshots
+                && Utility.processFileGrowth(sizeAfterWrite, model.issues.size(), repoPath);
+        if (corruptedJson) {
+            RepoStore.deleteLog(repoId);
+        } else {
+            snapshots.put(JSONStore.snapshotKey(repoId), snapshot);
+        }
         return corruptedJson;
     }
-}
 
+    static String getRepoPath(String repoId, boolean useBinarySnapshots) {
+        return (useBinarySnapshots ? RepoStore.getRepoSnapshotPath(repoId) : RepoStore.getRepoPath(repoId))
+                .orElse("");
+    }
+
+    /**
+     * Writes a repository out in full in the given format, replacing its change log and
+     * any copy of it in the other format. The repository index is updated to match.
+     * <p>
+     * The new file is written beside the old one and moved over it, so that the old file is kept
+     * whole if writing is interrupted.
+     */
+    static void writeInFull(String repoId, SerializableModel model, boolean useBinarySnapshots) throws IOException {
+        String repoPath = getRepoPath(repoId, useBinarySnapshots);
+        String tempPath = repoPath + TEMP_EXTENSION;
+        if (useBinarySnapshots) {
+            BinarySnapshot.write(tempPath, model);
+        } else {
+            try (JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(tempPath), StandardCharsets.UTF_8)))) {
+                new Gson().toJson(model, SerializableModel.class, writer);
+            }
+        }
+        replace(Paths.get(tempPath), Paths.get(repoPath));
+        RepoIndex.put(model.repoId, repoPath);
+
+        // The log is only deleted once the new file is in place, so it is kept if writing is interrupted.
+        // If this is interrupted instead, the log no longer matches the new file, and is discarded on load.
+        RepoStore.deleteLog(repoId);
+        String otherPath = getRepoPath(repoId, !useBinarySnapshots);
+        if (new File(otherPath).exists()) {
+            Utility.deleteFile(otherPath);
+        }
+    }
+
+    private static void replace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            logger.warn("Atomic moves are not supported for " + target + "; replacing it non-atomically");
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -8,8 +8,11 @@ import org.apache.logging.log4j.Logger;
 import util.Utility;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @SuppressWarnings("unused")
@@ -22,6 +25,15 @@ public class Model implements IBaseModel {
     private final List<TurboMilestone> milestones;
     private final List<TurboUser> users;
 
+    // Indexes over the lists above, built once on construction as the lists are never changed afterwards.
+    // Issues are mutated in place by the replaceIssue* and editIssueState operations, which cannot change
+    // their ids, so the issue index stays in sync with them.
+    private final Map<Integer, TurboIssue> issuesById;
+    private final Map<String, TurboLabel> labelsByName;
+    private final Map<Integer, TurboMilestone> milestonesById;
+    private final Map<String, TurboMilestone> milestonesByTitle;
+    private final Map<String, TurboUser> usersByLogin;
+
     private static final Logger logger = LogManager.getLogger(Model.class);
 
     /**
@@ -37,6 +49,12 @@ public class Model implements IBaseModel {
         this.labels = labels;
         this.milestones = milestones;
         this.users = users;
+
+        this.issuesById = index(issues, TurboIssue::getId);
+        this.labelsByName = index(labels, TurboLabel::getFullName);
+        this.milestonesById = index(milestones, TurboMilestone::getId);
+        this.milestonesByTitle = index(milestones, TurboMilestone::getTitle);
+        this.usersByLogin = index(users, TurboUser::getLoginName);
     }
 
     /**
@@ -45,54 +63,40 @@ public class Model implements IBaseModel {
      */
     public Model(String repoId, List<TurboIssue> issues,
                  List<TurboLabel> labels, List<TurboMilestone> milestones, List<TurboUser> users) {
-
-        this.updateSignature = UpdateSignature.EMPTY;
-        this.repoId = repoId;
-        this.issues = issues;
-        this.labels = labels;
-        this.milestones = milestones;
-        this.users = users;
+        this(repoId, issues, labels, milestones, users, UpdateSignature.EMPTY);
     }
 
     /**
      * Constructor for the empty model.
      */
     public Model(String repoId) {
-        this.updateSignature = UpdateSignature.EMPTY;
-        this.repoId = repoId;
-        this.issues = new ArrayList<>();
-        this.labels = new ArrayList<>();
-        this.milestones = new ArrayList<>();
-        this.users = new ArrayList<>();
+        this(repoId, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+             UpdateSignature.EMPTY);
     }
 
     /**
      * Copy constructor.
      */
     public Model(Model model) {
-        this.updateSignature = model.updateSignature;
-        this.repoId = model.getRepoId();
-        this.issues = new ArrayList<>(model.getIssues());
-        this.labels = new ArrayList<>(model.getLabels());
-        this.milestones = new ArrayList<>(model.getMilestones());
-        this.users = new ArrayList<>(model.getUsers());
+        this(model.getRepoId(), model.getIssues(), model.getLabels(), model.getMilestones(), model.getUsers(),
+             model.updateSignature);
     }
 
     public Model(SerializableModel model) {
-        this.updateSignature = model.updateSignature;
-        this.repoId = model.repoId;
-        this.issues = model.issues.stream()
-                .map(i -> new TurboIssue(model.repoId, i))
-                .collect(Collectors.toList());
-        this.labels = model.labels.stream()
-                .map(l -> new TurboLabel(model.repoId, l))
-                .collect(Collectors.toList());
-        this.milestones = model.milestones.stream()
-                .map(m -> new TurboMilestone(model.repoId, m))
-                .collect(Collectors.toList());
-        this.users = model.users.stream()
-                .map(u -> new TurboUser(model.repoId, u))
-                .collect(Collectors.toList());
+        this(model.repoId,
+             model.issues.stream()
+                     .map(i -> new TurboIssue(model.repoId, i))
+                     .collect(Collectors.toList()),
+             model.labels.stream()
+                     .map(l -> new TurboLabel(model.repoId, l))
+                     .collect(Collectors.toList()),
+             model.milestones.stream()
+                     .map(m -> new TurboMilestone(model.repoId, m))
+                     .collect(Collectors.toList()),
+             model.users.stream()
+                     .map(u -> new TurboUser(model.repoId, u))
+                     .collect(Collectors.toList()),
+             model.updateSignature);
     }
 
     public String getRepoId() {
@@ -128,52 +132,27 @@ public class Model implements IBaseModel {
 
     public Optional<TurboIssue> getIssueById(int issueId) {
         assert issueId >= 1 : "Invalid issue id " + issueId;
-        for (TurboIssue issue : getIssues()) {
-            if (issue.getId() == issueId) {
-                return Optional.of(issue);
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable(issuesById.get(issueId));
     }
 
     public Optional<TurboLabel> getLabelByActualName(String labelName) {
         assert labelName != null && !labelName.isEmpty() : "Invalid label name " + labelName;
-        for (TurboLabel label : getLabels()) {
-            if (label.getFullName().equals(labelName)) {
-                return Optional.of(label);
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable(labelsByName.get(labelName));
     }
 
     public Optional<TurboUser> getUserByLogin(String login) {
         assert login != null && !login.isEmpty() : "Invalid user name " + login;
-        for (TurboUser user : getUsers()) {
-            if (user.getLoginName().equals(login)) {
-                return Optional.of(user);
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable(usersByLogin.get(login));
     }
 
     public Optional<TurboMilestone> getMilestoneByTitle(String title) {
         assert title != null && !title.isEmpty() : "Invalid milestone title " + title;
-        for (TurboMilestone milestone : getMilestones()) {
-            if (milestone.getTitle().equals(title)) {
-                return Optional.of(milestone);
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable(milestonesByTitle.get(title));
     }
 
     public Optional<TurboMilestone> getMilestoneById(int id) {
         assert id >= 1 : "Invalid milestone id " + id;
-        for (TurboMilestone milestone : getMilestones()) {
-            if (milestone.getId() == id) {
-                return Optional.of(milestone);
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable(milestonesById.get(id));
     }
 
     public Optional<TurboMilestone> getMilestoneOfIssue(TurboIssue issue) {
@@ -189,10 +168,14 @@ public class Model implements IBaseModel {
     }
 
     public List<TurboLabel> getLabelsOfIssue(TurboIssue issue) {
-        return issue.getLabels().stream()
-                .map(this::getLabelByActualName)
-                .filter(Optional::isPresent).map(Optional::get)
-                .collect(Collectors.toList());
+        List<TurboLabel> result = new ArrayList<>();
+        for (String labelName : issue.getLabels()) {
+            TurboLabel label = labelsByName.get(labelName);
+            if (label != null) {
+                result.add(label);
+            }
+        }
+        return result;
     }
 
     /**
@@ -264,6 +247,18 @@ public class Model implements IBaseModel {
             () -> logger.error("Issue " + issueId + " not found in model for " + repoId));
     }
 
+    /**
+     * Indexes items by the given key. Where several items share a key, the first is kept,
+     * as a linear search for that key would have found it.
+     */
+    private static <K, V> Map<K, V> index(List<V> items, Function<V, K> key) {
+        Map<K, V> result = new HashMap<>();
+        for (V item : items) {
+            result.putIfAbsent(key.apply(item), item);
+        }
+        return result;
+    }
+
     @SuppressWarnings("unused")
     private void ______BOILERPLATE______() {}
 
@@ -32,6 +32,10 @@ public class MultiModel implements IModel {
     // Guaranteed to have a value throughout
     private String defaultRepo = null;
 
+    // Ids of the issues changed since changes were last taken, by repository, or empty if
+    // the models have since changed in a way not limited to individual issues
+    private Optional<Map<String, Set<Integer>>> issueChanges = Optional.empty();
+
     private static final Logger logger = LogManager.getLogger(MultiModel.class.getName());
 
     public MultiModel(Preferences prefs) {
@@ -53,8 +57,25 @@ public class MultiModel implements IModel {
         return this;
     }
 
+    /**
+     * Adds a partial model of a pending repository, which is shown in its place until the repository is
+     * added in full with {@link #addPending}. The repository remains pending until then; if it is no
+     * longer pending, the partial model is ignored.
+     *
+     * @return true if the partial model was added
+     */
+    public synchronized boolean addProvisional(Model partialModel) {
+        if (!isRepositoryPending(partialModel.getRepoId())) {
+            return false;
+        }
+        add(partialModel);
+        preprocessNewIssues(partialModel);
+        return true;
+    }
+
     private synchronized MultiModel add(Model model) {
         this.models.put(model.getRepoId(), model);
+        issueChanges = Optional.empty();
         return this;
     }
 
@@ -68,6 +89,7 @@ public class MultiModel implements IModel {
         Optional<Model> repoModelToBeDeleted = getModelById(repoIdCorrectCase.get());
         if (repoModelToBeDeleted.isPresent()) {
             this.models.remove(repoModelToBeDeleted.get().getRepoId());
+            issueChanges = Optional.empty();
         } else {
             logger.error("RepoModel to be deleted does not exist.");
         }
@@ -84,6 +106,7 @@ public class MultiModel implements IModel {
 
     public synchronized MultiModel replace(List<Model> newModels) {
         this.models.clear();
+        issueChanges = Optional.empty();
         newModels.forEach(this::add);
         return this;
     }
@@ -93,6 +116,22 @@ public class MultiModel implements IModel {
         return this;
     }
 
+    /**
+     * Replaces the model of a repository with one that differs from it only in the given issues.
+     * Labels, milestones, users and all other issues of the new model must be the same as before.
+     *
+     * @param newModel
+     * @param changedIssueIds ids of the issues that were changed or added
+     */
+    public synchronized MultiModel replace(Model newModel, Set<Integer> changedIssueIds) {
+        if (!models.containsKey(newModel.getRepoId())) {
+            return replace(newModel);
+        }
+        this.models.put(newModel.getRepoId(), newModel);
+        changedIssueIds.forEach(issueId -> recordIssueChange(newModel.getRepoId(), issueId));
+        return this;
+    }
+
     /**
      * Replaces labels of an issue specified by {@code issueId} in {@code repoId} with {@code labels}
      *
@@ -104,6 +143,7 @@ public class MultiModel implements IModel {
     public synchronized Optional<TurboIssue> replaceIssueLabels(String repoId, int issueId, List<String> labels) {
         Optional<Model> modelLookUpResult = getModelById(repoId);
         return Utility.safeFlatMapOptional(modelLookUpResult, (model) -> {
+            recordIssueChange(repoId, issueId);
             return model.replaceIssueLabels(issueId, labels);
         }, () -> logger.error("Model " + repoId + " not found in models"));
     }
@@ -120,6 +160,7 @@ public class MultiModel implements IModel {
                                                                    Optional<Integer> milestone) {
         Optional<Model> modelLookUpResult = getModelById(repoId);
         return Utility.safeFlatMapOptional(modelLookUpResult, (model) -> {
+            recordIssueChange(repoId, issueId);
             return model.replaceIssueMilestone(issueId, milestone);
         }, () -> logger.error("Model " + repoId + " not found in models"));
     }
@@ -135,7 +176,10 @@ public class MultiModel implements IModel {
     public synchronized Optional<TurboIssue> editIssueState(String repoId, int issueId, boolean isOpen) {
         Optional<Model> modelLookUpResult = getModelById(repoId);
         return Utility.safeFlatMapOptional(modelLookUpResult,
-            (model) -> model.editIssueState(issueId, isOpen),
+            (model) -> {
+                recordIssueChange(repoId, issueId);
+                return model.editIssueState(issueId, isOpen);
+            },
             () -> logger.error("Model " + repoId + " not found in models"));
     }
 
@@ -150,26 +194,31 @@ public class MultiModel implements IModel {
                                                                   Optional<String> assigneeLoginName) {
         Optional<Model> modelLookUpResult = getModelById(repoId);
         return Utility.safeFlatMapOptional(modelLookUpResult,
-            (model) -> model.replaceIssueAssignee(issueId, assigneeLoginName),
+            (model) -> {
+                recordIssueChange(repoId, issueId);
+                return model.replaceIssueAssignee(issueId, assigneeLoginName);
+            },
             () -> logger.error("Model " + repoId + " not found in models"));
     }
 
     public synchronized void insertMetadata(String repoId, Map<Integer, IssueMetadata> metadata, String currentUser) {
-        models.get(repoId).getIssues().forEach(issue -> {
-            if (metadata.containsKey(issue.getId())) {
-                IssueMetadata toBeInserted = metadata.get(issue.getId());
-
-                // ETag comparison is based on IssueMetadata constructor for more granularity, so that we can choose
-                // to not replace events while still replacing comments in the case of same ETag.
-                // TODO move ETag comparison here when comments ETag implementation is complete.
-                LocalDateTime nonSelfUpdatedAt = reconcileCreationDate(toBeInserted.getNonSelfUpdatedAt(),
-                                                                       issue.getCreatedAt(), currentUser, issue
-                                                                               .getCreator());
-                issue.setMetadata(toBeInserted.reconcile(nonSelfUpdatedAt,
-                                                         issue.getMetadata().getEvents(), issue.getMetadata()
-                                                                 .getEventsETag()));
-            }
-        });
+        Model model = models.get(repoId);
+        metadata.forEach((id, downloaded) -> model.getIssueById(id).ifPresent(issue -> {
+            IssueMetadata existing = issue.getMetadata();
+
+            // Events and comments that were not downloaded again because their ETags are unchanged are
+            // taken from the existing metadata, and the update time is computed from the result.
+            IssueMetadata toBeInserted = downloaded
+                    .reconcile(downloaded.getNonSelfUpdatedAt(), existing.getEvents(), existing.getEventsETag(),
+                               existing.getComments(), existing.getCommentsETag())
+                    .full(currentUser);
+            LocalDateTime nonSelfUpdatedAt = reconcileCreationDate(toBeInserted.getNonSelfUpdatedAt(),
+                                                                   issue.getCreatedAt(), currentUser, issue
+                                                                           .getCreator());
+            issue.setMetadata(toBeInserted.reconcile(nonSelfUpdatedAt,
+                                                     existing.getEvents(), existing.getEventsETag()));
+            recordIssueChange(repoId, issue.getId());
+        }));
     }
 
     private static LocalDateTime reconcileCreationDate(LocalDateTime lastNonSelfUpdate,
@@ -199,6 +248,9 @@ public class MultiModel implements IModel {
 
     @Override
     public synchronized void setDefaultRepo(String repoId) {
+        if (!Objects.equals(repoId, defaultRepo)) {
+            issueChanges = Optional.empty();
+        }
         this.defaultRepo = repoId;
     }
 
@@ -287,6 +339,22 @@ public class MultiModel implements IModel {
                 .flatMap(m -> m.getMilestoneOfIssue(issue));
     }
 
+    /**
+     * Returns the ids of the issues changed through this MultiModel since this was last called, by
+     * repository, and starts recording changes afresh. Returns empty if the models have changed in
+     * other ways since then, e.g. a repository was opened or replaced with new labels, in which case
+     * everything should be considered changed.
+     */
+    public synchronized Optional<Map<String, Set<Integer>>> takeIssueChanges() {
+        Optional<Map<String, Set<Integer>>> changes = issueChanges;
+        issueChanges = Optional.of(new HashMap<>());
+        return changes;
+    }
+
+    private synchronized void recordIssueChange(String repoId, int issueId) {
+        issueChanges.ifPresent(changes -> changes.computeIfAbsent(repoId, id -> new HashSet<>()).add(issueId));
+    }
+
     public synchronized boolean isRepositoryPending(String repoId) {
         return pendingRepositories.stream().anyMatch(pendingRepo -> pendingRepo.equalsIgnoreCase(repoId));
     }
@@ -13,7 +13,9 @@ import util.Utility;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -278,14 +280,16 @@ public class TurboIssue {
      */
     public static List<TurboIssue> reconcile(List<TurboIssue> existing, List<TurboIssue> changed) {
         List<TurboIssue> existingCopy = new ArrayList<>(existing);
+        Map<Integer, Integer> indexById = indexById(existingCopy);
         for (TurboIssue issue : changed) {
             int id = issue.getId();
 
-            Optional<Integer> correspondingIssueIndex = findIssueWithId(existingCopy, id);
-            if (!correspondingIssueIndex.isPresent()) {
+            Integer correspondingIssueIndex = indexById.get(id);
+            if (correspondingIssueIndex == null) {
+                indexById.put(id, existingCopy.size());
                 existingCopy.add(new TurboIssue(issue));
             } else {
-                TurboIssue existingIssue = existingCopy.get(correspondingIssueIndex.get());
+                TurboIssue existingIssue = existingCopy.get(correspondingIssueIndex);
                 TurboIssue newIssue = new TurboIssue(issue);
 
                 // newIssue is constructed from an external Issue object.
@@ -294,7 +298,7 @@ public class TurboIssue {
                 newIssue.transferTransientState(existingIssue);
                 newIssue.reconcile(existingIssue);
 
-                existingCopy.set(correspondingIssueIndex.get(), newIssue);
+                existingCopy.set(correspondingIssueIndex, newIssue);
             }
         }
         return existingCopy;
@@ -311,14 +315,15 @@ public class TurboIssue {
     public static List<TurboIssue> combineWithPullRequests(List<TurboIssue> issues,
                                                            List<PullRequest> pullRequests) {
         List<TurboIssue> issuesCopy = new ArrayList<>(issues);
+        Map<Integer, Integer> indexById = indexById(issuesCopy);
 
         for (PullRequest pullRequest : pullRequests) {
             int id = pullRequest.getNumber();
 
-            Optional<Integer> corresponding = findIssueWithId(issuesCopy, id);
-            if (corresponding.isPresent()) {
-                TurboIssue issue = issuesCopy.get(corresponding.get());
-                issuesCopy.set(corresponding.get(), issue.combineWithPullRequest(pullRequest));
+            Integer corresponding = indexById.get(id);
+            if (corresponding != null) {
+                TurboIssue issue = issuesCopy.get(corresponding);
+                issuesCopy.set(corresponding, issue.combineWithPullRequest(pullRequest));
             } else {
                 String errorMsg = "No corresponding issue for pull request " + pullRequest;
                 logger.error(errorMsg);
@@ -367,6 +372,18 @@ public class TurboIssue {
         return Optional.empty();
     }
 
+    /**
+     * Maps the id of each issue in a list to its index, so that issues can be looked up without
+     * scanning the list. If several issues share an id, the first one is used, as with findIssueWithId.
+     */
+    private static Map<Integer, Integer> indexById(List<TurboIssue> issues) {
+        Map<Integer, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < issues.size(); i++) {
+            indexById.putIfAbsent(issues.get(i).getId(), i);
+        }
+        return indexById;
+    }
+
     /**
      * Matching is done by matching all words separated by space in query
      *
@@ -5,6 +5,7 @@ import backend.resource.TurboIssue;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -41,6 +42,23 @@ public class SerializableIssue {
         this.milestone = issue.getMilestone();
     }
 
+    public SerializableIssue(int id, String title, String creator, LocalDateTime createdAt, boolean isPullRequest,
+                             String description, LocalDateTime updatedAt, int commentCount, boolean isOpen,
+                             Optional<String> assignee, List<String> labels, Optional<Integer> milestone) {
+        this.id = id;
+        this.title = title;
+        this.creator = creator;
+        this.createdAt = createdAt;
+        this.isPullRequest = isPullRequest;
+        this.description = description;
+        this.updatedAt = updatedAt;
+        this.commentCount = commentCount;
+        this.isOpen = isOpen;
+        this.assignee = assignee;
+        this.labels = labels;
+        this.milestone = milestone;
+    }
+
     public int getId() {
         return id;
     }
@@ -88,4 +106,29 @@ public class SerializableIssue {
     public Optional<Integer> getMilestone() {
         return milestone;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SerializableIssue other = (SerializableIssue) o;
+        return id == other.id &&
+                Objects.equals(title, other.title) &&
+                Objects.equals(creator, other.creator) &&
+                Objects.equals(createdAt, other.createdAt) &&
+                isPullRequest == other.isPullRequest &&
+                Objects.equals(description, other.description) &&
+                Objects.equals(updatedAt, other.updatedAt) &&
+                commentCount == other.commentCount &&
+                isOpen == other.isOpen &&
+                Objects.equals(assignee, other.assignee) &&
+                Objects.equals(labels, other.labels) &&
+                Objects.equals(milestone, other.milestone);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, title, creator, createdAt, isPullRequest, description, updatedAt,
+                            commentCount, isOpen, assignee, labels, milestone);
+    }
 }
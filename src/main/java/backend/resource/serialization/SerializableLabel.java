@@ -2,6 +2,8 @@ package backend.resource.serialization;
 
 import backend.resource.TurboLabel;
 
+import java.util.Objects;
+
 /**
  * Warnings are suppressed to prevent complaints about fields not being final.
  * They are this way to give them default values.
@@ -17,6 +19,11 @@ public class SerializableLabel {
         this.colour = label.getColour();
     }
 
+    public SerializableLabel(String fullName, String colour) {
+        this.fullName = fullName;
+        this.colour = colour;
+    }
+
     public String getFullName() {
         return fullName;
     }
@@ -24,4 +31,18 @@ public class SerializableLabel {
     public String getColour() {
         return colour;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SerializableLabel other = (SerializableLabel) o;
+        return Objects.equals(fullName, other.fullName) &&
+                Objects.equals(colour, other.colour);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fullName, colour);
+    }
 }
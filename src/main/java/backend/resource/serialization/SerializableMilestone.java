@@ -3,6 +3,7 @@ package backend.resource.serialization;
 import backend.resource.TurboMilestone;
 
 import java.time.LocalDate;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -29,6 +30,17 @@ public class SerializableMilestone {
         this.closedIssues = milestone.getClosedIssues();
     }
 
+    public SerializableMilestone(int id, String title, Optional<LocalDate> dueDate, String description,
+                                 boolean isOpen, int openIssues, int closedIssues) {
+        this.id = id;
+        this.title = title;
+        this.dueDate = dueDate;
+        this.description = description;
+        this.isOpen = isOpen;
+        this.openIssues = openIssues;
+        this.closedIssues = closedIssues;
+    }
+
     public int getId() {
         return id;
     }
@@ -56,4 +68,23 @@ public class SerializableMilestone {
     public int getClosedIssues() {
         return closedIssues;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SerializableMilestone other = (SerializableMilestone) o;
+        return id == other.id &&
+                Objects.equals(title, other.title) &&
+                Objects.equals(dueDate, other.dueDate) &&
+                Objects.equals(description, other.description) &&
+                isOpen == other.isOpen &&
+                openIssues == other.openIssues &&
+                closedIssues == other.closedIssues;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, title, dueDate, description, isOpen, openIssues, closedIssues);
+    }
 }
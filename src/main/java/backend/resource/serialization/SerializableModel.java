@@ -31,6 +31,17 @@ public class SerializableModel {
         this.users = model.getUsers().stream()
                 .map(SerializableUser::new).collect(Collectors.toList());
     }
+
+    public SerializableModel(String repoId, UpdateSignature updateSignature,
+                             List<SerializableIssue> issues, List<SerializableLabel> labels,
+                             List<SerializableMilestone> milestones, List<SerializableUser> users) {
+        this.repoId = repoId;
+        this.updateSignature = updateSignature;
+        this.issues = issues;
+        this.labels = labels;
+        this.milestones = milestones;
+        this.users = users;
+    }
 }
 
 
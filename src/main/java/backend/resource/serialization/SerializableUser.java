@@ -2,6 +2,8 @@ package backend.resource.serialization;
 
 import backend.resource.TurboUser;
 
+import java.util.Objects;
+
 /**
  * Warnings are suppressed to prevent complaints about fields not being final.
  * They are this way to give them default values.
@@ -18,6 +20,12 @@ public class SerializableUser {
         this.avatarURL = user.getAvatarURL();
     }
 
+    public SerializableUser(String loginName, String realName, String avatarURL) {
+        this.loginName = loginName;
+        this.realName = realName;
+        this.avatarURL = avatarURL;
+    }
+
     public String getLoginName() {
         return loginName;
     }
@@ -29,4 +37,19 @@ public class SerializableUser {
     public String getAvatarURL() {
         return avatarURL;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SerializableUser other = (SerializableUser) o;
+        return Objects.equals(loginName, other.loginName) &&
+                Objects.equals(realName, other.realName) &&
+                Objects.equals(avatarURL, other.avatarURL);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(loginName, realName, avatarURL);
+    }
 }
@@ -1,19 +1,23 @@
 package backend.stub;
 
+import backend.IssueMetadata;
 import backend.github.DownloadMetadataTask;
 import backend.interfaces.TaskRunner;
 import backend.resource.TurboIssue;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public class DownloadMetadataTaskStub extends DownloadMetadataTask {
 
     public DownloadMetadataTaskStub(TaskRunner taskRunner,
                                     DummyRepo repo,
                                     String repoId,
-                                    List<TurboIssue> issuesToUpdate) {
-        super(taskRunner, repo, repoId, issuesToUpdate);
+                                    List<TurboIssue> issuesToUpdate,
+                                    Consumer<Map<Integer, IssueMetadata>> batchConsumer,
+                                    int concurrency, int batchSize) {
+        super(taskRunner, repo, repoId, issuesToUpdate, batchConsumer, concurrency, batchSize);
     }
 
     @Override
@@ -12,6 +12,7 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.ImmutableTriple;
 import org.eclipse.egit.github.core.*;
 import ui.UI;
+import util.AtomicMaxInteger;
 import util.events.testevents.ClearLogicModelEvent;
 import util.events.testevents.UpdateDummyRepoEventHandler;
 
@@ -21,13 +22,21 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 public class DummyRepo implements Repo {
 
     private final HashMap<String, DummyRepoState> repoStates = new HashMap<>();
 
     // Only decreases after API retrievals
-    private int apiQuota = 3500;
+    private final AtomicInteger apiQuota = new AtomicInteger(3500);
+
+    // Simulated time taken by each request for updates or issue metadata
+    private volatile long latencyMillis = 0;
+    // The requests waiting on the simulated latency, and the most that have been at once
+    private final AtomicMaxInteger requestsInFlight = new AtomicMaxInteger(0);
 
     public DummyRepo() {
         if (UI.events == null) {
@@ -94,7 +103,37 @@ public class DummyRepo implements Repo {
         return credentials.username.equals("test") && credentials.password.equals("test");
     }
 
-    private DummyRepoState getRepoState(String repoId) {
+    /**
+     * Makes each request for updates, issue events or comments take the given time, as it would over
+     * the network.
+     */
+    public void setLatency(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * Returns the largest number of requests that have been in flight at once, counting only those
+     * made while a latency was set.
+     */
+    public int getPeakRequestsInFlight() {
+        return requestsInFlight.getMax();
+    }
+
+    private void simulateLatency() {
+        if (latencyMillis <= 0) {
+            return;
+        }
+        requestsInFlight.increment();
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            requestsInFlight.decrement();
+        }
+    }
+
+    private synchronized DummyRepoState getRepoState(String repoId) {
         DummyRepoState repoToGet = repoStates.get(repoId);
         if (repoToGet == null) {
             repoToGet = new DummyRepoState(repoId);
@@ -107,29 +146,41 @@ public class DummyRepo implements Repo {
     public ImmutableTriple<List<TurboIssue>, String, Date>
             getUpdatedIssues(String repoId, String eTag, Date lastCheckTime) {
 
+        simulateLatency();
         return getRepoState(repoId).getUpdatedIssues(eTag, lastCheckTime);
     }
 
     @Override
     public List<PullRequest> getUpdatedPullRequests(String repoId, Date lastCheckTime) {
+        simulateLatency();
         return new ArrayList<>();
     }
 
     @Override
     public ImmutablePair<List<TurboLabel>, String> getUpdatedLabels(String repoId, String eTag) {
+        simulateLatency();
         return getRepoState(repoId).getUpdatedLabels(eTag);
     }
 
     @Override
     public ImmutablePair<List<TurboMilestone>, String> getUpdatedMilestones(String repoId, String eTag) {
+        simulateLatency();
         return getRepoState(repoId).getUpdatedMilestones(eTag);
     }
 
     @Override
     public ImmutablePair<List<TurboUser>, String> getUpdatedCollaborators(String repoId, String eTag) {
+        simulateLatency();
         return getRepoState(repoId).getUpdatedCollaborators(eTag);
     }
 
+    @Override
+    public CompletableFuture<List<TurboIssue>> getIssues(String repoId, Consumer<List<TurboIssue>> pageConsumer) {
+        List<TurboIssue> issues = getIssues(repoId);
+        pageConsumer.accept(issues);
+        return CompletableFuture.completedFuture(issues);
+    }
+
     @Override
     public List<TurboIssue> getIssues(String repoId) {
         return getRepoState(repoId).getIssues();
@@ -154,17 +205,26 @@ public class DummyRepo implements Repo {
     public ImmutablePair<List<TurboIssueEvent>, String>
             getUpdatedEvents(String repoId, int issueId, String currentETag) {
 
-        ImmutablePair<List<TurboIssueEvent>, String> result = getRepoState(repoId).getEvents(issueId, currentETag);
+        simulateLatency();
+        DummyRepoState repoState = getRepoState(repoId);
+        ImmutablePair<List<TurboIssueEvent>, String> result;
+        synchronized (repoState) {
+            result = repoState.getEvents(issueId, currentETag);
+        }
 
-        if (!result.getRight().equals(currentETag) || currentETag.length() == 0) apiQuota--;
+        if (!result.getRight().equals(currentETag) || currentETag.length() == 0) apiQuota.decrementAndGet();
 
         return result;
     }
 
     @Override
     public List<Comment> getComments(String repoId, int issueId) {
-        apiQuota--;
-        return getRepoState(repoId).getComments(issueId);
+        simulateLatency();
+        apiQuota.decrementAndGet();
+        DummyRepoState repoState = getRepoState(repoId);
+        synchronized (repoState) {
+            return repoState.getComments(issueId);
+        }
     }
 
     @Override
@@ -174,6 +234,21 @@ public class DummyRepo implements Repo {
         return result;
     }
 
+    @Override
+    public ImmutablePair<List<Comment>, String> getUpdatedComments(String repoId, TurboIssue issue,
+                                                                   String currentETag) {
+        simulateLatency();
+        DummyRepoState repoState = getRepoState(repoId);
+        ImmutablePair<List<Comment>, String> result;
+        synchronized (repoState) {
+            result = repoState.getComments(issue.getId(), currentETag);
+        }
+
+        if (!result.getRight().equals(currentETag)) apiQuota.decrementAndGet();
+
+        return result;
+    }
+
     @Override
     public List<ReviewComment> getReviewComments(String repoId, int pullRequestId) {
         return new ArrayList<>();
@@ -217,7 +292,12 @@ public class DummyRepo implements Repo {
      */
     @Override
     public ImmutablePair<Integer, Long> getRateLimitResetTime() {
-        return new ImmutablePair<>(apiQuota, new Date().getTime() + 2700000);
+        return new ImmutablePair<>(apiQuota.get(), new Date().getTime() + 2700000);
+    }
+
+    @Override
+    public Optional<ImmutablePair<Integer, Long>> getRateLimitSnapshot() {
+        return Optional.of(getRateLimitResetTime());
     }
 
 }
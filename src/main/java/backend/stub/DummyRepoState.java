@@ -275,8 +275,17 @@ public class DummyRepoState {
         return new ImmutablePair<>(new ArrayList<>(), currentETag);
     }
 
+    protected ImmutablePair<List<Comment>, String> getComments(int issueId, String currentETag) {
+        if (updatedComments.contains(issueId) || currentETag.isEmpty()) {
+            // Remove issue from updatedComments so that the comments are not sent again for the new ETag
+            // unless more comments will have been added.
+            updatedComments.remove(issueId);
+            return new ImmutablePair<>(getComments(issueId), UUID.randomUUID().toString());
+        }
+        return new ImmutablePair<>(new ArrayList<>(), currentETag);
+    }
+
     protected List<Comment> getComments(int issueId) {
-        // TODO after implementing support for comments ETags on GitHubClientExtended, change logic to getEvents'.
         IssueMetadata metadataOfIssue = issueMetadata.get(issueId);
         if (metadataOfIssue != null) {
             return new ArrayList<>(metadataOfIssue.getComments());
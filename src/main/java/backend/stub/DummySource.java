@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class DummySource extends RepoSource {
 
@@ -33,19 +34,20 @@ public class DummySource extends RepoSource {
     }
 
     @Override
-    public CompletableFuture<Model> downloadRepository(String repoId) {
-        return addTask(new DownloadRepoTask(this, dummy, repoId)).response;
+    public CompletableFuture<Model> downloadRepository(String repoId, Consumer<Model> partialModelConsumer) {
+        return addTask(new DownloadRepoTask(this, dummy, repoId, partialModelConsumer)).response;
     }
 
     @Override
     public CompletableFuture<GitHubModelUpdatesData> downloadModelUpdates(Model model) {
-        return addTask(new DownloadModelUpdatesTask(this, dummy, model)).response;
+        return addTask(new DownloadModelUpdatesTask(this, dummy, model, getUpdatesConcurrency())).response;
     }
 
     @Override
-    public CompletableFuture<Map<Integer, IssueMetadata>> downloadMetadata(String repoId,
-                                                                           List<TurboIssue> issues) {
-        return addTask(new DownloadMetadataTaskStub(this, dummy, repoId, issues)).response;
+    public CompletableFuture<Map<Integer, IssueMetadata>> downloadMetadata(
+            String repoId, List<TurboIssue> issues, Consumer<Map<Integer, IssueMetadata>> batchConsumer) {
+        return addTask(new DownloadMetadataTaskStub(this, dummy, repoId, issues, batchConsumer,
+                                                    getMetadataConcurrency(), getMetadataBatchSize())).response;
     }
 
     @Override
@@ -79,4 +81,9 @@ public class DummySource extends RepoSource {
         return addTask(new CheckRateLimitTask(this, dummy)).response;
     }
 
+    @Override
+    public Optional<ImmutablePair<Integer, Long>> getRateLimitSnapshot() {
+        return dummy.getRateLimitSnapshot();
+    }
+
 }
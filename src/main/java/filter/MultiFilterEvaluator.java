@@ -0,0 +1,115 @@
+package filter;
+
+import backend.interfaces.IModel;
+import backend.resource.TurboIssue;
+import filter.expression.FilterExpression;
+import filter.expression.Qualifier;
+import filter.expression.QualifierType;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates several filter expressions against the same list of issues, sharing work between them.
+ * <p>
+ * Each distinct qualifier across the expressions is tested against every issue only once, giving
+ * the set of issues (as indices into the list) that it is satisfied by. An expression is then
+ * evaluated by combining the sets of its qualifiers with the corresponding set operations, so
+ * qualifiers common to several panels, such as the implicit default repository, are not tested
+ * again for each panel.
+ * <p>
+ * An evaluator does not notice changes to the issues or the model, so it should only be used
+ * for a single refresh.
+ */
+public class MultiFilterEvaluator {
+
+    private final IModel model;
+    private final List<TurboIssue> issues;
+
+    // Keyed by qualifier, along with the content of the in meta-qualifier for keyword qualifiers,
+    // as that affects which issues they are satisfied by.
+    // Empty if the qualifier is invalid, so that testing it would fail.
+    private final Map<Pair<Qualifier, Optional<String>>, Optional<BitSet>> qualifierMatches = new HashMap<>();
+
+    public MultiFilterEvaluator(IModel model, List<TurboIssue> issues) {
+        this.model = model;
+        this.issues = issues;
+    }
+
+    /**
+     * Returns the issues that satisfy the given filter expression, in the order they were given in.
+     * This gives the same result as testing each issue with {@link Qualifier#process}.
+     *
+     * @throws FilterException if the expression is invalid and there are issues to test it against
+     */
+    public List<TurboIssue> filter(FilterExpression expr) {
+        if (issues.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        FilterExpression exprWithNormalQualifiers = Qualifier.getNormalQualifiers(model, expr);
+        Optional<BitSet> matches = evaluate(exprWithNormalQualifiers, expr.find(Qualifier::isMetaQualifier));
+
+        if (!matches.isPresent()) {
+            // Some qualifier is invalid. The interpreter might only fail for some issues, or not
+            // at all if the qualifier is never reached, so test the expression in full to match it.
+            return issues.stream()
+                    .filter(Qualifier.compile(model, expr))
+                    .collect(Collectors.toList());
+        }
+
+        return matches.get().stream()
+                .mapToObj(issues::get)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Evaluates the given expression against all issues at once.
+     *
+     * @return the set of issues satisfying the expression, or empty if it has an invalid qualifier
+     */
+    private Optional<BitSet> evaluate(FilterExpression exprWithNormalQualifiers, List<Qualifier> metaQualifiers) {
+        MetaQualifierInfo info;
+        try {
+            info = new MetaQualifierInfo(metaQualifiers);
+        } catch (ParseException e) {
+            return Optional.empty();
+        }
+
+        Map<Qualifier, BitSet> matches = new HashMap<>();
+        for (Qualifier qualifier : exprWithNormalQualifiers.find(q -> true)) {
+            Optional<BitSet> qualifierMatches = getMatches(qualifier, info);
+            if (!qualifierMatches.isPresent()) {
+                return Optional.empty();
+            }
+            matches.put(qualifier, qualifierMatches.get());
+        }
+
+        return Optional.of(exprWithNormalQualifiers.combine(matches::get, issues.size()));
+    }
+
+    private Optional<BitSet> getMatches(Qualifier qualifier, MetaQualifierInfo info) {
+        Optional<String> in = qualifier.getType() == QualifierType.KEYWORD ? info.getIn() : Optional.empty();
+        return qualifierMatches.computeIfAbsent(new ImmutablePair<>(qualifier, in), key -> {
+            Predicate<TurboIssue> predicate = qualifier.compile(model, info);
+            if (Qualifier.isFailing(predicate)) {
+                return Optional.empty();
+            }
+            BitSet matches = new BitSet(issues.size());
+            for (int i = 0; i < issues.size(); i++) {
+                if (predicate.test(issues.get(i))) {
+                    matches.set(i);
+                }
+            }
+            return Optional.of(matches);
+        });
+    }
+}
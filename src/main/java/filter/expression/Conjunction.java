@@ -6,6 +6,7 @@ import filter.MetaQualifierInfo;
 import filter.QualifierApplicationException;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.function.Function;
@@ -55,6 +56,20 @@ public class Conjunction implements FilterExpression {
         return left.isSatisfiedBy(model, issue, info) && right.isSatisfiedBy(model, issue, info);
     }
 
+    @Override
+    public Predicate<TurboIssue> compile(IModel model, MetaQualifierInfo info) {
+        Predicate<TurboIssue> left = this.left.compile(model, info);
+        Predicate<TurboIssue> right = this.right.compile(model, info);
+        return issue -> left.test(issue) && right.test(issue);
+    }
+
+    @Override
+    public BitSet combine(Function<Qualifier, BitSet> qualifierMatches, int issueCount) {
+        BitSet result = left.combine(qualifierMatches, issueCount);
+        result.and(right.combine(qualifierMatches, issueCount));
+        return result;
+    }
+
     private boolean containsDuplicateQualifierTypes() {
         List<QualifierType> nonLabelQualifierTypes = getQualifierTypes().stream()
                 .filter(pn -> !pn.equals(QualifierType.LABEL))
@@ -5,6 +5,7 @@ import backend.resource.TurboIssue;
 import filter.MetaQualifierInfo;
 import filter.QualifierApplicationException;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -16,6 +17,18 @@ public interface FilterExpression {
 
     boolean isSatisfiedBy(IModel model, TurboIssue issue, MetaQualifierInfo info);
 
+    // Compiles this filter expression into a predicate that is satisfied by the same issues
+    // as isSatisfiedBy, given the same model and meta-qualifier information. Work that does
+    // not depend on the issue is done once here rather than for every issue tested.
+
+    Predicate<TurboIssue> compile(IModel model, MetaQualifierInfo info);
+
+    // Given the set of issues each qualifier in this filter expression is satisfied by, as indices
+    // into a list of issueCount issues, combines them into the set of issues that satisfy the whole
+    // expression. The given sets are not modified.
+
+    BitSet combine(Function<Qualifier, BitSet> qualifierMatches, int issueCount);
+
     // Filter expressions may only be applied if they contain no ambiguity
     // => they must contain only qualifiers or conjunctions thereof. Disjunctions
     // and negations can't be interpreted in order to be applied.
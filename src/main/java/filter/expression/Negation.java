@@ -6,6 +6,7 @@ import filter.MetaQualifierInfo;
 import filter.QualifierApplicationException;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -45,6 +46,18 @@ public class Negation implements FilterExpression {
         return !expr.isSatisfiedBy(model, issue, info);
     }
 
+    @Override
+    public Predicate<TurboIssue> compile(IModel model, MetaQualifierInfo info) {
+        return expr.compile(model, info).negate();
+    }
+
+    @Override
+    public BitSet combine(Function<Qualifier, BitSet> qualifierMatches, int issueCount) {
+        BitSet result = expr.combine(qualifierMatches, issueCount);
+        result.flip(0, issueCount);
+        return result;
+    }
+
     @Override
     public boolean canBeAppliedToIssue() {
         return false;
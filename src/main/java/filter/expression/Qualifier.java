@@ -4,8 +4,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -174,22 +176,48 @@ public class Qualifier implements FilterExpression {
      * Should always be used over isSatisfiedBy.
      */
     public static boolean process(IModel model, FilterExpression expr, TurboIssue issue) {
-        FilterExpression exprWithNormalQualifiers = expr.filter(Qualifier::shouldNotBeStripped);
+        FilterExpression exprWithNormalQualifiers = getNormalQualifiers(model, expr);
+        List<Qualifier> metaQualifiers = expr.find(Qualifier::isMetaQualifier);
+        return exprWithNormalQualifiers.isSatisfiedBy(model, issue, new MetaQualifierInfo(metaQualifiers));
+    }
+
+    /**
+     * Compiles a filter expression into a predicate that gives the same result as {@link #process}
+     * for every issue. Meta-qualifiers are taken care of once here instead of for every issue, so
+     * the predicate should be compiled once per refresh and then tested against all issues.
+     * Errors in the expression are only thrown once the predicate is tested, as with process.
+     */
+    public static Predicate<TurboIssue> compile(IModel model, FilterExpression expr) {
+        FilterExpression exprWithNormalQualifiers = getNormalQualifiers(model, expr);
         List<Qualifier> metaQualifiers = expr.find(Qualifier::isMetaQualifier);
 
+        MetaQualifierInfo info;
+        try {
+            info = new MetaQualifierInfo(metaQualifiers);
+        } catch (ParseException e) {
+            return failing(() -> e);
+        }
+        return exprWithNormalQualifiers.compile(model, info);
+    }
+
+    /**
+     * Returns the part of a filter expression that issues are tested against: the expression without
+     * the qualifiers that are stripped before testing, restricted to the default repository if it
+     * does not mention a repository itself.
+     */
+    public static FilterExpression getNormalQualifiers(IModel model, FilterExpression expr) {
+        FilterExpression exprWithNormalQualifiers = expr.filter(Qualifier::shouldNotBeStripped);
+
         // Preprocessing for repo qualifier
-        boolean containsRepoQualifier = metaQualifiers.stream()
-                .map(Qualifier::getType)
-                .collect(Collectors.toList())
-                .contains(QualifierType.REPO);
+        boolean containsRepoQualifier = expr.find(Qualifier::isMetaQualifier).stream()
+                .anyMatch(q -> q.getType() == QualifierType.REPO);
 
         if (!containsRepoQualifier) {
             exprWithNormalQualifiers = new Conjunction(
                     new Qualifier(QualifierType.REPO, model.getDefaultRepo()),
                     exprWithNormalQualifiers);
         }
-
-        return exprWithNormalQualifiers.isSatisfiedBy(model, issue, new MetaQualifierInfo(metaQualifiers));
+        return exprWithNormalQualifiers;
     }
 
     /**
@@ -379,6 +407,62 @@ public class Qualifier implements FilterExpression {
         }
     }
 
+    @Override
+    public Predicate<TurboIssue> compile(IModel model, MetaQualifierInfo info) {
+        assert type != null;
+
+        if (isEmpty()) return issue -> true;
+
+        if (isFalse()) return issue -> false;
+
+        switch (type) {
+        case ID:
+            return compileId();
+        case KEYWORD:
+            return compileKeyword(info);
+        case TITLE:
+            return compileTitle();
+        case DESCRIPTION:
+            return compileBody();
+        case MILESTONE:
+            return compileMilestone(model);
+        case LABEL:
+            return compileLabels(model);
+        case AUTHOR:
+            return compileAuthor();
+        case ASSIGNEE:
+            return compileAssignee(model);
+        case INVOLVES:
+            return compileAuthor().or(compileAssignee(model));
+        case TYPE:
+            return compileType();
+        case STATE:
+            return compileState();
+        case HAS:
+            return compileHasConditions();
+        case NO:
+            return content.isPresent() ? compileHasConditions().negate() : issue -> false;
+        case IS:
+            return compileIsConditions();
+        case CREATED:
+            return compileCreationDate();
+        case UPDATED:
+            return compileUpdatedHours();
+        case REPO:
+            return compileRepo();
+        default:
+            return issue -> {
+                assert false : "Missing case for " + type;
+                return false;
+            };
+        }
+    }
+
+    @Override
+    public BitSet combine(Function<Qualifier, BitSet> qualifierMatches, int issueCount) {
+        return (BitSet) qualifierMatches.apply(this).clone();
+    }
+
     @Override
     public void applyTo(TurboIssue issue, IModel model) throws QualifierApplicationException {
         assert type != null && content != null;
@@ -605,6 +689,16 @@ public class Qualifier implements FilterExpression {
         return !expr.find(Qualifier::isUpdatedQualifier).isEmpty();
     }
 
+    /**
+     * Determines if an issue's read state affects whether it satisfies the given expression.
+     * Issues are marked as read directly rather than through the model.
+     */
+    public static boolean hasReadStateQualifier(FilterExpression expr) {
+        return !expr.find(q -> q.getType() == QualifierType.IS && q.getContent().isPresent()
+                && Arrays.asList("read", "unread").contains(expandKeywordAliases(q.getContent().get())))
+                .isEmpty();
+    }
+
     public Comparator<TurboIssue> getCompoundSortComparator(IModel model, boolean isSortableByNonSelfUpdates) {
         if (sortKeys.isEmpty()) {
             return (a, b) -> 0;
@@ -866,9 +960,12 @@ public class Qualifier implements FilterExpression {
 
         if (!assignee.isPresent()) return false;
 
-        String content = this.content.get().toLowerCase();
-        String login = assignee.get().getLoginName() == null ? "" : assignee.get().getLoginName().toLowerCase();
-        String name = assignee.get().getRealName() == null ? "" : assignee.get().getRealName().toLowerCase();
+        return userMatches(assignee.get(), this.content.get().toLowerCase());
+    }
+
+    private static boolean userMatches(TurboUser user, String content) {
+        String login = user.getLoginName() == null ? "" : user.getLoginName().toLowerCase();
+        String name = user.getRealName() == null ? "" : user.getRealName().toLowerCase();
 
         return login.contains(content) || name.contains(content);
     }
@@ -888,13 +985,20 @@ public class Qualifier implements FilterExpression {
 
         // Make use of TurboLabel constructor to parse the input, avoiding duplication
         TurboLabel inputLabel = new TurboLabel("", input.toLowerCase());
-        TurboLabel candidateLabel = new TurboLabel("", candidate.toLowerCase());
 
         String group = "";
         if (inputLabel.isInGroup()) {
             group = inputLabel.getGroupName();
         }
-        String labelName = inputLabel.getShortName();
+        return labelMatches(group, inputLabel.getShortName(), candidate);
+    }
+
+    /**
+     * Matches a candidate label against an input label which has already been parsed into
+     * its (lowercase) group and label name.
+     */
+    private static boolean labelMatches(String group, String labelName, String candidate) {
+        TurboLabel candidateLabel = new TurboLabel("", candidate.toLowerCase());
 
         if (candidateLabel.isInGroup()) {
             if (labelName.isEmpty()) {
@@ -984,6 +1088,234 @@ public class Qualifier implements FilterExpression {
         }
     }
 
+    @SuppressWarnings("unused")
+    private void ______COMPILATION______() {}
+
+    /*
+     * Each of the following compiles one type of qualifier, mirroring the corresponding
+     * method above that is used by isSatisfiedBy.
+     */
+
+    /**
+     * Returns true if the given predicate, compiled from a single qualifier, fails for every issue it is
+     * tested against because the qualifier is invalid.
+     */
+    public static boolean isFailing(Predicate<TurboIssue> predicate) {
+        return predicate instanceof FailingPredicate;
+    }
+
+    private static Predicate<TurboIssue> failing(Supplier<? extends RuntimeException> exception) {
+        return new FailingPredicate(exception);
+    }
+
+    /**
+     * The predicate of an invalid qualifier, which throws the error the interpreter would when tested.
+     * It is a class of its own, rather than a lambda, so that it can be told apart by isFailing.
+     */
+    private static class FailingPredicate implements Predicate<TurboIssue> {
+        private final Supplier<? extends RuntimeException> exception;
+
+        private FailingPredicate(Supplier<? extends RuntimeException> exception) {
+            this.exception = exception;
+        }
+
+        @Override
+        public boolean test(TurboIssue issue) {
+            throw exception.get();
+        }
+
+        @Override
+        public Predicate<TurboIssue> negate() {
+            // Fails all the same
+            return this;
+        }
+    }
+
+    private Predicate<TurboIssue> compileId() {
+        if (number.isPresent()) {
+            int id = number.get();
+            return issue -> issue.getId() == id;
+        } else if (numberRange.isPresent()) {
+            NumberRange idRange = numberRange.get();
+            return issue -> idRange.encloses(issue.getId());
+        }
+        return failing(() -> new SemanticException(type));
+    }
+
+    private Predicate<TurboIssue> compileUpdatedHours() {
+        NumberRange updatedRange;
+
+        if (numberRange.isPresent()) {
+            updatedRange = numberRange.get();
+        } else if (number.isPresent()) {
+            updatedRange = new NumberRange(null, number.get(), true);
+        } else {
+            return failing(() -> new SemanticException(type));
+        }
+
+        return issue -> updatedRange.encloses(
+                Utility.safeLongToInt(issue.getUpdatedAt().until(getCurrentTime(), ChronoUnit.HOURS)));
+    }
+
+    private Predicate<TurboIssue> compileRepo() {
+        if (!content.isPresent()) return failing(() -> new SemanticException(type));
+
+        String repoId = content.get();
+        return issue -> issue.getRepoId().equalsIgnoreCase(repoId);
+    }
+
+    private Predicate<TurboIssue> compileCreationDate() {
+        if (date.isPresent()) {
+            LocalDate creationDate = date.get();
+            return issue -> issue.getCreatedAt().toLocalDate().isEqual(creationDate);
+        } else if (dateRange.isPresent()) {
+            DateRange creationRange = dateRange.get();
+            return issue -> creationRange.encloses(issue.getCreatedAt().toLocalDate());
+        } else {
+            return failing(() -> new SemanticException(type));
+        }
+    }
+
+    private Predicate<TurboIssue> compileHasConditions() {
+        if (!content.isPresent()) return failing(() -> new SemanticException(type));
+
+        switch (expandKeywordAliases(content.get())) {
+        case "label":
+            return issue -> issue.getLabels().size() > 0;
+        case "milestone":
+            return issue -> issue.getMilestone().isPresent();
+        case "assignee":
+            return issue -> issue.getAssignee().isPresent();
+        default:
+            return failing(() -> new SemanticException(type));
+        }
+    }
+
+    private Predicate<TurboIssue> compileIsConditions() {
+        if (!content.isPresent()) return failing(() -> new SemanticException(type));
+
+        switch (expandKeywordAliases(content.get())) {
+        case "open":
+        case "closed":
+            return compileState();
+        case "pr":
+        case "issue":
+            return compileType();
+        case "merged":
+            return issue -> issue.isPullRequest() && !issue.isOpen();
+        case "unmerged":
+            return issue -> issue.isPullRequest() && issue.isOpen();
+        case "read":
+            return TurboIssue::isCurrentlyRead;
+        case "unread":
+            return issue -> !issue.isCurrentlyRead();
+        default:
+            return failing(() -> new SemanticException(type));
+        }
+    }
+
+    private Predicate<TurboIssue> compileState() {
+        if (!content.isPresent()) return failing(() -> new SemanticException(type));
+
+        String content = expandKeywordAliases(this.content.get().toLowerCase());
+        if (content.contains("open")) {
+            return TurboIssue::isOpen;
+        } else if (content.contains("closed")) {
+            return issue -> !issue.isOpen();
+        } else {
+            return failing(() -> new SemanticException(type));
+        }
+    }
+
+    private Predicate<TurboIssue> compileAssignee(IModel model) {
+        if (!content.isPresent()) return issue -> false;
+
+        String content = this.content.get().toLowerCase();
+        return issue -> {
+            Optional<TurboUser> assignee = model.getAssigneeOfIssue(issue);
+            return assignee.isPresent() && userMatches(assignee.get(), content);
+        };
+    }
+
+    private Predicate<TurboIssue> compileAuthor() {
+        if (!content.isPresent()) return issue -> false;
+
+        String content = this.content.get().toLowerCase();
+        return issue -> issue.getCreator().toLowerCase().contains(content);
+    }
+
+    private Predicate<TurboIssue> compileLabels(IModel model) {
+        if (!content.isPresent()) return issue -> false;
+
+        TurboLabel inputLabel = new TurboLabel("", content.get().toLowerCase());
+        String group = inputLabel.isInGroup() ? inputLabel.getGroupName() : "";
+        String labelName = inputLabel.getShortName();
+
+        // Issues share a small set of labels, so each label is only matched against the input once
+        Map<String, Boolean> isMatchingLabel = new ConcurrentHashMap<>();
+        return issue -> {
+            for (TurboLabel label : model.getLabelsOfIssue(issue)) {
+                if (isMatchingLabel.computeIfAbsent(label.getFullName(),
+                                                    name -> labelMatches(group, labelName, name))) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    private Predicate<TurboIssue> compileMilestone(IModel model) {
+        if (!content.isPresent()) return issue -> false;
+
+        String contents = content.get().toLowerCase();
+        return issue -> {
+            Optional<TurboMilestone> milestone = model.getMilestoneOfIssue(issue);
+            return milestone.isPresent() && milestone.get().getTitle().toLowerCase().contains(contents);
+        };
+    }
+
+    private Predicate<TurboIssue> compileKeyword(MetaQualifierInfo info) {
+        if (info.getIn().isPresent()) {
+            switch (expandKeywordAliases(info.getIn().get())) {
+            case "title":
+                return compileTitle();
+            case "description":
+                return compileBody();
+            default:
+                return failing(() -> new SemanticException(QualifierType.IN));
+            }
+        } else {
+            return compileTitle().or(compileBody());
+        }
+    }
+
+    private Predicate<TurboIssue> compileBody() {
+        if (!content.isPresent()) return issue -> false;
+
+        String content = this.content.get().toLowerCase();
+        return issue -> issue.getDescription().toLowerCase().contains(content);
+    }
+
+    private Predicate<TurboIssue> compileTitle() {
+        if (!content.isPresent()) return issue -> false;
+
+        String content = this.content.get().toLowerCase();
+        return issue -> issue.getTitle().toLowerCase().contains(content);
+    }
+
+    private Predicate<TurboIssue> compileType() {
+        if (!content.isPresent()) return failing(() -> new SemanticException(type));
+
+        switch (expandKeywordAliases(this.content.get().toLowerCase())) {
+        case "issue":
+            return issue -> !issue.isPullRequest();
+        case "pr":
+            return TurboIssue::isPullRequest;
+        default:
+            return failing(() -> new SemanticException(type));
+        }
+    }
+
     private void applyMilestone(TurboIssue issue, IModel model) throws QualifierApplicationException {
         if (!content.isPresent()) {
             throw new QualifierApplicationException("Name of milestone to apply required");
@@ -0,0 +1,70 @@
+package github;
+
+import org.eclipse.egit.github.core.client.PagedRequest;
+import util.Utility;
+
+import java.net.HttpURLConnection;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * A page of a paged request, requested with an If-None-Match header for the ETag it last had,
+ * as returned by {@link GitHubClientEx#getPagesIfModified}.
+ *
+ * @param <V> the type of the items of the page
+ */
+public class ConditionalPage<V> {
+
+    private final PagedRequest<V> request;
+    private final HttpURLConnection connection;
+    private final Optional<Collection<V>> items;
+    private final String lastETag;
+    private final String eTag;
+
+    ConditionalPage(PagedRequest<V> request, HttpURLConnection connection, Optional<Collection<V>> items,
+                    String lastETag, String eTag) {
+        this.request = request;
+        this.connection = connection;
+        this.items = items;
+        this.lastETag = lastETag;
+        this.eTag = eTag;
+    }
+
+    /**
+     * Returns the request for the page, which may be sent again to retrieve its items.
+     */
+    public PagedRequest<V> getRequest() {
+        return request;
+    }
+
+    /**
+     * Returns the connection the page was requested with, whose headers are those of the response.
+     */
+    public HttpURLConnection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Returns the items of the page, or empty if it has not been modified and so was not downloaded.
+     */
+    public Optional<Collection<V>> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns the ETag of the page as it was received, or that it last had if it has not been modified.
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * Returns true if the page has changed since it last had its ETag, or if that was unknown. A page may be
+     * downloaded without having changed, as when the server does not support conditional requests, and its
+     * ETag may then be sent with or without quotes.
+     */
+    public boolean isModified() {
+        return items.isPresent()
+                && (lastETag.isEmpty() || !Utility.stripQuotes(eTag).equals(Utility.stripQuotes(lastETag)));
+    }
+}
@@ -8,17 +8,28 @@ import org.apache.logging.log4j.Logger;
 import org.eclipse.egit.github.core.client.GitHubClient;
 import org.eclipse.egit.github.core.client.GitHubRequest;
 import org.eclipse.egit.github.core.client.GitHubResponse;
+import org.eclipse.egit.github.core.client.PagedRequest;
 import util.HTLog;
 import util.IOUtilities;
 import util.Utility;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntPredicate;
+
+import static org.eclipse.egit.github.core.client.IGitHubConstants.HEADER_LINK;
 
 public class GitHubClientEx extends GitHubClient {
     private static final Logger logger = HTLog.get(GitHubClientEx.class);
@@ -28,12 +39,40 @@ public class GitHubClientEx extends GitHubClient {
     // Request method for HEAD API call
     protected static final String METHOD_HEAD = "HEAD";
 
+    // Separates the ETags of the pages of a paged response
+    private static final String PAGE_ETAG_DELIMITER = "#";
+
+    private static final String HEADER_RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
+    private static final String HEADER_RATE_LIMIT_RESET = "X-RateLimit-Reset";
+
+    // The number of requests remaining and the next reset time, as of the latest response; null if unknown
+    private final AtomicReference<ImmutablePair<Integer, Long>> rateLimits = new AtomicReference<>();
+
+    // Responses to GET requests kept across sessions, if they are cached
+    private final Optional<HttpResponseCache> responseCache;
+
     public GitHubClientEx() {
         super();
+        responseCache = Optional.empty();
     }
 
     public GitHubClientEx(String hostname, int port, String scheme) {
         super(hostname, port, scheme);
+        responseCache = Optional.empty();
+    }
+
+    /**
+     * Creates a client that requests the responses stored in the given cache conditionally, replaying
+     * them if they have not been modified.
+     */
+    public GitHubClientEx(HttpResponseCache responseCache) {
+        super();
+        this.responseCache = Optional.of(responseCache);
+    }
+
+    public GitHubClientEx(String hostname, int port, String scheme, HttpResponseCache responseCache) {
+        super(hostname, port, scheme);
+        this.responseCache = Optional.of(responseCache);
     }
 
     /**
@@ -47,6 +86,67 @@ public class GitHubClientEx extends GitHubClient {
         return connection;
     }
 
+    /**
+     * Extends superclass method to also keep the rate limits sent with every response, so that they
+     * need not be requested separately. Responses may arrive out of order, so the limits of the latest
+     * reset period are kept, and within it the lowest number of remaining requests.
+     */
+    @Override
+    protected GitHubClient updateRateLimits(HttpURLConnection request) {
+        super.updateRateLimits(request);
+
+        Optional<ImmutablePair<Integer, Long>> updated = parseRateLimits(request);
+        if (updated.isPresent()) {
+            rateLimits.accumulateAndGet(updated.get(), GitHubClientEx::mergeRateLimits);
+        }
+        return this;
+    }
+
+    /**
+     * Returns whichever of the rate limits kept and those of a response just received is the more recent:
+     * the one with the later reset time or, for the same reset time, the fewer remaining requests.
+     */
+    private static ImmutablePair<Integer, Long> mergeRateLimits(ImmutablePair<Integer, Long> current,
+                                                                ImmutablePair<Integer, Long> received) {
+        if (current == null || received.right > current.right) {
+            return received;
+        }
+        if (received.right < current.right) {
+            return current;
+        }
+        return received.left < current.left ? received : current;
+    }
+
+    /**
+     * Returns the number of requests remaining and the next reset time sent with the response
+     * to the given connection, or empty if it did not have them.
+     */
+    private static Optional<ImmutablePair<Integer, Long>> parseRateLimits(HttpURLConnection request) {
+        String remaining = request.getHeaderField(HEADER_RATE_LIMIT_REMAINING);
+        String reset = request.getHeaderField(HEADER_RATE_LIMIT_RESET);
+        if (remaining == null || reset == null) {
+            return Optional.empty();
+        }
+        try {
+            // The reset time is sent in seconds
+            return Optional.of(new ImmutablePair<>(Integer.parseInt(remaining), Long.parseLong(reset) * 1000));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the number of requests remaining and the next reset time as of the latest response,
+     * or empty if there has been none or the rate limits have been reset since.
+     */
+    public Optional<ImmutablePair<Integer, Long>> getRateLimitSnapshot() {
+        ImmutablePair<Integer, Long> snapshot = rateLimits.get();
+        if (snapshot == null || snapshot.right <= System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(snapshot);
+    }
+
     /**
      * Creates a HEAD request connection to the URI
      *
@@ -98,11 +198,13 @@ public class GitHubClientEx extends GitHubClient {
         HttpURLConnection httpRequest = createGet(request.generateUri());
 
         // Headers for the request
-        httpRequest.setRequestProperty("If-None-Match", "\"" + currentETag + "\"");
         String accept = request.getResponseContentType();
         if (accept != null) {
             httpRequest.setRequestProperty(HEADER_ACCEPT, accept);
         }
+        Optional<HttpResponseCache.Entry> cached = getCachedIfNoETag(httpRequest, currentETag);
+        httpRequest.setRequestProperty("If-None-Match",
+                                       cached.map(entry -> entry.eTag).orElse("\"" + currentETag + "\""));
         // We send the request here.
         final int code = httpRequest.getResponseCode();
 
@@ -112,16 +214,19 @@ public class GitHubClientEx extends GitHubClient {
             String updatedEtag = Utility.stripQuotes(httpRequest.getHeaderField("ETag"));
 
             // Copy the httpRequest input stream into a byte array
-            InputStream reqIS = getStream(httpRequest);
-            ByteArrayOutputStream buffer = IOUtilities.inputStreamToByteArrayOutputStream(reqIS);
-            InputStream reqIS2 = new ByteArrayInputStream(buffer.toByteArray());
-            InputStream reqIS3 = new ByteArrayInputStream(buffer.toByteArray());
+            byte[] body = readBody(httpRequest);
+            InputStream reqIS2 = new ByteArrayInputStream(body);
+            InputStream reqIS3 = new ByteArrayInputStream(body);
 
             // The first copy is used to produce the GitHubResponse
             GitHubResponse ghResponse = new GitHubResponse(httpRequest, getBody(request, reqIS2));
 
             // The second is parsed again for event-specific information
             return new GitHubEventsResponse(ghResponse, reqIS3, updatedEtag);
+        } else if (isNotModified(code) && cached.isPresent()) { // 304 Not Modified, since it was cached
+            GitHubResponse ghResponse = replay(request, httpRequest, cached.get());
+            return new GitHubEventsResponse(ghResponse, new ByteArrayInputStream(cached.get().body),
+                                            Utility.stripQuotes(cached.get().eTag));
         } else if (isNotModified(code)) { // 304 Not Modified
             GitHubResponse ghResponse = new GitHubResponse(httpRequest, null);
             return new GitHubEventsResponse(ghResponse, new NullInputStream(0), currentETag);
@@ -134,14 +239,346 @@ public class GitHubClientEx extends GitHubClient {
     }
 
     /**
-     * Accesses the Rate Limit API endpoint to retrieve the number of remaining requests for the hour,
-     * as well as the next reset time. Calling this function itself does not count towards the API limit.
+     * Extends superclass method to request responses that have been cached conditionally, replaying
+     * them if they have not been modified.
+     */
+    @Override
+    public GitHubResponse get(GitHubRequest request) throws IOException {
+        if (!responseCache.isPresent()) {
+            return super.get(request);
+        }
+        ImmutablePair<HttpURLConnection, Optional<GitHubResponse>> result = getIfModified(request, "");
+        if (!result.getRight().isPresent()) {
+            throw new IOException("Not modified response to unconditional request " + request.generateUri());
+        }
+        return result.getRight().get();
+    }
+
+    /**
+     * Sends a GET request with an If-None-Match header for the given ETag, if it is not empty.
+     * ETags are sent back exactly as they were received, so that weak ETags are also matched.
+     * <p>
+     * If no ETag is given but the response is cached, it is requested with the cached ETag instead, and
+     * replayed from the cache if it has not been modified. The response is then present, as it would
+     * have been had it been downloaded, and its headers include the cached ETag and links.
      *
-     * @return A pair consisting of the number of requests remaining for the hour and the next reset time.
+     * @param request
+     * @param currentETag the ETag of the last response to the request, or an empty string if unknown
+     * @return the connection used for the request, together with the response, which is empty if it
+     * has not been modified since it had the given ETag
      * @throws IOException
      */
+    public ImmutablePair<HttpURLConnection, Optional<GitHubResponse>> getIfModified(GitHubRequest request,
+                                                                                    String currentETag)
+            throws IOException {
+        HttpURLConnection httpRequest = createGet(request.generateUri());
+        String accept = request.getResponseContentType();
+        if (accept != null) {
+            httpRequest.setRequestProperty(HEADER_ACCEPT, accept);
+        }
+        Optional<HttpResponseCache.Entry> cached = getCachedIfNoETag(httpRequest, currentETag);
+        String eTag = cached.map(entry -> entry.eTag).orElse(currentETag);
+        if (!eTag.isEmpty()) {
+            httpRequest.setRequestProperty("If-None-Match", eTag);
+        }
+
+        final int code = httpRequest.getResponseCode();
+        updateRateLimits(httpRequest);
+
+        if (isOk(code)) {
+            byte[] body = readBody(httpRequest);
+            GitHubResponse response = new GitHubResponse(httpRequest, getBody(request, new ByteArrayInputStream(body)));
+            return new ImmutablePair<>(httpRequest, Optional.of(response));
+        } else if (isNotModified(code) && cached.isPresent()) {
+            return new ImmutablePair<>(httpRequest, Optional.of(replay(request, httpRequest, cached.get())));
+        } else if (isNotModified(code)) {
+            return new ImmutablePair<>(httpRequest, Optional.empty());
+        } else if (isEmpty(code)) {
+            return new ImmutablePair<>(httpRequest, Optional.of(new GitHubResponse(httpRequest, null)));
+        } else {
+            throw createException(getStream(httpRequest), code, httpRequest.getResponseMessage());
+        }
+    }
+
+    /**
+     * Returns the ETag of the response to the given connection, or an empty string if it has none.
+     */
+    public static String getETag(HttpURLConnection connection) {
+        return Optional.ofNullable(connection.getHeaderField("ETag")).orElse("");
+    }
+
+    /**
+     * Returns the ETag of the given response, or an empty string if it has none. Unlike the ETag of
+     * its connection, this is also that of a response replayed from the cache.
+     */
+    public static String getETag(GitHubResponse response) {
+        return Optional.ofNullable(response.getHeader("ETag")).orElse("");
+    }
+
+    /**
+     * Returns the cached response to the given GET request, if there is one and the caller has no ETag
+     * of its own for it.
+     */
+    private Optional<HttpResponseCache.Entry> getCachedIfNoETag(HttpURLConnection httpRequest, String currentETag) {
+        if (!responseCache.isPresent() || !currentETag.isEmpty()) {
+            return Optional.empty();
+        }
+        return responseCache.get().get(getCacheKey(httpRequest));
+    }
+
+    /**
+     * Reads the body of a successful response, storing it in the cache with its ETag if it has one.
+     */
+    private byte[] readBody(HttpURLConnection httpRequest) throws IOException {
+        byte[] body = IOUtilities.inputStreamToByteArrayOutputStream(getStream(httpRequest)).toByteArray();
+        if (responseCache.isPresent()) {
+            responseCache.get().recordMiss();
+            String eTag = getETag(httpRequest);
+            if (!eTag.isEmpty()) {
+                String link = Optional.ofNullable(httpRequest.getHeaderField(HEADER_LINK)).orElse("");
+                responseCache.get().put(getCacheKey(httpRequest), eTag, link, body);
+            }
+        }
+        return body;
+    }
+
+    /**
+     * Returns the cached response to a request which was not modified since it was cached.
+     */
+    private GitHubResponse replay(GitHubRequest request, HttpURLConnection httpRequest,
+                                  HttpResponseCache.Entry cached) throws IOException {
+        assert responseCache.isPresent();
+        responseCache.get().recordHit();
+        return new CachedResponse(httpRequest, getBody(request, new ByteArrayInputStream(cached.body)), cached);
+    }
+
+    /**
+     * Responses differ by user and by the content type accepted, as well as by URL.
+     */
+    private String getCacheKey(HttpURLConnection httpRequest) {
+        return getUser() + " " + httpRequest.getRequestProperty(HEADER_ACCEPT) + " " + httpRequest.getURL();
+    }
+
+    public Optional<HttpResponseCache> getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * A response replayed from the cache, whose ETag and links are those it was cached with, as a
+     * response of 304 Not Modified need not have them.
+     */
+    private static class CachedResponse extends GitHubResponse {
+        private final HttpResponseCache.Entry cached;
+
+        CachedResponse(HttpURLConnection response, Object body, HttpResponseCache.Entry cached) {
+            super(response, body);
+            this.cached = cached;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if ("ETag".equalsIgnoreCase(name)) {
+                return cached.eTag;
+            }
+            if (HEADER_LINK.equalsIgnoreCase(name)) {
+                return cached.link.isEmpty() ? null : cached.link;
+            }
+            return super.getHeader(name);
+        }
+    }
+
+    /**
+     * Retrieves all pages of a paged request, requesting each page only if it has been modified since
+     * it had the given ETag. Responses of 304 Not Modified do not count against the rate limit, so a
+     * list that has not changed can be checked for changes at no cost.
+     * <p>
+     * The items of pages that have not been modified are taken from the given cached items, which
+     * should be the items last retrieved with the given ETags. If they cannot be, as there are too
+     * many or too few of them for the number of pages, all pages are retrieved unconditionally.
+     *
+     * @param request     the request for the items, whose page size is used for all pages
+     * @param eTags       the ETags of the pages of the last response, as returned by this method,
+     *                    or an empty string if unknown
+     * @param cachedItems the items of the last response
+     * @return all items together with the ETags of their pages, or empty if no page has changed
+     * @throws IOException
+     */
+    public <V> Optional<ImmutablePair<List<V>, String>> getAllIfModified(PagedRequest<V> request, String eTags,
+                                                                        List<V> cachedItems) throws IOException {
+        int pageSize = request.getPageSize();
+        List<String> lastETags = splitPageETags(eTags);
+        if (!isCacheConsistent(lastETags.size(), cachedItems.size(), pageSize)) {
+            lastETags = new ArrayList<>();
+        }
+
+        // A full last page may have been followed by a new page since
+        int lastPageCount = lastETags.size();
+        List<ConditionalPage<V>> pages = getPagesIfModified(request, lastETags, index ->
+                index + 1 < lastPageCount || getCachedPage(cachedItems, index, pageSize).size() == pageSize);
+
+        List<V> items = new ArrayList<>();
+        List<String> pageETags = new ArrayList<>();
+        boolean isModified = false;
+        for (int index = 0; index < pages.size(); index++) {
+            ConditionalPage<V> page = pages.get(index);
+            items.addAll(page.getItems().orElse(getCachedPage(cachedItems, index, pageSize)));
+            pageETags.add(page.getETag());
+            isModified = isModified || page.isModified();
+        }
+
+        if (!isModified && pageETags.size() == lastETags.size()) {
+            return Optional.empty();
+        }
+        return Optional.of(new ImmutablePair<>(items, joinPageETags(pageETags)));
+    }
+
+    /**
+     * Requests each page of a paged request with an If-None-Match header for the ETag it last had, if known,
+     * until the last page. Responses of 304 Not Modified do not count against the rate limit.
+     * <p>
+     * The page after each is requested by following its next link, as PageIterator does. A page that has not
+     * been modified usually has no links, so whether there is a page after it is decided by the given predicate
+     * instead.
+     *
+     * @param request               the request for the items, whose page size is used for all pages
+     * @param lastETags             the ETags the pages last had, as they were received, by index
+     * @param hasNextIfNotModified  given the index of a page that has not been modified, returns true if
+     *                              there are pages after it
+     * @return the pages, in order
+     * @throws IOException if any page cannot be requested
+     */
+    public <V> List<ConditionalPage<V>> getPagesIfModified(PagedRequest<V> request, List<String> lastETags,
+                                                           IntPredicate hasNextIfNotModified) throws IOException {
+        List<ConditionalPage<V>> pages = new ArrayList<>();
+        Optional<PagedRequest<V>> pageRequest = Optional.of(createPageRequest(request, PagedRequest.PAGE_FIRST));
+        for (int index = 0; pageRequest.isPresent(); index++) {
+            String lastETag = index < lastETags.size() ? lastETags.get(index) : "";
+            ImmutablePair<HttpURLConnection, Optional<GitHubResponse>> result =
+                    getIfModified(pageRequest.get(), lastETag);
+            Optional<GitHubResponse> response = result.getRight();
+
+            if (response.isPresent()) {
+                Collection<V> pageItems = getPageItems(response.get());
+                if (index > 0 && pageItems.isEmpty()) {
+                    // Past the last page
+                    break;
+                }
+                pages.add(new ConditionalPage<>(pageRequest.get(), result.getLeft(), Optional.of(pageItems),
+                                                lastETag, getETag(response.get())));
+            } else {
+                pages.add(new ConditionalPage<>(pageRequest.get(), result.getLeft(), Optional.empty(),
+                                                lastETag, lastETag));
+            }
+
+            GitHubResponse linkResponse = response.orElse(new GitHubResponse(result.getLeft(), null));
+            if (linkResponse.getHeader(HEADER_LINK) != null || response.isPresent()) {
+                pageRequest = getNextPageRequest(request, linkResponse, index);
+            } else {
+                pageRequest = hasNextIfNotModified.test(index)
+                        ? Optional.of(createPageRequest(request, PagedRequest.PAGE_FIRST + index + 1))
+                        : Optional.empty();
+            }
+        }
+        return pages;
+    }
+
+    /**
+     * Returns the request for the page after the given one by following the next link of its response,
+     * as PageIterator does, or empty if there is none.
+     */
+    private static <V> Optional<PagedRequest<V>> getNextPageRequest(PagedRequest<V> request,
+                                                                    GitHubResponse response, int index) {
+        String next = response.getNext();
+        if (next == null) {
+            return Optional.empty();
+        }
+        PagedRequest<V> nextRequest = createPageRequest(request, PagedRequest.PAGE_FIRST + index + 1);
+        try {
+            nextRequest.setUri(new URL(next).getFile());
+        } catch (MalformedURLException e) {
+            nextRequest.setUri(next);
+        }
+        return Optional.of(nextRequest);
+    }
+
+    /**
+     * Returns the items of the given page of a paged response.
+     */
     @SuppressWarnings("unchecked")
+    public static <V> Collection<V> getPageItems(GitHubResponse response) {
+        Collection<V> pageItems = (Collection<V>) response.getBody();
+        return pageItems == null ? new ArrayList<>() : pageItems;
+    }
+
+    /**
+     * Splits the ETags of the pages of a paged response, as joined by {@link #joinPageETags}.
+     */
+    public static List<String> splitPageETags(String eTags) {
+        return eTags == null || eTags.isEmpty()
+                ? new ArrayList<>()
+                : Arrays.asList(eTags.split(PAGE_ETAG_DELIMITER, -1));
+    }
+
+    /**
+     * Joins the ETags of the pages of a paged response into one string.
+     */
+    public static String joinPageETags(List<String> eTags) {
+        return Utility.join(eTags, PAGE_ETAG_DELIMITER);
+    }
+
+    private static <V> List<V> getCachedPage(List<V> cachedItems, int index, int pageSize) {
+        return cachedItems.subList(Math.min(index * pageSize, cachedItems.size()),
+                                   Math.min((index + 1) * pageSize, cachedItems.size()));
+    }
+
+    /**
+     * Returns true if the given number of cached items could have been retrieved in the given number of pages.
+     */
+    private static boolean isCacheConsistent(int pageCount, int itemCount, int pageSize) {
+        if (pageCount == 0) {
+            return true;
+        }
+        return itemCount > (pageCount - 1) * pageSize && itemCount <= pageCount * pageSize
+                || pageCount == 1 && itemCount == 0;
+    }
+
+    /**
+     * Creates a copy of the given paged request for the given page.
+     */
+    public static <V> PagedRequest<V> createPageRequest(PagedRequest<V> request, int page) {
+        PagedRequest<V> pageRequest = new PagedRequest<>(page, request.getPageSize());
+        pageRequest.setUri(request.getUri());
+        pageRequest.setParams(request.getParams());
+        pageRequest.setType(request.getType());
+        pageRequest.setArrayType(request.getArrayType());
+        pageRequest.setResponseContentType(request.getResponseContentType());
+        return pageRequest;
+    }
+
+    /**
+     * Returns the number of remaining requests for the hour, as well as the next reset time, as of
+     * the latest response. If they are not known, the Rate Limit API endpoint is accessed for them.
+     * Calling this function itself does not count towards the API limit.
+     *
+     * @return A pair consisting of the number of requests remaining for the hour and the next reset time.
+     * @throws IOException
+     */
     public ImmutablePair<Integer, Long> getRateLimitResetTime() throws IOException {
+        Optional<ImmutablePair<Integer, Long>> snapshot = getRateLimitSnapshot();
+        if (snapshot.isPresent()) {
+            return snapshot.get();
+        }
+        ImmutablePair<Integer, Long> result = requestRateLimits();
+        rateLimits.set(result);
+        return result;
+    }
+
+    /**
+     * Accesses the Rate Limit API endpoint to retrieve the number of remaining requests for the hour,
+     * as well as the next reset time.
+     */
+    @SuppressWarnings("unchecked")
+    private ImmutablePair<Integer, Long> requestRateLimits() throws IOException {
         HttpURLConnection httpRequest = createGet("/rate_limit");
         if (isOk(httpRequest.getResponseCode())) {
             // We extract from rate, which is similar to resources.core
@@ -0,0 +1,235 @@
+package github;
+
+import com.google.common.hash.Hashing;
+import org.apache.logging.log4j.Logger;
+import util.HTLog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bodies of responses to GET requests, stored on disk with their ETags so that they may be requested
+ * conditionally across sessions. A response that has not been modified is then replayed from here,
+ * and does not count against the rate limit.
+ * <p>
+ * Each response is stored in a file of its own, named by the hash of its key. Once the files add up to
+ * more than the maximum size, those least recently used are removed. The order of use is kept in the
+ * files' modification times, so that it survives restarts.
+ */
+public class HttpResponseCache {
+
+    private static final Logger logger = HTLog.get(HttpResponseCache.class);
+
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final String ENTRY_SUFFIX = ".response";
+
+    /**
+     * A cached response.
+     */
+    public static class Entry {
+        public final String eTag;
+        // The Link header of the response, or an empty string if it had none
+        public final String link;
+        public final byte[] body;
+
+        Entry(String eTag, String link, byte[] body) {
+            this.eTag = eTag;
+            this.link = link;
+            this.body = body;
+        }
+    }
+
+    private final File directory;
+    private final long maxBytes;
+
+    // Mutable state -- all access to these fields must be synchronized!
+    // The sizes of the cached responses' files by key, least recently used first
+    private final LinkedHashMap<String, Long> entrySizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes = 0;
+    // The time the last response was used, so that responses used one after another are told apart
+    private long lastUsedAt = 0;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * @param directory the directory to store responses in, which is created if it does not exist;
+     *                  responses already stored there are used
+     * @param maxBytes  the size the stored responses are kept within
+     */
+    public HttpResponseCache(File directory, long maxBytes) {
+        assert maxBytes > 0;
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            logger.error("Unable to create response cache directory " + directory.getAbsolutePath());
+        }
+        loadEntries();
+    }
+
+    /**
+     * Returns the response stored with the given key, if there is one.
+     */
+    public synchronized Optional<Entry> get(String key) {
+        // Looked up with get, as containsKey does not mark it as used
+        if (entrySizes.get(key) == null) {
+            return Optional.empty();
+        }
+        File file = getFile(key);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (!key.equals(in.readUTF())) {
+                throw new IOException("Mismatched key in " + file.getName());
+            }
+            String eTag = in.readUTF();
+            String link = in.readUTF();
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            markUsed(file);
+            return Optional.of(new Entry(eTag, link, body));
+        } catch (IOException | NegativeArraySizeException e) {
+            logger.error("Unable to read cached response for " + key + ": " + e.getLocalizedMessage());
+            remove(key);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a response under the given key, replacing any stored with it, and removes the least
+     * recently used responses if the cache has grown past its maximum size.
+     */
+    public synchronized void put(String key, String eTag, String link, byte[] body) {
+        remove(key);
+        File file = getFile(key);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeUTF(key);
+            out.writeUTF(eTag);
+            out.writeUTF(link);
+            out.writeInt(body.length);
+            out.write(body);
+        } catch (IOException e) {
+            logger.error("Unable to cache response for " + key + ": " + e.getLocalizedMessage());
+            if (file.exists() && !file.delete()) {
+                logger.error("Unable to remove " + file.getName());
+            }
+            return;
+        }
+        markUsed(file);
+        entrySizes.put(key, file.length());
+        totalBytes += file.length();
+        evict();
+    }
+
+    /**
+     * Records that a response was replayed from the cache as it had not been modified.
+     */
+    public void recordHit() {
+        hitCount.incrementAndGet();
+    }
+
+    /**
+     * Records that a response had to be downloaded in full while the cache was in use.
+     */
+    public void recordMiss() {
+        missCount.incrementAndGet();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public synchronized int getEntryCount() {
+        return entrySizes.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized boolean contains(String key) {
+        return entrySizes.containsKey(key);
+    }
+
+    /**
+     * Indexes the responses already in the directory, least recently used first.
+     */
+    private synchronized void loadEntries() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(ENTRY_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 512))) {
+                String key = in.readUTF();
+                if (!getFile(key).getName().equals(file.getName())) {
+                    throw new IOException("Mismatched key");
+                }
+                entrySizes.put(key, file.length());
+                totalBytes += file.length();
+                lastUsedAt = Math.max(lastUsedAt, file.lastModified());
+            } catch (IOException e) {
+                logger.warn("Removing unreadable cached response " + file.getName());
+                if (!file.delete()) {
+                    logger.error("Unable to remove " + file.getName());
+                }
+            }
+        }
+        evict();
+        logger.info(String.format("Loaded %d cached responses (%d bytes)", entrySizes.size(), totalBytes));
+    }
+
+    private void markUsed(File file) {
+        lastUsedAt = Math.max(System.currentTimeMillis(), lastUsedAt + 1);
+        if (!file.setLastModified(lastUsedAt)) {
+            logger.warn("Unable to mark " + file.getName() + " as used");
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> leastRecentlyUsed = entrySizes.entrySet().iterator();
+        while (totalBytes > maxBytes && leastRecentlyUsed.hasNext()) {
+            Map.Entry<String, Long> eldest = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            totalBytes -= eldest.getValue();
+            deleteFile(eldest.getKey());
+        }
+    }
+
+    private void remove(String key) {
+        Long size = entrySizes.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+            deleteFile(key);
+        }
+    }
+
+    private void deleteFile(String key) {
+        File file = getFile(key);
+        if (file.exists() && !file.delete()) {
+            logger.error("Unable to remove " + file.getName());
+        }
+    }
+
+    private File getFile(String key) {
+        return new File(directory, Hashing.sha1().hashString(key, StandardCharsets.UTF_8) + ENTRY_SUFFIX);
+    }
+}
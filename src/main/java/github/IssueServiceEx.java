@@ -1,19 +1,58 @@
 package github;
 
 import static org.eclipse.egit.github.core.client.IGitHubConstants.*;
+import static org.eclipse.egit.github.core.client.PagedRequest.PAGE_FIRST;
+import static org.eclipse.egit.github.core.client.PagedRequest.PAGE_SIZE;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.reflect.TypeToken;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.egit.github.core.Comment;
 import org.eclipse.egit.github.core.IRepositoryIdProvider;
 import org.eclipse.egit.github.core.Issue;
 import org.eclipse.egit.github.core.IssueEvent;
 import org.eclipse.egit.github.core.client.GitHubRequest;
+import org.eclipse.egit.github.core.client.NoSuchPageException;
+import org.eclipse.egit.github.core.client.PageIterator;
+import org.eclipse.egit.github.core.client.PagedRequest;
 import org.eclipse.egit.github.core.service.IssueService;
+import util.HTLog;
 
 public class IssueServiceEx extends IssueService {
 
+    private static final Logger logger = HTLog.get(IssueServiceEx.class);
+
+    public static final int DEFAULT_PAGE_CONCURRENCY = 8;
+
+    // The number of times a page of issues is requested again after failing to be retrieved
+    private static final int PAGE_RETRIES = 2;
+
+    private static final int PAGE_POOL_SIZE = 16;
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 60;
+
+    // Pages are requested on this pool, shared by all instances so that the number of threads stays bounded
+    // however many repositories are being downloaded at once
+    private static final ThreadPoolExecutor pagePool = createPagePool();
+
     private final GitHubClientEx ghClient;
 
     public IssueServiceEx(GitHubClientEx client) {
@@ -70,4 +109,132 @@ public class IssueServiceEx extends IssueService {
         request.setType(IssueEvent[].class);
         return ghClient.getEvent(request, eTag);
     }
+
+    /**
+     * Creates the request for all comments of an issue, for use with {@link GitHubClientEx#getAllIfModified}.
+     *
+     * @param repository The repository containing the issue
+     * @param issueId    The numeric ID of the issue
+     * @return request for the comments of the issue
+     */
+    public PagedRequest<Comment> createCommentsRequest(IRepositoryIdProvider repository, int issueId) {
+        PagedRequest<Comment> request = createPagedRequest();
+        StringBuilder uri = new StringBuilder(SEGMENT_REPOS);
+        uri.append('/').append(repository.generateId())
+                .append(SEGMENT_ISSUES).append('/').append(issueId)
+                .append(SEGMENT_COMMENTS);
+        request.setUri(uri);
+        request.setType(new TypeToken<List<Comment>>() {
+        }.getType());
+        return request;
+    }
+
+    /**
+     * Gets all issues of a repository matching the given filters.
+     * <p>
+     * The first page is requested on its own, as the number of pages is only known from its Link header.
+     * The remaining pages are then requested on a shared pool, at most {@code concurrency} at once,
+     * though no more of them than remain in the API rate limit, in which case the pages after those
+     * are left out of the result. A page that cannot be retrieved is requested again a few times
+     * before giving up on the rest.
+     *
+     * @param repository       The repository whose issues are to be retrieved
+     * @param filters          The filters to request the issues with
+     * @param concurrency      The number of pages which may be requested at once
+     * @param pageConsumer     Given the issues of each page as it is received, in any order, together
+     *                         with an estimate of the total (which is never less than the actual total)
+     * @return all issues of the repository matching the filters, in the order of their pages, completed
+     * once the pages after the first have been received without holding the calling thread, or completed
+     * exceptionally with an {@link UncheckedIOException} if any page cannot be retrieved
+     */
+    public CompletableFuture<List<Issue>> getAllIssues(IRepositoryIdProvider repository, Map<String, String> filters,
+                                                       int concurrency,
+                                                       BiConsumer<Collection<Issue>, Integer> pageConsumer) {
+        assert concurrency > 0;
+
+        PageIterator<Issue> firstPageIterator = pageIssues(repository, filters, PAGE_FIRST, PAGE_SIZE);
+        Collection<Issue> firstPage;
+        try {
+            firstPage = firstPageIterator.next();
+        } catch (NoSuchPageException e) {
+            CompletableFuture<List<Issue>> result = new CompletableFuture<>();
+            result.completeExceptionally(new UncheckedIOException(e.getCause()));
+            return result;
+        }
+        List<Issue> issues = new ArrayList<>(firstPage);
+
+        // The last page is -1 if the first page is the only one
+        int lastPage = Math.max(PAGE_FIRST, firstPageIterator.getLastPage());
+        int estimatedTotal = lastPage * PAGE_SIZE;
+        pageConsumer.accept(firstPage, estimatedTotal);
+
+        Optional<Integer> remainingRequests = ghClient.getRateLimitSnapshot().map(ImmutablePair::getLeft);
+        if (remainingRequests.isPresent() && lastPage - PAGE_FIRST > remainingRequests.get()) {
+            logger.warn(HTLog.format(repository, "Only %d of %d pages of issues are within the rate limit",
+                                     remainingRequests.get() + 1, lastPage));
+            lastPage = PAGE_FIRST + remainingRequests.get();
+        }
+        if (lastPage == PAGE_FIRST) {
+            return CompletableFuture.completedFuture(issues);
+        }
+
+        int pageCount = lastPage - PAGE_FIRST;
+        Map<Integer, Collection<Issue>> pages = new ConcurrentHashMap<>();
+        AtomicInteger nextPage = new AtomicInteger(PAGE_FIRST + 1);
+        AtomicBoolean hasFailed = new AtomicBoolean(false);
+
+        // Each worker requests the next page not yet requested until none remain, or another has failed
+        int lastPageToRequest = lastPage;
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(concurrency, pageCount); i++) {
+            workers.add(CompletableFuture.runAsync(() -> {
+                int page;
+                while (!hasFailed.get() && (page = nextPage.getAndIncrement()) <= lastPageToRequest) {
+                    try {
+                        Collection<Issue> pageIssues = getPage(repository, filters, page);
+                        pageConsumer.accept(pageIssues, estimatedTotal);
+                        pages.put(page, pageIssues);
+                    } catch (RuntimeException e) {
+                        hasFailed.set(true);
+                        throw e;
+                    }
+                }
+            }, pagePool));
+        }
+
+        return CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            for (int page = PAGE_FIRST + 1; page <= lastPageToRequest; page++) {
+                issues.addAll(pages.get(page));
+            }
+            return issues;
+        });
+    }
+
+    /**
+     * Requests the given page of issues, requesting it again up to {@link #PAGE_RETRIES} times if it fails.
+     *
+     * @throws UncheckedIOException if the page could not be retrieved
+     */
+    private Collection<Issue> getPage(IRepositoryIdProvider repository, Map<String, String> filters, int page) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return pageIssues(repository, filters, page, PAGE_SIZE).next();
+            } catch (NoSuchPageException e) {
+                if (attempt == PAGE_RETRIES) {
+                    logger.error(HTLog.format(repository, "Could not retrieve page %d of issues", page));
+                    throw new UncheckedIOException(e.getCause());
+                }
+                logger.warn(HTLog.format(repository, "Requesting page %d of issues again", page));
+            }
+        }
+    }
+
+    private static ThreadPoolExecutor createPagePool() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                PAGE_POOL_SIZE, PAGE_POOL_SIZE, IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("issue-pages-%d").setDaemon(true).build());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
 }
@@ -66,6 +66,23 @@ public class PullRequestServiceEx extends PullRequestService {
 
         logger.info("Getting review comments for PR" + pullRequestNumber + " " + repoId);
 
+        return getAll(createReviewCommentsRequest(repoId, pullRequestNumber));
+    }
+
+    /**
+     * Creates the request for a pull request's review comments, for use with
+     * {@link GitHubClientEx#getAllIfModified}.
+     *
+     * @param repository
+     * @param pullRequestNumber
+     * @return request for the review comments of the pull request
+     */
+    public PagedRequest<ReviewComment> createReviewCommentsRequest(IRepositoryIdProvider repository,
+                                                                   int pullRequestNumber) {
+        return createReviewCommentsRequest(getId(repository), Integer.toString(pullRequestNumber));
+    }
+
+    private PagedRequest<ReviewComment> createReviewCommentsRequest(String repoId, String pullRequestNumber) {
         StringBuilder uri = new StringBuilder(SEGMENT_REPOS);
         uri.append('/').append(repoId)
                 .append(SEGMENT_PULLS)
@@ -76,7 +93,6 @@ public class PullRequestServiceEx extends PullRequestService {
         request.setUri(uri);
         request.setType(new TypeToken<List<ReviewComment>>() {
         }.getType());
-
-        return getAll(request);
+        return request;
     }
 }
@@ -18,11 +18,29 @@ import static org.eclipse.egit.github.core.client.IGitHubConstants.*;
 public class PullRequestUpdateService extends UpdateService<PullRequest> {
     private static final Logger logger = LogManager.getLogger(PullRequestUpdateService.class.getName());
 
+    // GitHub sends at most 100 items per page
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int DEFAULT_PAGE_SIZE = MAX_PAGE_SIZE;
+
     private final Date lastIssueCheckTime;
+    private final int pageSize;
+
+    // The number of pages requested by the last call to getUpdatedItems
+    private int requestCount = 0;
 
     public PullRequestUpdateService(GitHubClientEx client, Date lastIssueCheckTime) {
+        this(client, lastIssueCheckTime, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * @param lastIssueCheckTime only pull requests updated at or after this are retrieved
+     * @param pageSize           the number of pull requests to request per page, at most MAX_PAGE_SIZE
+     */
+    public PullRequestUpdateService(GitHubClientEx client, Date lastIssueCheckTime, int pageSize) {
         super(client, SEGMENT_PULLS, "");
+        assert pageSize > 0 && pageSize <= MAX_PAGE_SIZE;
         this.lastIssueCheckTime = new Date(lastIssueCheckTime.getTime());
+        this.pageSize = pageSize;
     }
 
     private Map<String, String> createUpdatedPullRequestsParams() {
@@ -34,15 +52,16 @@ public class PullRequestUpdateService extends UpdateService<PullRequest> {
     }
 
     /**
-     * Overrides parent's method to change the number of items per page. This allow the update process
-     * to stop earlier once it encounters the first item whose updatedAt time is before lastIssueCheckTime
+     * Overrides parent's method to request pageSize items per page, sorted by the time they were updated.
+     * Together with stopping at the first page with an item whose updatedAt time is before lastIssueCheckTime, an
+     * incremental update usually takes a single request.
      *
      * @param repoId the repository to make the request for
      * @return a list of pull requests
      */
     @Override
     protected PagedRequest<PullRequest> createUpdatedRequest(IRepositoryIdProvider repoId) {
-        PagedRequest<PullRequest> request = new PagedRequest<>(1, 30);
+        PagedRequest<PullRequest> request = new PagedRequest<>(1, pageSize);
 
         String path = SEGMENT_REPOS + "/" + repoId.generateId() + apiSuffix;
         request.setUri(path);
@@ -69,6 +88,7 @@ public class PullRequestUpdateService extends UpdateService<PullRequest> {
             return updatedItems;
         }
 
+        requestCount = 0;
         ArrayList<PullRequest> result = new ArrayList<>();
         String resourceDesc = repoId.generateId() + apiSuffix;
         logger.info(String.format("Updating %s", resourceDesc));
@@ -79,6 +99,9 @@ public class PullRequestUpdateService extends UpdateService<PullRequest> {
         } catch (IOException e) {
             logger.error(e.getLocalizedMessage(), e);
             return result;
+        } finally {
+            logger.info(String.format("%s: %d request(s) for %d pull request(s) updated since %s",
+                                      resourceDesc, requestCount, result.size(), lastIssueCheckTime));
         }
 
         updatedItems = result;
@@ -87,7 +110,9 @@ public class PullRequestUpdateService extends UpdateService<PullRequest> {
 
     /**
      * Overrides parent's method to stop getting items if some items in a page has
-     * updatedAt time before the lastIssueCheckTime
+     * updatedAt time before the lastIssueCheckTime.
+     * Pull requests updated while the pages are requested move to the front of the list, shifting others
+     * onto the next page, so pull requests already added from an earlier page are skipped.
      *
      * @param resourceDesc
      * @param iterator     the paged request to iterate through
@@ -98,16 +123,19 @@ public class PullRequestUpdateService extends UpdateService<PullRequest> {
     protected List<PullRequest> getPagedItems(String resourceDesc, PageIterator<PullRequest> iterator)
             throws IOException {
         List<PullRequest> elements = new ArrayList<>();
+        Set<Integer> addedNumbers = new HashSet<>();
         int page = 0;
 
         try {
             while (iterator.hasNext()) {
+                requestCount++;
                 Collection<PullRequest> newPullRequests = iterator.next();
-                int numAddedItems = addItemsUpdatedSince(elements, newPullRequests, lastIssueCheckTime);
+                int numUpdatedItems = addItemsUpdatedSince(elements, addedNumbers, newPullRequests,
+                                                           lastIssueCheckTime);
 
-                logger.info(resourceDesc + " | page " + (page++) + ": " + numAddedItems + " items");
+                logger.info(resourceDesc + " | page " + (page++) + ": " + numUpdatedItems + " items");
 
-                if (numAddedItems < newPullRequests.size()) {
+                if (numUpdatedItems < newPullRequests.size()) {
                     break;
                 }
             }
@@ -119,23 +147,37 @@ public class PullRequestUpdateService extends UpdateService<PullRequest> {
     }
 
     /**
-     * Add all pull requests in {@code src} to {@code dest} of which updated time is after {@code since}
+     * Returns the number of pages of pull requests requested by getUpdatedItems
+     */
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * Add all pull requests in {@code src} to {@code dest} of which updated time is at or after {@code since},
+     * except those already added. Pull requests updated exactly at {@code since} are included, as others may
+     * have been updated within the same second after it was recorded.
      *
-     * @param dest  current list of pull requests
-     * @param src   new pull quests to be added
+     * @param dest         current list of pull requests
+     * @param addedNumbers numbers of the pull requests in {@code dest}
+     * @param src          new pull quests to be added
      * @param since
-     * @return number of pull requests added to {@code dest}
+     * @return number of pull requests in {@code src} updated at or after {@code since}, including those
+     * already added
      */
-    private int addItemsUpdatedSince(List<PullRequest> dest, Collection<PullRequest> src, Date since) {
-        int numPullRequestsAdded = 0;
+    private int addItemsUpdatedSince(List<PullRequest> dest, Set<Integer> addedNumbers,
+                                     Collection<PullRequest> src, Date since) {
+        int numPullRequestsUpdated = 0;
 
         for (PullRequest pr : src) {
-            if (pr.getUpdatedAt().after(since)) {
-                dest.add(pr);
-                numPullRequestsAdded++;
+            if (!pr.getUpdatedAt().before(since)) {
+                if (addedNumbers.add(pr.getNumber())) {
+                    dest.add(pr);
+                }
+                numPullRequestsUpdated++;
             }
         }
 
-        return numPullRequestsAdded;
+        return numPullRequestsUpdated;
     }
 }
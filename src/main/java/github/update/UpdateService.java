@@ -1,11 +1,10 @@
 package github.update;
 
+import github.ConditionalPage;
 import github.GitHubClientEx;
-import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.egit.github.core.IRepositoryIdProvider;
-import org.eclipse.egit.github.core.client.GitHubRequest;
 import org.eclipse.egit.github.core.client.NoSuchPageException;
 import org.eclipse.egit.github.core.client.PageIterator;
 import org.eclipse.egit.github.core.client.PagedRequest;
@@ -92,18 +91,7 @@ public class UpdateService<T> extends GitHubService {
 
         logger.info(String.format("Updating %s with ETag %s", resourceDesc, lastETags));
         try {
-            PagedRequest<T> headerRequest = createUpdatedRequest(repoId);
-            Optional<ImmutablePair<List<String>, HttpURLConnection>> etags = getPagedEtags(headerRequest, client);
-
-            if (!etags.isPresent()) {
-                /* Respond as if we succeeded and there were no updates.
-                   The assumption is that updates are cheap and we can do them as frequently as needed. */
-                logger.warn(String.format("%s: error getting updated items", getClass().getSimpleName()));
-            } else {
-                updatedETags = combineETags(etags.get().getLeft());
-                result = downloadUpdatedItems(repoId, resourceDesc, updatedETags);
-                updateCheckTime(etags.get().getRight());
-            }
+            result = downloadUpdatedItems(createUpdatedRequest(repoId), resourceDesc);
         } catch (IOException e) {
             logger.error(e.getLocalizedMessage(), e);
             return result;
@@ -113,62 +101,76 @@ public class UpdateService<T> extends GitHubService {
         return result;
     }
 
-    private ArrayList<T> downloadUpdatedItems(IRepositoryIdProvider repoId,
-                                              String resourceDesc,
-                                              Optional<String> updatedETags) throws IOException {
-        ArrayList<T> result = new ArrayList<>();
+    /**
+     * Requests each page with an If-None-Match header for its last-known ETag, so that the items
+     * are only downloaded if some page has changed, in a single pass over the pages. Responses of
+     * 304 Not Modified do not count against the rate limit.
+     * <p>
+     * If some page has changed, the pages that had not are downloaded as well, as all items are
+     * returned then.
+     *
+     * @return all items if some page has changed, or an empty list otherwise
+     */
+    private ArrayList<T> downloadUpdatedItems(PagedRequest<T> request, String resourceDesc) throws IOException {
+        List<String> lastPageETags = GitHubClientEx.splitPageETags(lastETags);
+        List<String> lastEntityTags = new ArrayList<>();
+        lastPageETags.forEach(eTag -> lastEntityTags.add(toEntityTag(eTag)));
+
+        // A page that has not been modified is followed by another if it was the last time
+        List<ConditionalPage<T>> pages = client.getPagesIfModified(request, lastEntityTags,
+                                                                   index -> index + 1 < lastPageETags.size());
+        updateCheckTime(pages.get(0).getConnection());
+
+        List<String> pageETags = new ArrayList<>();
+        boolean isModified = false;
+        for (int index = 0; index < pages.size(); index++) {
+            ConditionalPage<T> page = pages.get(index);
+            pageETags.add(page.getItems().isPresent()
+                                  ? Utility.stripQuotes(page.getETag())
+                                  : lastPageETags.get(index));
+            isModified = isModified || page.isModified();
+        }
 
-        if (!updatedETags.isPresent() || updatedETags.get().equals(lastETags)) {
+        updatedETags = combineETags(pageETags);
+        if (!isModified && pageETags.size() == lastPageETags.size()) {
             logger.info("Nothing to update");
-        } else {
-            PagedRequest<T> request = createUpdatedRequest(repoId);
-            result = new ArrayList<>(getPagedItems(resourceDesc, new PageIterator<>(request, client)));
-            logger.info(String.format("New ETag for %s: %s", resourceDesc, updatedETags));
+            return new ArrayList<>();
         }
 
-        return result;
+        ArrayList<T> items = new ArrayList<>();
+        for (int index = 0; index < pages.size(); index++) {
+            ConditionalPage<T> page = pages.get(index);
+            if (page.getItems().isPresent()) {
+                items.addAll(page.getItems().get());
+            } else {
+                // Not modified, but its items are needed as well
+                items.addAll(GitHubClientEx.getPageItems(client.get(page.getRequest())));
+            }
+            logger.info(resourceDesc + " | page " + index + ": " + items.size() + " items so far");
+        }
+        logger.info(String.format("New ETag for %s: %s", resourceDesc, updatedETags));
+        return items;
     }
 
     /**
-     * Combine ETags for multiple page into 1 string
-     *
-     * @param etags
-     * @return string of combined etags
+     * Restores the quotes stripped from a stored ETag, so that it may be sent in an If-None-Match header.
+     * Weak ETags only had their closing quote stripped.
      */
-    private static Optional<String> combineETags(List<String> etags) {
-        return Optional.of(Utility.join(etags, "#"));
+    private static String toEntityTag(String eTag) {
+        if (eTag.isEmpty()) {
+            return eTag;
+        }
+        return eTag.startsWith("W/\"") ? eTag + "\"" : "\"" + eTag + "\"";
     }
 
     /**
-     * Gets a list of ETags for all pages returned from an API request and
-     * also return the connection used to get the ETags so that their last check time
-     * can be recorded elsewhere
+     * Combine ETags for multiple page into 1 string
      *
-     * @param request
-     * @param client
-     * @return a Optional list of ETags for all pages returned from an API request and
-     * corresponding HTTP connection or an empty Optional if an error occurs
+     * @param etags
+     * @return string of combined etags
      */
-    private Optional<ImmutablePair<List<String>, HttpURLConnection>> getPagedEtags(
-            GitHubRequest request, GitHubClientEx client) {
-
-        PageHeaderIterator iter = new PageHeaderIterator(request, client, "ETag");
-        List<String> etags = new ArrayList<>();
-        HttpURLConnection connection = null;
-
-        while (iter.hasNext()) {
-            try {
-                etags.add(Utility.stripQuotes(iter.next()));
-                if (connection == null) {
-                    connection = iter.getLastConnection();
-                }
-            } catch (NoSuchPageException e) {
-                logger.error("No such page exception at " + iter.getRequest().generateUri());
-                return Optional.empty();
-            }
-        }
-
-        return Optional.of(new ImmutablePair<>(etags, connection));
+    private static Optional<String> combineETags(List<String> etags) {
+        return Optional.of(GitHubClientEx.joinPageETags(etags));
     }
 
     /**
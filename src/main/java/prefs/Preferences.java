@@ -155,6 +155,15 @@ public class Preferences { // NOPMD
         FileHelper.writeFileContents(configDirectory, configFileName, jsonString);
     }
 
+    /**
+     * Returns true if repositories should be stored as binary snapshots rather than as JSON, as set by
+     * {@code binarySnapshotsEnabled} in the user config. Repositories stored in the other format are
+     * converted the next time they are loaded, so the setting can be turned off again.
+     */
+    public boolean isBinarySnapshotsEnabled() {
+        return userConfig.isBinarySnapshotsEnabled();
+    }
+
     public String getLastLoginPassword() {
         return sessionConfig.getLastLoginPassword();
     }
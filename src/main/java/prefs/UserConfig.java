@@ -3,5 +3,13 @@ package prefs;
 /**
  * Represents user-defined settings.
  */
+@SuppressWarnings("unused")
 public class UserConfig {
+
+    // Whether repositories are stored as binary snapshots rather than as JSON
+    private boolean binarySnapshotsEnabled = false;
+
+    public boolean isBinarySnapshotsEnabled() {
+        return binarySnapshotsEnabled;
+    }
 }
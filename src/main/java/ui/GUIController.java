@@ -6,6 +6,7 @@ import javafx.scene.control.Label;
 import ui.issuepanel.FilterPanel;
 import ui.issuepanel.PanelControl;
 import ui.issuepanel.UIBrowserBridge;
+import util.BoardLoadTimer;
 import util.DialogMessage;
 import util.Utility;
 import util.events.*;
@@ -67,6 +68,7 @@ public class GUIController {
 
                     if (filterResult != null) ((FilterPanel) child).updatePanel(filterResult);
                 });
+        BoardLoadTimer.painted();
     }
 
     /**
@@ -11,6 +11,7 @@ import org.apache.logging.log4j.Logger;
 import prefs.PanelInfo;
 import prefs.Preferences;
 import ui.issuepanel.PanelControl;
+import util.BoardLoadTimer;
 import util.Utility;
 import util.events.*;
 
@@ -205,6 +206,7 @@ public class MenuControl extends MenuBar {
      * @param panelInfos list of panel infos of the board
      */
     public final void openBoard(String boardName, List<PanelInfo> panelInfos) {
+        BoardLoadTimer.start(boardName);
         panels.closeAllPanels();
         panels.openPanels(panelInfos);
         panels.selectFirstPanel();
@@ -316,7 +318,7 @@ public class MenuControl extends MenuBar {
                 // we trigger the notification timeout action first before refreshing
                 ui.hideNotification();
             }
-            ui.logic.refresh();
+            ui.refreshNow();
         });
         refreshMenuItem.setAccelerator(REFRESH);
         return refreshMenuItem;
@@ -4,15 +4,12 @@ import javafx.application.Platform;
 import org.controlsfx.control.NotificationPane;
 import org.controlsfx.control.action.Action;
 import ui.components.Notification;
-import util.TickingTimer;
 
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
 
 public class NotificationController {
 
     private final NotificationPane notificationPane;
-    private TickingTimer notificationPaneTimer;
     private Optional<Notification> notification = Optional.empty();
 
     public NotificationController(NotificationPane notificationPane) {
@@ -31,20 +28,13 @@ public class NotificationController {
                 notification.getButtonRunnable().run();
                 hideNotification();
             }));
-            notificationPaneTimer = new TickingTimer("Notification Timer",
-                                                     notification.getTimeoutDuration(), integer -> {}, () -> {},
-                                                     TimeUnit.SECONDS);
             notificationPane.show();
-            notificationPaneTimer.start();
             this.notification = Optional.of(notification);
         });
     }
 
     public void hideNotification() {
         // must be run in a Platform.runLater or from the UI thread
-        if (notificationPaneTimer.isStarted()) {
-            notificationPaneTimer.stop();
-        }
         notificationPane.hide();
         notification = Optional.empty();
     }
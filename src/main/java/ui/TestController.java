@@ -141,12 +141,15 @@ public final class TestController {
     /**
      * Creates a RepoIO for the application that uses different components
      * depending on various test options: --test, --testjson etc.
+     *
+     * @param prefs the preferences deciding the format repositories are stored in
      */
-    public static RepoIO createApplicationRepoIO() {
+    public static RepoIO createApplicationRepoIO(Preferences prefs) {
         if (isTestMode()) {
             return createTestingRepoIO(isTestJSONEnabled() ? Optional.of(new JSONStoreStub()) : Optional.empty());
         } else {
-            return new RepoIO(Optional.empty(), Optional.empty(), Optional.empty());
+            JSONStore store = new JSONStore(prefs.isBinarySnapshotsEnabled());
+            return new RepoIO(Optional.empty(), Optional.of(store), Optional.empty());
         }
     }
 
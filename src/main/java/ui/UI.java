@@ -2,9 +2,10 @@ package ui;
 
 import backend.Logic;
 import backend.UIManager;
+import backend.control.AdaptiveRefreshPolicy;
+import backend.control.RefreshScheduler;
 import browserview.BrowserComponent;
 import browserview.BrowserComponentStub;
-import com.google.common.eventbus.EventBus;
 import com.sun.jna.platform.win32.User32;
 import com.sun.jna.platform.win32.WinDef.HWND;
 import javafx.application.Application;
@@ -21,6 +22,7 @@ import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.*;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
+import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.controlsfx.control.NotificationPane;
@@ -44,8 +46,9 @@ import util.events.testevents.UILogicRefreshEventHandler;
 import javax.swing.*;
 import java.awt.Rectangle;
 import java.lang.reflect.Method;
+import java.time.Clock;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
 
 import static ui.components.KeyboardShortcuts.SHOW_ISSUE_PICKER;
 import static ui.components.KeyboardShortcuts.SHOW_REPO_PICKER;
@@ -60,8 +63,6 @@ public class UI extends Application implements EventDispatcher {
     private static HWND mainWindowHandle;
     private final GlobalHotkey globalHotkey = new GlobalHotkey(this);
 
-    private static final int REFRESH_PERIOD = 60;
-
     /**
      * Minimum Java Version Required by HT.
      *
@@ -88,12 +89,13 @@ public class UI extends Application implements EventDispatcher {
     // Application-level state
 
     public UIManager uiManager;
+    private UIUpdateDispatcher updateDispatcher;
     public Logic logic;
     public static Preferences prefs;
     public static StatusUI status;
     public static EventDispatcher events;
-    public EventBus eventBus;
-    private TickingTimer refreshTimer;
+    private TypedEventDispatcher eventDispatcher;
+    private RefreshScheduler refreshScheduler;
     public GUIController guiController;
     private NotificationController notificationController;
     public UndoController undoController;
@@ -226,13 +228,14 @@ public class UI extends Application implements EventDispatcher {
         TestController.setUI(this, getParameters());
         prefs = TestController.loadApplicationPreferences();
 
-        eventBus = new EventBus();
+        eventDispatcher = new TypedEventDispatcher();
         if (TestController.isTestMode()) {
             registerTestEvents();
         }
         registerEvent((UnusedStoredReposChangedEventHandler) e -> onRepoOpened());
         registerEvent((UsedReposChangedEventHandler) e -> removeUnusedModelsAndUpdate());
 
+        updateDispatcher = new UIUpdateDispatcher();
         uiManager = new UIManager(this);
         status = new HTStatusBar(this);
     }
@@ -242,9 +245,14 @@ public class UI extends Application implements EventDispatcher {
         // we can pass them in the form of an array.
         logic = new Logic(uiManager, prefs, Optional.empty(), Optional.empty());
         // TODO clear cache if necessary
-        refreshTimer = new TickingTimer("Refresh Timer", REFRESH_PERIOD,
-                                        status::updateTimeToRefresh, logic::refresh, TimeUnit.SECONDS);
-        refreshTimer.start();
+        refreshScheduler = new RefreshScheduler(new AdaptiveRefreshPolicy(), Clock.systemUTC(),
+                                                logic::getOpenRepositories, logic::refresh,
+                                                status::updateRefreshSchedule);
+        registerEvent((UpdateRateLimitsEventHandler) e -> refreshScheduler.updateRateLimits(
+                new ImmutablePair<>(e.remainingRequests, e.nextRefreshInMillisecs)));
+        registerEvent((UsedReposChangedEventHandler) e -> refreshScheduler.setVisibleRepos(
+                Utility.convertSetToLowerCase(getCurrentlyUsedRepos())));
+        refreshScheduler.start();
         undoController = new UndoController(notificationController);
     }
 
@@ -302,6 +310,7 @@ public class UI extends Application implements EventDispatcher {
     }
 
     public void quit() {
+        eventDispatcher.logStatistics();
         globalHotkey.quit();
         if (browserComponent != null) {
             browserComponent.onAppQuit();
@@ -349,8 +358,7 @@ public class UI extends Application implements EventDispatcher {
                     boolean shouldRefresh = browserComponent.hasBviewChanged();
                     if (shouldRefresh) {
                         logger.info("Browser view has changed; refreshing");
-                        logic.refresh();
-                        refreshTimer.restart();
+                        refreshNow();
                     }
                 }
             });
@@ -403,6 +411,13 @@ public class UI extends Application implements EventDispatcher {
         return notificationPane;
     }
 
+    /**
+     * Refreshes all open repositories now, instead of when they are next due.
+     */
+    public void refreshNow() {
+        refreshScheduler.refreshAll();
+    }
+
     public Set<String> getCurrentlyUsedRepos() {
         Set<String> currentlyUsedRepos = new HashSet<>();
         String defaultRepo = logic.getDefaultRepo();
@@ -427,23 +442,39 @@ public class UI extends Application implements EventDispatcher {
 
     @Override
     public void registerEvent(EventHandler handler) {
-        eventBus.register(handler);
+        eventDispatcher.registerEvent(handler);
         logger.info("Registered event handler " + handler.getClass().getInterfaces()[0].getSimpleName());
     }
 
+    @Override
+    public void registerWeakEvent(EventHandler handler) {
+        eventDispatcher.registerWeakEvent(handler);
+        logger.info("Registered weak event handler " + handler.getClass().getInterfaces()[0].getSimpleName());
+    }
+
     @Override
     public void unregisterEvent(EventHandler handler) {
-        eventBus.unregister(handler);
+        eventDispatcher.unregisterEvent(handler);
         logger.info("Unregistered event handler " + handler.getClass().getInterfaces()[0].getSimpleName());
     }
 
     @Override
     public <T extends Event> void triggerEvent(T event) {
         logger.info("About to trigger event " + event.getClass().getSimpleName());
-        eventBus.post(event);
+        eventDispatcher.triggerEvent(event);
         logger.info("Triggered event " + event.getClass().getSimpleName());
     }
 
+    @Override
+    public <T extends Event> CompletableFuture<Void> triggerEventAsync(T event) {
+        logger.info("Triggering event " + event.getClass().getSimpleName() + " asynchronously");
+        return eventDispatcher.triggerEventAsync(event);
+    }
+
+    public UIUpdateDispatcher getUpdateDispatcher() {
+        return updateDispatcher;
+    }
+
     public BrowserComponent getBrowserComponent() {
         return browserComponent;
     }
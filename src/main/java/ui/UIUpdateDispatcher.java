@@ -0,0 +1,115 @@
+package ui;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import org.apache.logging.log4j.Logger;
+import util.HTLog;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies updates to the UI once per frame, rather than as each is submitted by the threads producing them.
+ * <p>
+ * Each update is submitted with a key, and replaces any pending update with the same key. When many updates
+ * are submitted between two frames, as happens while several repositories are being refreshed, only the latest
+ * of each is applied. Pending updates are applied together in the next pulse, in the order their keys were
+ * first submitted in.
+ * <p>
+ * The numbers of updates received and applied are logged about every second while updates are being applied.
+ */
+public class UIUpdateDispatcher {
+
+    private static final Logger logger = HTLog.get(UIUpdateDispatcher.class);
+
+    private static final long STATISTICS_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    // Called when an update is submitted while none are pending, to have pending updates applied later
+    private final Runnable requestFlush;
+
+    // Mutable state -- all access to these fields must be synchronized!
+    private final LinkedHashMap<Object, Runnable> pendingUpdates = new LinkedHashMap<>();
+    private boolean isFlushRequested = false;
+    private long statisticsStartTime = System.nanoTime();
+    private int receivedCount = 0;
+    private int appliedCount = 0;
+
+    /**
+     * Creates a dispatcher that applies pending updates in the next pulse of the JavaFX application thread.
+     */
+    public UIUpdateDispatcher() {
+        AnimationTimer timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                // Only runs while there are updates to apply, as running timers keep pulses coming
+                stop();
+                flush();
+            }
+        };
+        this.requestFlush = () -> Platform.runLater(timer::start);
+    }
+
+    /**
+     * @param requestFlush called when an update is submitted while none are pending; should see to it
+     *                     that {@link #flush} is called later on the JavaFX application thread
+     */
+    public UIUpdateDispatcher(Runnable requestFlush) {
+        this.requestFlush = requestFlush;
+    }
+
+    /**
+     * Submits an update to be applied on the JavaFX application thread, replacing any pending update
+     * with the same key. May be called from any thread.
+     */
+    public void submit(Object key, Runnable update) {
+        boolean shouldRequestFlush;
+        synchronized (this) {
+            receivedCount++;
+            pendingUpdates.put(key, update);
+            shouldRequestFlush = !isFlushRequested;
+            isFlushRequested = true;
+        }
+        if (shouldRequestFlush) {
+            requestFlush.run();
+        }
+    }
+
+    /**
+     * Applies the pending updates. Should only be called on the JavaFX application thread.
+     *
+     * @return the number of updates applied
+     */
+    public int flush() {
+        List<Runnable> updates;
+        synchronized (this) {
+            updates = new ArrayList<>(pendingUpdates.values());
+            pendingUpdates.clear();
+            isFlushRequested = false;
+            appliedCount += updates.size();
+            logStatisticsIfDue();
+        }
+        for (Runnable update : updates) {
+            try {
+                update.run();
+            } catch (RuntimeException e) {
+                HTLog.error(logger, e);
+            }
+        }
+        return updates.size();
+    }
+
+    private void logStatisticsIfDue() {
+        long elapsed = System.nanoTime() - statisticsStartTime;
+        if (elapsed < STATISTICS_INTERVAL) {
+            return;
+        }
+        double seconds = elapsed / 1e9;
+        logger.debug(String.format("UI updates: %.1f/s received, %.1f/s applied (%d received, %d applied)",
+                                  receivedCount / seconds, appliedCount / seconds, receivedCount, appliedCount));
+        statisticsStartTime = System.nanoTime();
+        receivedCount = 0;
+        appliedCount = 0;
+    }
+}
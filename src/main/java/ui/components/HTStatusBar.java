@@ -1,17 +1,25 @@
 package ui.components;
 
-import javafx.application.Platform;
+import javafx.scene.control.Tooltip;
+import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.controlsfx.control.StatusBar;
 import ui.UI;
+import util.events.UpdateProgressEvent;
 import util.events.UpdateProgressEventHandler;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 public class HTStatusBar extends StatusBar implements StatusUI {
 
     private final UI ui;
     private final Map<String, TextProgressBar> progressBars;
+    private final Tooltip refreshSchedule = new Tooltip();
+
+    // Keys of the updates made to the status bar, of which only the latest of each is applied per frame
+    private static final String TEXT_UPDATE = "statusText";
+    private static final String REFRESH_SCHEDULE_UPDATE = "refreshSchedule";
 
     public HTStatusBar(UI ui) {
         this.ui = ui;
@@ -24,37 +32,51 @@ public class HTStatusBar extends StatusBar implements StatusUI {
 
     @Override
     public void updateTimeToRefresh(int time) {
-        Platform.runLater(() -> {
-            if (time == 10) {
-                setText("Refreshing in 10 seconds...");
-            } else if (time == 5) {
-                setText("Refreshing in 5 seconds...");
-            }
-        });
+        if (time == 10) {
+            displayMessage("Refreshing in 10 seconds...");
+        } else if (time == 5) {
+            displayMessage("Refreshing in 5 seconds...");
+        }
+    }
+
+    /**
+     * Counts down to the next refresh of any repository, and lists when each is refreshed in the tooltip.
+     */
+    @Override
+    public void updateRefreshSchedule(Map<String, Integer> secondsToRefresh) {
+        secondsToRefresh.values().stream().min(Integer::compare).ifPresent(this::updateTimeToRefresh);
+        String schedule = secondsToRefresh.entrySet().stream()
+                .map(entry -> String.format("%s: refreshing in %d seconds", entry.getKey(), entry.getValue()))
+                .collect(Collectors.joining("\n"));
+        ui.getUpdateDispatcher().submit(REFRESH_SCHEDULE_UPDATE, () -> refreshSchedule.setText(schedule));
     }
 
     private void setupProgressEvents() {
-        ui.registerEvent((UpdateProgressEventHandler) e -> Platform.runLater(() -> {
-            if (progressBars.containsKey(e.repoId)) {
-                if (e.done) {
-                    getRightItems().remove(progressBars.get(e.repoId));
-                } else {
-                    progressBars.get(e.repoId).setProgress(e.progress);
-                }
-            } else if (!e.done) {
-                TextProgressBar progressBar = new TextProgressBar(e.repoId);
-                progressBars.put(e.repoId, progressBar);
-                getRightItems().add(progressBar);
+        ui.registerEvent((UpdateProgressEventHandler) e -> ui.getUpdateDispatcher().submit(
+                new ImmutablePair<>(UpdateProgressEvent.class, e.repoId), () -> showProgress(e)));
+    }
+
+    private void showProgress(UpdateProgressEvent e) {
+        if (progressBars.containsKey(e.repoId)) {
+            if (e.done) {
+                getRightItems().remove(progressBars.get(e.repoId));
+            } else {
+                progressBars.get(e.repoId).setProgress(e.progress);
             }
-        }));
+        } else if (!e.done) {
+            TextProgressBar progressBar = new TextProgressBar(e.repoId);
+            progressBars.put(e.repoId, progressBar);
+            getRightItems().add(progressBar);
+        }
     }
 
     private void setup() {
         getStyleClass().add("top-borders");
+        setTooltip(refreshSchedule);
     }
 
     public void displayMessage(String text) {
-        Platform.runLater(() -> setText(text));
+        ui.getUpdateDispatcher().submit(TEXT_UPDATE, () -> setText(text));
     }
 
     @Override
@@ -16,7 +16,7 @@ import java.util.function.BiConsumer;
  * <p>
  * - can be navigated with the arrow keys and Enter
  * - supports an event for item selection
- * - provides methods for retaining selection of an item (not by index)
+ * - provides a method for retaining selection of an item (not by index)
  * after its contents are changed
  * <p>
  * It depends on the functionality of ScrollableListView to ensure that
@@ -38,14 +38,6 @@ public abstract class NavigableListView<T> extends ScrollableListView<T> {
     // Tracks the index of the item in the list which should be currently selected
     protected Optional<Integer> selectedIndex = Optional.empty();
 
-    // Used for saving and restoring selection by item.
-    // selectedIndex should be used to get the currently-selected item, through the provided getter.
-    private Optional<T> lastSelectedItem = Optional.empty();
-
-    // Indicates that saveSelection was called, in the event that saveSelection itself fails
-    // (when nothing is selected, both should be no-ops)
-    private boolean saveSelectionCalled = false;
-
     public static final boolean IS_RIGHT_CLICK = true;
 
     private BiConsumer<Integer, Boolean> onItemSelected = (index, rightKey) -> {
@@ -57,49 +49,21 @@ public abstract class NavigableListView<T> extends ScrollableListView<T> {
     }
 
     /**
-     * Should be called before making changes to the item list of this list view if
-     * it's important that selection is retained after.
-     */
-    public void saveSelection() {
-        if (getSelectionModel().getSelectedItem() != null) {
-            lastSelectedItem = Optional.of(getSelectionModel().getSelectedItem());
-        }
-        saveSelectionCalled = true;
-    }
-
-    /**
-     * Should be called to restore selection after making changes to the item list
-     * of this list view. Must be called after saveSelection is.
+     * Should be called to restore selection after making changes to the item list of this list view,
+     * with the index the previously-selected item has been moved to, or nothing if it is no longer
+     * in the list. It is a no-op if nothing was selected.
      *
-     * @throws IllegalStateException if called before saveSelection is
+     * @param newIndex the index of the previously-selected item
      */
-    public void restoreSelection() {
-        if (!lastSelectedItem.isPresent()) {
-            if (!saveSelectionCalled) {
-                throw new IllegalStateException("saveSelection must be called before restoreSelection");
-            } else {
-                saveSelectionCalled = false;
-                return; // No-op
-            }
+    public void restoreSelection(Optional<Integer> newIndex) {
+        if (!selectedIndex.isPresent()) {
+            return;
         }
-        saveSelectionCalled = false;
-
-        // Find index of previously-selected item
-        int index = -1;
-        int i = 0;
-        for (T item : getItems()) {
-            if (areItemsEqual(item, lastSelectedItem.get())) {
-                index = i;
-                break;
-            }
-            i++;
-        }
-        boolean itemFound = index > -1;
 
-        if (itemFound) {
+        if (newIndex.isPresent()) {
             // Select that item
-            getSelectionModel().clearAndSelect(index);
-            selectedIndex = Optional.of(index);
+            getSelectionModel().clearAndSelect(newIndex.get());
+            selectedIndex = newIndex;
             // Do not trigger event; selection did not conceptually change
         } else {
             // The item disappeared
@@ -135,8 +99,6 @@ public abstract class NavigableListView<T> extends ScrollableListView<T> {
         onItemSelected.accept(index, IS_RIGHT_CLICK);
     }
 
-    public abstract boolean areItemsEqual(T item1, T item2);
-
     private void setupMouseEvents() {
         setOnMouseClicked(e -> {
             int currentlySelected = getSelectionModel().getSelectedIndex();
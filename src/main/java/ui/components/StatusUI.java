@@ -1,8 +1,17 @@
 package ui.components;
 
+import java.util.Map;
+
 public interface StatusUI {
     void updateTimeToRefresh(int time);
 
+    /**
+     * Shows when each open repository is next refreshed.
+     *
+     * @param secondsToRefresh the number of seconds until each repository is refreshed, by repository id
+     */
+    void updateRefreshSchedule(Map<String, Integer> secondsToRefresh);
+
     void displayMessage(String text);
 
     void clear();
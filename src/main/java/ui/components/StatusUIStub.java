@@ -1,5 +1,7 @@
 package ui.components;
 
+import java.util.Map;
+
 /**
  * Stub class used for headless handling of UI status messages.
  * Used for testing.
@@ -8,6 +10,9 @@ public class StatusUIStub implements StatusUI {
     public void updateTimeToRefresh(int time) {
     }
 
+    public void updateRefreshSchedule(Map<String, Integer> secondsToRefresh) {
+    }
+
     public void displayMessage(String text) {
     }
 
@@ -6,6 +6,7 @@ import static ui.components.KeyboardShortcuts.MAXIMIZE_WINDOW;
 import static ui.components.KeyboardShortcuts.MINIMIZE_WINDOW;
 import static ui.components.KeyboardShortcuts.SWITCH_BOARD;
 
+import backend.resource.TurboIssue;
 import javafx.application.Platform;
 import ui.*;
 import ui.components.PanelMenuBar;
@@ -22,11 +23,17 @@ import javafx.scene.control.Label;
 import javafx.scene.text.Text;
 import javafx.scene.input.KeyEvent;
 import ui.components.FilterTextField;
+import util.KeyedListDiff;
 import util.events.*;
 import util.events.testevents.UIComponentFocusEvent;
 import prefs.PanelInfo;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 /**
  * A FilterPanel is an AbstractPanel meant for containing issues and an accompanying filter text field,
@@ -43,11 +50,18 @@ public abstract class FilterPanel extends AbstractPanel {
 
     public PanelMenuBar panelMenuBar;
     protected FilterTextField filterTextField;
-    private ObservableList<GuiElement> elementsToDisplay = null;
+    // Kept across updates, which are applied to it as changes, so that the list view only re-renders
+    // the cards of the issues that changed
+    private final ObservableList<GuiElement> elementsToDisplay = FXCollections.observableArrayList();
+    // The index of each element in elementsToDisplay, by element key
+    private Map<String, Integer> elementIndices = new HashMap<>();
+    private Map<String, DisplayedElement> displayedElements = new HashMap<>();
 
 
     protected FilterExpression currentFilterExpression = Qualifier.EMPTY;
 
+    private final List<EventHandler> eventHandlers = new ArrayList<>();
+
     public FilterPanel(UI ui, PanelControl parentPanelControl, int panelIndex) {
         super(parentPanelControl, panelIndex);
         this.ui = ui;
@@ -96,12 +110,21 @@ public abstract class FilterPanel extends AbstractPanel {
             requestFocus();
         });
 
-        ui.registerEvent((PrimaryRepoOpeningEventHandler) this::startLoadingAnimationIfApplicable);
-        ui.registerEvent((PrimaryRepoOpenedEventHandler) this::stopLoadingAnimationIfApplicable);
-        ui.registerEvent((ApplyingFilterEventHandler) this::startLoadingAnimationIfApplicable);
-        ui.registerEvent((AppliedFilterEventHandler) this::stopLoadingAnimationIfApplicable);
-        ui.registerEvent((FilterExceptionEventHandler) this::handleFilterException);
-        ui.registerEvent((FilterWarningEventHandler) this::handleFilterWarning);
+        registerEvent((PrimaryRepoOpeningEventHandler) this::startLoadingAnimationIfApplicable);
+        registerEvent((PrimaryRepoOpenedEventHandler) this::stopLoadingAnimationIfApplicable);
+        registerEvent((ApplyingFilterEventHandler) this::startLoadingAnimationIfApplicable);
+        registerEvent((AppliedFilterEventHandler) this::stopLoadingAnimationIfApplicable);
+        registerEvent((FilterExceptionEventHandler) this::handleFilterException);
+        registerEvent((FilterWarningEventHandler) this::handleFilterWarning);
+    }
+
+    /**
+     * Handlers are registered weakly so that panels which have been closed can be garbage collected,
+     * and kept here so that they are called for as long as the panel is not.
+     */
+    private void registerEvent(EventHandler handler) {
+        eventHandlers.add(handler);
+        ui.registerWeakEvent(handler);
     }
 
     private Node createFilterBox() {
@@ -272,8 +295,74 @@ public abstract class FilterPanel extends AbstractPanel {
         return this.panelMenuBar.getCloseButton();
     }
 
+    /**
+     * Updates the elements displayed to the given ones. Elements of issues that have not changed are kept,
+     * so only the changes are seen by the list of elements' listeners.
+     */
     public void setElementsList(List<GuiElement> transformedElementList) {
-        this.elementsToDisplay = FXCollections.observableArrayList(transformedElementList);
+        elementIndices = KeyedListDiff.apply(elementsToDisplay, transformedElementList,
+                                             FilterPanel::getElementKey, this::isSameElement);
+        Map<String, DisplayedElement> updatedDisplayedElements = new HashMap<>();
+        for (GuiElement element : elementsToDisplay) {
+            String key = getElementKey(element);
+            DisplayedElement displayed = displayedElements.get(key);
+            updatedDisplayedElements.put(key, displayed != null && displayed.element == element
+                    ? displayed
+                    : new DisplayedElement(element));
+        }
+        displayedElements = updatedDisplayedElements;
+    }
+
+    /**
+     * Returns the index of the element of the same issue as the given one, if it is displayed.
+     */
+    public Optional<Integer> getElementIndex(GuiElement element) {
+        return Optional.ofNullable(elementIndices.get(getElementKey(element)));
+    }
+
+    /**
+     * Replaces the displayed element at the given index with a copy of itself, so that its card is
+     * re-rendered even though its issue has not changed.
+     */
+    protected void rerenderElement(int index) {
+        GuiElement element = elementsToDisplay.get(index);
+        GuiElement copy = new GuiElement(element.getIssue(), element.getLabels(), element.getMilestone(),
+                                         element.getAssignee(), element.getAuthor());
+        displayedElements.put(getElementKey(copy), new DisplayedElement(copy));
+        elementsToDisplay.set(index, copy);
+    }
+
+    private static String getElementKey(GuiElement element) {
+        return element.getIssue().getRepoId() + "#" + element.getIssue().getId();
+    }
+
+    private boolean isSameElement(GuiElement displayed, GuiElement updated) {
+        DisplayedElement displayedElement = displayedElements.get(getElementKey(displayed));
+        if (displayedElement == null || displayedElement.element != displayed) {
+            return false;
+        }
+        TurboIssue issue = displayedElement.issue;
+        return issue.equals(updated.getIssue())
+                // Issue equality does not take metadata into account, which is replaced whenever it changes
+                && issue.getMetadata() == updated.getIssue().getMetadata()
+                && displayed.getLabels().equals(updated.getLabels())
+                && Objects.equals(displayed.getMilestone(), updated.getMilestone())
+                && Objects.equals(displayed.getAssignee(), updated.getAssignee())
+                && Objects.equals(displayed.getAuthor(), updated.getAuthor());
+    }
+
+    /**
+     * An element as it was when displayed. Issues are modified in place by the models they belong to,
+     * so a copy of the element's issue is kept to tell if it has changed since.
+     */
+    private static class DisplayedElement {
+        private final GuiElement element;
+        private final TurboIssue issue;
+
+        private DisplayedElement(GuiElement element) {
+            this.element = element;
+            this.issue = new TurboIssue(element.getIssue());
+        }
     }
 
     public void updatePanel(List<GuiElement> filteredAndSortedElements) {
@@ -15,6 +15,7 @@ import ui.GUIController;
 import ui.UI;
 import ui.components.KeyboardShortcuts;
 import ui.listpanel.ListPanel;
+import util.BoardLoadTimer;
 import util.events.*;
 
 import java.util.ArrayList;
@@ -58,6 +59,7 @@ public class PanelControl extends HBox {
     public void init(GUIController guiController, ScrollPane panelsScrollPane) {
         this.guiController = guiController;
         this.panelsScrollPane = panelsScrollPane;
+        BoardLoadTimer.start(prefs.getLastOpenBoard().orElse("(last session)"));
         restorePanels();
         selectFirstPanel();
     }
@@ -1,15 +1,14 @@
 package ui.issuepanel;
 
-import javafx.application.Platform;
+import javafx.animation.PauseTransition;
+import javafx.util.Duration;
 import ui.UI;
-import util.TickingTimer;
 import util.events.IssueCreatedEventHandler;
 import util.events.IssueSelectedEventHandler;
 import util.events.LabelCreatedEventHandler;
 import util.events.MilestoneCreatedEventHandler;
 
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
 
 /**
  * A abstract component in charge of creating, displaying, and enabling edits of issues.
@@ -23,23 +22,19 @@ import java.util.concurrent.TimeUnit;
 public class UIBrowserBridge {
 
     private static final int BROWSER_REQUEST_DELAY = 400; //milliseconds
-    private final TickingTimer timer;
+    private final PauseTransition delay;
     private Optional<String> nextRepoId = Optional.empty(); // NOPMD
     private Optional<Integer> nextIssueId = Optional.empty(); // NOPMD
     private Optional<Boolean> isPullRequest = Optional.empty(); // NOPMD
 
     public UIBrowserBridge(UI ui) {
-        timer = createTickingTimer(ui);
-        timer.start();
+        delay = createDelay(ui);
 
         ui.registerEvent((IssueSelectedEventHandler) e -> {
             nextRepoId = Optional.of(e.repoId);
             nextIssueId = Optional.of(e.id);
             isPullRequest = Optional.of(e.isPullRequest);
-            timer.restart();
-            if (timer.isPaused()) {
-                timer.resume();
-            }
+            delay.playFromStart();
         });
 
         ui.registerEvent((IssueCreatedEventHandler) e -> ui.getBrowserComponent().newIssue());
@@ -49,16 +44,17 @@ public class UIBrowserBridge {
         ui.registerEvent((MilestoneCreatedEventHandler) e -> ui.getBrowserComponent().newMilestone());
     }
 
-    private TickingTimer createTickingTimer(UI ui) {
-        return new TickingTimer("Browser Request Delay Timer", BROWSER_REQUEST_DELAY, integer -> {
-            // do nothing for each tick
-        }, () -> {
-            Platform.runLater(() -> {
-                if (nextRepoId.isPresent() && nextIssueId.isPresent() && isPullRequest.isPresent()) {
-                    ui.getBrowserComponent().showIssue(nextRepoId.get(), nextIssueId.get(), isPullRequest.get(), false);
-                }
-            });
-            timer.pause();
-        }, TimeUnit.MILLISECONDS);
+    /**
+     * Creates the delay after which the last selected issue is shown, so that selecting issues
+     * in quick succession only shows the last of them. Must be played from the UI thread.
+     */
+    private PauseTransition createDelay(UI ui) {
+        PauseTransition delay = new PauseTransition(Duration.millis(BROWSER_REQUEST_DELAY));
+        delay.setOnFinished(e -> {
+            if (nextRepoId.isPresent() && nextIssueId.isPresent() && isPullRequest.isPresent()) {
+                ui.getBrowserComponent().showIssue(nextRepoId.get(), nextIssueId.get(), isPullRequest.get(), false);
+            }
+        });
+        return delay;
     }
 }
@@ -5,9 +5,11 @@ import util.GithubPageElements.PrTab;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import filter.expression.FilterExpression;
 import filter.expression.QualifierType;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.ContextMenu;
@@ -54,6 +56,12 @@ public class ListPanel extends FilterPanel {
     private final IssueListView listView;
     private final HashMap<Integer, Integer> issueCommentCounts = new HashMap<>();
     private final HashMap<Integer, Integer> issueNonSelfCommentCounts = new HashMap<>();
+    // The issues whose cards are highlighted as having new comments
+    private HashSet<Integer> issuesWithNewComments = new HashSet<>();
+    // The filter expression the cards were last rendered with, as they depend on it
+    private FilterExpression renderedFilterExpression = null;
+    private boolean isTranslucent = false;
+    private final ListPanelCardCache cardCache = new ListPanelCardCache();
 
     Text openIssueText;
     Text closedIssueText;
@@ -90,6 +98,7 @@ public class ListPanel extends FilterPanel {
         this.mainStage = mainStage;
 
         listView = new IssueListView();
+        listView.setItems(getElementsList());
         setupListView();
         getChildren().add(listView);
         getChildren().add(createPanelFooter());
@@ -168,28 +177,58 @@ public class ListPanel extends FilterPanel {
     /**
      * Refreshes the list of issue cards shown to the user depending on the currently active filter expression
      * in the panel.
+     * <p>
+     * Only the cards of issues whose comments have been highlighted or unhighlighted are re-rendered, unless the
+     * filter expression has changed or the cards are translucent, in which case all of them are.
      */
     @Override
     public final void refreshItems() {
-        final HashSet<Integer> issuesWithNewComments
-                = updateIssueCommentCounts(Qualifier.hasUpdatedQualifier(getCurrentFilterExpression()));
-
-        // Set the cell factory every time - this forces the list view to update
-        listView.setCellFactory(list -> new ListPanelCell(this, panelIndex, issuesWithNewComments));
-        listView.saveSelection();
+        // Reports the cell updates since the last refresh, including those made while scrolling
+        cardCache.logStatistics("Panel " + panelIndex);
+        final HashSet<Integer> previousIssuesWithNewComments = issuesWithNewComments;
+        issuesWithNewComments = updateIssueCommentCounts(Qualifier.hasUpdatedQualifier(getCurrentFilterExpression()));
+
+        if (isTranslucent || !getCurrentFilterExpression().equals(renderedFilterExpression)) {
+            // Setting the cell factory forces the list view to re-create all its cells
+            listView.setCellFactory(list -> new ListPanelCell(this, panelIndex));
+            renderedFilterExpression = getCurrentFilterExpression();
+            isTranslucent = false;
+        } else {
+            for (int i = 0; i < getElementsList().size(); i++) {
+                int issueId = getElementsList().get(i).getIssue().getId();
+                if (issuesWithNewComments.contains(issueId) != previousIssuesWithNewComments.contains(issueId)) {
+                    rerenderElement(i);
+                }
+            }
+        }
 
-        // Supposedly this also causes the list view to update - not sure
-        // if it actually does on platforms other than Linux...
-        listView.setItems(null);
-        listView.setItems(getElementsList());
         issuesCount = getElementsList().size();
         closedIssuesCount = getClosedIssuesCount();
         openIssuesCount = issuesCount - closedIssuesCount;
-        listView.restoreSelection();
+        // Re-rendered items are replaced, which may have cleared their selection
+        listView.restoreSelection(listView.getSelectedIndex());
         this.setId(IdGenerator.getPanelId(panelIndex));
         updateFooter();
+    }
 
+    /**
+     * Updates the elements of the panel with only the changes needed, keeping the previously-selected
+     * issue selected if it is still in the panel.
+     */
+    @Override
+    public void updatePanel(List<GuiElement> filteredAndSortedElements) {
+        Optional<GuiElement> selectedElement = getSelectedElement();
+        setElementsList(filteredAndSortedElements);
+        listView.restoreSelection(selectedElement.flatMap(this::getElementIndex));
+        refreshItems();
+    }
+
+    HashSet<Integer> getIssuesWithNewComments() {
+        return issuesWithNewComments;
+    }
 
+    ListPanelCardCache getCardCache() {
+        return cardCache;
     }
 
     private int getClosedIssuesCount() {
@@ -665,14 +704,13 @@ public class ListPanel extends FilterPanel {
     }
 
     private void setTranslucentCellFactory() {
-        if (getElementsList() == null) return;
-        final HashSet<Integer> issuesWithNewComments
-                = updateIssueCommentCounts(Qualifier.hasUpdatedQualifier(getCurrentFilterExpression()));
+        issuesWithNewComments = updateIssueCommentCounts(Qualifier.hasUpdatedQualifier(getCurrentFilterExpression()));
         listView.setCellFactory(list -> {
-            ListPanelCell cell = new ListPanelCell(this, panelIndex, issuesWithNewComments);
+            ListPanelCell cell = new ListPanelCell(this, panelIndex);
             cell.setStyle(cell.getStyle() + "-fx-opacity: 40%;");
             return cell;
         });
+        isTranslucent = true;
     }
 
     private boolean hasReposInFilter() {
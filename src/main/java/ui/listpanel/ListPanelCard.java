@@ -2,10 +2,13 @@ package ui.listpanel;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -23,6 +26,7 @@ import ui.GuiElement;
 import ui.issuepanel.FilterPanel;
 import util.Utility;
 import backend.resource.TurboIssue;
+import backend.resource.TurboLabel;
 import backend.resource.TurboMilestone;
 import backend.resource.TurboUser;
 import filter.expression.FilterExpression;
@@ -45,6 +49,10 @@ public class ListPanelCard extends VBox {
     private final FlowPane issueDetails;
     private final FilterPanel parentPanel;
     private final HashSet<Integer> issuesWithNewComments;
+    private final Function<TurboLabel, Node> createLabelChip;
+    private final List<Node> labelChips = new ArrayList<>();
+    // When the first of the events and comments displayed will no longer be within the panel's updated filter
+    private LocalDateTime eventsDisplayedUntil = LocalDateTime.MAX;
 
     /**
      * The constructor is the only method called from ListPanelCard. The rest of the methods in this class
@@ -56,13 +64,47 @@ public class ListPanelCard extends VBox {
      */
     public ListPanelCard(GuiElement guiElement, FilterPanel parentPanel,
                          HashSet<Integer> issuesWithNewComments) {
+        this(guiElement, parentPanel, issuesWithNewComments, TurboLabel::getNode);
+    }
+
+    /**
+     * @param createLabelChip creates the nodes displaying the issue's labels, which may be recycled ones
+     */
+    public ListPanelCard(GuiElement guiElement, FilterPanel parentPanel,
+                         HashSet<Integer> issuesWithNewComments, Function<TurboLabel, Node> createLabelChip) {
         this.guiElement = guiElement;
         this.parentPanel = parentPanel;
         this.issueDetails = createDetailsPane();
         this.issuesWithNewComments = issuesWithNewComments;
+        this.createLabelChip = createLabelChip;
         setup();
     }
 
+    List<TurboLabel> getLabels() {
+        return guiElement.getLabels();
+    }
+
+    /**
+     * Returns true if the events and comments this card displays are still those within the panel's
+     * updated filter at the given time, which they stop being once any of them becomes too old.
+     */
+    boolean isEventDisplayCurrent(LocalDateTime time) {
+        return time.isBefore(eventsDisplayedUntil);
+    }
+
+    /**
+     * Removes the nodes displaying the issue's labels from this card, so that they can be used by another.
+     * The card should no longer be displayed after.
+     *
+     * @return the label nodes, in the order of the labels returned by getLabels
+     */
+    List<Node> removeLabelChips() {
+        issueDetails.getChildren().removeAll(labelChips);
+        List<Node> removed = new ArrayList<>(labelChips);
+        labelChips.clear();
+        return removed;
+    }
+
     private void setup() {
         TurboIssue issue = guiElement.getIssue();
         Label issueTitle = new Label("#" + issue.getId() + " " + issue.getTitle());
@@ -117,6 +159,12 @@ public class ListPanelCard extends VBox {
                 })
                 .collect(Collectors.toList());
 
+        Stream.concat(eventsWithinDuration.stream().map(TurboIssueEvent::getDate),
+                      commentsWithinDuration.stream().map(Comment::getCreatedAt))
+                .map(date -> Utility.longToLocalDateTime(date.getTime()).plusHours(withinHours))
+                .min(LocalDateTime::compareTo)
+                .ifPresent(time -> eventsDisplayedUntil = time);
+
         return layoutEvents(guiElement, eventsWithinDuration, commentsWithinDuration);
     }
 
@@ -244,7 +292,8 @@ public class ListPanelCard extends VBox {
             issueDetails.getChildren().add(assigneeBox);
         }
 
-        guiElement.getLabels().forEach(label -> issueDetails.getChildren().add(label.getNode()));
+        guiElement.getLabels().forEach(label -> labelChips.add(createLabelChip.apply(label)));
+        issueDetails.getChildren().addAll(labelChips);
     }
 
     /**
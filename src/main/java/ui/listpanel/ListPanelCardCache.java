@@ -0,0 +1,275 @@
+package ui.listpanel;
+
+import backend.IssueMetadata;
+import backend.resource.TurboIssue;
+import backend.resource.TurboLabel;
+import backend.resource.TurboMilestone;
+import backend.resource.TurboUser;
+import filter.expression.FilterExpression;
+import filter.expression.Qualifier;
+import javafx.scene.Node;
+import org.apache.logging.log4j.Logger;
+import ui.GuiElement;
+import ui.issuepanel.FilterPanel;
+import util.HTLog;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cards of a panel's issues, kept so that a cell that comes to display an issue whose card has been built
+ * before, as happens when the list is scrolled or its cells are re-created, does not build it again.
+ * <p>
+ * Cards are looked up by issue, and reused only if nothing they display has changed since they were built.
+ * A node can only be displayed in one place at a time, so cards cannot be shared by panels. The nodes
+ * displaying labels are the most numerous, so those of discarded cards are pooled instead, to be used by the
+ * cards built after them in any panel.
+ * <p>
+ * Cards should only be built and looked up on the JavaFX application thread.
+ */
+public class ListPanelCardCache {
+
+    private static final Logger logger = HTLog.get(ListPanelCardCache.class);
+
+    public static final int DEFAULT_MAX_CARDS = 1000;
+    private static final int MAX_POOLED_CHIPS_PER_LABEL = 50;
+
+    // The nodes of labels no longer displayed in any card, by label name and colour
+    private static final Map<String, Deque<Node>> labelChipPool = new HashMap<>();
+
+    private final int maxCards;
+    // Cards by issue key, least recently used first
+    private final LinkedHashMap<String, CachedCard> cards = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Statistics since they were last logged
+    private int cellUpdateCount = 0;
+    private long cellUpdateNanos = 0;
+    private long maxCellUpdateNanos = 0;
+    private int cardsBuilt = 0;
+    private int cardsReused = 0;
+
+    public ListPanelCardCache() {
+        this(DEFAULT_MAX_CARDS);
+    }
+
+    public ListPanelCardCache(int maxCards) {
+        assert maxCards > 0;
+        this.maxCards = maxCards;
+    }
+
+    /**
+     * Returns the card of the given element, building it if it has not been built before, if anything it
+     * displays has changed since, or if it is still displayed by another cell. Cards displaying events are
+     * also built again once any of those events has aged out of the panel's updated filter.
+     *
+     * @param cell the cell that is to display the card
+     */
+    public ListPanelCard getCard(GuiElement guiElement, FilterPanel parentPanel,
+                                 HashSet<Integer> issuesWithNewComments, Node cell) {
+        String key = getKey(guiElement.getIssue());
+        RenderStamp stamp = new RenderStamp(guiElement, parentPanel.getCurrentFilterExpression(),
+                                            issuesWithNewComments.contains(guiElement.getIssue().getId()));
+        CachedCard cached = cards.get(key);
+        if (cached != null && cached.stamp.equals(stamp)
+                && cached.card.isEventDisplayCurrent(LocalDateTime.now())
+                && (cached.card.getParent() == null || cached.card.getParent() == cell)) {
+            cardsReused++;
+            return cached.card;
+        }
+        if (cached != null) {
+            cards.remove(key);
+            discard(cached.card);
+        }
+        // Making room first lets the new card use the label nodes of those discarded
+        evict(maxCards - 1);
+
+        ListPanelCard card = new ListPanelCard(guiElement, parentPanel, issuesWithNewComments,
+                                               ListPanelCardCache::acquireLabelChip);
+        cardsBuilt++;
+        cards.put(key, new CachedCard(stamp, card));
+        return card;
+    }
+
+    /**
+     * Records the time a cell took to update to display an item.
+     */
+    public void recordCellUpdate(long nanos) {
+        cellUpdateCount++;
+        cellUpdateNanos += nanos;
+        maxCellUpdateNanos = Math.max(maxCellUpdateNanos, nanos);
+    }
+
+    /**
+     * Logs the time taken by the cell updates recorded since this was last called, if there were any.
+     */
+    public void logStatistics(String panelName) {
+        if (cellUpdateCount == 0) {
+            return;
+        }
+        logger.debug(String.format("%s: %d cell updates in %d ms (max %.2f ms), %d cards built, %d reused",
+                                   panelName, cellUpdateCount, TimeUnit.NANOSECONDS.toMillis(cellUpdateNanos),
+                                   maxCellUpdateNanos / 1e6, cardsBuilt, cardsReused));
+        cellUpdateCount = 0;
+        cellUpdateNanos = 0;
+        maxCellUpdateNanos = 0;
+        cardsBuilt = 0;
+        cardsReused = 0;
+    }
+
+    public int getCardCount() {
+        return cards.size();
+    }
+
+    public int getCardsBuilt() {
+        return cardsBuilt;
+    }
+
+    public int getCardsReused() {
+        return cardsReused;
+    }
+
+    /**
+     * Discards the least recently used cards until there are no more than the given number.
+     */
+    private void evict(int maxRemaining) {
+        Iterator<CachedCard> leastRecentlyUsed = cards.values().iterator();
+        while (cards.size() > maxRemaining && leastRecentlyUsed.hasNext()) {
+            ListPanelCard card = leastRecentlyUsed.next().card;
+            leastRecentlyUsed.remove();
+            discard(card);
+        }
+    }
+
+    /**
+     * Pools the label nodes of a card that will no longer be used, unless it is still displayed.
+     */
+    private static void discard(ListPanelCard card) {
+        if (card.getParent() != null) {
+            return;
+        }
+        List<Node> chips = card.removeLabelChips();
+        List<TurboLabel> labels = card.getLabels();
+        for (int i = 0; i < chips.size(); i++) {
+            Deque<Node> pooled = labelChipPool.computeIfAbsent(getChipKey(labels.get(i)), k -> new ArrayDeque<>());
+            if (pooled.size() < MAX_POOLED_CHIPS_PER_LABEL) {
+                pooled.push(chips.get(i));
+            }
+        }
+    }
+
+    private static Node acquireLabelChip(TurboLabel label) {
+        Deque<Node> pooled = labelChipPool.get(getChipKey(label));
+        return pooled == null || pooled.isEmpty() ? label.getNode() : pooled.pop();
+    }
+
+    /**
+     * Label nodes only depend on the names and colours of their labels.
+     */
+    private static String getChipKey(TurboLabel label) {
+        return label.getFullName() + "#" + label.getColour();
+    }
+
+    private static String getKey(TurboIssue issue) {
+        return issue.getRepoId() + "#" + issue.getId();
+    }
+
+    private static class CachedCard {
+        private final RenderStamp stamp;
+        private final ListPanelCard card;
+
+        private CachedCard(RenderStamp stamp, ListPanelCard card) {
+            this.stamp = stamp;
+            this.card = card;
+        }
+    }
+
+    /**
+     * Everything a card displays. Issues are modified in place by the models they belong to, so the values
+     * are copied out of the issue rather than compared with it later.
+     */
+    private static class RenderStamp {
+        private final String title;
+        private final boolean isOpen;
+        private final int commentCount;
+        private final LocalDateTime updatedAt;
+        private final LocalDateTime labelsLastModifiedAt;
+        private final LocalDateTime milestoneLastModifiedAt;
+        private final LocalDateTime stateLastModifiedAt;
+        private final LocalDateTime assigneeLastModifiedAt;
+        private final Optional<LocalDateTime> markedReadAt;
+        private final Optional<String> issueAssignee;
+        private final IssueMetadata metadata;
+        private final List<TurboLabel> labels;
+        private final Optional<TurboMilestone> milestone;
+        private final Optional<TurboUser> assignee;
+        private final Optional<TurboUser> author;
+        private final boolean hasNewComments;
+        // Only cards of panels filtering by update time display the issue's events, and which of them are
+        // displayed also depends on the time, which is checked by the card itself
+        private final Optional<FilterExpression> updatedFilterExpression;
+
+        private RenderStamp(GuiElement guiElement, FilterExpression filterExpression, boolean hasNewComments) {
+            TurboIssue issue = guiElement.getIssue();
+            title = issue.getTitle();
+            isOpen = issue.isOpen();
+            commentCount = issue.getCommentCount();
+            updatedAt = issue.getUpdatedAt();
+            labelsLastModifiedAt = issue.getLabelsLastModifiedAt();
+            milestoneLastModifiedAt = issue.getMilestoneLastModifiedAt();
+            stateLastModifiedAt = issue.getStateLastModifiedAt();
+            assigneeLastModifiedAt = issue.getAssigneeLastModifiedAt();
+            markedReadAt = issue.getMarkedReadAt();
+            issueAssignee = issue.getAssignee();
+            metadata = issue.getMetadata();
+            labels = new ArrayList<>(guiElement.getLabels());
+            milestone = guiElement.getMilestone();
+            assignee = guiElement.getAssignee();
+            author = guiElement.getAuthor();
+            this.hasNewComments = hasNewComments;
+            updatedFilterExpression = Qualifier.hasUpdatedQualifier(filterExpression)
+                    ? Optional.of(filterExpression)
+                    : Optional.empty();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            RenderStamp stamp = (RenderStamp) o;
+            return isOpen == stamp.isOpen &&
+                    commentCount == stamp.commentCount &&
+                    hasNewComments == stamp.hasNewComments &&
+                    // Metadata is replaced whenever it changes
+                    metadata == stamp.metadata &&
+                    Objects.equals(title, stamp.title) &&
+                    Objects.equals(updatedAt, stamp.updatedAt) &&
+                    Objects.equals(labelsLastModifiedAt, stamp.labelsLastModifiedAt) &&
+                    Objects.equals(milestoneLastModifiedAt, stamp.milestoneLastModifiedAt) &&
+                    Objects.equals(stateLastModifiedAt, stamp.stateLastModifiedAt) &&
+                    Objects.equals(assigneeLastModifiedAt, stamp.assigneeLastModifiedAt) &&
+                    Objects.equals(markedReadAt, stamp.markedReadAt) &&
+                    Objects.equals(issueAssignee, stamp.issueAssignee) &&
+                    Objects.equals(labels, stamp.labels) &&
+                    Objects.equals(milestone, stamp.milestone) &&
+                    Objects.equals(assignee, stamp.assignee) &&
+                    Objects.equals(author, stamp.author) &&
+                    Objects.equals(updatedFilterExpression, stamp.updatedFilterExpression);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(title, isOpen, commentCount, updatedAt, markedReadAt, labels, hasNewComments);
+        }
+    }
+}
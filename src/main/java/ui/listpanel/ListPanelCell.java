@@ -8,37 +8,44 @@ import ui.GuiElement;
 import ui.IdGenerator;
 import util.HTLog;
 
-import java.util.HashSet;
 import java.util.List;
 
 public class ListPanelCell extends ListCell<GuiElement> {
 
     private final int parentPanelIndex;
     private final ListPanel parent;
-    private final HashSet<Integer> issuesWithNewComments;
     private GuiElement guiElement;
 
-    public ListPanelCell(ListPanel parent,
-                         int parentPanelIndex, HashSet<Integer> issuesWithNewComments) {
+    public ListPanelCell(ListPanel parent, int parentPanelIndex) {
         super();
         this.parent = parent;
         this.parentPanelIndex = parentPanelIndex;
-        this.issuesWithNewComments = issuesWithNewComments;
         setAlignment(Pos.CENTER);
+        getStyleClass().add("bottom-borders");
     }
 
     @Override
     public void updateItem(GuiElement guiElement, boolean empty) {
         super.updateItem(guiElement, empty);
-        if (guiElement == null) {
+        long startTime = System.nanoTime();
+        if (empty || guiElement == null) {
+            // Cells are reused as the list changes, so one left without an item must not show its old card
+            this.guiElement = null;
+            setGraphic(null);
+            return;
+        }
+        // Elements are only replaced when their issues change or have to be re-rendered,
+        // so the card of the same element is still up to date
+        if (guiElement == this.guiElement && getGraphic() != null && getGraphic().getParent() == this) {
             return;
         }
         this.guiElement = guiElement;
         TurboIssue issue = guiElement.getIssue();
-        getStyleClass().add("bottom-borders");
         updateStyleToMatchStatus(issue);
 
-        setGraphic(new ListPanelCard(guiElement, parent, issuesWithNewComments));
+        ListPanelCardCache cardCache = parent.getCardCache();
+        setGraphic(cardCache.getCard(guiElement, parent, parent.getIssuesWithNewComments(), this));
+        cardCache.recordCellUpdate(System.nanoTime() - startTime);
         this.setId(IdGenerator.getPanelCellId(parentPanelIndex, issue.getId()));
     }
 
@@ -0,0 +1,60 @@
+package util;
+
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes for a board to be shown with its repositories' data after it is restored
+ * at startup or opened from the menu. The time is split into how long the board's repositories took to
+ * be opened, and how long it took until panels were first updated with their data ("first paint").
+ * <p>
+ * Only one board is timed at a time; opening another board before the first is painted restarts the timer.
+ */
+public final class BoardLoadTimer {
+
+    private static final Logger logger = HTLog.get(BoardLoadTimer.class);
+
+    private static final long NOT_STARTED = -1;
+
+    private static String boardName;
+    private static long startTime = NOT_STARTED;
+    private static long reposLoadedTime = NOT_STARTED;
+
+    private BoardLoadTimer() {}
+
+    /**
+     * Starts timing the given board.
+     */
+    public static synchronized void start(String boardName) {
+        BoardLoadTimer.boardName = boardName;
+        startTime = System.nanoTime();
+        reposLoadedTime = NOT_STARTED;
+    }
+
+    /**
+     * Called once the repositories referenced by the board's panels have been opened.
+     */
+    public static synchronized void reposLoaded() {
+        if (startTime != NOT_STARTED && reposLoadedTime == NOT_STARTED) {
+            reposLoadedTime = System.nanoTime();
+        }
+    }
+
+    /**
+     * Called after panels have been updated. Logs the timings if the board's repositories had been
+     * opened by then, and stops the timer.
+     */
+    public static synchronized void painted() {
+        if (reposLoadedTime == NOT_STARTED) {
+            return;
+        }
+        long now = System.nanoTime();
+        logger.info(String.format("Board %s: repositories opened in %d ms, first paint after %d ms",
+                                  boardName,
+                                  TimeUnit.NANOSECONDS.toMillis(reposLoadedTime - startTime),
+                                  TimeUnit.NANOSECONDS.toMillis(now - startTime)));
+        startTime = NOT_STARTED;
+        reposLoadedTime = NOT_STARTED;
+    }
+}
@@ -0,0 +1,172 @@
+package util;
+
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Updates a list in place to match another, with as few changes as it can, so that observers of the list
+ * (such as a ListView) only have to deal with what actually changed.
+ * <p>
+ * Items are matched by key. Items of the list that have not changed are kept as they are, rather than being
+ * replaced with the equal items of the other list, so that anything built from them may be kept as well.
+ * Changed items are replaced in place, items that are no longer there are removed in runs, new items are
+ * inserted, and items that have moved are removed and inserted again.
+ * <p>
+ * The fewest items that have to be moved are those not in the longest run of items already in the updated
+ * order. If more than {@link #MAX_MOVES} have to be, as when the list is sorted differently, the whole list
+ * is replaced in a single change instead, though still keeping the unchanged items.
+ */
+public final class KeyedListDiff {
+
+    public static final int MAX_MOVES = 16;
+
+    private KeyedListDiff() {
+    }
+
+    /**
+     * Updates the target list to match the updated one.
+     *
+     * @param target      the list to update, whose items must have distinct keys
+     * @param updated     the items the target list should have, in order
+     * @param key         the key items are matched by
+     * @param isUnchanged tells if an item of the target list is the same as the matching updated item
+     * @return the index of each item in the target list after the update, by key
+     */
+    public static <T, K> Map<K, Integer> apply(List<T> target, List<T> updated, Function<T, K> key,
+                                               BiPredicate<T, T> isUnchanged) {
+        Map<K, Integer> updatedIndices = new HashMap<>();
+        for (int i = 0; i < updated.size(); i++) {
+            updatedIndices.putIfAbsent(key.apply(updated.get(i)), i);
+        }
+        if (updatedIndices.size() < updated.size() || !hasCommonKeys(target, updatedIndices.keySet(), key)) {
+            // Duplicate keys cannot be matched, and with nothing in common there is nothing to keep
+            if (!target.isEmpty() || !updated.isEmpty()) {
+                replaceAll(target, updated);
+            }
+            return updatedIndices;
+        }
+
+        removeItemsNotIn(target, updatedIndices.keySet(), key);
+
+        int[] targetOrder = new int[target.size()];
+        for (int i = 0; i < target.size(); i++) {
+            targetOrder[i] = updatedIndices.get(key.apply(target.get(i)));
+        }
+        boolean[] isInOrder = findLongestIncreasingRun(targetOrder);
+        int moveCount = 0;
+        for (boolean inOrder : isInOrder) {
+            moveCount += inOrder ? 0 : 1;
+        }
+
+        if (moveCount > MAX_MOVES) {
+            Map<K, T> current = new HashMap<>();
+            target.forEach(item -> current.put(key.apply(item), item));
+            List<T> result = new ArrayList<>(updated.size());
+            for (T item : updated) {
+                T existing = current.get(key.apply(item));
+                result.add(existing != null && isUnchanged.test(existing, item) ? existing : item);
+            }
+            replaceAll(target, result);
+            return updatedIndices;
+        }
+
+        // Taking out the items to be moved leaves the rest in the updated order, so that the moved and new
+        // items can then be inserted where they belong in a single pass
+        Map<K, T> moved = new HashMap<>();
+        for (int i = target.size() - 1; i >= 0; i--) {
+            if (!isInOrder[i]) {
+                T item = target.remove(i);
+                moved.put(key.apply(item), item);
+            }
+        }
+
+        for (int i = 0; i < updated.size(); i++) {
+            T item = updated.get(i);
+            K itemKey = key.apply(item);
+            if (i < target.size() && key.apply(target.get(i)).equals(itemKey)) {
+                if (!isUnchanged.test(target.get(i), item)) {
+                    target.set(i, item);
+                }
+                continue;
+            }
+            T movedItem = moved.get(itemKey);
+            target.add(i, movedItem != null && isUnchanged.test(movedItem, item) ? movedItem : item);
+        }
+        return updatedIndices;
+    }
+
+    /**
+     * Finds a longest strictly increasing subsequence of the given distinct values, in O(n log n) time.
+     *
+     * @return whether each value is in the subsequence
+     */
+    private static boolean[] findLongestIncreasingRun(int[] values) {
+        // The index of the last value of the smallest-ending increasing run of each length found so far,
+        // and of the value before each value in the run ending with it
+        int[] runEnds = new int[values.length];
+        int[] previous = new int[values.length];
+        int longest = 0;
+        for (int i = 0; i < values.length; i++) {
+            int low = 0;
+            int high = longest;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[runEnds[mid]] < values[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? runEnds[low - 1] : -1;
+            runEnds[low] = i;
+            longest = Math.max(longest, low + 1);
+        }
+
+        boolean[] isInRun = new boolean[values.length];
+        for (int i = longest > 0 ? runEnds[longest - 1] : -1; i != -1; i = previous[i]) {
+            isInRun[i] = true;
+        }
+        return isInRun;
+    }
+
+    private static <T, K> boolean hasCommonKeys(List<T> target, Set<K> keys, Function<T, K> key) {
+        return target.stream().anyMatch(item -> keys.contains(key.apply(item)));
+    }
+
+    /**
+     * Removes the items whose keys are not among the given ones, a run of adjacent items at a time.
+     */
+    private static <T, K> void removeItemsNotIn(List<T> target, Set<K> keys, Function<T, K> key) {
+        int end = target.size();
+        while (end > 0) {
+            while (end > 0 && keys.contains(key.apply(target.get(end - 1)))) {
+                end--;
+            }
+            int start = end;
+            while (start > 0 && !keys.contains(key.apply(target.get(start - 1)))) {
+                start--;
+            }
+            if (start < end) {
+                target.subList(start, end).clear();
+            }
+            end = start;
+        }
+    }
+
+    private static <T> void replaceAll(List<T> target, List<T> updated) {
+        if (target instanceof ObservableList) {
+            // A single change, rather than a removal followed by an addition
+            ((ObservableList<T>) target).setAll(updated);
+            return;
+        }
+        target.clear();
+        target.addAll(updated);
+    }
+}
@@ -103,7 +103,7 @@ public final class Utility {
         return false;
     }
 
-    private static boolean processFileGrowth(long sizeAfterWrite, int issueCount, String fileName) {
+    public static boolean processFileGrowth(long sizeAfterWrite, int issueCount, String fileName) {
         // The average issue is about 0.75KB in size. If the total filesize is more than (2 * issueCount KB),
         // we consider the json to have exploded as the file is unusually large.
         if (issueCount > 0 && sizeAfterWrite > ((long) issueCount * 2000)) {
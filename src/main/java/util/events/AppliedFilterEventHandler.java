@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface AppliedFilterEventHandler extends EventHandler {
-    @Subscribe
     void handle(AppliedFilterEvent e);
+
+    @Override
+    default Class<AppliedFilterEvent> getEventType() {
+        return AppliedFilterEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((AppliedFilterEvent) e);
+    }
 }
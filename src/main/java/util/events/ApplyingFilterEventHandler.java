@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface ApplyingFilterEventHandler extends EventHandler {
-    @Subscribe
     void handle(ApplyingFilterEvent e);
+
+    @Override
+    default Class<ApplyingFilterEvent> getEventType() {
+        return ApplyingFilterEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((ApplyingFilterEvent) e);
+    }
 }
@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface BoardSavedEventHandler extends EventHandler {
-    @Subscribe
     void handle(BoardSavedEvent e);
+
+    @Override
+    default Class<BoardSavedEvent> getEventType() {
+        return BoardSavedEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((BoardSavedEvent) e);
+    }
 }
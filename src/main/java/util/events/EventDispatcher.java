@@ -1,22 +1,38 @@
 package util.events;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface EventDispatcher {
     /**
-     * Publish/subscribe API making use of Guava's EventBus.
+     * Publish/subscribe API.
      * Takes an event handler to be called upon an event being fired.
      */
     void registerEvent(EventHandler handler);
 
+    /**
+     * Like {@link #registerEvent}, but the handler is only referenced weakly, so registering it does not
+     * keep whatever it refers to from being garbage collected. The caller must keep a reference to the
+     * handler for as long as it should be called.
+     */
+    void registerWeakEvent(EventHandler handler);
+
     /**
      * Takes an event handler to be unregistered.
      */
     void unregisterEvent(EventHandler handler);
 
     /**
-     * Publish/subscribe API making use of Guava's EventBus.
-     * Triggers all events of a certain type. EventBus will ensure that the
-     * event is fired for all subscribers whose parameter is either the same
-     * or a super type.
+     * Publish/subscribe API.
+     * Triggers all events of a certain type. The event is fired for all
+     * subscribers whose parameter is either the same or a super type.
      */
     <T extends Event> void triggerEvent(T event);
+
+    /**
+     * Like {@link #triggerEvent}, but the event is fired on a separate thread. Events triggered this way
+     * are fired in the order they were triggered in.
+     *
+     * @return a future completed once the event has been fired for all subscribers
+     */
+    <T extends Event> CompletableFuture<Void> triggerEventAsync(T event);
 }
@@ -1,22 +1,18 @@
 package util.events;
 
+/**
+ * Every *Event has a corresponding *EventHandler, which declares the method handling it and implements
+ * the two methods below as defaults. Dispatchers use them to find the handlers of an event and call them
+ * directly, without looking up annotated methods by reflection.
+ */
 public interface EventHandler {
-}
-
-// @FunctionalInterface
-// public interface EventHandler<T extends Event> {
-//        @Subscribe public void handle(T eventData);
-// }
-
-// The previous version. Much more succinct and supported the use of lambda
-// expressions, but does not play well with EventBus -- apparently a generics
-// constraint doesn't constitute a super-type relationship, so with this
-// implementation EventBus calls *every* EventHandler registered when one fires,
-// treating them all as the same class.
+    /**
+     * Returns the type of event handled. Events of its subclasses are handled as well.
+     */
+    Class<? extends Event> getEventType();
 
-// This would fail (presumably due to a ClassCastException, which would then be
-// swallowed by EventBus...) and cause lots of errors to be logged. No damage done,
-// however it's probably better to be on the safe side, repeat ourselves everywhere,
-// but make the super-type relationship explicit by extending and not using generics.
-
-// Now every *Event must have a corresponding *EventHandler and lambda expressions can't be used.
+    /**
+     * Handles an event, which must be of the type returned by {@link #getEventType}.
+     */
+    void dispatch(Event event);
+}
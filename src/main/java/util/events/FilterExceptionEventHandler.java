@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface FilterExceptionEventHandler extends EventHandler {
-    @Subscribe
     void handle(FilterExceptionEvent e);
+
+    @Override
+    default Class<FilterExceptionEvent> getEventType() {
+        return FilterExceptionEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((FilterExceptionEvent) e);
+    }
 }
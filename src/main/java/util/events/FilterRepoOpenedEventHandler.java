@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface FilterRepoOpenedEventHandler extends EventHandler {
-    @Subscribe
     void handle(FilterRepoOpenedEvent e);
+
+    @Override
+    default Class<FilterRepoOpenedEvent> getEventType() {
+        return FilterRepoOpenedEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((FilterRepoOpenedEvent) e);
+    }
 }
@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface FilterRepoOpeningEventHandler extends EventHandler {
-    @Subscribe
     void handle(FilterRepoOpeningEvent e);
+
+    @Override
+    default Class<FilterRepoOpeningEvent> getEventType() {
+        return FilterRepoOpeningEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((FilterRepoOpeningEvent) e);
+    }
 }
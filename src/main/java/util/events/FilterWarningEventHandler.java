@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface FilterWarningEventHandler extends EventHandler {
-    @Subscribe
     void handle(FilterWarningEvent e);
+
+    @Override
+    default Class<FilterWarningEvent> getEventType() {
+        return FilterWarningEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((FilterWarningEvent) e);
+    }
 }
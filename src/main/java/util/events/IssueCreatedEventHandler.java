@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface IssueCreatedEventHandler extends EventHandler {
-    @Subscribe
     void handle(IssueCreatedEvent e);
+
+    @Override
+    default Class<IssueCreatedEvent> getEventType() {
+        return IssueCreatedEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((IssueCreatedEvent) e);
+    }
 }
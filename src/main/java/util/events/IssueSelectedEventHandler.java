@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface IssueSelectedEventHandler extends EventHandler {
-    @Subscribe
     void handle(IssueSelectedEvent e);
+
+    @Override
+    default Class<IssueSelectedEvent> getEventType() {
+        return IssueSelectedEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((IssueSelectedEvent) e);
+    }
 }
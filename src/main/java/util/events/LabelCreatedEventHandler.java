@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface LabelCreatedEventHandler extends EventHandler {
-    @Subscribe
     void handle(LabelCreatedEvent e);
+
+    @Override
+    default Class<LabelCreatedEvent> getEventType() {
+        return LabelCreatedEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((LabelCreatedEvent) e);
+    }
 }
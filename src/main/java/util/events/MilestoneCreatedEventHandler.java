@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface MilestoneCreatedEventHandler extends EventHandler {
-    @Subscribe
     void handle(MilestoneCreatedEvent e);
+
+    @Override
+    default Class<MilestoneCreatedEvent> getEventType() {
+        return MilestoneCreatedEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((MilestoneCreatedEvent) e);
+    }
 }
@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface ModelUpdatedEventHandler extends EventHandler {
-    @Subscribe
     void handle(ModelUpdatedEvent e);
+
+    @Override
+    default Class<ModelUpdatedEvent> getEventType() {
+        return ModelUpdatedEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((ModelUpdatedEvent) e);
+    }
 }
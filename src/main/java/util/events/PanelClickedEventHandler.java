@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface PanelClickedEventHandler extends EventHandler {
-    @Subscribe
     void handle(PanelClickedEvent e);
+
+    @Override
+    default Class<PanelClickedEvent> getEventType() {
+        return PanelClickedEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((PanelClickedEvent) e);
+    }
 }
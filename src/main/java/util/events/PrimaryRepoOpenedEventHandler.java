@@ -1,12 +1,19 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 /**
  * The PrimaryRepoOpenedEventHandler is meant to handle the PrimaryRepoOpenedEvent
  */
 @FunctionalInterface
 public interface PrimaryRepoOpenedEventHandler extends EventHandler {
-    @Subscribe
     void handle(PrimaryRepoOpenedEvent e);
+
+    @Override
+    default Class<PrimaryRepoOpenedEvent> getEventType() {
+        return PrimaryRepoOpenedEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((PrimaryRepoOpenedEvent) e);
+    }
 }
@@ -1,12 +1,19 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 /**
  * The PrimaryRepoOpeningEventHandler is meant to handle the PrimaryRepoOpeningEvent
  */
 @FunctionalInterface
 public interface PrimaryRepoOpeningEventHandler extends EventHandler {
-    @Subscribe
     void handle(PrimaryRepoOpeningEvent e);
+
+    @Override
+    default Class<PrimaryRepoOpeningEvent> getEventType() {
+        return PrimaryRepoOpeningEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((PrimaryRepoOpeningEvent) e);
+    }
 }
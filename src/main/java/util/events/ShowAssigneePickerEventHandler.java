@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface ShowAssigneePickerEventHandler extends EventHandler {
-    @Subscribe
     void handle(ShowAssigneePickerEvent e);
+
+    @Override
+    default Class<ShowAssigneePickerEvent> getEventType() {
+        return ShowAssigneePickerEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((ShowAssigneePickerEvent) e);
+    }
 }
@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface ShowErrorDialogEventHandler extends EventHandler {
-    @Subscribe
     void handle(ShowErrorDialogEvent e);
+
+    @Override
+    default Class<ShowErrorDialogEvent> getEventType() {
+        return ShowErrorDialogEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((ShowErrorDialogEvent) e);
+    }
 }
@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface ShowIssuePickerEventHandler extends EventHandler {
-    @Subscribe
     void handle(ShowIssuePickerEvent e);
+
+    @Override
+    default Class<ShowIssuePickerEvent> getEventType() {
+        return ShowIssuePickerEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((ShowIssuePickerEvent) e);
+    }
 }
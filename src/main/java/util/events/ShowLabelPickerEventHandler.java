@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface ShowLabelPickerEventHandler extends EventHandler {
-    @Subscribe
     void handle(ShowLabelPickerEvent e);
+
+    @Override
+    default Class<ShowLabelPickerEvent> getEventType() {
+        return ShowLabelPickerEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((ShowLabelPickerEvent) e);
+    }
 }
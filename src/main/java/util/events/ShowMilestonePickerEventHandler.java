@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface ShowMilestonePickerEventHandler extends EventHandler {
-    @Subscribe
     void handle(ShowMilestonePickerEvent e);
+
+    @Override
+    default Class<ShowMilestonePickerEvent> getEventType() {
+        return ShowMilestonePickerEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((ShowMilestonePickerEvent) e);
+    }
 }
@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface ShowRenamePanelEventHandler extends EventHandler {
-    @Subscribe
     void handle(ShowRenamePanelEvent e);
+
+    @Override
+    default Class<ShowRenamePanelEvent> getEventType() {
+        return ShowRenamePanelEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((ShowRenamePanelEvent) e);
+    }
 }
@@ -1,12 +1,19 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 /**
  * Handles ShowRepositoryPickerEvent by displaying RepositoryPicker
  */
 @FunctionalInterface
 public interface ShowRepositoryPickerEventHandler extends EventHandler {
-    @Subscribe
     void handle(ShowRepositoryPickerEvent e);
+
+    @Override
+    default Class<ShowRepositoryPickerEvent> getEventType() {
+        return ShowRepositoryPickerEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((ShowRepositoryPickerEvent) e);
+    }
 }
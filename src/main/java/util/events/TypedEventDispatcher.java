@@ -0,0 +1,217 @@
+package util.events;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.Logger;
+import util.HTLog;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires events for the handlers registered for their types, calling them directly rather than by reflection.
+ * <p>
+ * Handlers are indexed by the type of event they handle, as given by {@link EventHandler#getEventType}. As with
+ * Guava's EventBus, which this replaces, an event is fired for the handlers of its class and of its superclasses,
+ * and events triggered by a handler are only fired once the event being handled has been fired for all its
+ * handlers. Exceptions thrown by handlers are logged, and do not prevent the other handlers from being called.
+ * <p>
+ * The number of events of each type fired, and the time taken to fire them, are recorded.
+ */
+public class TypedEventDispatcher implements EventDispatcher {
+
+    private static final Logger logger = HTLog.get(TypedEventDispatcher.class);
+
+    // Handlers by the type of event they handle. The lists may be iterated while handlers are being registered.
+    private final Map<Class<? extends Event>, List<Registration>> handlers = new ConcurrentHashMap<>();
+    // The types whose handlers events of each class are fired for: the class itself and its superclasses
+    private final Map<Class<?>, List<Class<?>>> handledTypes = new ConcurrentHashMap<>();
+    private final Map<Class<? extends Event>, DispatchStatistics> statistics = new ConcurrentHashMap<>();
+
+    // Events triggered on each thread while it is firing another, to be fired after it
+    private final ThreadLocal<Queue<Event>> queuedEvents = ThreadLocal.withInitial(ArrayDeque::new);
+    private final ThreadLocal<Boolean> isDispatching = ThreadLocal.withInitial(() -> false);
+
+    // Only starts its thread once an event is triggered asynchronously
+    private final ExecutorService asyncExecutor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("event-dispatch-%d").setDaemon(true).build());
+
+    @Override
+    public void registerEvent(EventHandler handler) {
+        register(handler, false);
+    }
+
+    @Override
+    public void registerWeakEvent(EventHandler handler) {
+        register(handler, true);
+    }
+
+    @Override
+    public synchronized void unregisterEvent(EventHandler handler) {
+        List<Registration> registered = handlers.get(handler.getEventType());
+        Registration registration = registered == null ? null : find(registered, handler);
+        if (registration == null) {
+            throw new IllegalArgumentException("Event handler " + handler + " is not registered");
+        }
+        registered.remove(registration);
+    }
+
+    @Override
+    public <T extends Event> void triggerEvent(T event) {
+        queuedEvents.get().add(event);
+        if (isDispatching.get()) {
+            return;
+        }
+        isDispatching.set(true);
+        try {
+            Event next;
+            while ((next = queuedEvents.get().poll()) != null) {
+                dispatch(next);
+            }
+        } finally {
+            // Events still queued if firing one threw an error are dropped, rather than fired after the
+            // next event triggered on this thread
+            queuedEvents.get().clear();
+            isDispatching.set(false);
+        }
+    }
+
+    @Override
+    public <T extends Event> CompletableFuture<Void> triggerEventAsync(T event) {
+        return CompletableFuture.runAsync(() -> triggerEvent(event), asyncExecutor);
+    }
+
+    /**
+     * Returns the number of handlers registered for the given type of event which have not been garbage
+     * collected, not counting those registered for its superclasses.
+     */
+    public int getHandlerCount(Class<? extends Event> eventType) {
+        List<Registration> registered = handlers.get(eventType);
+        if (registered == null) {
+            return 0;
+        }
+        registered.removeIf(registration -> registration.getHandler() == null);
+        return registered.size();
+    }
+
+    /**
+     * Returns the number of events of the given class fired so far.
+     */
+    public long getDispatchCount(Class<? extends Event> eventClass) {
+        DispatchStatistics eventStatistics = statistics.get(eventClass);
+        return eventStatistics == null ? 0 : eventStatistics.getCount();
+    }
+
+    /**
+     * Logs the number of events of each class fired so far, and the time taken to fire them.
+     */
+    public void logStatistics() {
+        statistics.forEach((eventClass, eventStatistics) -> logger.info(
+                String.format("%s: %s", eventClass.getSimpleName(), eventStatistics)));
+    }
+
+    private synchronized void register(EventHandler handler, boolean isWeak) {
+        List<Registration> registered =
+                handlers.computeIfAbsent(handler.getEventType(), type -> new CopyOnWriteArrayList<>());
+        // As with EventBus, registering a handler more than once has no further effect
+        if (find(registered, handler) == null) {
+            registered.add(new Registration(handler, isWeak));
+        }
+    }
+
+    private static Registration find(List<Registration> registered, EventHandler handler) {
+        for (Registration registration : registered) {
+            if (registration.getHandler() == handler) {
+                return registration;
+            }
+        }
+        return null;
+    }
+
+    private void dispatch(Event event) {
+        long startTime = System.nanoTime();
+        int handlerCount = 0;
+        for (Class<?> type : getHandledTypes(event.getClass())) {
+            List<Registration> registered = handlers.get(type);
+            if (registered == null) {
+                continue;
+            }
+            for (Registration registration : registered) {
+                EventHandler handler = registration.getHandler();
+                if (handler == null) {
+                    // Garbage collected since it was registered
+                    registered.remove(registration);
+                    continue;
+                }
+                handlerCount++;
+                try {
+                    handler.dispatch(event);
+                } catch (RuntimeException e) {
+                    HTLog.error(logger, e);
+                }
+            }
+        }
+        statistics.computeIfAbsent(event.getClass(), eventClass -> new DispatchStatistics())
+                .record(handlerCount, System.nanoTime() - startTime);
+    }
+
+    private List<Class<?>> getHandledTypes(Class<?> eventClass) {
+        return handledTypes.computeIfAbsent(eventClass, c -> {
+            List<Class<?>> types = new ArrayList<>();
+            for (Class<?> type = c; type != null && Event.class.isAssignableFrom(type); type = type.getSuperclass()) {
+                types.add(type);
+            }
+            return types;
+        });
+    }
+
+    private static class Registration {
+        private final EventHandler handler;
+        private final WeakReference<EventHandler> weakHandler;
+
+        private Registration(EventHandler handler, boolean isWeak) {
+            this.handler = isWeak ? null : handler;
+            this.weakHandler = isWeak ? new WeakReference<>(handler) : null;
+        }
+
+        /**
+         * Returns the handler registered, or null if it was registered weakly and has been garbage collected.
+         */
+        private EventHandler getHandler() {
+            return handler != null ? handler : weakHandler.get();
+        }
+    }
+
+    private static class DispatchStatistics {
+        private long count = 0;
+        private long handlerCalls = 0;
+        private long totalNanos = 0;
+        private long maxNanos = 0;
+
+        private synchronized void record(int handlerCount, long nanos) {
+            count++;
+            handlerCalls += handlerCount;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        private synchronized long getCount() {
+            return count;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format("%d fired to %d handlers in %d ms (max %.2f ms)",
+                                 count, handlerCalls, TimeUnit.NANOSECONDS.toMillis(totalNanos), maxNanos / 1e6);
+        }
+    }
+}
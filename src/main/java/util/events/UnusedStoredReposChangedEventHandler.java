@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface UnusedStoredReposChangedEventHandler extends EventHandler {
-    @Subscribe
     void handle(UnusedStoredReposChangedEvent e);
+
+    @Override
+    default Class<UnusedStoredReposChangedEvent> getEventType() {
+        return UnusedStoredReposChangedEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((UnusedStoredReposChangedEvent) e);
+    }
 }
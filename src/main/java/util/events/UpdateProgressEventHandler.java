@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface UpdateProgressEventHandler extends EventHandler {
-    @Subscribe
     void handle(UpdateProgressEvent e);
+
+    @Override
+    default Class<UpdateProgressEvent> getEventType() {
+        return UpdateProgressEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((UpdateProgressEvent) e);
+    }
 }
@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface UpdateRateLimitsEventHandler extends EventHandler {
-    @Subscribe
     void handle(UpdateRateLimitsEvent e);
+
+    @Override
+    default Class<UpdateRateLimitsEvent> getEventType() {
+        return UpdateRateLimitsEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((UpdateRateLimitsEvent) e);
+    }
 }
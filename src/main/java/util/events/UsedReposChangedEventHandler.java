@@ -1,9 +1,16 @@
 package util.events;
 
-import com.google.common.eventbus.Subscribe;
-
 @FunctionalInterface
 public interface UsedReposChangedEventHandler extends EventHandler {
-    @Subscribe
     void handle(UsedReposChangedEvent e);
+
+    @Override
+    default Class<UsedReposChangedEvent> getEventType() {
+        return UsedReposChangedEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((UsedReposChangedEvent) e);
+    }
 }
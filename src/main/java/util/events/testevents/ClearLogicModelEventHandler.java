@@ -1,10 +1,19 @@
 package util.events.testevents;
 
-import com.google.common.eventbus.Subscribe;
+import util.events.Event;
 import util.events.EventHandler;
 
 @FunctionalInterface
 public interface ClearLogicModelEventHandler extends EventHandler {
-    @Subscribe
     void handle(ClearLogicModelEvent e);
+
+    @Override
+    default Class<ClearLogicModelEvent> getEventType() {
+        return ClearLogicModelEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((ClearLogicModelEvent) e);
+    }
 }
@@ -1,10 +1,19 @@
 package util.events.testevents;
 
-import com.google.common.eventbus.Subscribe;
+import util.events.Event;
 import util.events.EventHandler;
 
 @FunctionalInterface
 public interface ExecuteScriptEventHandler extends EventHandler {
-    @Subscribe
     void handle(ExecuteScriptEvent e);
+
+    @Override
+    default Class<ExecuteScriptEvent> getEventType() {
+        return ExecuteScriptEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((ExecuteScriptEvent) e);
+    }
 }
@@ -1,10 +1,19 @@
 package util.events.testevents;
 
-import com.google.common.eventbus.Subscribe;
+import util.events.Event;
 import util.events.EventHandler;
 
 @FunctionalInterface
 public interface JumpToNewCommentBoxEventHandler extends EventHandler {
-    @Subscribe
     void handle(JumpToNewCommentBoxEvent e);
+
+    @Override
+    default Class<JumpToNewCommentBoxEvent> getEventType() {
+        return JumpToNewCommentBoxEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((JumpToNewCommentBoxEvent) e);
+    }
 }
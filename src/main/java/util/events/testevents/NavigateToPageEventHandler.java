@@ -1,10 +1,19 @@
 package util.events.testevents;
 
-import com.google.common.eventbus.Subscribe;
+import util.events.Event;
 import util.events.EventHandler;
 
 @FunctionalInterface
 public interface NavigateToPageEventHandler extends EventHandler {
-    @Subscribe
     void handle(NavigateToPageEvent e);
+
+    @Override
+    default Class<NavigateToPageEvent> getEventType() {
+        return NavigateToPageEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((NavigateToPageEvent) e);
+    }
 }
@@ -1,10 +1,19 @@
 package util.events.testevents;
 
-import com.google.common.eventbus.Subscribe;
+import util.events.Event;
 import util.events.EventHandler;
 
 @FunctionalInterface
 public interface PrimaryRepoChangedEventHandler extends EventHandler {
-    @Subscribe
     void handle(PrimaryRepoChangedEvent e);
+
+    @Override
+    default Class<PrimaryRepoChangedEvent> getEventType() {
+        return PrimaryRepoChangedEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((PrimaryRepoChangedEvent) e);
+    }
 }
@@ -1,10 +1,19 @@
 package util.events.testevents;
 
-import com.google.common.eventbus.Subscribe;
+import util.events.Event;
 import util.events.EventHandler;
 
 @FunctionalInterface
 public interface UIComponentFocusEventHandler extends EventHandler {
-    @Subscribe
     void handle(UIComponentFocusEvent e);
+
+    @Override
+    default Class<UIComponentFocusEvent> getEventType() {
+        return UIComponentFocusEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((UIComponentFocusEvent) e);
+    }
 }
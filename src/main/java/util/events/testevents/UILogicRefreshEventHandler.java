@@ -1,10 +1,19 @@
 package util.events.testevents;
 
-import com.google.common.eventbus.Subscribe;
+import util.events.Event;
 import util.events.EventHandler;
 
 @FunctionalInterface
 public interface UILogicRefreshEventHandler extends EventHandler {
-    @Subscribe
     void handle(UILogicRefreshEvent e);
+
+    @Override
+    default Class<UILogicRefreshEvent> getEventType() {
+        return UILogicRefreshEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((UILogicRefreshEvent) e);
+    }
 }
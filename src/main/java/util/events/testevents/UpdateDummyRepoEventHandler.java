@@ -1,10 +1,19 @@
 package util.events.testevents;
 
-import com.google.common.eventbus.Subscribe;
+import util.events.Event;
 import util.events.EventHandler;
 
 @FunctionalInterface
 public interface UpdateDummyRepoEventHandler extends EventHandler {
-    @Subscribe
     void handle(UpdateDummyRepoEvent e);
+
+    @Override
+    default Class<UpdateDummyRepoEvent> getEventType() {
+        return UpdateDummyRepoEvent.class;
+    }
+
+    @Override
+    default void dispatch(Event e) {
+        handle((UpdateDummyRepoEvent) e);
+    }
 }
@@ -66,6 +66,8 @@ public class UITest extends FxRobot {
     protected static final SettableFuture<Stage> STAGE_FUTURE = SettableFuture.create();
     private static final Logger logger = LogManager.getLogger(UITest.class.getName());
     private static final Map<Character, KeyCode> specialCharsMap = getSpecialCharsMap();
+    // Store files, change logs, binary snapshots and the repository index
+    private static final List<String> STORE_FILE_EXTENSIONS = Arrays.asList("json", "json-err", "log", "bin", "index");
 
     /**
      * Sets TestFX properties to run in headless mode with
@@ -136,10 +138,8 @@ public class UITest extends FxRobot {
             }
             Files.walk(Paths.get(RepoStore.TEST_DIRECTORY), 1)
                 .filter(Files::isRegularFile)
-                .filter(p ->
-                    getFileExtension(String.valueOf(p.getFileName())).equalsIgnoreCase("json") ||
-                        getFileExtension(String.valueOf(p.getFileName())).equalsIgnoreCase("json-err")
-                )
+                .filter(p -> STORE_FILE_EXTENSIONS.contains(
+                    getFileExtension(String.valueOf(p.getFileName())).toLowerCase()))
                 .forEach(p -> new File(p.toAbsolutePath().toString()).delete());
         } catch (IOException e) {
             e.printStackTrace();
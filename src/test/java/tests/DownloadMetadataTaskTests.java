@@ -0,0 +1,150 @@
+package tests;
+
+import backend.IssueMetadata;
+import backend.github.DownloadMetadataTask;
+import backend.resource.TurboIssue;
+import backend.stub.DummyRepo;
+import backend.stub.DummySource;
+import github.TurboIssueEvent;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.eclipse.egit.github.core.Comment;
+import org.junit.Test;
+import util.AtomicMaxInteger;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DownloadMetadataTaskTests {
+
+    private static final String REPO = "dummy/dummy";
+    private static final long LATENCY_MILLIS = 50;
+
+    /**
+     * Tests that metadata downloaded concurrently is the same as metadata downloaded one request at a time,
+     * and that every issue's metadata is handed to the batch consumer exactly once before the response completes.
+     */
+    @Test
+    public void downloadMetadata_concurrent_sameAsSequential() throws ExecutionException, InterruptedException {
+        Map<Integer, IssueMetadata> sequential = downloadMetadata(1, 1, new ArrayList<>());
+
+        List<Map<Integer, IssueMetadata>> batches = new ArrayList<>();
+        Map<Integer, IssueMetadata> concurrent = downloadMetadata(4, 5, batches);
+
+        assertEquals(sequential.keySet(), concurrent.keySet());
+        sequential.forEach((id, metadata) -> {
+            assertEquals(metadata.getEvents().size(), concurrent.get(id).getEvents().size());
+            assertEquals(metadata.getComments().size(), concurrent.get(id).getComments().size());
+        });
+
+        Set<Integer> batchedIds = new HashSet<>();
+        batches.forEach(batch -> {
+            assertTrue(batch.size() <= 5);
+            batch.keySet().forEach(id -> assertTrue(batchedIds.add(id)));
+        });
+        assertEquals(concurrent.keySet(), batchedIds);
+        assertEquals(3, batches.size());
+    }
+
+    /**
+     * Tests that no more requests than the given concurrency are in flight at once, whatever the parallelism
+     * of the task runner, and that the requests are made concurrently up to it.
+     */
+    @Test
+    public void downloadMetadata_concurrencyLimit_neverExceeded() throws ExecutionException, InterruptedException {
+        AtomicMaxInteger inFlight = new AtomicMaxInteger(0);
+        DummyRepo repo = new DummyRepo() {
+            @Override
+            public ImmutablePair<List<TurboIssueEvent>, String>
+                    getUpdatedEvents(String repoId, int issueId, String currentETag) {
+                inFlight.increment();
+                try {
+                    return super.getUpdatedEvents(repoId, issueId, currentETag);
+                } finally {
+                    inFlight.decrement();
+                }
+            }
+
+            @Override
+            public ImmutablePair<List<Comment>, String> getUpdatedComments(String repoId, TurboIssue issue,
+                                                                           String currentETag) {
+                inFlight.increment();
+                try {
+                    return super.getUpdatedComments(repoId, issue, currentETag);
+                } finally {
+                    inFlight.decrement();
+                }
+            }
+        };
+        repo.setLatency(LATENCY_MILLIS);
+        DummySource source = new DummySource();
+        source.setParallelism(16, 1);
+
+        DownloadMetadataTask task = new DownloadMetadataTask(source, repo, REPO, repo.getIssues(REPO),
+                                                             batch -> {}, 3, 5);
+        task.run();
+
+        assertEquals(repo.getIssues(REPO).size(), task.response.get().size());
+        assertTrue(inFlight.getMax() <= 3);
+        assertTrue(inFlight.getMax() > 1);
+        assertEquals(0, inFlight.get());
+    }
+
+    /**
+     * Tests that the response fails if the batch consumer throws, rather than completing with the metadata.
+     */
+    @Test
+    public void downloadMetadata_consumerFails_responseFails() throws InterruptedException {
+        DummyRepo repo = new DummyRepo();
+        DownloadMetadataTask task = new DownloadMetadataTask(new DummySource(), repo, REPO, repo.getIssues(REPO),
+                                                             batch -> {
+                                                                 throw new IllegalStateException();
+                                                             }, 4, 5);
+        task.run();
+
+        try {
+            task.response.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void downloadMetadata_noIssues_completesWithoutBatches() throws ExecutionException, InterruptedException {
+        DummyRepo repo = new DummyRepo();
+        List<Map<Integer, IssueMetadata>> batches = new ArrayList<>();
+        DownloadMetadataTask task = new DownloadMetadataTask(new DummySource(), repo, REPO, new ArrayList<>(),
+                                                             batches::add, 4, 5);
+        task.run();
+
+        assertTrue(task.response.get().isEmpty());
+        assertTrue(batches.isEmpty());
+        assertFalse(task.response.isCompletedExceptionally());
+    }
+
+    /**
+     * Downloads the metadata of all issues of a new dummy repository with the given limits.
+     */
+    private static Map<Integer, IssueMetadata> downloadMetadata(int concurrency, int batchSize,
+                                                                List<Map<Integer, IssueMetadata>> batches)
+            throws ExecutionException, InterruptedException {
+        DummyRepo repo = new DummyRepo();
+        repo.setLatency(LATENCY_MILLIS);
+        List<TurboIssue> issues = repo.getIssues(REPO);
+
+        DownloadMetadataTask task = new DownloadMetadataTask(new DummySource(), repo, REPO, issues,
+                                                             batches::add, concurrency, batchSize);
+        task.run();
+
+        return task.response.get();
+    }
+}
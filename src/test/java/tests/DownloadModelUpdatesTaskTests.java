@@ -0,0 +1,109 @@
+package tests;
+
+import backend.UpdateSignature;
+import backend.github.DownloadModelUpdatesTask;
+import backend.github.GitHubModelUpdatesData;
+import backend.resource.Model;
+import backend.resource.TurboIssue;
+import backend.stub.DummyRepo;
+import backend.stub.DummySource;
+import org.junit.Test;
+import util.Futures;
+import util.Utility;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+public class DownloadModelUpdatesTaskTests {
+
+    private static final int REPO_COUNT = 20;
+    private static final int PARALLELISM = 4;
+    private static final long LATENCY_MILLIS = 50;
+
+    /**
+     * Tests that downloading the updates of many repositories on a source's bounded pool never uses more
+     * threads, or makes more requests at once, than the source's parallelism.
+     */
+    @Test
+    public void downloadModelUpdates_manyRepos_concurrencyBounded() throws ExecutionException, InterruptedException {
+        DummyRepo repo = new DummyRepo();
+        repo.setLatency(LATENCY_MILLIS);
+        DummySource source = new DummySource();
+        source.setParallelism(PARALLELISM, DownloadModelUpdatesTask.DEFAULT_CONCURRENCY);
+
+        List<CompletableFuture<GitHubModelUpdatesData>> responses = new ArrayList<>();
+        for (int i = 0; i < REPO_COUNT; i++) {
+            Model model = new Model("dummy/dummy" + i);
+            responses.add(source.addTask(new DownloadModelUpdatesTask(source, repo, model)).response);
+        }
+
+        assertEquals(REPO_COUNT, Futures.sequence(responses).get().size());
+        assertTrue(source.getPeakThreadCount() <= PARALLELISM);
+        assertTrue(repo.getPeakRequestsInFlight() <= PARALLELISM);
+    }
+
+    /**
+     * Tests that a repository's update requests are made one at a time when its concurrency is one.
+     */
+    @Test
+    public void downloadModelUpdates_concurrencyOne_sequential() throws ExecutionException, InterruptedException {
+        DummyRepo repo = new DummyRepo();
+        repo.setLatency(LATENCY_MILLIS);
+        DummySource source = new DummySource();
+        // With a pull request cursor, so that pull requests are requested as well
+        Model model = new Model("dummy/dummy", new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                                new ArrayList<>(), new UpdateSignature(null, null, null, null, new Date(), new Date()));
+
+        GitHubModelUpdatesData updates = source.addTask(
+                new DownloadModelUpdatesTask(source, repo, model, 1)).response.get();
+
+        assertEquals("dummy/dummy", updates.getRepoId());
+        assertEquals(1, repo.getPeakRequestsInFlight());
+    }
+
+    /**
+     * Tests that no pull requests are requested for a model that has yet to have a pull request cursor,
+     * which is taken from the pull requests among its issues instead, and that pull requests updated
+     * after the cursor are requested once it has one.
+     */
+    @Test
+    public void downloadModelUpdates_pullRequestsCursor() throws ExecutionException, InterruptedException {
+        String repoId = "dummy/dummy";
+        LocalDateTime createdAt = LocalDateTime.of(2015, 1, 1, 0, 0);
+        TurboIssue issue = new TurboIssue(repoId, 1, "Issue", "user", createdAt, false);
+        issue.setUpdatedAt(createdAt.plusDays(2));
+        TurboIssue pullRequest = new TurboIssue(repoId, 2, "Pull request", "user", createdAt, true);
+        pullRequest.setUpdatedAt(createdAt.plusDays(1));
+        List<TurboIssue> issues = Arrays.asList(issue, pullRequest);
+        DummyRepo repo = spy(new DummyRepo());
+        DummySource source = new DummySource();
+
+        Model model = new Model(repoId, issues, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                                UpdateSignature.EMPTY);
+        GitHubModelUpdatesData updates = source.addTask(
+                new DownloadModelUpdatesTask(source, repo, model)).response.get();
+        Date cursor = Utility.localDateTimeToDate(pullRequest.getUpdatedAt());
+        assertEquals(Optional.of(cursor), updates.getPullRequestsCursor());
+        verify(repo, never()).getUpdatedPullRequests(anyString(), any(Date.class));
+
+        model = new Model(repoId, issues, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                          new UpdateSignature(null, null, null, null, new Date(), cursor));
+        updates = source.addTask(new DownloadModelUpdatesTask(source, repo, model)).response.get();
+        assertEquals(Optional.of(cursor), updates.getPullRequestsCursor());
+        verify(repo).getUpdatedPullRequests(repoId, cursor);
+    }
+}
@@ -0,0 +1,62 @@
+package tests;
+
+import backend.github.DownloadRepoTask;
+import backend.interfaces.Repo;
+import backend.resource.Model;
+import backend.resource.TurboIssue;
+import backend.stub.DummySource;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DownloadRepoTaskTests {
+
+    private static final String REPO = "dummy/dummy";
+
+    /**
+     * Tests that partial models are handed over as the issues received double, before the full model
+     */
+    @Test
+    public void run_pagesOfIssues_partialModelsAsIssuesDouble() throws ExecutionException, InterruptedException {
+        List<Integer> pageSizes = Arrays.asList(10, 10, 20, 5);
+        Repo repo = mock(Repo.class);
+        when(repo.getIssues(anyString(), any())).then(invocation -> {
+            @SuppressWarnings("unchecked")
+            Consumer<List<TurboIssue>> pageConsumer = (Consumer<List<TurboIssue>>) invocation.getArguments()[1];
+            List<TurboIssue> issues = new ArrayList<>();
+            for (int pageSize : pageSizes) {
+                List<TurboIssue> page = new ArrayList<>();
+                for (int i = 0; i < pageSize; i++) {
+                    page.add(new TurboIssue(REPO, issues.size() + i + 1, "Issue"));
+                }
+                pageConsumer.accept(page);
+                issues.addAll(page);
+            }
+            return CompletableFuture.completedFuture(issues);
+        });
+        when(repo.getLabels(anyString())).thenReturn(new ArrayList<>());
+        when(repo.getMilestones(anyString())).thenReturn(new ArrayList<>());
+        when(repo.getCollaborators(anyString())).thenReturn(new ArrayList<>());
+
+        List<Model> partialModels = new ArrayList<>();
+        DummySource source = new DummySource();
+        Model model = source.addTask(new DownloadRepoTask(source, repo, REPO, partialModels::add)).response.get();
+
+        assertEquals(Arrays.asList(10, 20, 40), partialModels.stream()
+                .map(partialModel -> partialModel.getIssues().size())
+                .collect(Collectors.toList()));
+        assertEquals(45, model.getIssues().size());
+    }
+}
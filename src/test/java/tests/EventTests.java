@@ -1,16 +1,22 @@
 package tests;
 
-import com.google.common.eventbus.EventBus;
 import org.junit.Test;
 import util.events.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 
 public class EventTests {
 
-    private final EventBus events = new EventBus();
+    private final TypedEventDispatcher events = new TypedEventDispatcher();
 
     private final EventHandler succeed2 = (IssueSelectedEventHandler) e -> assertTrue(true);
     private final EventHandler fail2 = (IssueSelectedEventHandler) e -> fail("IssueSelectedEventHandler failed");
@@ -20,50 +26,50 @@ public class EventTests {
     @Test
     public void basics() {
         // Ensure that the right handler is triggered
-        events.register(fail2);
-        events.register(succeed1);
+        events.registerEvent(fail2);
+        events.registerEvent(succeed1);
 
         BoardSavedEvent te = new BoardSavedEvent();
         IssueSelectedEvent te2 = new IssueSelectedEvent("", 1, 2, false);
 
-        events.post(te);
+        events.triggerEvent(te);
 
         // Remove handlers before next test
-        events.unregister(fail2);
-        events.unregister(succeed1);
+        events.unregisterEvent(fail2);
+        events.unregisterEvent(succeed1);
 
         // Attempts to unregister handlers which aren't registered to begin with
         try {
-            events.unregister(fail1);
+            events.unregisterEvent(fail1);
             fail("Cannot unregister event handler which hasn't been registered");
         } catch (IllegalArgumentException e) {
         }
         try {
-            events.unregister(succeed2);
+            events.unregisterEvent(succeed2);
             fail("Cannot unregister event handler which hasn't been registered");
         } catch (IllegalArgumentException e) {
         }
 
         // Try the other event
-        events.register(fail1);
-        events.register(succeed2);
+        events.registerEvent(fail1);
+        events.registerEvent(succeed2);
 
-        events.post(te2);
+        events.triggerEvent(te2);
 
-        events.unregister(fail1);
-        events.unregister(succeed2);
+        events.unregisterEvent(fail1);
+        events.unregisterEvent(succeed2);
 
         // Try both
-        events.register(succeed1);
-        events.register(succeed2);
+        events.registerEvent(succeed1);
+        events.registerEvent(succeed2);
 
-        events.post(te);
-        events.post(te2);
+        events.triggerEvent(te);
+        events.triggerEvent(te2);
     }
 
     @Test
     public void testSuperclassHandlerOnSubclassEvent() {
-        EventBus eventsSuperSub = new EventBus();
+        TypedEventDispatcher eventsSuperSub = new TypedEventDispatcher();
 
         final EventHandler superclassHandlerSucceed = (UnusedStoredReposChangedEventHandler) e -> assertTrue(true);
         final EventHandler subclassHandlerSucceed = (PrimaryRepoOpenedEventHandler) e -> assertTrue(true);
@@ -71,22 +77,137 @@ public class EventTests {
                 (PrimaryRepoOpenedEventHandler) e -> fail("PrimaryRepoOpenedEventHandler failed");
 
         // Dispatch superclass event, ensure subclass handler doesn't fire
-        eventsSuperSub.register(superclassHandlerSucceed);
-        eventsSuperSub.register(subclassHandlerFail);
+        eventsSuperSub.registerEvent(superclassHandlerSucceed);
+        eventsSuperSub.registerEvent(subclassHandlerFail);
 
         UnusedStoredReposChangedEvent superclassEvent = new UnusedStoredReposChangedEvent();
 
-        eventsSuperSub.post(superclassEvent);
+        eventsSuperSub.triggerEvent(superclassEvent);
 
-        eventsSuperSub.unregister(superclassHandlerSucceed);
-        eventsSuperSub.unregister(subclassHandlerFail);
+        eventsSuperSub.unregisterEvent(superclassHandlerSucceed);
+        eventsSuperSub.unregisterEvent(subclassHandlerFail);
 
         // Dispatch subclass event, ensure both handler fire
-        eventsSuperSub.register(superclassHandlerSucceed);
-        eventsSuperSub.register(subclassHandlerSucceed);
+        eventsSuperSub.registerEvent(superclassHandlerSucceed);
+        eventsSuperSub.registerEvent(subclassHandlerSucceed);
 
         PrimaryRepoOpenedEvent subclassEvent = new PrimaryRepoOpenedEvent();
 
-        eventsSuperSub.post(subclassEvent);
+        eventsSuperSub.triggerEvent(subclassEvent);
+    }
+
+    /**
+     * Tests that events triggered by a handler are only fired once the event being handled has been
+     * fired for all its handlers
+     */
+    @Test
+    public void triggerEvent_eventTriggeredByHandler_firedAfterCurrentEvent() {
+        TypedEventDispatcher dispatcher = new TypedEventDispatcher();
+        List<String> handled = new ArrayList<>();
+
+        dispatcher.registerEvent((BoardSavedEventHandler) e -> {
+            handled.add("board saved 1");
+            dispatcher.triggerEvent(new IssueCreatedEvent());
+        });
+        dispatcher.registerEvent((BoardSavedEventHandler) e -> handled.add("board saved 2"));
+        dispatcher.registerEvent((IssueCreatedEventHandler) e -> handled.add("issue created"));
+
+        dispatcher.triggerEvent(new BoardSavedEvent());
+
+        assertEquals(Arrays.asList("board saved 1", "board saved 2", "issue created"), handled);
+        assertEquals(1, dispatcher.getDispatchCount(BoardSavedEvent.class));
+        assertEquals(1, dispatcher.getDispatchCount(IssueCreatedEvent.class));
+        assertEquals(0, dispatcher.getDispatchCount(LabelCreatedEvent.class));
+    }
+
+    /**
+     * Tests that a failing handler does not prevent the others from being called
+     */
+    @Test
+    public void triggerEvent_failingHandler_otherHandlersCalled() {
+        TypedEventDispatcher dispatcher = new TypedEventDispatcher();
+        AtomicInteger handled = new AtomicInteger();
+
+        dispatcher.registerEvent((BoardSavedEventHandler) e -> {
+            throw new IllegalStateException("Failed handler");
+        });
+        dispatcher.registerEvent((BoardSavedEventHandler) e -> handled.incrementAndGet());
+
+        dispatcher.triggerEvent(new BoardSavedEvent());
+        assertEquals(1, handled.get());
+    }
+
+    /**
+     * Tests that events triggered by a handler which then throws an error are not fired along with the
+     * next event triggered on the same thread
+     */
+    @Test
+    public void triggerEvent_handlerThrowsError_queuedEventsDropped() {
+        TypedEventDispatcher dispatcher = new TypedEventDispatcher();
+        List<String> handled = new ArrayList<>();
+
+        EventHandler failing = (BoardSavedEventHandler) e -> {
+            dispatcher.triggerEvent(new IssueCreatedEvent());
+            throw new Error("Failed handler");
+        };
+        dispatcher.registerEvent(failing);
+        dispatcher.registerEvent((IssueCreatedEventHandler) e -> handled.add("issue created"));
+
+        try {
+            dispatcher.triggerEvent(new BoardSavedEvent());
+            fail();
+        } catch (Error e) {
+            assertEquals("Failed handler", e.getMessage());
+        }
+
+        dispatcher.unregisterEvent(failing);
+        dispatcher.triggerEvent(new BoardSavedEvent());
+        assertTrue(handled.isEmpty());
+    }
+
+    /**
+     * Tests that handlers registered weakly are dropped once nothing else refers to them
+     */
+    @Test
+    public void registerWeakEvent_handlerUnreferenced_handlerDropped() throws InterruptedException {
+        TypedEventDispatcher dispatcher = new TypedEventDispatcher();
+        AtomicInteger handled = new AtomicInteger();
+
+        EventHandler handler = (BoardSavedEventHandler) e -> handled.incrementAndGet();
+        dispatcher.registerWeakEvent(handler);
+        dispatcher.triggerEvent(new BoardSavedEvent());
+        assertEquals(1, handled.get());
+        assertEquals(1, dispatcher.getHandlerCount(BoardSavedEvent.class));
+
+        handler = null;
+        for (int i = 0; i < 50 && dispatcher.getHandlerCount(BoardSavedEvent.class) > 0; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertEquals(0, dispatcher.getHandlerCount(BoardSavedEvent.class));
+        dispatcher.triggerEvent(new BoardSavedEvent());
+        assertEquals(1, handled.get());
+    }
+
+    /**
+     * Tests that events triggered asynchronously are fired on another thread, in the order triggered
+     */
+    @Test
+    public void triggerEventAsync_events_firedInOrderOnAnotherThread() {
+        TypedEventDispatcher dispatcher = new TypedEventDispatcher();
+        List<String> handled = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+
+        dispatcher.registerEvent((BoardSavedEventHandler) e -> {
+            threads.add(Thread.currentThread());
+            handled.add("board saved");
+        });
+        dispatcher.registerEvent((IssueCreatedEventHandler) e -> handled.add("issue created"));
+
+        dispatcher.triggerEventAsync(new BoardSavedEvent());
+        dispatcher.triggerEventAsync(new IssueCreatedEvent()).join();
+
+        assertEquals(Arrays.asList("board saved", "issue created"), handled);
+        assertNotEquals(Thread.currentThread(), threads.get(0));
     }
 }
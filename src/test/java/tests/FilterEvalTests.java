@@ -16,6 +16,8 @@ import org.junit.rules.ExpectedException;
 
 import backend.interfaces.IModel;
 import backend.resource.*;
+import filter.FilterException;
+import filter.MultiFilterEvaluator;
 import filter.ParseException;
 import filter.Parser;
 import filter.SemanticException;
@@ -52,7 +54,7 @@ public class FilterEvalTests {
 
         IModel model = TestUtils.modelWith(issue, milestone);
 
-        assertFalse(Qualifier.process(model, Qualifier.FALSE, issue));
+        assertFalse(process(model, Qualifier.FALSE, issue));
     }
 
     @Test
@@ -149,13 +151,13 @@ public class FilterEvalTests {
     }
 
     private void testMilestoneParsing(String milestoneQualifier, TurboIssue issue, IModel model) {
-        assertTrue(Qualifier.process(model, Parser.parse(milestoneQualifier + ":" + "v1.0"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse(milestoneQualifier + ":" + "v1"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse(milestoneQualifier + ":" + "v"), issue));
-        assertFalse(Qualifier.process(model, Parser.parse(milestoneQualifier + ":" + "1"), issue));
+        assertTrue(process(model, Parser.parse(milestoneQualifier + ":" + "v1.0"), issue));
+        assertTrue(process(model, Parser.parse(milestoneQualifier + ":" + "v1"), issue));
+        assertTrue(process(model, Parser.parse(milestoneQualifier + ":" + "v"), issue));
+        assertFalse(process(model, Parser.parse(milestoneQualifier + ":" + "1"), issue));
 
         try {
-            assertTrue(Qualifier.process(model, Parser.parse(milestoneQualifier + ":."), issue));
+            assertTrue(process(model, Parser.parse(milestoneQualifier + ":."), issue));
             fail(". is not a valid token on its own");
         } catch (ParseException ignored) {
         }
@@ -244,77 +246,77 @@ public class FilterEvalTests {
         FilterExpression noMilestoneAlias;
 
         noMilestoneAlias = Qualifier.replaceMilestoneAliases(model, Parser.parse("milestone:curr-3"));
-        assertTrue(Qualifier.process(model, noMilestoneAlias, iCurrMin3));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurr));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus3));
+        assertTrue(process(model, noMilestoneAlias, iCurrMin3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin2));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin1));
+        assertFalse(process(model, noMilestoneAlias, iCurr));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus1));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus2));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus3));
 
         noMilestoneAlias = Qualifier.replaceMilestoneAliases(model, Parser.parse("milestone:curr-2"));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin3));
-        assertTrue(Qualifier.process(model, noMilestoneAlias, iCurrMin2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurr));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin3));
+        assertTrue(process(model, noMilestoneAlias, iCurrMin2));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin1));
+        assertFalse(process(model, noMilestoneAlias, iCurr));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus1));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus2));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus3));
 
         noMilestoneAlias = Qualifier.replaceMilestoneAliases(model, Parser.parse("milestone:curr-1"));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin3));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin2));
-        assertTrue(Qualifier.process(model, noMilestoneAlias, iCurrMin1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurr));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin2));
+        assertTrue(process(model, noMilestoneAlias, iCurrMin1));
+        assertFalse(process(model, noMilestoneAlias, iCurr));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus1));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus2));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus3));
 
         noMilestoneAlias = Qualifier.replaceMilestoneAliases(model, Parser.parse("milestone:curr"));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin3));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin1));
-        assertTrue(Qualifier.process(model, noMilestoneAlias, iCurr));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin2));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin1));
+        assertTrue(process(model, noMilestoneAlias, iCurr));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus1));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus2));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus3));
 
         noMilestoneAlias = Qualifier.replaceMilestoneAliases(model, Parser.parse("milestone:curr+1"));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin3));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurr));
-        assertTrue(Qualifier.process(model, noMilestoneAlias, iCurrPlus1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin2));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin1));
+        assertFalse(process(model, noMilestoneAlias, iCurr));
+        assertTrue(process(model, noMilestoneAlias, iCurrPlus1));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus2));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus3));
 
         noMilestoneAlias = Qualifier.replaceMilestoneAliases(model, Parser.parse("milestone:curr+2"));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin3));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurr));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus1));
-        assertTrue(Qualifier.process(model, noMilestoneAlias, iCurrPlus2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin2));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin1));
+        assertFalse(process(model, noMilestoneAlias, iCurr));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus1));
+        assertTrue(process(model, noMilestoneAlias, iCurrPlus2));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus3));
 
         noMilestoneAlias = Qualifier.replaceMilestoneAliases(model, Parser.parse("milestone:curr+3"));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin3));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurr));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin2));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin1));
+        assertFalse(process(model, noMilestoneAlias, iCurr));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus1));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus2));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus3));
 
         // test: negation alias
         noMilestoneAlias = Qualifier.replaceMilestoneAliases(model, Parser.parse("-milestone:curr"));
-        assertTrue(Qualifier.process(model, noMilestoneAlias, iCurrMin3));
-        assertTrue(Qualifier.process(model, noMilestoneAlias, iCurrMin2));
-        assertTrue(Qualifier.process(model, noMilestoneAlias, iCurrMin1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurr));
-        assertTrue(Qualifier.process(model, noMilestoneAlias, iCurrPlus1));
-        assertTrue(Qualifier.process(model, noMilestoneAlias, iCurrPlus2));
-        assertTrue(Qualifier.process(model, noMilestoneAlias, iCurrPlus3));
+        assertTrue(process(model, noMilestoneAlias, iCurrMin3));
+        assertTrue(process(model, noMilestoneAlias, iCurrMin2));
+        assertTrue(process(model, noMilestoneAlias, iCurrMin1));
+        assertFalse(process(model, noMilestoneAlias, iCurr));
+        assertTrue(process(model, noMilestoneAlias, iCurrPlus1));
+        assertTrue(process(model, noMilestoneAlias, iCurrPlus2));
+        assertTrue(process(model, noMilestoneAlias, iCurrPlus3));
 
         // test: no milestone in model should return qualifier false
         model = TestUtils.singletonModel(new Model(REPO,
@@ -326,67 +328,67 @@ public class FilterEvalTests {
                                                    new ArrayList<>()));
 
         noMilestoneAlias = Qualifier.replaceMilestoneAliases(model, Parser.parse("milestone:curr-3"));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin3));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurr));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin2));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin1));
+        assertFalse(process(model, noMilestoneAlias, iCurr));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus1));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus2));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus3));
 
         noMilestoneAlias = Qualifier.replaceMilestoneAliases(model, Parser.parse("milestone:curr-2"));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin3));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurr));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin2));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin1));
+        assertFalse(process(model, noMilestoneAlias, iCurr));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus1));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus2));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus3));
 
         noMilestoneAlias = Qualifier.replaceMilestoneAliases(model, Parser.parse("milestone:curr-1"));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin3));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurr));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin2));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin1));
+        assertFalse(process(model, noMilestoneAlias, iCurr));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus1));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus2));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus3));
 
         noMilestoneAlias = Qualifier.replaceMilestoneAliases(model, Parser.parse("milestone:curr"));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin3));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurr));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin2));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin1));
+        assertFalse(process(model, noMilestoneAlias, iCurr));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus1));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus2));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus3));
 
         noMilestoneAlias = Qualifier.replaceMilestoneAliases(model, Parser.parse("milestone:curr+1"));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin3));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurr));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin2));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin1));
+        assertFalse(process(model, noMilestoneAlias, iCurr));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus1));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus2));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus3));
 
         noMilestoneAlias = Qualifier.replaceMilestoneAliases(model, Parser.parse("milestone:curr+2"));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin3));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurr));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin2));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin1));
+        assertFalse(process(model, noMilestoneAlias, iCurr));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus1));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus2));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus3));
 
         noMilestoneAlias = Qualifier.replaceMilestoneAliases(model, Parser.parse("milestone:curr+3"));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin3));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrMin1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurr));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus1));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus2));
-        assertFalse(Qualifier.process(model, noMilestoneAlias, iCurrPlus3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin3));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin2));
+        assertFalse(process(model, noMilestoneAlias, iCurrMin1));
+        assertFalse(process(model, noMilestoneAlias, iCurr));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus1));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus2));
+        assertFalse(process(model, noMilestoneAlias, iCurrPlus3));
     }
 
     @Test
@@ -398,17 +400,17 @@ public class FilterEvalTests {
 
         IModel model = TestUtils.modelWith(issue, label);
 
-        assertFalse(Qualifier.process(model, Parser.parse("label:type"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("label:type."), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("label:type.bug"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("label:bug"), issue));
+        assertFalse(process(model, Parser.parse("label:type"), issue));
+        assertTrue(process(model, Parser.parse("label:type."), issue));
+        assertTrue(process(model, Parser.parse("label:type.bug"), issue));
+        assertTrue(process(model, Parser.parse("label:bug"), issue));
         try {
-            assertTrue(Qualifier.process(model, Parser.parse("label:.bug"), issue));
+            assertTrue(process(model, Parser.parse("label:.bug"), issue));
             fail(". cannot begin symbols");
         } catch (ParseException ignored) {
         }
         try {
-            assertFalse(Qualifier.process(model, Parser.parse("label:."), issue));
+            assertFalse(process(model, Parser.parse("label:."), issue));
             fail(". is not a valid token on its own");
         } catch (ParseException ignored) {
         }
@@ -428,7 +430,7 @@ public class FilterEvalTests {
                                                              new ArrayList<>(),
                                                              new ArrayList<>())));
 
-        assertTrue(Qualifier.process(model, Parser.parse("label:t."), issue));
+        assertTrue(process(model, Parser.parse("label:t."), issue));
 
         // Label without a group
 
@@ -439,17 +441,17 @@ public class FilterEvalTests {
 
         model = TestUtils.modelWith(issue, label);
 
-        assertFalse(Qualifier.process(model, Parser.parse("label:bug."), issue));
-        assertFalse(Qualifier.process(model, Parser.parse("label:type.bug"), issue));
-        assertFalse(Qualifier.process(model, Parser.parse("label:type"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("label:bug"), issue));
+        assertFalse(process(model, Parser.parse("label:bug."), issue));
+        assertFalse(process(model, Parser.parse("label:type.bug"), issue));
+        assertFalse(process(model, Parser.parse("label:type"), issue));
+        assertTrue(process(model, Parser.parse("label:bug"), issue));
         try {
-            assertTrue(Qualifier.process(model, Parser.parse("label:.bug"), issue));
+            assertTrue(process(model, Parser.parse("label:.bug"), issue));
             fail(". cannot begin symbols");
         } catch (ParseException ignored) {
         }
         try {
-            assertFalse(Qualifier.process(model, Parser.parse("label:."), issue));
+            assertFalse(process(model, Parser.parse("label:."), issue));
             fail(". is not a valid token on its own");
         } catch (ParseException ignored) {
         }
@@ -464,14 +466,14 @@ public class FilterEvalTests {
 
         IModel model = TestUtils.modelWith(issue, user);
 
-        assertTrue(Qualifier.process(model, Parser.parse("assignee:BOB"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("assignee:bob"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("assignee:alice"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("assignee:o"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("assignee:lic"), issue));
+        assertTrue(process(model, Parser.parse("assignee:BOB"), issue));
+        assertTrue(process(model, Parser.parse("assignee:bob"), issue));
+        assertTrue(process(model, Parser.parse("assignee:alice"), issue));
+        assertTrue(process(model, Parser.parse("assignee:o"), issue));
+        assertTrue(process(model, Parser.parse("assignee:lic"), issue));
 
         // test: qualifier alias
-        assertTrue(Qualifier.process(model, Parser.parse("as:BOB"), issue));
+        assertTrue(process(model, Parser.parse("as:BOB"), issue));
     }
 
     @Test
@@ -479,12 +481,12 @@ public class FilterEvalTests {
         TurboIssue issue = new TurboIssue(REPO, 1, "", "bob", null, false);
         IModel model = TestUtils.modelWith(issue, new TurboUser("test/test", "bob"));
 
-        assertTrue(Qualifier.process(model, Parser.parse("author:BOB"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("author:bob"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("author:o"), issue));
+        assertTrue(process(model, Parser.parse("author:BOB"), issue));
+        assertTrue(process(model, Parser.parse("author:bob"), issue));
+        assertTrue(process(model, Parser.parse("author:o"), issue));
 
         // test: qualifier alias
-        assertTrue(Qualifier.process(model, Parser.parse("au:bob"), issue));
+        assertTrue(process(model, Parser.parse("au:bob"), issue));
     }
 
     @Test
@@ -499,23 +501,23 @@ public class FilterEvalTests {
 
         IModel model = TestUtils.modelWith(issue, user);
 
-        assertTrue(Qualifier.process(model, Parser.parse("involves:BOB"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("involves:bob"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("involves:alice"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("involves:o"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("involves:lic"), issue));
+        assertTrue(process(model, Parser.parse("involves:BOB"), issue));
+        assertTrue(process(model, Parser.parse("involves:bob"), issue));
+        assertTrue(process(model, Parser.parse("involves:alice"), issue));
+        assertTrue(process(model, Parser.parse("involves:o"), issue));
+        assertTrue(process(model, Parser.parse("involves:lic"), issue));
 
         // test: qualifier alias
-        assertTrue(Qualifier.process(model, Parser.parse("user:BOB"), issue));
+        assertTrue(process(model, Parser.parse("user:BOB"), issue));
 
         // author
         issue = new TurboIssue(REPO, 1, "", "bob", null, false);
 
-        assertTrue(Qualifier.process(model, Parser.parse("involves:BOB"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("involves:bob"), issue));
-        assertFalse(Qualifier.process(model, Parser.parse("involves:alice"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("involves:o"), issue));
-        assertFalse(Qualifier.process(model, Parser.parse("involves:lic"), issue));
+        assertTrue(process(model, Parser.parse("involves:BOB"), issue));
+        assertTrue(process(model, Parser.parse("involves:bob"), issue));
+        assertFalse(process(model, Parser.parse("involves:alice"), issue));
+        assertTrue(process(model, Parser.parse("involves:o"), issue));
+        assertFalse(process(model, Parser.parse("involves:lic"), issue));
     }
 
     @Test
@@ -562,23 +564,23 @@ public class FilterEvalTests {
         issue.addLabel(label);
         IModel model = TestUtils.modelWith(issue, label);
 
-        assertTrue(Qualifier.process(model, Parser.parse("has:label"), issue));
-        assertFalse(Qualifier.process(model, Parser.parse("has:milestone"), issue));
-        assertFalse(Qualifier.process(model, Parser.parse("has:assignee"), issue));
+        assertTrue(process(model, Parser.parse("has:label"), issue));
+        assertFalse(process(model, Parser.parse("has:milestone"), issue));
+        assertFalse(process(model, Parser.parse("has:assignee"), issue));
 
         issue.setMilestone(milestone);
         model = TestUtils.modelWith(issue, label, milestone);
 
-        assertTrue(Qualifier.process(model, Parser.parse("has:label"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("has:milestone"), issue));
-        assertFalse(Qualifier.process(model, Parser.parse("has:assignee"), issue));
+        assertTrue(process(model, Parser.parse("has:label"), issue));
+        assertTrue(process(model, Parser.parse("has:milestone"), issue));
+        assertFalse(process(model, Parser.parse("has:assignee"), issue));
 
         issue.setAssignee(user);
         model = TestUtils.modelWith(issue, label, milestone, user);
 
-        assertTrue(Qualifier.process(model, Parser.parse("has:label"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("has:milestone"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("has:assignee"), issue));
+        assertTrue(process(model, Parser.parse("has:label"), issue));
+        assertTrue(process(model, Parser.parse("has:milestone"), issue));
+        assertTrue(process(model, Parser.parse("has:assignee"), issue));
     }
 
     @Test
@@ -587,6 +589,18 @@ public class FilterEvalTests {
         verifyQualifierContentError(QualifierType.HAS, "has:2011-1-1");
     }
 
+    /**
+     * Tests that an invalid qualifier the interpreter never reaches, as it follows one that is not satisfied,
+     * is not tested by the compiled or shared evaluation either
+     */
+    @Test
+    public void satisfiesNoConditions_invalidInputNotReached_noError() {
+        TurboIssue issue = new TurboIssue(REPO, 1, "");
+
+        assertFalse(matches("repo:other/other no:something", issue));
+        assertFalse(matches("repo:other/other -no:something", issue));
+    }
+
     @Test
     public void satisfiesNoConditions_validInputs() {
         TurboLabel label = new TurboLabel(REPO, "type.bug");
@@ -606,23 +620,23 @@ public class FilterEvalTests {
         issue.addLabel(label);
         IModel model = TestUtils.modelWith(issue, label);
 
-        assertFalse(Qualifier.process(model, Parser.parse("no:label"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("no:milestone"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("no:assignee"), issue));
+        assertFalse(process(model, Parser.parse("no:label"), issue));
+        assertTrue(process(model, Parser.parse("no:milestone"), issue));
+        assertTrue(process(model, Parser.parse("no:assignee"), issue));
 
         issue.setMilestone(milestone);
         model = TestUtils.modelWith(issue, label, milestone);
 
-        assertFalse(Qualifier.process(model, Parser.parse("no:label"), issue));
-        assertFalse(Qualifier.process(model, Parser.parse("no:milestone"), issue));
-        assertTrue(Qualifier.process(model, Parser.parse("no:assignee"), issue));
+        assertFalse(process(model, Parser.parse("no:label"), issue));
+        assertFalse(process(model, Parser.parse("no:milestone"), issue));
+        assertTrue(process(model, Parser.parse("no:assignee"), issue));
 
         issue.setAssignee(user);
         model = TestUtils.modelWith(issue, label, milestone, user);
 
-        assertFalse(Qualifier.process(model, Parser.parse("no:label"), issue));
-        assertFalse(Qualifier.process(model, Parser.parse("no:milestone"), issue));
-        assertFalse(Qualifier.process(model, Parser.parse("no:assignee"), issue));
+        assertFalse(process(model, Parser.parse("no:label"), issue));
+        assertFalse(process(model, Parser.parse("no:milestone"), issue));
+        assertFalse(process(model, Parser.parse("no:assignee"), issue));
     }
 
     @Test
@@ -857,19 +871,88 @@ public class FilterEvalTests {
         TurboIssue issue2 = new TurboIssue(REPO, 1, "title", "bob", LocalDateTime.now(), false);
         issue1.setAssignee(user3);
         IModel model = TestUtils.singletonModel(createModelFromUsers(REPO, user1, user2, user3));
-        assertTrue(Qualifier.process(model, Parser.parse("assignee:ox"), issue1));
-        assertTrue(Qualifier.process(model, Parser.parse("author:alice"), issue1));
-        assertFalse(Qualifier.process(model, Parser.parse("assignee:charlie"), issue2));
-        assertTrue(Qualifier.process(model, Parser.parse("author:bob"), issue2));
-        assertTrue(Qualifier.process(model, Parser.parse("author:bob"), issue2));
+        assertTrue(process(model, Parser.parse("assignee:ox"), issue1));
+        assertTrue(process(model, Parser.parse("author:alice"), issue1));
+        assertFalse(process(model, Parser.parse("assignee:charlie"), issue2));
+        assertTrue(process(model, Parser.parse("author:bob"), issue2));
+        assertTrue(process(model, Parser.parse("author:bob"), issue2));
+    }
+
+
+    @Test
+    public void multiFilterEvaluator_sharedQualifiers_sameResultsAsProcess() {
+        IModel model = TestUtils.singletonModel(TestUtils.createLargeModel(REPO, 200, 30, 5, 10));
+        List<TurboIssue> issues = model.getIssues();
+        MultiFilterEvaluator evaluator = new MultiFilterEvaluator(model, issues);
+
+        List<String> filters = Arrays.asList(
+                "is:open",
+                "is:open label:group1",
+                "-is:open || label:group1",
+                "issue 1 in:title",
+                "issue 1 in:description",
+                "issue 1",
+                "repo:" + REPO + " milestone:V0.2 -assignee:user3",
+                "repo:other/other",
+                "(label:group2 || label:group3) -(label:group2.label12 is:closed)",
+                "is:open || is:closed || id:abc");
+
+        for (String filter : filters) {
+            FilterExpression expr = Parser.parse(filter);
+            List<TurboIssue> expected = new ArrayList<>();
+            for (TurboIssue issue : issues) {
+                if (Qualifier.process(model, expr, issue)) {
+                    expected.add(issue);
+                }
+            }
+            assertEquals(filter, expected, evaluator.filter(expr));
+        }
     }
 
-
     /**
      * Tests the filter string in the context of an empty model
      */
     public boolean matches(String filterExpr, TurboIssue issue) {
-        return Qualifier.process(empty, Parser.parse(filterExpr), issue);
+        return process(empty, Parser.parse(filterExpr), issue);
+    }
+
+    /**
+     * Tests an issue against a filter expression with the interpreter, with the compiled predicate
+     * and with the shared evaluator, checking that they agree, including on any error they fail with.
+     */
+    private static boolean process(IModel model, FilterExpression expr, TurboIssue issue) {
+        boolean interpreted = false;
+        FilterException interpreterError = null;
+        try {
+            interpreted = Qualifier.process(model, expr, issue);
+        } catch (FilterException e) {
+            interpreterError = e;
+        }
+
+        try {
+            boolean compiled = Qualifier.compile(model, expr).test(issue);
+            assertNull("Compiled filter did not fail for " + expr, interpreterError);
+            assertEquals("Compiled filter disagrees for " + expr, interpreted, compiled);
+        } catch (FilterException e) {
+            assertNotNull("Compiled filter failed for " + expr, interpreterError);
+            assertEquals(interpreterError.getClass(), e.getClass());
+            assertEquals(interpreterError.getMessage(), e.getMessage());
+        }
+
+        try {
+            boolean evaluated = !new MultiFilterEvaluator(model, Arrays.asList(issue)).filter(expr).isEmpty();
+            assertNull("Evaluated filter did not fail for " + expr, interpreterError);
+            assertEquals("Evaluated filter disagrees for " + expr, interpreted, evaluated);
+        } catch (FilterException e) {
+            assertNotNull("Evaluated filter failed for " + expr, interpreterError);
+            assertEquals(interpreterError.getClass(), e.getClass());
+            assertEquals(interpreterError.getMessage(), e.getMessage());
+        }
+
+        if (interpreterError != null) {
+            throw interpreterError;
+        }
+        return interpreted;
     }
 
     /**
@@ -880,7 +963,7 @@ public class FilterEvalTests {
         TurboIssue issue = new TurboIssue(REPO, 1, "title");
         thrown.expect(SemanticException.class);
         thrown.expectMessage(warningMessage);
-        Qualifier.process(model, Parser.parse(input), issue);
+        process(model, Parser.parse(input), issue);
     }
 
     private void verifyQualifierContentError(QualifierType type, String invalidInput) {
@@ -1,25 +1,37 @@
 package tests;
 
+import com.google.gson.reflect.TypeToken;
 import github.GitHubClientEx;
 import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.eclipse.egit.github.core.Comment;
 import org.eclipse.egit.github.core.Milestone;
 import org.eclipse.egit.github.core.client.GitHubResponse;
 import org.eclipse.egit.github.core.client.PagedRequest;
 import org.junit.Test;
 import org.mockserver.client.server.MockServerClient;
 import org.mockserver.integration.ClientAndServer;
+import org.mockserver.matchers.Times;
+import org.mockserver.model.Header;
 import org.mockserver.model.HttpRequest;
 import org.mockserver.model.Parameter;
 import org.mockserver.verify.VerificationTimes;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.eclipse.egit.github.core.client.IGitHubConstants.CONTENT_TYPE_JSON;
 import static org.eclipse.egit.github.core.client.IGitHubConstants.SEGMENT_REPOS;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockserver.model.HttpRequest.request;
 import static org.mockserver.model.HttpResponse.response;
 
@@ -85,4 +97,150 @@ public class GitHubClientExTests {
 
         mockServer.stop();
     }
+
+    /**
+     * Tests that getAllIfModified requests each page with its last ETag, reuses the cached items
+     * of pages that have not been modified, and downloads only the pages that have been
+     */
+    @Test
+    public void testGetAllIfModified() throws IOException {
+        MockServerClient mockServer = ClientAndServer.startClientAndServer(8888);
+        String path = TestUtils.API_PREFIX + "/repos/test/test/issues/1/comments";
+        HttpRequest page1 = createPageRequest(path, 1);
+        HttpRequest page2 = createPageRequest(path, 2);
+        String nextLink = "<http://localhost:8888" + path + "?per_page=2&page=2>; rel=\"next\"";
+
+        mockServer.when(createPageRequest(path, 1).withHeader(new Header("If-None-Match", "\"page1\"")))
+                .respond(response().withStatusCode(304));
+        mockServer.when(page1)
+                .respond(response().withHeader("ETag", "\"page1\"").withHeader("Link", nextLink)
+                                 .withBody("[{\"id\": 1}, {\"id\": 2}]"));
+        mockServer.when(createPageRequest(path, 2).withHeader(new Header("If-None-Match", "\"page2\"")))
+                .respond(response().withStatusCode(304));
+        mockServer.when(page2)
+                .respond(response().withHeader("ETag", "\"page2\"").withBody("[{\"id\": 3}]"));
+
+        GitHubClientEx client = new GitHubClientEx("localhost", 8888, "http");
+
+        // Nothing cached, so all pages are downloaded
+        Optional<ImmutablePair<List<Comment>, String>> result =
+                client.getAllIfModified(createCommentsRequest(), "", new ArrayList<>());
+        assertTrue(result.isPresent());
+        assertEquals(Arrays.asList(1L, 2L, 3L), getIds(result.get().getLeft()));
+        assertEquals("\"page1\"#\"page2\"", result.get().getRight());
+        mockServer.verify(page1, VerificationTimes.exactly(1));
+        mockServer.verify(page2, VerificationTimes.exactly(1));
+
+        // No page modified
+        List<Comment> cachedComments = result.get().getLeft();
+        String eTags = result.get().getRight();
+        assertFalse(client.getAllIfModified(createCommentsRequest(), eTags, cachedComments).isPresent());
+        mockServer.verify(page1, VerificationTimes.exactly(2));
+        mockServer.verify(page2, VerificationTimes.exactly(2));
+
+        // Second page modified, so only it is downloaded
+        mockServer.reset();
+        mockServer.when(createPageRequest(path, 1).withHeader(new Header("If-None-Match", "\"page1\"")))
+                .respond(response().withStatusCode(304));
+        mockServer.when(page2)
+                .respond(response().withHeader("ETag", "\"page2b\"").withBody("[{\"id\": 3}, {\"id\": 4}]"));
+
+        result = client.getAllIfModified(createCommentsRequest(), eTags, cachedComments);
+        assertTrue(result.isPresent());
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L), getIds(result.get().getLeft()));
+        assertEquals("\"page1\"#\"page2b\"", result.get().getRight());
+        assertSame(cachedComments.get(0), result.get().getLeft().get(0));
+
+        mockServer.stop();
+    }
+
+    /**
+     * Tests that the rate limits sent with a response are kept, so that getRateLimitResetTime
+     * does not request them from the Rate Limit API endpoint unless they have been reset since
+     */
+    @Test
+    public void testRateLimitsFromHeaders() throws IOException {
+        MockServerClient mockServer = ClientAndServer.startClientAndServer(8888);
+        String path = TestUtils.API_PREFIX + "/repos/test/test/issues/1/comments";
+        HttpRequest rateLimitRequest = request().withPath(TestUtils.API_PREFIX + "/rate_limit");
+        long reset = System.currentTimeMillis() / 1000 + 3600;
+
+        mockServer.when(rateLimitRequest)
+                .respond(response().withBody("{\"rate\": {\"limit\": 5000, \"remaining\": 4990, "
+                                                     + "\"reset\": " + reset + "}}"));
+        mockServer.when(createPageRequest(path, 1))
+                .respond(response().withHeader("X-RateLimit-Remaining", "4321")
+                                 .withHeader("X-RateLimit-Reset", String.valueOf(reset))
+                                 .withBody("[]"));
+
+        GitHubClientEx client = new GitHubClientEx("localhost", 8888, "http");
+        assertFalse(client.getRateLimitSnapshot().isPresent());
+
+        // Requested, as no response has been received yet
+        assertEquals(new ImmutablePair<>(4990, reset * 1000), client.getRateLimitResetTime());
+        mockServer.verify(rateLimitRequest, VerificationTimes.exactly(1));
+
+        client.getAllIfModified(createCommentsRequest(), "", new ArrayList<>());
+        assertEquals(new ImmutablePair<>(4321, reset * 1000), client.getRateLimitSnapshot().get());
+        assertEquals(new ImmutablePair<>(4321, reset * 1000), client.getRateLimitResetTime());
+        mockServer.verify(rateLimitRequest, VerificationTimes.exactly(1));
+
+        mockServer.stop();
+    }
+
+    /**
+     * Tests that the rate limits kept are those of the latest reset period, and within it those with
+     * the fewest remaining requests, whatever the order the responses arrive in
+     */
+    @Test
+    public void testRateLimitsOutOfOrder() throws IOException {
+        MockServerClient mockServer = ClientAndServer.startClientAndServer(8888);
+        String path = TestUtils.API_PREFIX + "/repos/test/test/issues/1/comments";
+        long reset = System.currentTimeMillis() / 1000 + 3600;
+        long previousReset = reset - 3600;
+
+        respondOnceWithRateLimits(mockServer, path, 4000, reset);
+        // Sent before the reset, but received after
+        respondOnceWithRateLimits(mockServer, path, 10, previousReset);
+        // Sent before the first in the same period, but received after
+        respondOnceWithRateLimits(mockServer, path, 4500, reset);
+        respondOnceWithRateLimits(mockServer, path, 3999, reset);
+
+        GitHubClientEx client = new GitHubClientEx("localhost", 8888, "http");
+        client.getAllIfModified(createCommentsRequest(), "", new ArrayList<>());
+        assertEquals(new ImmutablePair<>(4000, reset * 1000), client.getRateLimitSnapshot().get());
+        client.getAllIfModified(createCommentsRequest(), "", new ArrayList<>());
+        assertEquals(new ImmutablePair<>(4000, reset * 1000), client.getRateLimitSnapshot().get());
+        client.getAllIfModified(createCommentsRequest(), "", new ArrayList<>());
+        assertEquals(new ImmutablePair<>(4000, reset * 1000), client.getRateLimitSnapshot().get());
+        client.getAllIfModified(createCommentsRequest(), "", new ArrayList<>());
+        assertEquals(new ImmutablePair<>(3999, reset * 1000), client.getRateLimitSnapshot().get());
+
+        mockServer.stop();
+    }
+
+    private static void respondOnceWithRateLimits(MockServerClient mockServer, String path,
+                                                  int remaining, long reset) {
+        mockServer.when(createPageRequest(path, 1), Times.once())
+                .respond(response().withHeader("X-RateLimit-Remaining", String.valueOf(remaining))
+                                 .withHeader("X-RateLimit-Reset", String.valueOf(reset))
+                                 .withBody("[]"));
+    }
+
+    private static HttpRequest createPageRequest(String path, int page) {
+        return request().withPath(path)
+                .withQueryStringParameters(new Parameter("per_page", "2"), new Parameter("page", String.valueOf(page)));
+    }
+
+    private static PagedRequest<Comment> createCommentsRequest() {
+        PagedRequest<Comment> request = new PagedRequest<>(PagedRequest.PAGE_FIRST, 2);
+        request.setUri(SEGMENT_REPOS + "/test/test/issues/1/comments");
+        request.setType(new TypeToken<List<Comment>>() {
+        }.getType());
+        return request;
+    }
+
+    private static List<Long> getIds(List<Comment> comments) {
+        return comments.stream().map(Comment::getId).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,131 @@
+package tests;
+
+import backend.interfaces.RepoStore;
+import com.google.gson.reflect.TypeToken;
+import github.GitHubClientEx;
+import github.HttpResponseCache;
+import github.update.LabelUpdateService;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.egit.github.core.Label;
+import org.eclipse.egit.github.core.RepositoryId;
+import org.eclipse.egit.github.core.client.GitHubRequest;
+import org.eclipse.egit.github.core.client.PagedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockserver.client.server.MockServerClient;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.model.Header;
+import org.mockserver.verify.VerificationTimes;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.eclipse.egit.github.core.client.IGitHubConstants.CONTENT_TYPE_JSON;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+public class HttpResponseCacheTests {
+
+    private static final File CACHE_DIRECTORY = new File(RepoStore.TEST_DIRECTORY, "responses");
+    private static final String LABELS_PATH = TestUtils.API_PREFIX + "/repos/test/test/labels";
+    private static final String DATE = "Sun, 27 Dec 2015 15:28:46 GMT";
+
+    @Before
+    @After
+    public void clearCacheDirectory() throws IOException {
+        FileUtils.deleteDirectory(CACHE_DIRECTORY);
+    }
+
+    /**
+     * Tests that a response cached by one client is requested conditionally by a client started later
+     * with the same cache directory, and replayed from the cache when it has not been modified
+     */
+    @Test
+    public void get_cachedInEarlierSession_replayedIfNotModified() throws IOException {
+        MockServerClient mockServer = ClientAndServer.startClientAndServer(8888);
+        mockServer.when(request().withMethod("GET").withPath(LABELS_PATH)
+                                .withHeader(new Header("If-None-Match", "\"labels\"")))
+                .respond(response().withStatusCode(304).withHeader("Date", DATE));
+        mockServer.when(request().withMethod("GET").withPath(LABELS_PATH))
+                .respond(response().withHeader("ETag", "\"labels\"").withHeader("Date", DATE)
+                                 .withBody("[{\"name\": \"a\"}]"));
+
+        HttpResponseCache cache = new HttpResponseCache(CACHE_DIRECTORY, HttpResponseCache.DEFAULT_MAX_BYTES);
+        GitHubClientEx client = new GitHubClientEx("localhost", 8888, "http", cache);
+        assertEquals("a", getLabelNames(client.get(createLabelsRequest()).getBody()));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        // After a restart, the response is replayed from disk
+        HttpResponseCache restartedCache =
+                new HttpResponseCache(CACHE_DIRECTORY, HttpResponseCache.DEFAULT_MAX_BYTES);
+        GitHubClientEx restartedClient = new GitHubClientEx("localhost", 8888, "http", restartedCache);
+        assertEquals(1, restartedCache.getEntryCount());
+        assertEquals("a", getLabelNames(restartedClient.get(createLabelsRequest()).getBody()));
+        assertEquals(1, restartedCache.getHitCount());
+        assertEquals(0, restartedCache.getMissCount());
+
+        // Update services without ETags of their own get the same benefit
+        LabelUpdateService service = new LabelUpdateService(restartedClient, "");
+        List<Label> labels = service.getUpdatedItems(RepositoryId.createFromId("test/test"));
+        assertEquals("a", getLabelNames(labels));
+        assertEquals("labels", service.getUpdatedETags());
+        assertEquals(2, restartedCache.getHitCount());
+
+        mockServer.verify(request().withPath(LABELS_PATH).withHeader(new Header("If-None-Match", "\"labels\"")),
+                          VerificationTimes.exactly(2));
+        mockServer.stop();
+    }
+
+    /**
+     * Tests that the least recently used responses are removed once the cache grows past its maximum size,
+     * and that the order of use is kept across sessions
+     */
+    @Test
+    public void put_pastMaxSize_leastRecentlyUsedEvicted() {
+        byte[] body = new byte[100];
+        HttpResponseCache cache = new HttpResponseCache(CACHE_DIRECTORY, 250);
+        cache.put("a", "\"a\"", "", body);
+        cache.put("b", "\"b\"", "", body);
+        assertTrue(cache.get("a").isPresent());
+        cache.put("c", "\"c\"", "", body);
+
+        assertEquals(2, cache.getEntryCount());
+        assertTrue(cache.getTotalBytes() <= 250);
+        assertFalse(cache.contains("b"));
+
+        // "a" was used before "c" was added, so it is evicted first in the next session
+        HttpResponseCache restartedCache = new HttpResponseCache(CACHE_DIRECTORY, 250);
+        assertTrue(restartedCache.contains("a"));
+        assertTrue(restartedCache.contains("c"));
+        assertArrayEquals(body, restartedCache.get("c").get().body);
+        restartedCache.put("d", "\"d\"", "", body);
+        assertFalse(restartedCache.contains("a"));
+        assertTrue(restartedCache.contains("c"));
+    }
+
+    /**
+     * Creates the same request for the first page of labels as LabelUpdateService does
+     */
+    private static GitHubRequest createLabelsRequest() {
+        PagedRequest<Label> request = new PagedRequest<>(PagedRequest.PAGE_FIRST, PagedRequest.PAGE_SIZE);
+        request.setUri("/repos/test/test/labels");
+        request.setResponseContentType(CONTENT_TYPE_JSON);
+        request.setType(new TypeToken<ArrayList<Label>>() {
+        }.getType());
+        return request;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String getLabelNames(Object labels) {
+        return ((List<Label>) labels).stream().map(Label::getName).collect(Collectors.joining(","));
+    }
+}
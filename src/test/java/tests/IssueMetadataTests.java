@@ -127,6 +127,39 @@ public class IssueMetadataTests {
         assertEquals("comments", updated.getCommentsETag());
     }
 
+    @Test
+    public void reconcileComments() {
+        List<TurboIssueEvent> originalEvents = stubEvents();
+        List<Comment> originalComments = stubComments();
+        IssueMetadata existing = IssueMetadata.intermediate(originalEvents, originalComments, "events", "comments")
+                .full("test");
+        LocalDateTime rightNow = LocalDateTime.now();
+
+        // Comments unchanged, so they were not downloaded again
+        IssueMetadata downloaded = IssueMetadata.intermediate(new ArrayList<>(), new ArrayList<>(),
+                                                              "events2", "comments").full("test");
+        IssueMetadata updated = downloaded.reconcile(rightNow, existing.getEvents(), existing.getEventsETag(),
+                                                     existing.getComments(), existing.getCommentsETag());
+
+        assertEquals(new ArrayList<>(), updated.getEvents());
+        assertEquals(originalComments, updated.getComments());
+        assertEquals("events2", updated.getEventsETag());
+        assertEquals("comments", updated.getCommentsETag());
+        assertEquals(2, updated.getNonSelfCommentCount());
+
+        // Comments changed
+        List<Comment> newComments = stubComments();
+        newComments.remove(0);
+        downloaded = IssueMetadata.intermediate(new ArrayList<>(), newComments, "events", "comments2").full("test");
+        updated = downloaded.reconcile(rightNow, existing.getEvents(), existing.getEventsETag(),
+                                       existing.getComments(), existing.getCommentsETag());
+
+        assertEquals(originalEvents, updated.getEvents());
+        assertEquals(newComments, updated.getComments());
+        assertEquals("events", updated.getEventsETag());
+        assertEquals("comments2", updated.getCommentsETag());
+    }
+
     private static List<TurboIssueEvent> stubEvents() {
         List<TurboIssueEvent> events = new ArrayList<>();
         events.add(new TurboIssueEvent(new User().setLogin("test"), IssueEventType.Closed, now));
@@ -0,0 +1,148 @@
+package tests;
+
+import github.GitHubClientEx;
+import github.IssueServiceEx;
+import org.eclipse.egit.github.core.Issue;
+import org.eclipse.egit.github.core.RepositoryId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockserver.client.server.MockServerClient;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.model.Delay;
+import org.mockserver.model.Header;
+import org.mockserver.model.Parameter;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+public class IssueServiceExTests {
+
+    private static final String REPO = "hubturbo/hubturbo";
+    private static final String ISSUES_PATH = TestUtils.API_PREFIX + "/repos/" + REPO + "/issues";
+    private static final int PAGE_COUNT = 5;
+    private static final int ISSUES_PER_PAGE = 3;
+    private static final long LATENCY_MILLIS = 200;
+
+    private MockServerClient mockServer;
+    private IssueServiceEx service;
+
+    @Before
+    public void startMockServer() {
+        mockServer = ClientAndServer.startClientAndServer(8888);
+        service = new IssueServiceEx(new GitHubClientEx("localhost", 8888, "http"));
+    }
+
+    @After
+    public void stopMockServer() {
+        mockServer.stop();
+    }
+
+    /**
+     * Tests that all pages of issues are retrieved in order when the pages after the first are
+     * requested at the same time
+     */
+    @Test
+    public void getAllIssues_manyPages_concurrent() throws ExecutionException, InterruptedException {
+        for (int page = 1; page <= PAGE_COUNT; page++) {
+            respondWithPage(page, Integer.MAX_VALUE);
+        }
+        AtomicInteger received = new AtomicInteger();
+
+        List<Issue> issues = service.getAllIssues(
+                RepositoryId.createFromId(REPO), new HashMap<>(), IssueServiceEx.DEFAULT_PAGE_CONCURRENCY,
+                (page, estimatedTotal) -> assertTrue(received.addAndGet(page.size()) <= estimatedTotal)).get();
+
+        List<Integer> expected = IntStream.rangeClosed(1, PAGE_COUNT * ISSUES_PER_PAGE)
+                .boxed().collect(Collectors.toList());
+        assertEquals(expected, issues.stream().map(Issue::getNumber).collect(Collectors.toList()));
+        assertEquals(expected.size(), received.get());
+    }
+
+    /**
+     * Tests that no more pages are requested than remain in the rate limit given with the first page
+     */
+    @Test
+    public void getAllIssues_lowRateLimit_pagesLimited() throws ExecutionException, InterruptedException {
+        for (int page = 1; page <= PAGE_COUNT; page++) {
+            respondWithPage(page, 2);
+        }
+
+        List<Issue> issues = service.getAllIssues(
+                RepositoryId.createFromId(REPO), new HashMap<>(), IssueServiceEx.DEFAULT_PAGE_CONCURRENCY,
+                (page, estimatedTotal) -> {}).get();
+
+        assertEquals(3 * ISSUES_PER_PAGE, issues.size());
+    }
+
+    /**
+     * Tests that a page which cannot be retrieved after being requested again fails the whole request,
+     * rather than being left out of the result
+     */
+    @Test
+    public void getAllIssues_pageFails_fails() throws InterruptedException {
+        for (int page = 1; page <= PAGE_COUNT; page++) {
+            if (page == 3) {
+                mockServer.when(
+                        request()
+                                .withPath(ISSUES_PATH)
+                                .withQueryStringParameters(new Parameter("page", String.valueOf(page)))
+                ).respond(response().withStatusCode(500));
+            } else {
+                respondWithPage(page, Integer.MAX_VALUE);
+            }
+        }
+
+        try {
+            service.getAllIssues(RepositoryId.createFromId(REPO), new HashMap<>(),
+                                 IssueServiceEx.DEFAULT_PAGE_CONCURRENCY, (page, estimatedTotal) -> {}).get();
+            fail("Expected the issues not to be retrieved");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof UncheckedIOException);
+        }
+    }
+
+    private void respondWithPage(int page, int remainingRequests) {
+        List<String> issues = new ArrayList<>();
+        for (int i = 1; i <= ISSUES_PER_PAGE; i++) {
+            int number = (page - 1) * ISSUES_PER_PAGE + i;
+            issues.add(String.format("{\"number\": %d, \"title\": \"Issue %d\", \"state\": \"open\"}",
+                                     number, number));
+        }
+
+        List<Header> headers = new ArrayList<>();
+        headers.add(new Header("X-RateLimit-Remaining", String.valueOf(remainingRequests)));
+        headers.add(new Header("X-RateLimit-Reset",
+                               String.valueOf(TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + 3600)));
+        if (page < PAGE_COUNT) {
+            headers.add(new Header("Link", String.format("<%s>; rel=\"next\", <%s>; rel=\"last\"",
+                                                         getPageUri(page + 1), getPageUri(PAGE_COUNT))));
+        }
+
+        mockServer.when(
+                request()
+                        .withPath(ISSUES_PATH)
+                        .withQueryStringParameters(new Parameter("page", String.valueOf(page)))
+        ).respond(response()
+                          .withHeaders(headers.toArray(new Header[headers.size()]))
+                          .withBody("[" + String.join(", ", issues) + "]")
+                          .withDelay(new Delay(TimeUnit.MILLISECONDS, LATENCY_MILLIS)));
+    }
+
+    private static String getPageUri(int page) {
+        return String.format("http://localhost:8888%s?page=%d&per_page=100", ISSUES_PATH, page);
+    }
+}
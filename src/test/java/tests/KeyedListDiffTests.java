@@ -0,0 +1,156 @@
+package tests;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.Test;
+import util.KeyedListDiff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class KeyedListDiffTests {
+
+    private static class Item {
+        private final String key;
+        private final int version;
+
+        private Item(String key, int version) {
+            this.key = key;
+            this.version = version;
+        }
+
+        @Override
+        public String toString() {
+            return key + version;
+        }
+    }
+
+    /**
+     * Counts the items added and removed by the changes to an observable list
+     */
+    private static class ChangeCounter implements ListChangeListener<Item> {
+        private int added = 0;
+        private int removed = 0;
+        private int changes = 0;
+
+        @Override
+        public void onChanged(Change<? extends Item> change) {
+            changes++;
+            while (change.next()) {
+                added += change.getAddedSize();
+                removed += change.getRemovedSize();
+            }
+        }
+    }
+
+    @Test
+    public void apply_changedItem_onlyThatItemReplaced() {
+        List<Item> original = items("a1", "b1", "c1");
+        ObservableList<Item> target = FXCollections.observableArrayList(original);
+        ChangeCounter counter = new ChangeCounter();
+        target.addListener(counter);
+
+        apply(target, items("a1", "b2", "c1"));
+
+        assertEquals("[a1, b2, c1]", target.toString());
+        assertSame(original.get(0), target.get(0));
+        assertSame(original.get(2), target.get(2));
+        assertEquals(1, counter.added);
+        assertEquals(1, counter.removed);
+    }
+
+    @Test
+    public void apply_insertedAndRemovedItems_unchangedItemsKept() {
+        List<Item> original = items("a1", "b1", "c1", "d1", "e1");
+        ObservableList<Item> target = FXCollections.observableArrayList(original);
+        ChangeCounter counter = new ChangeCounter();
+        target.addListener(counter);
+
+        Map<String, Integer> indices = apply(target, items("x1", "a1", "d1", "e1", "y1"));
+
+        assertEquals("[x1, a1, d1, e1, y1]", target.toString());
+        assertSame(original.get(0), target.get(1));
+        assertSame(original.get(3), target.get(2));
+        assertSame(original.get(4), target.get(3));
+        assertEquals(2, counter.added);
+        assertEquals(2, counter.removed);
+        assertEquals(Integer.valueOf(2), indices.get("d"));
+    }
+
+    @Test
+    public void apply_movedItem_removedAndInsertedOnce() {
+        List<Item> original = items("a1", "b1", "c1", "d1");
+        ObservableList<Item> target = FXCollections.observableArrayList(original);
+        ChangeCounter counter = new ChangeCounter();
+        target.addListener(counter);
+
+        apply(target, items("d1", "a1", "b1", "c1"));
+
+        assertEquals("[d1, a1, b1, c1]", target.toString());
+        assertSame(original.get(3), target.get(0));
+        assertEquals(1, counter.added);
+        assertEquals(1, counter.removed);
+    }
+
+    @Test
+    public void apply_reversedList_replacedInOneChange() {
+        List<Item> original = new ArrayList<>();
+        for (int i = 0; i < KeyedListDiff.MAX_MOVES * 4; i++) {
+            original.add(new Item(String.valueOf(i), 1));
+        }
+        ObservableList<Item> target = FXCollections.observableArrayList(original);
+        ChangeCounter counter = new ChangeCounter();
+        target.addListener(counter);
+
+        List<Item> reversed = new ArrayList<>(original);
+        Collections.reverse(reversed);
+        apply(target, reversed.stream().map(item -> new Item(item.key, 1)).collect(Collectors.toList()));
+
+        assertEquals(reversed, target);
+        assertEquals(1, counter.changes);
+    }
+
+    @Test
+    public void apply_noCommonItems_allReplaced() {
+        List<Item> target = new ArrayList<>(items("a1", "b1"));
+        apply(target, items("c1", "d1", "e1"));
+        assertEquals("[c1, d1, e1]", target.toString());
+
+        apply(target, new ArrayList<>());
+        assertEquals("[]", target.toString());
+    }
+
+    @Test
+    public void apply_shuffledItems_matchesUpdatedList() {
+        List<Item> target = new ArrayList<>(items("a1", "b1", "c1", "d1", "e1", "f1"));
+        List<Item> updated = items("f1", "c2", "g1", "a1", "e2", "h1");
+
+        Map<String, Integer> indices = apply(target, updated);
+
+        assertEquals(updated.toString(), target.toString());
+        for (int i = 0; i < target.size(); i++) {
+            assertEquals(Integer.valueOf(i), indices.get(target.get(i).key));
+        }
+    }
+
+    private static Map<String, Integer> apply(List<Item> target, List<Item> updated) {
+        return KeyedListDiff.apply(target, updated, item -> item.key, (a, b) -> a.version == b.version);
+    }
+
+    /**
+     * Creates items from strings of a one-letter key followed by a version
+     */
+    private static List<Item> items(String... items) {
+        return Arrays.stream(items)
+                .map(item -> new Item(item.substring(0, 1), Integer.parseInt(item.substring(1))))
+                .collect(Collectors.toList());
+    }
+}
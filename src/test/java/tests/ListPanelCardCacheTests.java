@@ -0,0 +1,140 @@
+package tests;
+
+import backend.IssueMetadata;
+import backend.resource.TurboIssue;
+import backend.resource.TurboLabel;
+import filter.Parser;
+import filter.expression.Qualifier;
+import javafx.embed.swing.JFXPanel;
+import javafx.scene.Node;
+import javafx.scene.layout.HBox;
+import org.eclipse.egit.github.core.Comment;
+import org.eclipse.egit.github.core.User;
+import org.junit.Before;
+import org.junit.Test;
+import ui.GuiElement;
+import ui.issuepanel.FilterPanel;
+import ui.listpanel.ListPanelCard;
+import ui.listpanel.ListPanelCardCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ListPanelCardCacheTests {
+
+    private static final String REPO = "dummy/dummy";
+
+    private FilterPanel panel;
+
+    @Before
+    public void setup() {
+        // Building cards requires the JavaFX runtime to be started
+        new JFXPanel();
+        panel = mock(FilterPanel.class);
+        when(panel.getCurrentFilterExpression()).thenReturn(Qualifier.EMPTY);
+    }
+
+    /**
+     * Tests that the card of an issue is reused until something it displays changes
+     */
+    @Test
+    public void getCard_unchangedIssue_cardReused() {
+        ListPanelCardCache cache = new ListPanelCardCache();
+        TurboIssue issue = new TurboIssue(REPO, 1, "Issue");
+        GuiElement element = createElement(issue);
+
+        ListPanelCard card = cache.getCard(element, panel, new HashSet<>(), new HBox());
+        assertSame(card, cache.getCard(createElement(issue), panel, new HashSet<>(), new HBox()));
+
+        // Highlighting new comments changes the card
+        ListPanelCard highlighted = cache.getCard(element, panel, new HashSet<>(Arrays.asList(1)), new HBox());
+        assertNotSame(card, highlighted);
+
+        // So does changing the issue in place
+        issue.setCommentCount(3);
+        assertNotSame(highlighted, cache.getCard(element, panel, new HashSet<>(Arrays.asList(1)), new HBox()));
+
+        assertEquals(3, cache.getCardsBuilt());
+        assertEquals(1, cache.getCardsReused());
+        assertEquals(1, cache.getCardCount());
+    }
+
+    /**
+     * Tests that a card still displayed by one cell is not handed to another
+     */
+    @Test
+    public void getCard_cardDisplayedByAnotherCell_newCardBuilt() {
+        ListPanelCardCache cache = new ListPanelCardCache();
+        GuiElement element = createElement(new TurboIssue(REPO, 1, "Issue"));
+        HBox cell = new HBox();
+
+        ListPanelCard card = cache.getCard(element, panel, new HashSet<>(), cell);
+        cell.getChildren().add(card);
+
+        assertSame(card, cache.getCard(element, panel, new HashSet<>(), cell));
+        assertNotSame(card, cache.getCard(element, panel, new HashSet<>(), new HBox()));
+    }
+
+    /**
+     * Tests that the least recently used cards are discarded, and the nodes of their labels reused
+     */
+    @Test
+    public void getCard_pastMaxCards_labelNodesReused() {
+        ListPanelCardCache cache = new ListPanelCardCache(1);
+        TurboLabel label = new TurboLabel(REPO, "ff0000", "type.bug");
+
+        ListPanelCard first = cache.getCard(createElement(new TurboIssue(REPO, 1, "Issue"), label),
+                                            panel, new HashSet<>(), new HBox());
+        Node firstChip = getLabelChip(first);
+        ListPanelCard second = cache.getCard(createElement(new TurboIssue(REPO, 2, "Issue"), label),
+                                             panel, new HashSet<>(), new HBox());
+
+        assertEquals(1, cache.getCardCount());
+        assertSame(firstChip, getLabelChip(second));
+    }
+
+    /**
+     * Tests that the card of a panel filtering by update time is built again once a comment it displays
+     * is no longer within the filter
+     */
+    @Test
+    public void getCard_commentAgesOut_cardRebuilt() throws InterruptedException {
+        FilterPanel updatedPanel = mock(FilterPanel.class);
+        when(updatedPanel.getCurrentFilterExpression()).thenReturn(Parser.parse("updated:<24"));
+
+        Comment comment = new Comment();
+        comment.setUser(new User().setLogin("test"));
+        comment.setCreatedAt(new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(24) + 1000));
+        TurboIssue issue = new TurboIssue(REPO, 1, "Issue");
+        issue.setMetadata(IssueMetadata.intermediate(new ArrayList<>(), Arrays.asList(comment), "", ""));
+        GuiElement element = createElement(issue);
+
+        ListPanelCardCache cache = new ListPanelCardCache();
+        ListPanelCard card = cache.getCard(element, updatedPanel, new HashSet<>(), new HBox());
+        assertSame(card, cache.getCard(element, updatedPanel, new HashSet<>(), new HBox()));
+
+        Thread.sleep(1500);
+        assertNotSame(card, cache.getCard(element, updatedPanel, new HashSet<>(), new HBox()));
+    }
+
+    private static Node getLabelChip(ListPanelCard card) {
+        List<Node> details = ((javafx.scene.layout.Pane) card.getChildren().get(1)).getChildren();
+        return details.get(details.size() - 1);
+    }
+
+    private static GuiElement createElement(TurboIssue issue, TurboLabel... labels) {
+        return new GuiElement(issue, new ArrayList<>(Arrays.asList(labels)), Optional.empty(), Optional.empty(),
+                              Optional.empty());
+    }
+}
@@ -9,6 +9,7 @@ import backend.resource.TurboIssue;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InOrder;
+import org.mockito.Matchers;
 import prefs.Preferences;
 import ui.UI;
 import util.events.EventDispatcher;
@@ -20,6 +21,7 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
@@ -49,6 +51,7 @@ public class LogicTests {
     public void resetMockedObjects() {
         reset(mockedRepoIO);
         reset(mockedMultiModel);
+        when(mockedMultiModel.takeIssueChanges()).thenReturn(Optional.empty());
     }
 
     /**
@@ -420,6 +423,88 @@ public class LogicTests {
                 .replaceIssueAssignee(anyString(), anyInt(), any(Optional.class));
     }
 
+    /**
+     * Tests that label edits which are merged while queued are compared with the labels the issue had
+     * before the first of them, rather than with the issue itself, which the local edits change in place
+     */
+    @Test
+    public void replaceIssueLabels_editsMergedWhileQueued_lastEditSentToServer()
+            throws ExecutionException, InterruptedException {
+        String repoId = "testowner/testrepo";
+        MultiModel models = new MultiModel(mock(Preferences.class));
+        models.replace(new Model(repoId, new ArrayList<>(Arrays.asList(new TurboIssue(repoId, 1, "Issue title"))),
+                                 new ArrayList<>(), new ArrayList<>(), new ArrayList<>()));
+        TurboIssue issue = models.getIssues().get(0);
+
+        RepoIO repoIO = mock(RepoIO.class);
+        CompletableFuture<Boolean> milestoneReplaced = new CompletableFuture<>();
+        when(repoIO.replaceIssueMilestone(any(TurboIssue.class), Matchers.<Optional<Integer>>any()))
+                .thenReturn(milestoneReplaced);
+        when(repoIO.replaceIssueLabels(any(TurboIssue.class), anyListOf(String.class)))
+                .thenReturn(CompletableFuture.completedFuture(true));
+        Preferences prefs = mock(Preferences.class);
+        when(prefs.getLastViewedRepository()).thenReturn(Optional.empty());
+        Logic realModelLogic = new Logic(mock(UIManager.class), prefs, Optional.of(repoIO), Optional.of(models));
+
+        // Keeps the label edits queued until they have all been made, so that they are merged
+        CompletableFuture<Boolean> milestoneResult = realModelLogic.replaceIssueMilestone(issue, Optional.of(1));
+        List<CompletableFuture<Boolean>> labelResults = new ArrayList<>();
+        labelResults.add(realModelLogic.replaceIssueLabels(issue, Arrays.asList("a")));
+        labelResults.add(realModelLogic.replaceIssueLabels(issue, new ArrayList<>()));
+        labelResults.add(realModelLogic.replaceIssueLabels(issue, Arrays.asList("a")));
+        milestoneReplaced.complete(true);
+
+        assertTrue(milestoneResult.get());
+        for (CompletableFuture<Boolean> result : labelResults) {
+            assertTrue(result.get());
+        }
+        assertEquals(Arrays.asList("a"), issue.getLabels());
+        verify(repoIO, times(1)).replaceIssueLabels(any(TurboIssue.class), anyListOf(String.class));
+        verify(repoIO).replaceIssueLabels(issue, Arrays.asList("a"));
+    }
+
+    /**
+     * Tests that when label edits which are merged while queued fail on the server, the labels are reverted
+     * locally once, to those the issue had before the first of them
+     */
+    @Test
+    public void replaceIssueLabels_mergedEditsFail_revertedToLabelsBeforeFirstEdit()
+            throws ExecutionException, InterruptedException {
+        String repoId = "testowner/testrepo";
+        MultiModel models = new MultiModel(mock(Preferences.class));
+        TurboIssue originalIssue = new TurboIssue(repoId, 1, "Issue title");
+        originalIssue.setLabels(Arrays.asList("original"));
+        models.replace(new Model(repoId, new ArrayList<>(Arrays.asList(originalIssue)),
+                                 new ArrayList<>(), new ArrayList<>(), new ArrayList<>()));
+        TurboIssue issue = models.getIssues().get(0);
+
+        RepoIO repoIO = mock(RepoIO.class);
+        CompletableFuture<Boolean> milestoneReplaced = new CompletableFuture<>();
+        when(repoIO.replaceIssueMilestone(any(TurboIssue.class), Matchers.<Optional<Integer>>any()))
+                .thenReturn(milestoneReplaced);
+        when(repoIO.replaceIssueLabels(any(TurboIssue.class), anyListOf(String.class)))
+                .thenReturn(CompletableFuture.completedFuture(false));
+        Preferences prefs = mock(Preferences.class);
+        when(prefs.getLastViewedRepository()).thenReturn(Optional.empty());
+        Logic realModelLogic = new Logic(mock(UIManager.class), prefs, Optional.of(repoIO), Optional.of(models));
+
+        // Keeps the label edits queued until they have all been made, so that they are merged
+        CompletableFuture<Boolean> milestoneResult = realModelLogic.replaceIssueMilestone(issue, Optional.of(1));
+        List<CompletableFuture<Boolean>> labelResults = new ArrayList<>();
+        labelResults.add(realModelLogic.replaceIssueLabels(issue, Arrays.asList("a")));
+        labelResults.add(realModelLogic.replaceIssueLabels(issue, Arrays.asList("b")));
+        labelResults.add(realModelLogic.replaceIssueLabels(issue, Arrays.asList("a", "c")));
+        milestoneReplaced.complete(true);
+
+        assertTrue(milestoneResult.get());
+        for (CompletableFuture<Boolean> result : labelResults) {
+            assertFalse(result.get());
+        }
+        assertEquals(Arrays.asList("original"), issue.getLabels());
+        verify(repoIO, times(1)).replaceIssueLabels(any(TurboIssue.class), anyListOf(String.class));
+        verify(repoIO).replaceIssueLabels(issue, Arrays.asList("a", "c"));
+    }
+
     private void mockRepoIOReplaceIssueLabelsResult(boolean replaceResult) {
         when(mockedRepoIO.replaceIssueLabels(any(TurboIssue.class), anyListOf(String.class)))
                 .thenReturn(CompletableFuture.completedFuture(replaceResult));
@@ -1,9 +1,11 @@
 package tests;
 
 import backend.RepoIO;
+import backend.UpdateSignature;
 import backend.json.JSONStoreStub;
 import backend.resource.Model;
 import backend.resource.MultiModel;
+import backend.resource.TurboIssue;
 import backend.resource.TurboUser;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -15,8 +17,12 @@ import util.events.EventDispatcherStub;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.*;
@@ -70,6 +76,33 @@ public class MultiModelTest {
         assertEquals(false, models.getModelById(repoId2).isPresent());
     }
 
+    /**
+     * Tests that a partial model of a pending repository is shown until the full model is added, and that
+     * one which arrives once the repository is no longer pending is ignored
+     */
+    @Test
+    public void addProvisional_pendingRepo_replacedByFullModel() {
+        MultiModel models = new MultiModel(mock(Preferences.class));
+        TurboIssue issue = new TurboIssue(REPO, 1, "Issue");
+        Model partialModel = new Model(REPO, Arrays.asList(issue), new ArrayList<>(), new ArrayList<>(),
+                                       new ArrayList<>(), UpdateSignature.EMPTY);
+        assertFalse(models.addProvisional(partialModel));
+
+        models.queuePendingRepository(REPO);
+        assertTrue(models.addProvisional(partialModel));
+        assertEquals(partialModel, models.getModelById(REPO).get());
+        assertTrue(models.isRepositoryPending(REPO));
+
+        Model fullModel = new Model(REPO, Arrays.asList(issue, new TurboIssue(REPO, 2, "Another issue")),
+                                    new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), UpdateSignature.EMPTY);
+        models.addPending(fullModel);
+        assertEquals(fullModel, models.getModelById(REPO).get());
+        assertFalse(models.isRepositoryPending(REPO));
+
+        assertFalse(models.addProvisional(partialModel));
+        assertEquals(fullModel, models.getModelById(REPO).get());
+    }
+
     /**
      * Tests that replaceIssueLabels returns Optional.empty() if the model for the
      * issue given in the argument can't be found
@@ -240,4 +273,36 @@ public class MultiModelTest {
         models.replaceIssueAssignee(repoId, issueId, assignee);
         verify(mockedModel).replaceIssueAssignee(issueId, assignee);
     }
+
+    /**
+     * Tests that changes to individual issues are recorded until taken, and that other changes
+     * to the models are reported as such
+     */
+    @Test
+    public void takeIssueChanges() {
+        String repoId = "testowner/testrepo";
+        Model model = new Model(repoId, new ArrayList<>(Arrays.asList(
+                new TurboIssue(repoId, 1, "Issue 1"), new TurboIssue(repoId, 2, "Issue 2"))),
+                new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+
+        MultiModel models = new MultiModel(mock(Preferences.class));
+        models.queuePendingRepository(repoId);
+        models.addPending(model);
+        assertFalse(models.takeIssueChanges().isPresent());
+        assertEquals(Optional.of(new HashMap<>()), models.takeIssueChanges());
+
+        models.replaceIssueLabels(repoId, 1, new ArrayList<>());
+        models.editIssueState(repoId, 2, false);
+        Map<String, Set<Integer>> expected = new HashMap<>();
+        expected.put(repoId, new HashSet<>(Arrays.asList(1, 2)));
+        assertEquals(Optional.of(expected), models.takeIssueChanges());
+
+        models.replace(model, new HashSet<>(Arrays.asList(2)));
+        expected.put(repoId, new HashSet<>(Arrays.asList(2)));
+        assertEquals(Optional.of(expected), models.takeIssueChanges());
+
+        models.editIssueState(repoId, 1, true);
+        models.setDefaultRepo(repoId);
+        assertFalse(models.takeIssueChanges().isPresent());
+    }
 }
@@ -0,0 +1,179 @@
+package tests;
+
+import backend.control.AdaptiveRefreshPolicy;
+import backend.control.RefreshScheduler;
+import backend.control.RepoActivity;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RefreshSchedulerTests {
+
+    private static final long NOW = 1_000_000_000_000L;
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    private final AdaptiveRefreshPolicy policy = new AdaptiveRefreshPolicy();
+
+    private FakeClock clock;
+    private Set<String> openRepos;
+    private Set<String> changedRepos;
+    private List<Set<String>> refreshes;
+    private RefreshScheduler scheduler;
+
+    @Before
+    public void createScheduler() {
+        clock = new FakeClock(NOW);
+        openRepos = new HashSet<>(Arrays.asList("active/active", "quiet/quiet"));
+        changedRepos = new HashSet<>();
+        refreshes = new ArrayList<>();
+        scheduler = new RefreshScheduler(policy, clock, () -> openRepos, repoIds -> {
+            refreshes.add(repoIds);
+            Set<String> changed = new HashSet<>(repoIds);
+            changed.retainAll(changedRepos);
+            return CompletableFuture.completedFuture(changed);
+        }, schedule -> {});
+    }
+
+    @Test
+    public void getRefreshIntervals_quietRepos_backOff() {
+        Map<String, Long> intervals = policy.getRefreshIntervals(Arrays.asList(
+                new RepoActivity("changed/now", NOW, true),
+                new RepoActivity("quiet/15min", NOW - 15 * MINUTE, true),
+                new RepoActivity("quiet/25min", NOW - 25 * MINUTE, true),
+                new RepoActivity("quiet/day", NOW - 24 * 60 * MINUTE, true)), Optional.empty(), NOW);
+
+        assertEquals(AdaptiveRefreshPolicy.MIN_INTERVAL, (long) intervals.get("changed/now"));
+        assertEquals(2 * AdaptiveRefreshPolicy.BASE_INTERVAL, (long) intervals.get("quiet/15min"));
+        assertEquals(4 * AdaptiveRefreshPolicy.BASE_INTERVAL, (long) intervals.get("quiet/25min"));
+        assertEquals(AdaptiveRefreshPolicy.MAX_INTERVAL, (long) intervals.get("quiet/day"));
+    }
+
+    @Test
+    public void getRefreshIntervals_notVisible_refreshedLessOften() {
+        Map<String, Long> intervals = policy.getRefreshIntervals(Arrays.asList(
+                new RepoActivity("visible/visible", NOW, true),
+                new RepoActivity("hidden/hidden", NOW, false)), Optional.empty(), NOW);
+
+        assertTrue(intervals.get("hidden/hidden") > intervals.get("visible/visible"));
+    }
+
+    @Test
+    public void getRefreshIntervals_lowRateLimit_fitsRemainingRequests() {
+        List<RepoActivity> repos = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            repos.add(new RepoActivity("repo/" + i, NOW, true));
+        }
+        long timeToReset = 60 * MINUTE;
+        int remaining = AdaptiveRefreshPolicy.RESERVED_REQUESTS + 1000;
+
+        // Few enough to refresh at the minimum interval until the reset
+        Map<String, Long> plentiful = policy.getRefreshIntervals(
+                repos.subList(0, 2), Optional.of(new ImmutablePair<>(5000, NOW + timeToReset)), NOW);
+        assertEquals(AdaptiveRefreshPolicy.MIN_INTERVAL, (long) plentiful.get("repo/0"));
+
+        Map<String, Long> limited = policy.getRefreshIntervals(
+                repos, Optional.of(new ImmutablePair<>(remaining, NOW + timeToReset)), NOW);
+        double requestsUntilReset = limited.values().stream()
+                .mapToDouble(interval -> AdaptiveRefreshPolicy.REQUESTS_PER_REFRESH * (double) timeToReset / interval)
+                .sum();
+        assertTrue(limited.get("repo/0") > AdaptiveRefreshPolicy.MIN_INTERVAL);
+        assertTrue(requestsUntilReset <= remaining - AdaptiveRefreshPolicy.RESERVED_REQUESTS);
+
+        Map<String, Long> exhausted = policy.getRefreshIntervals(
+                repos, Optional.of(new ImmutablePair<>(10, NOW + timeToReset)), NOW);
+        assertEquals(timeToReset, (long) exhausted.get("repo/0"));
+    }
+
+    @Test
+    public void tick_reposDue_refreshedAccordingToActivity() {
+        scheduler.tick();
+        assertTrue(refreshes.isEmpty());
+
+        // Both were just opened, so are refreshed at the minimum interval
+        clock.advance(AdaptiveRefreshPolicy.MIN_INTERVAL);
+        changedRepos.add("active/active");
+        scheduler.tick();
+        assertEquals(Collections.singletonList(openRepos), refreshes);
+
+        // Past the active period, only the repository that keeps changing is still refreshed as often
+        for (int i = 0; i < 15; i++) {
+            clock.advance(AdaptiveRefreshPolicy.MIN_INTERVAL);
+            scheduler.tick();
+        }
+        long activeRefreshes = refreshes.stream().filter(repoIds -> repoIds.contains("active/active")).count();
+        long quietRefreshes = refreshes.stream().filter(repoIds -> repoIds.contains("quiet/quiet")).count();
+        assertEquals(16, activeRefreshes);
+        assertTrue(quietRefreshes < activeRefreshes);
+
+        Map<String, Integer> schedule = scheduler.getSchedule();
+        assertTrue(schedule.get("quiet/quiet") > schedule.get("active/active"));
+    }
+
+    @Test
+    public void refreshAll_refreshedOnNextTick() {
+        scheduler.tick();
+        scheduler.refreshAll();
+        scheduler.tick();
+
+        assertEquals(Collections.singletonList(openRepos), refreshes);
+    }
+
+    @Test
+    public void tick_repoClosed_notRefreshed() {
+        scheduler.tick();
+        openRepos = new HashSet<>(Collections.singletonList("active/active"));
+        clock.advance(AdaptiveRefreshPolicy.MIN_INTERVAL);
+        scheduler.tick();
+
+        assertEquals(Collections.singletonList(openRepos), refreshes);
+        assertEquals(openRepos, scheduler.getSchedule().keySet());
+    }
+
+    /**
+     * A clock that only moves when told to.
+     */
+    private static class FakeClock extends Clock {
+        private long millis;
+
+        FakeClock(long millis) {
+            this.millis = millis;
+        }
+
+        void advance(long duration) {
+            millis += duration;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
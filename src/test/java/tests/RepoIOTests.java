@@ -2,22 +2,65 @@ package tests;
 
 import backend.IssueMetadata;
 import backend.RepoIO;
+import backend.UpdateSignature;
+import backend.control.RepoOpControl;
 import backend.interfaces.RepoSource;
+import backend.json.JSONStore;
+import backend.json.JSONStoreStub;
+import backend.resource.Model;
+import backend.resource.MultiModel;
 import backend.resource.TurboIssue;
+import backend.resource.serialization.SerializableModel;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import prefs.Preferences;
+import ui.TestController;
+import ui.UI;
+import ui.components.StatusUIStub;
+import util.events.EventDispatcherStub;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.*;
 
 public class RepoIOTests {
+    /**
+     * Tests that partial models of a repository being downloaded are handed to the consumer,
+     * but only the full model is saved to the store
+     */
+    @Test
+    public void openRepository_downloading_partialModelsNotStored() throws ExecutionException, InterruptedException {
+        UI.events = new EventDispatcherStub();
+        UI.status = new StatusUIStub();
+        JSONStore store = spy(new JSONStoreStub());
+        RepoIO repoIO = TestController.createTestingRepoIO(Optional.of(store));
+        repoIO.setRepoOpControl(new RepoOpControl(repoIO, new MultiModel(mock(Preferences.class))));
+
+        List<Model> partialModels = Collections.synchronizedList(new ArrayList<>());
+        Model model = repoIO.openRepository("dummy/dummy", partialModels::add).get();
+
+        assertFalse(partialModels.isEmpty());
+        partialModels.forEach(partialModel -> {
+            assertEquals(UpdateSignature.EMPTY, partialModel.getUpdateSignature());
+            assertTrue(partialModel.getIssues().size() <= model.getIssues().size());
+        });
+        ArgumentCaptor<SerializableModel> saved = ArgumentCaptor.forClass(SerializableModel.class);
+        verify(store, times(1)).saveRepository(eq("dummy/dummy"), saved.capture());
+        assertNotEquals(UpdateSignature.EMPTY, saved.getValue().updateSignature);
+    }
+
     /**
      * Tests that RepoIO's getIssueMetadata calls RepoSource's downloadMetaData method and
      * receives a corresponding CompletableFuture response
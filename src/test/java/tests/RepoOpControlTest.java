@@ -2,6 +2,7 @@ package tests;
 
 import backend.RepoIO;
 import backend.control.RepoOpControl;
+import backend.control.RepoOpStats;
 import backend.github.GitHubModelUpdatesData;
 import backend.github.GitHubRepoTask;
 import backend.interfaces.Repo;
@@ -15,19 +16,36 @@ import util.AtomicMaxInteger;
 import util.Futures;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class RepoOpControlTest {
@@ -213,6 +231,136 @@ public class RepoOpControlTest {
         assertEquals(true, result);
     }
 
+    /**
+     * Tests that edits to the same field of an issue that are queued behind another operation are merged,
+     * so that only the last is sent to the server, and that the results of all of them are completed
+     */
+    @Test
+    public void mergeQueuedEditsOnServer() throws ExecutionException, InterruptedException {
+        RepoIO repoIO = stubbedRepoIO(new AtomicMaxInteger(0));
+        when(repoIO.replaceIssueLabels(any(TurboIssue.class), any()))
+                .thenReturn(CompletableFuture.completedFuture(true));
+        when(repoIO.editIssueState(any(TurboIssue.class), anyBoolean()))
+                .thenReturn(CompletableFuture.completedFuture(true));
+        RepoOpControl control = new RepoOpControl(repoIO, mock(MultiModel.class));
+
+        // Keeps the following edits queued
+        CompletableFuture<Model> opened = control.openRepository(REPO);
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        results.add(control.replaceIssueLabelsOnServer(issue, Arrays.asList("a")));
+        results.add(control.editIssueStateOnServer(issue, false));
+        results.add(control.replaceIssueLabelsOnServer(issue, Arrays.asList("a", "b")));
+        results.add(control.replaceIssueLabelsOnServer(issue, Arrays.asList("b")));
+
+        opened.get();
+        assertEquals(Arrays.asList(true, true, true, true), Futures.sequence(results).get());
+        verify(repoIO, times(1)).replaceIssueLabels(any(TurboIssue.class), any());
+        verify(repoIO).replaceIssueLabels(issue, Arrays.asList("b"));
+        verify(repoIO).editIssueState(issue, false);
+    }
+
+    /**
+     * Tests that queued edits which undo each other are not sent to the server at all
+     */
+    @Test
+    public void dropQueuedEditsThatUndoEachOther() throws ExecutionException, InterruptedException {
+        RepoIO repoIO = stubbedRepoIO(new AtomicMaxInteger(0));
+        RepoOpControl control = new RepoOpControl(repoIO, mock(MultiModel.class));
+
+        CompletableFuture<Model> opened = control.openRepository(REPO);
+        CompletableFuture<Boolean> closed = control.editIssueStateOnServer(issue, false);
+        CompletableFuture<Boolean> reopened = control.editIssueStateOnServer(issue, true);
+
+        opened.get();
+        assertTrue(closed.get());
+        assertTrue(reopened.get());
+        verify(repoIO, never()).editIssueState(any(TurboIssue.class), anyBoolean());
+    }
+
+    /**
+     * Tests that consecutive model updates queued behind another operation are applied as one
+     */
+    @Test
+    public void mergeConsecutiveModelUpdates() throws ExecutionException, InterruptedException {
+        RepoIO repoIO = stubbedRepoIO(new AtomicMaxInteger(0));
+        MultiModel models = mock(MultiModel.class);
+        when(models.getModelById(REPO)).thenReturn(Optional.of(new Model(REPO)));
+        RepoOpControl control = new RepoOpControl(repoIO, models);
+
+        CompletableFuture<Model> opened = control.openRepository(REPO);
+        CompletableFuture<Model> first = control.updateLocalModel(createEmptyModelUpdatesData(new Model(REPO)), true);
+        CompletableFuture<Model> second = control.updateLocalModel(createEmptyModelUpdatesData(new Model(REPO)), true);
+
+        opened.get();
+        assertSame(first.get(), second.get());
+        verify(models, times(1)).replace(any(Model.class), any());
+    }
+
+    /**
+     * Hammers many repositories with operations from several threads at once, checking that operations
+     * on each repository never overlap, that all of them complete without a thread per repository, and
+     * that the queues are removed once idle
+     */
+    @Test
+    public void stressManyRepos() throws ExecutionException, InterruptedException {
+        int repoCount = 100;
+        int opsPerRepo = 20;
+        ScheduledExecutorService delays = Executors.newScheduledThreadPool(4);
+        Map<String, AtomicInteger> inProgress = new ConcurrentHashMap<>();
+        AtomicInteger maxInProgress = new AtomicInteger();
+        // The metrics of the first repository, a new one each time its queue is created
+        Set<RepoOpStats> firstRepoStats = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        AtomicReference<RepoOpControl> controlRef = new AtomicReference<>();
+
+        RepoIO repoIO = mock(RepoIO.class);
+        when(repoIO.openRepository(anyString(), any())).then(invocation -> {
+            String opRepoId = (String) invocation.getArguments()[0];
+            if (opRepoId.equals(REPO + 0)) {
+                firstRepoStats.add(controlRef.get().getStats(opRepoId).get());
+            }
+            AtomicInteger repoInProgress = inProgress.computeIfAbsent(opRepoId, repoId -> new AtomicInteger());
+            maxInProgress.accumulateAndGet(repoInProgress.incrementAndGet(), Math::max);
+            CompletableFuture<Model> result = new CompletableFuture<>();
+            delays.schedule(() -> {
+                repoInProgress.decrementAndGet();
+                result.complete(new Model(REPO));
+            }, 1, TimeUnit.MILLISECONDS);
+            return result;
+        });
+        RepoOpControl control = new RepoOpControl(repoIO, mock(MultiModel.class));
+        controlRef.set(control);
+        int threadsBefore = Thread.activeCount();
+
+        List<CompletableFuture<Model>> futures = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < opsPerRepo; i++) {
+            for (int repo = 0; repo < repoCount; repo++) {
+                String repoId = REPO + repo;
+                callers.execute(() -> futures.add(control.openRepository(repoId)));
+            }
+        }
+        callers.shutdown();
+        assertTrue(callers.awaitTermination(10, TimeUnit.SECONDS));
+        Futures.sequence(futures).get();
+
+        assertEquals(repoCount * opsPerRepo, futures.size());
+        assertEquals(1, maxInProgress.get());
+        assertTrue(Thread.activeCount() - threadsBefore < repoCount / 2);
+        for (int i = 0; i < 100 && control.getActiveQueueCount() > 0; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, control.getActiveQueueCount());
+        assertFalse(control.getStats(REPO + 0).isPresent());
+
+        assertEquals(opsPerRepo, firstRepoStats.stream().mapToLong(RepoOpStats::getCompletedOps).sum());
+        for (RepoOpStats stats : firstRepoStats) {
+            assertEquals(0, stats.getQueueDepth());
+            logger.info(String.format("%d operations on each of %d repositories: %s (first repository)",
+                                      opsPerRepo, repoCount, stats.summarise()));
+        }
+        delays.shutdown();
+    }
+
     /**
      * Creates a stub RepoIO with artificial delay for various operations, and
      * which increments a value for purposes of verifying behaviour.
@@ -224,7 +372,7 @@ public class RepoOpControlTest {
         when(stub.replaceIssueMilestone(issue, milestone))
                 .then(invocation -> createResult(counter, new TurboIssue("dummy/dummy", 1, "Issue title")));
 
-        when(stub.openRepository(REPO))
+        when(stub.openRepository(eq(REPO), any()))
                 .then(invocation -> createResult(counter, new Model(REPO)));
         when(stub.removeRepository(REPO))
                 .then(invocation -> createResult(counter, true));
@@ -232,7 +380,7 @@ public class RepoOpControlTest {
                 .then(invocation -> createResult(counter, new Model(REPO)));
 
         for (int i = 0; i < 3; i++) {
-            when(stub.openRepository(REPO + i))
+            when(stub.openRepository(eq(REPO + i), any()))
                     .then(invocation -> createResult(counter, new Model(REPO)));
             when(stub.removeRepository(REPO + i))
                     .then(invocation -> createResult(counter, true));
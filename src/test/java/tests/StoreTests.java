@@ -1,10 +1,13 @@
 package tests;
 
 import backend.RepoIO;
+import backend.UpdateSignature;
 import backend.interfaces.RepoStore;
 import backend.json.JSONStore;
 import backend.json.JSONStoreStub;
 import backend.resource.Model;
+import backend.resource.TurboIssue;
+import backend.resource.serialization.SerializableModel;
 import backend.stub.DummyRepoState;
 import guitests.UITest;
 
@@ -15,16 +18,27 @@ import org.junit.Test;
 import ui.TestController;
 import ui.UI;
 import ui.components.StatusUIStub;
+import util.Utility;
 import util.events.EventDispatcherStub;
 import util.events.testevents.UpdateDummyRepoEvent;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class StoreTests {
@@ -152,6 +166,244 @@ public class StoreTests {
         assertEquals(false, Files.exists(Paths.get("store/test/dummy1-dummy1.json")));
     }
 
+    @Test
+    public void testIncrementalSave() throws InterruptedException, ExecutionException {
+        String repoId = "testrepo/testrepo";
+        Model model = TestUtils.createLargeModel(repoId, 50, 5, 2, 3);
+        JSONStore jsonStore = new JSONStore();
+        jsonStore.saveRepository(repoId, new SerializableModel(model)).get();
+
+        File repoFile = new File(RepoStore.getRepoPath(repoId).get());
+        File logFile = new File(RepoStore.getRepoLogPath(repoId).get());
+        long repoSize = repoFile.length();
+        assertFalse(logFile.exists());
+
+        // Change one issue, remove another and add a new one
+        List<TurboIssue> issues = model.getIssues();
+        issues.get(0).setTitle("Changed title");
+        issues.removeIf(issue -> issue.getId() == 50);
+        issues.add(new TurboIssue(repoId, 51, "New issue"));
+        Model changed = new Model(repoId, issues, model.getLabels(), model.getMilestones(), model.getUsers());
+        jsonStore.saveRepository(repoId, new SerializableModel(changed)).get();
+
+        // Only the change log should have been written to
+        assertEquals(repoSize, repoFile.length());
+        assertTrue(logFile.exists());
+        assertTrue(logFile.length() < repoSize);
+
+        Model loaded = new JSONStore().loadRepository(repoId).get();
+        assertEquals(50, loaded.getIssues().size());
+        assertEquals("Changed title", loaded.getIssueById(1).get().getTitle());
+        assertFalse(loaded.getIssueById(50).isPresent());
+        assertEquals("New issue", loaded.getIssueById(51).get().getTitle());
+        assertEquals(model.getLabels(), loaded.getLabels());
+    }
+
+    @Test
+    public void testLogCompaction() throws InterruptedException, ExecutionException {
+        String repoId = "testrepo/testrepo";
+        Model model = TestUtils.createLargeModel(repoId, 50, 5, 2, 3);
+        JSONStore jsonStore = new JSONStore();
+        jsonStore.saveRepository(repoId, new SerializableModel(model)).get();
+        File logFile = new File(RepoStore.getRepoLogPath(repoId).get());
+
+        // Changing every issue produces a log comparable in size to the store file...
+        model.getIssues().forEach(issue -> issue.setTitle("First change"));
+        jsonStore.saveRepository(repoId, new SerializableModel(model)).get();
+        assertTrue(logFile.exists());
+
+        // ...so the next save folds it back into the store file
+        model.getIssues().forEach(issue -> issue.setTitle("Second change"));
+        jsonStore.saveRepository(repoId, new SerializableModel(model)).get();
+        assertFalse(logFile.exists());
+
+        Model loaded = new JSONStore().loadRepository(repoId).get();
+        assertEquals(50, loaded.getIssues().size());
+        assertTrue(loaded.getIssues().stream().allMatch(issue -> issue.getTitle().equals("Second change")));
+    }
+
+    /**
+     * Tests that a change log left behind by a compaction interrupted after the new store file was moved
+     * into place is not replayed onto it
+     */
+    @Test
+    public void testStaleLogDiscarded() throws InterruptedException, ExecutionException, IOException {
+        String repoId = "testrepo/testrepo";
+        Model model = TestUtils.createLargeModel(repoId, 50, 5, 2, 3);
+        JSONStore jsonStore = new JSONStore();
+        jsonStore.saveRepository(repoId, new SerializableModel(model)).get();
+        Path logPath = Paths.get(RepoStore.getRepoLogPath(repoId).get());
+
+        model.getIssues().forEach(issue -> issue.setTitle("First change"));
+        jsonStore.saveRepository(repoId, new SerializableModel(model)).get();
+        byte[] staleLog = Files.readAllBytes(logPath);
+
+        model.getIssues().forEach(issue -> issue.setTitle("Second change"));
+        jsonStore.saveRepository(repoId, new SerializableModel(model)).get();
+        assertFalse(Files.exists(logPath));
+        assertFalse(Files.exists(Paths.get(RepoStore.getRepoPath(repoId).get() + ".tmp")));
+
+        // As if the compaction had been interrupted before the log was deleted
+        Files.write(logPath, staleLog);
+
+        Model loaded = new JSONStore().loadRepository(repoId).get();
+        assertTrue(loaded.getIssues().stream().allMatch(issue -> issue.getTitle().equals("Second change")));
+        assertFalse(Files.exists(logPath));
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void testCorruptedLog() throws InterruptedException, ExecutionException {
+        String repoId = "testrepo/testrepo";
+        JSONStore jsonStore = new JSONStore();
+        jsonStore.saveRepository(repoId, new SerializableModel(TestUtils.createLargeModel(repoId, 5, 1, 1, 1))).get();
+        Utility.writeFile(RepoStore.getRepoLogPath(repoId).get(), "{\"kind\":\"issue\",\"value\":", 0);
+
+        new JSONStore().loadRepository(repoId).get();
+    }
+
+    @Test
+    public void testBinarySnapshot() throws InterruptedException, ExecutionException {
+        String repoId = "testrepo/testrepo";
+        Model model = TestUtils.createLargeModel(repoId, 50, 5, 2, 3);
+        JSONStore binaryStore = new JSONStore(true);
+        binaryStore.saveRepository(repoId, new SerializableModel(model)).get();
+
+        assertTrue(new File(RepoStore.getRepoSnapshotPath(repoId).get()).exists());
+        assertFalse(new File(RepoStore.getRepoPath(repoId).get()).exists());
+        assertEquals(1, binaryStore.getStoredRepos().size());
+        assertEquals(repoId, binaryStore.getStoredRepos().get(0));
+
+        Model loaded = new JSONStore(true).loadRepository(repoId).get();
+        assertEquals(new SerializableModel(model).issues, new SerializableModel(loaded).issues);
+        assertEquals(model.getLabels(), loaded.getLabels());
+        assertEquals(model.getMilestones(), loaded.getMilestones());
+        assertEquals(model.getUsers(), loaded.getUsers());
+    }
+
+    /**
+     * Tests that a repository stored as a binary snapshot is converted back to JSON when loaded by a store
+     * with snapshots turned off
+     */
+    @Test
+    public void testBinarySnapshotConvertedToJson() throws InterruptedException, ExecutionException {
+        String repoId = "testrepo/testrepo";
+        Model model = TestUtils.createLargeModel(repoId, 20, 3, 2, 3);
+        new JSONStore(true).saveRepository(repoId, new SerializableModel(model)).get();
+
+        Model loaded = new JSONStore().loadRepository(repoId).get();
+        assertEquals(new SerializableModel(model).issues, new SerializableModel(loaded).issues);
+        assertTrue(new File(RepoStore.getRepoPath(repoId).get()).exists());
+        assertFalse(new File(RepoStore.getRepoSnapshotPath(repoId).get()).exists());
+
+        loaded = new JSONStore().loadRepository(repoId).get();
+        assertEquals(new SerializableModel(model).issues, new SerializableModel(loaded).issues);
+    }
+
+    /**
+     * Tests that the pull request cursor of the update signature is kept by both kinds of store
+     */
+    @Test
+    public void testPullRequestsCursorStored() throws InterruptedException, ExecutionException {
+        Date cursor = new Date(1_450_000_000_000L);
+        for (boolean useBinarySnapshots : Arrays.asList(false, true)) {
+            String repoId = useBinarySnapshots ? "testrepo/binary" : "testrepo/json";
+            Model large = TestUtils.createLargeModel(repoId, 5, 1, 1, 1);
+            UpdateSignature signature = new UpdateSignature("issues", "labels", "milestones", "users",
+                                                            new Date(), cursor);
+            Model model = new Model(repoId, large.getIssues(), large.getLabels(), large.getMilestones(),
+                                    large.getUsers(), signature);
+
+            new JSONStore(useBinarySnapshots).saveRepository(repoId, new SerializableModel(model)).get();
+            Model loaded = new JSONStore(useBinarySnapshots).loadRepository(repoId).get();
+            assertEquals(cursor, loaded.getUpdateSignature().pullRequestsCursor);
+        }
+    }
+
+    @Test
+    public void testMigrationToBinarySnapshot() throws InterruptedException, ExecutionException {
+        String repoId = "testrepo/testrepo";
+        Model model = TestUtils.createLargeModel(repoId, 50, 5, 2, 3);
+        new JSONStore().saveRepository(repoId, new SerializableModel(model)).get();
+        assertTrue(new File(RepoStore.getRepoPath(repoId).get()).exists());
+
+        // A JSON store file is converted the first time it is loaded by a store using snapshots
+        Model loaded = new JSONStore(true).loadRepository(repoId).get();
+        assertEquals(50, loaded.getIssues().size());
+        assertFalse(new File(RepoStore.getRepoPath(repoId).get()).exists());
+        assertTrue(new File(RepoStore.getRepoSnapshotPath(repoId).get()).exists());
+
+        // and converted back if snapshots are turned off again
+        loaded = new JSONStore().loadRepository(repoId).get();
+        assertEquals(50, loaded.getIssues().size());
+        assertTrue(new File(RepoStore.getRepoPath(repoId).get()).exists());
+        assertFalse(new File(RepoStore.getRepoSnapshotPath(repoId).get()).exists());
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void testCorruptedBinarySnapshot() throws InterruptedException, ExecutionException {
+        String repoId = "testrepo/testrepo";
+        new JSONStore(true).saveRepository(repoId, new SerializableModel(
+                TestUtils.createLargeModel(repoId, 50, 5, 2, 3))).get();
+        Utility.writeFile(RepoStore.getRepoSnapshotPath(repoId).get(), "abcde", 0);
+
+        new JSONStore(true).loadRepository(repoId).get();
+    }
+
+    @Test
+    public void testStoredReposFromIndex() throws InterruptedException, ExecutionException, IOException {
+        String repoId = "testrepo/testrepo";
+        new JSONStore().saveRepository(repoId, new SerializableModel(
+                TestUtils.createLargeModel(repoId, 50, 5, 2, 3))).get();
+        assertEquals(Arrays.asList(repoId), new JSONStore().getStoredRepos());
+        assertTrue(new File(RepoStore.TEST_DIRECTORY, "repos.index").exists());
+
+        // An indexed store file is not read again while its size and modification time are unchanged,
+        // so overwriting it with the same number of bytes goes unnoticed
+        File repoFile = new File(RepoStore.getRepoPath(repoId).get());
+        long lastModified = repoFile.lastModified();
+        byte[] garbage = new byte[(int) repoFile.length()];
+        Arrays.fill(garbage, (byte) 'x');
+        Files.write(repoFile.toPath(), garbage);
+        assertTrue(repoFile.setLastModified(lastModified));
+        assertEquals(Arrays.asList(repoId), new JSONStore().getStoredRepos());
+
+        // Once either changes, the file is read and found to be invalid
+        assertTrue(repoFile.setLastModified(lastModified - 10000));
+        assertTrue(new JSONStore().getStoredRepos().isEmpty());
+
+        // Removed files are dropped from the index
+        new JSONStore().saveRepository(repoId, new SerializableModel(
+                TestUtils.createLargeModel(repoId, 50, 5, 2, 3))).get();
+        assertEquals(1, new JSONStore().getStoredRepos().size());
+        new JSONStore().removeStoredRepo(repoId).get();
+        assertTrue(new JSONStore().getStoredRepos().isEmpty());
+    }
+
+    @Test
+    public void testParallelLoad() throws InterruptedException, ExecutionException {
+        List<String> repoIds = Arrays.asList("test1/test1", "test2/test2", "test3/test3", "test4/test4");
+        JSONStore jsonStore = new JSONStore(true);
+        for (String repoId : repoIds) {
+            jsonStore.saveRepository(repoId, new SerializableModel(
+                    TestUtils.createLargeModel(repoId, 2000, 20, 5, 10))).get();
+        }
+        assertEquals(new HashSet<>(repoIds), new HashSet<>(jsonStore.getStoredRepos()));
+
+        // Loads of different repositories run concurrently, while a save queued behind a load of the
+        // same repository still only runs after the load is done
+        JSONStore freshStore = new JSONStore(true);
+        List<CompletableFuture<Model>> loads = repoIds.stream()
+                .map(freshStore::loadRepository)
+                .collect(Collectors.toList());
+        CompletableFuture<Boolean> save = freshStore.saveRepository(repoIds.get(0), new SerializableModel(
+                TestUtils.createLargeModel(repoIds.get(0), 10, 20, 5, 10)));
+        for (int i = 0; i < repoIds.size(); i++) {
+            assertEquals(2000, loads.get(i).get().getIssues().size());
+        }
+        assertFalse(save.get());
+        assertEquals(10, new JSONStore(true).loadRepository(repoIds.get(0)).get().getIssues().size());
+    }
+
     @After
     public void cleanup() {
         UITest.clearTestFolder();
@@ -11,6 +11,7 @@ import ui.TestController;
 import ui.UI;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -78,7 +79,7 @@ public final class TestUtils {
     }
 
     /**
-     * Wrapper for Thread.sleep. Taken from TickingTimerTests.
+     * Wrapper for Thread.sleep.
      *
      * @param seconds The number of seconds for the thread to sleep.
      */
@@ -167,6 +168,48 @@ public final class TestUtils {
         runnable.run();
     }
 
+    /**
+     * Creates a model of the given size, for tests and benchmarks that need a realistically large repository.
+     * Issue i carries two labels, a milestone and an assignee, chosen round-robin from the model's
+     * labels, milestones and users; half of the issues are closed.
+     */
+    public static Model createLargeModel(String repoId, int issueCount, int labelCount,
+                                         int milestoneCount, int userCount) {
+        List<TurboLabel> labels = new ArrayList<>();
+        for (int i = 0; i < labelCount; i++) {
+            labels.add(new TurboLabel(repoId, "group" + i % 10 + ".label" + i));
+        }
+        List<TurboMilestone> milestones = new ArrayList<>();
+        for (int i = 1; i <= milestoneCount; i++) {
+            milestones.add(new TurboMilestone(repoId, i, "V0." + i));
+        }
+        List<TurboUser> users = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            users.add(new TurboUser(repoId, "user" + i, "User " + i));
+        }
+        List<TurboIssue> issues = new ArrayList<>();
+        LocalDateTime updatedAt = LocalDateTime.of(2015, 1, 1, 0, 0);
+        for (int i = 1; i <= issueCount; i++) {
+            String creator = userCount > 0 ? users.get((i * 3) % userCount).getLoginName() : "creator";
+            TurboIssue issue = new TurboIssue(repoId, i, "Issue " + i, creator, updatedAt, false);
+            issue.setDescription("Description of issue " + i);
+            issue.setUpdatedAt(updatedAt.plusMinutes(i));
+            issue.setOpen(i % 2 == 0);
+            if (labelCount > 0) {
+                issue.setLabels(new ArrayList<>(Arrays.asList(labels.get(i % labelCount).getFullName(),
+                                                              labels.get((i * 7) % labelCount).getFullName())));
+            }
+            if (milestoneCount > 0) {
+                issue.setMilestone(milestones.get(i % milestoneCount));
+            }
+            if (userCount > 0) {
+                issue.setAssignee(users.get(i % userCount));
+            }
+            issues.add(issue);
+        }
+        return new Model(repoId, issues, labels, milestones, users);
+    }
+
     /**
      * Creates a RepoOpControl instance with a mocked MultiModel which contains no Model i.e.
      * the models return an empty Optional when its getModelById method is called.
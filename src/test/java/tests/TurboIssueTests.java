@@ -196,4 +196,33 @@ public class TurboIssueTests {
                                                             Arrays.asList(updatedIssue));
         assertEquals(originalLabels, updatedList.get(0).getLabels());
     }
+
+    /**
+     * Tests that reconciling many changed issues and pull requests at once gives the same result as
+     * reconciling them one at a time
+     */
+    @Test
+    public void reconcile_manyChanges_sameAsOneAtATime() {
+        List<TurboIssue> existing = TestUtils.createLargeModel(REPO, 100, 10, 2, 5).getIssues();
+        LocalDateTime updatedAt = LocalDateTime.of(2016, 1, 1, 0, 0);
+        List<TurboIssue> changed = new ArrayList<>();
+        for (int id = 100; id <= 140; id += 4) {
+            changed.add(new TurboIssue(REPO, id, "Updated issue " + id, "user1", updatedAt, false));
+        }
+        List<PullRequest> pullRequests = new ArrayList<>();
+        for (int id = 3; id <= 120; id += 3) {
+            pullRequests.add(createPullRequestWithUpdatedAt(id, updatedAt.plusMinutes(id)));
+        }
+
+        List<TurboIssue> oneAtATime = existing;
+        for (TurboIssue issue : changed) {
+            oneAtATime = TurboIssue.reconcile(oneAtATime, Collections.singletonList(issue));
+        }
+        for (PullRequest pullRequest : pullRequests) {
+            oneAtATime = TurboIssue.combineWithPullRequests(oneAtATime, Collections.singletonList(pullRequest));
+        }
+
+        assertEquals(oneAtATime,
+                     TurboIssue.combineWithPullRequests(TurboIssue.reconcile(existing, changed), pullRequests));
+    }
 }
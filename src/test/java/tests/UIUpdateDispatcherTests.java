@@ -0,0 +1,58 @@
+package tests;
+
+import org.junit.Test;
+import ui.UIUpdateDispatcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class UIUpdateDispatcherTests {
+
+    /**
+     * Tests that only the latest update for each key is applied, in the order the keys were first submitted in
+     */
+    @Test
+    public void flush_updatesWithSameKey_onlyLatestApplied() {
+        AtomicInteger flushRequests = new AtomicInteger();
+        UIUpdateDispatcher dispatcher = new UIUpdateDispatcher(flushRequests::incrementAndGet);
+        List<String> applied = new ArrayList<>();
+
+        dispatcher.submit("status", () -> applied.add("status 1"));
+        dispatcher.submit("progress", () -> applied.add("progress 1"));
+        dispatcher.submit("status", () -> applied.add("status 2"));
+        dispatcher.submit("progress", () -> applied.add("progress 2"));
+        dispatcher.submit("status", () -> applied.add("status 3"));
+
+        assertEquals(1, flushRequests.get());
+        assertEquals(2, dispatcher.flush());
+        assertEquals(Arrays.asList("status 3", "progress 2"), applied);
+
+        // Nothing is pending until another update is submitted
+        assertEquals(0, dispatcher.flush());
+        dispatcher.submit("status", () -> applied.add("status 4"));
+        assertEquals(2, flushRequests.get());
+        assertEquals(1, dispatcher.flush());
+        assertEquals("status 4", applied.get(applied.size() - 1));
+    }
+
+    /**
+     * Tests that an update which fails does not prevent the others from being applied
+     */
+    @Test
+    public void flush_failingUpdate_otherUpdatesApplied() {
+        UIUpdateDispatcher dispatcher = new UIUpdateDispatcher(() -> {});
+        List<String> applied = new ArrayList<>();
+
+        dispatcher.submit("a", () -> {
+            throw new IllegalStateException("Failed update");
+        });
+        dispatcher.submit("b", () -> applied.add("b"));
+
+        assertEquals(2, dispatcher.flush());
+        assertEquals(Arrays.asList("b"), applied);
+    }
+}
@@ -0,0 +1,189 @@
+package tests;
+
+import backend.Logic;
+import backend.RepoIO;
+import backend.UIManager;
+import backend.UpdateController;
+import backend.resource.Model;
+import backend.resource.MultiModel;
+import backend.resource.TurboIssue;
+import filter.Parser;
+import filter.expression.FilterExpression;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import prefs.Preferences;
+import ui.GuiElement;
+import ui.TestController;
+import ui.UI;
+import ui.issuepanel.FilterPanel;
+import ui.components.StatusUIStub;
+import util.events.EventDispatcherStub;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class UpdateControllerTests {
+
+    private static final String REPO = "test/test";
+
+    private static final List<String> FILTERS = Arrays.asList(
+            "is:open",
+            "label:group1 || label:group2",
+            "-label:group3 sort:state",
+            "milestone:V0.2 sort:assignee,!id",
+            "assignee:user3 count:5",
+            "sort:group4");
+
+    private MultiModel models;
+    private UpdateController updateController;
+    private List<FilterExpression> filterExprs;
+
+    @BeforeClass
+    public static void setup() {
+        UI.events = new EventDispatcherStub();
+        UI.status = new StatusUIStub();
+    }
+
+    @Before
+    public void createUpdateController() {
+        Preferences prefs = TestController.createTestPreferences();
+        Model model = TestUtils.createLargeModel(REPO, 300, 40, 5, 10);
+        models = new MultiModel(prefs);
+        models.queuePendingRepository(REPO);
+        models.addPending(model);
+        models.setDefaultRepo(REPO);
+        Logic logic = new Logic(mock(UIManager.class), prefs, Optional.of(mock(RepoIO.class)), Optional.of(models));
+        updateController = logic.updateController;
+        filterExprs = FILTERS.stream().map(Parser::parse).collect(Collectors.toList());
+    }
+
+    @Test
+    public void processFilterChanges_issuesChanged_sameAsProcessFilters() {
+        updateController.processFilterChanges(filterExprs);
+
+        models.replaceIssueLabels(REPO, 1, Arrays.asList("group1.label1", "group3.label3"));
+        models.replaceIssueLabels(REPO, 2, new ArrayList<>());
+        models.editIssueState(REPO, 3, true);
+        models.editIssueState(REPO, 4, false);
+        models.replaceIssueAssignee(REPO, 5, Optional.of("user3"));
+        models.replaceIssueMilestone(REPO, 6, Optional.of(2));
+        models.replaceIssueMilestone(REPO, 7, Optional.empty());
+        assertProcessedIncrementally();
+
+        models.replaceIssueLabels(REPO, 10, Arrays.asList("group4.label4"));
+        models.editIssueState(REPO, 299, true);
+        assertProcessedIncrementally();
+    }
+
+    @Test
+    public void processFilterChanges_modelReplaced_sameAsProcessFilters() {
+        updateController.processFilterChanges(filterExprs);
+
+        // Replaces issue 8 with a copy that has new labels, as an update from the server would
+        Model model = models.getModelById(REPO).get();
+        List<TurboIssue> issues = new ArrayList<>(model.getIssues());
+        TurboIssue updatedIssue = new TurboIssue(issues.get(7));
+        updatedIssue.setLabels(Arrays.asList("group2.label2"));
+        issues.set(7, updatedIssue);
+        models.replace(new Model(REPO, issues, model.getLabels(), model.getMilestones(), model.getUsers()),
+                       new HashSet<>(Arrays.asList(8)));
+
+        assertProcessedIncrementally();
+    }
+
+    @Test
+    public void processFilterChanges_unchangedIssues_elementsReused() {
+        Map<FilterExpression, List<GuiElement>> before = updateController.processFilterChanges(filterExprs);
+        models.editIssueState(REPO, 1, true);
+        Map<FilterExpression, List<GuiElement>> after = updateController.processFilterChanges(filterExprs);
+
+        FilterExpression isOpen = filterExprs.get(0);
+        assertEquals(before.get(isOpen).size() + 1, after.get(isOpen).size());
+        GuiElement unchanged = before.get(isOpen).get(0);
+        assertSame(unchanged, after.get(isOpen).stream()
+                .filter(element -> element.getIssue() == unchanged.getIssue())
+                .findFirst().get());
+    }
+
+    /**
+     * Tests that the results of a panel's refresh are not shown once the panel has been refreshed again
+     */
+    @Test
+    public void processAndRefresh_panelRefreshedAgain_staleResultsDiscarded() throws InterruptedException {
+        FilterExpression first = filterExprs.get(0);
+        FilterExpression second = filterExprs.get(1);
+        FilterPanel panel = mock(FilterPanel.class);
+        when(panel.getCurrentFilterExpression()).thenReturn(first, second);
+
+        // The filter thread is held up while showing the first results, until the panel is refreshed again
+        CountDownLatch firstShown = new CountDownLatch(1);
+        CountDownLatch refreshedAgain = new CountDownLatch(1);
+        List<Set<FilterExpression>> shown = Collections.synchronizedList(new ArrayList<>());
+        UIManager uiManager = mock(UIManager.class);
+        doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            Map<FilterExpression, List<GuiElement>> elements =
+                    (Map<FilterExpression, List<GuiElement>>) invocation.getArguments()[0];
+            shown.add(elements.keySet());
+            firstShown.countDown();
+            refreshedAgain.await();
+            return null;
+        }).when(uiManager).update(any(), any(), any());
+        UpdateController controller = new Logic(uiManager, TestController.createTestPreferences(),
+                                                Optional.of(mock(RepoIO.class)), Optional.of(models)).updateController;
+
+        controller.processAndRefresh(Arrays.asList(panel));
+        firstShown.await();
+        controller.processAndRefresh(Arrays.asList(panel));
+        refreshedAgain.countDown();
+        controller.processAndRefresh(new ArrayList<>()).join();
+
+        // The first refresh is shown before it is superseded, but its remaining steps are not
+        assertEquals(Arrays.asList(Collections.singleton(first), Collections.singleton(second),
+                                   Collections.singleton(second)), shown);
+    }
+
+    /**
+     * Checks that processing the filters incrementally gives the same result as processing them in full.
+     */
+    private void assertProcessedIncrementally() {
+        // Incremental processing has to come first, as processing in full replaces the kept results
+        Map<FilterExpression, List<GuiElement>> incremental = updateController.processFilterChanges(filterExprs);
+        assertSameResults(updateController.processFilters(filterExprs), incremental);
+    }
+
+    private static void assertSameResults(Map<FilterExpression, List<GuiElement>> expected,
+                                          Map<FilterExpression, List<GuiElement>> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((filterExpr, elements) -> {
+            List<TurboIssue> expectedIssues = elements.stream()
+                    .map(GuiElement::getIssue)
+                    .collect(Collectors.toList());
+            List<TurboIssue> actualIssues = actual.get(filterExpr).stream()
+                    .map(GuiElement::getIssue)
+                    .collect(Collectors.toList());
+            assertEquals(filterExpr.toString(), expectedIssues, actualIssues);
+            for (int i = 0; i < elements.size(); i++) {
+                assertEquals(elements.get(i).getLabels(), actual.get(filterExpr).get(i).getLabels());
+                assertEquals(elements.get(i).getMilestone(), actual.get(filterExpr).get(i).getMilestone());
+                assertEquals(elements.get(i).getAssignee(), actual.get(filterExpr).get(i).getAssignee());
+            }
+        });
+    }
+}
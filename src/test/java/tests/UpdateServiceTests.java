@@ -1,20 +1,37 @@
 package tests;
 
 import github.GitHubClientEx;
+import github.update.LabelUpdateService;
 import github.update.MilestoneUpdateService;
 import github.update.PullRequestUpdateService;
 import github.update.UpdateService;
+import org.eclipse.egit.github.core.Label;
+import org.eclipse.egit.github.core.PullRequest;
 import org.eclipse.egit.github.core.RepositoryId;
 import org.junit.Test;
+import org.mockserver.client.server.MockServerClient;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.matchers.Times;
+import org.mockserver.model.Header;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.Parameter;
+import org.mockserver.verify.VerificationTimes;
+import util.Utility;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
 
 public class UpdateServiceTests {
+
+    private static final String DATE = "Sun, 27 Dec 2015 15:28:46 GMT";
+
     @Test
     public void testCombineEtags()
             throws NoSuchMethodException, SecurityException,
@@ -52,4 +69,160 @@ public class UpdateServiceTests {
         PullRequestUpdateService service = new PullRequestUpdateService(client, new Date());
         assertTrue(service.getUpdatedItems(RepositoryId.create("name", "nonexistentrepo")).isEmpty());
     }
+
+    /**
+     * Tests that LabelUpdateService makes a single pass over the pages of labels, requesting each page
+     * with its last ETag, instead of getting the ETags of all pages with HEAD requests before downloading
+     * them again with GET requests.
+     */
+    @Test
+    public void testGetUpdatedItemsSinglePass() {
+        MockServerClient mockServer = ClientAndServer.startClientAndServer(8888);
+        String path = TestUtils.API_PREFIX + "/repos/test/test/labels";
+        String nextLink = "<http://localhost:8888" + path + "?per_page=100&page=2>; rel=\"next\"";
+
+        mockServer.when(createLabelsRequest(path, 1).withHeader(new Header("If-None-Match", "\"label1\"")))
+                .respond(response().withStatusCode(304).withHeader("Date", DATE));
+        mockServer.when(createLabelsRequest(path, 1))
+                .respond(response().withHeader("ETag", "\"label1\"").withHeader("Link", nextLink)
+                                 .withHeader("Date", DATE).withBody("[{\"name\": \"a\"}]"));
+        mockServer.when(createLabelsRequest(path, 2).withHeader(new Header("If-None-Match", "\"label2\"")))
+                .respond(response().withStatusCode(304).withHeader("Date", DATE));
+        mockServer.when(createLabelsRequest(path, 2))
+                .respond(response().withHeader("ETag", "\"label2\"").withHeader("Date", DATE)
+                                 .withBody("[{\"name\": \"b\"}]"));
+
+        GitHubClientEx client = new GitHubClientEx("localhost", 8888, "http");
+        RepositoryId repoId = RepositoryId.createFromId("test/test");
+
+        // No known ETags: 2 requests, instead of 2 HEAD requests followed by 2 GET requests
+        LabelUpdateService service = new LabelUpdateService(client, "");
+        assertEquals(Arrays.asList("a", "b"), getNames(service.getUpdatedItems(repoId)));
+        assertEquals("label1#label2", service.getUpdatedETags());
+        assertEquals(Utility.parseHTTPLastModifiedDate(DATE), service.getUpdatedCheckTime());
+        assertRequestCount(mockServer, path, 2);
+
+        // No changes: 2 requests which are not modified, so do not count against the rate limit
+        service = new LabelUpdateService(client, "label1#label2");
+        assertTrue(service.getUpdatedItems(repoId).isEmpty());
+        assertEquals("label1#label2", service.getUpdatedETags());
+        assertRequestCount(mockServer, path, 4);
+
+        // Second page changed: the first page is not modified, but is downloaded again as all labels are needed
+        service = new LabelUpdateService(client, "label1#old");
+        assertEquals(Arrays.asList("a", "b"), getNames(service.getUpdatedItems(repoId)));
+        assertEquals("label1#label2", service.getUpdatedETags());
+        assertRequestCount(mockServer, path, 7);
+
+        mockServer.stop();
+    }
+
+    /**
+     * Tests that PullRequestUpdateService requests as many pull requests per page as it is given, and
+     * stops at the first page with a pull request that was not updated after the given time
+     */
+    @Test
+    public void testGetUpdatedPullRequestsFirstPageOnly() {
+        MockServerClient mockServer = ClientAndServer.startClientAndServer(8888);
+        String path = TestUtils.API_PREFIX + "/repos/test/test/pulls";
+        String nextLink = "<http://localhost:8888" + path + "?per_page=100&page=2>; rel=\"next\"";
+
+        mockServer.when(request().withMethod("GET").withPath(path)
+                                .withQueryStringParameters(new Parameter("per_page", "100"),
+                                                           new Parameter("page", "1")))
+                .respond(response().withHeader("Link", nextLink)
+                                 .withBody("[{\"number\": 2, \"updated_at\": \"2015-12-27T15:00:00Z\"}, " +
+                                                   "{\"number\": 1, \"updated_at\": \"2015-12-20T15:00:00Z\"}]"));
+        mockServer.when(request().withMethod("GET").withPath(path)
+                                .withQueryStringParameters(new Parameter("page", "2")))
+                .respond(response().withBody("[{\"number\": 3, \"updated_at\": \"2015-12-01T15:00:00Z\"}]"));
+
+        GitHubClientEx client = new GitHubClientEx("localhost", 8888, "http");
+        PullRequestUpdateService service = new PullRequestUpdateService(
+                client, Utility.parseHTTPLastModifiedDate("Fri, 25 Dec 2015 00:00:00 GMT"),
+                PullRequestUpdateService.MAX_PAGE_SIZE);
+
+        List<PullRequest> pullRequests = service.getUpdatedItems(RepositoryId.createFromId("test/test"));
+        assertEquals(1, pullRequests.size());
+        assertEquals(2, pullRequests.get(0).getNumber());
+        assertEquals(1, service.getRequestCount());
+        mockServer.verify(request().withPath(path), VerificationTimes.exactly(1));
+
+        mockServer.stop();
+    }
+
+    /**
+     * Tests that PullRequestUpdateService includes pull requests updated exactly at the given time, and
+     * skips pull requests shifted onto the next page after they were already retrieved
+     */
+    @Test
+    public void testGetUpdatedPullRequestsInclusiveNoDuplicates() {
+        MockServerClient mockServer = ClientAndServer.startClientAndServer(8888);
+        String path = TestUtils.API_PREFIX + "/repos/test/test/pulls";
+        String nextLink = "<http://localhost:8888" + path + "?per_page=100&page=2>; rel=\"next\"";
+
+        mockServer.when(request().withMethod("GET").withPath(path)
+                                .withQueryStringParameters(new Parameter("per_page", "100"),
+                                                           new Parameter("page", "1")))
+                .respond(response().withHeader("Link", nextLink)
+                                 .withBody("[{\"number\": 3, \"updated_at\": \"2015-12-27T15:00:00Z\"}, " +
+                                                   "{\"number\": 2, \"updated_at\": \"2015-12-25T00:00:00Z\"}]"));
+        mockServer.when(request().withMethod("GET").withPath(path)
+                                .withQueryStringParameters(new Parameter("page", "2")))
+                .respond(response().withBody("[{\"number\": 2, \"updated_at\": \"2015-12-25T00:00:00Z\"}, " +
+                                                     "{\"number\": 1, \"updated_at\": \"2015-12-01T15:00:00Z\"}]"));
+
+        GitHubClientEx client = new GitHubClientEx("localhost", 8888, "http");
+        PullRequestUpdateService service = new PullRequestUpdateService(
+                client, Utility.parseHTTPLastModifiedDate("Fri, 25 Dec 2015 00:00:00 GMT"),
+                PullRequestUpdateService.MAX_PAGE_SIZE);
+
+        List<PullRequest> pullRequests = service.getUpdatedItems(RepositoryId.createFromId("test/test"));
+        assertEquals(Arrays.asList(3, 2),
+                     pullRequests.stream().map(PullRequest::getNumber).collect(Collectors.toList()));
+        assertEquals(2, service.getRequestCount());
+
+        mockServer.stop();
+    }
+
+    /**
+     * Tests that the number of requests made by PullRequestUpdateService only counts those of the last update
+     */
+    @Test
+    public void testGetUpdatedPullRequestsRequestCountReset() {
+        MockServerClient mockServer = ClientAndServer.startClientAndServer(8888);
+        String path = TestUtils.API_PREFIX + "/repos/test/test/pulls";
+
+        mockServer.when(request().withMethod("GET").withPath(path), Times.once())
+                .respond(response().withStatusCode(500));
+        mockServer.when(request().withMethod("GET").withPath(path))
+                .respond(response().withBody("[{\"number\": 1, \"updated_at\": \"2015-12-27T15:00:00Z\"}]"));
+
+        GitHubClientEx client = new GitHubClientEx("localhost", 8888, "http");
+        PullRequestUpdateService service = new PullRequestUpdateService(
+                client, Utility.parseHTTPLastModifiedDate("Fri, 25 Dec 2015 00:00:00 GMT"));
+
+        assertTrue(service.getUpdatedItems(RepositoryId.createFromId("test/test")).isEmpty());
+        assertEquals(1, service.getRequestCount());
+
+        assertEquals(1, service.getUpdatedItems(RepositoryId.createFromId("test/test")).size());
+        assertEquals(1, service.getRequestCount());
+
+        mockServer.stop();
+    }
+
+    private static HttpRequest createLabelsRequest(String path, int page) {
+        return request().withMethod("GET").withPath(path)
+                .withQueryStringParameters(new Parameter("per_page", "100"),
+                                           new Parameter("page", String.valueOf(page)));
+    }
+
+    private static void assertRequestCount(MockServerClient mockServer, String path, int count) {
+        mockServer.verify(request().withMethod("GET").withPath(path), VerificationTimes.exactly(count));
+        mockServer.verify(request().withMethod("HEAD").withPath(path), VerificationTimes.exactly(0));
+    }
+
+    private static List<String> getNames(List<Label> labels) {
+        return labels.stream().map(Label::getName).collect(Collectors.toList());
+    }
 }